@@ -64,4 +64,28 @@ public class TraceableExecutorEngine {
                 new LinkedBlockingQueue<>(1024), threadFactory);
         return buildTraceableExecutorService(beanFactory, poolExecutor);
     }
+
+    /**
+     * 创建可以追踪调用链的虚拟线程执行框架，每个任务一个虚拟线程，限制最大并发数量；当前 JVM 不支持虚拟线程的时候，使用平台线程池
+     *
+     * @param beanFactory Spring BeanFactory
+     * @param maxConcurrency 最大并发数量，用于保护下游服务
+     * @return 可以追踪调用链的虚拟线程执行框架
+     * @see ExecutorEngine#buildVirtualThreadExecutor(int)
+     */
+    public static ExecutorEngine buildTraceableVirtualThreadExecutor(BeanFactory beanFactory, int maxConcurrency) {
+        ExecutorService delegate = ExecutorEngine
+                .buildVirtualThreadExecutorService("TraceableExecutorEngineVirtualThread-", maxConcurrency);
+        return buildTraceableExecutorService(beanFactory, delegate);
+    }
+
+    /**
+     * 创建可以追踪调用链的虚拟线程执行框架，最大并发数量为: {@link ExecutorEngine#DEFAULT_MAX_CONCURRENCY}
+     *
+     * @param beanFactory Spring BeanFactory
+     * @return 可以追踪调用链的虚拟线程执行框架
+     */
+    public static ExecutorEngine buildTraceableVirtualThreadExecutor(BeanFactory beanFactory) {
+        return buildTraceableVirtualThreadExecutor(beanFactory, ExecutorEngine.DEFAULT_MAX_CONCURRENCY);
+    }
 }
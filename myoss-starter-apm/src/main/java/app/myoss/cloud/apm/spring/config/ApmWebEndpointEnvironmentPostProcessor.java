@@ -92,6 +92,12 @@ public class ApmWebEndpointEnvironmentPostProcessor
             include.add("prometheus");
         }
 
+        if (ClassUtils.isPresent("app.myoss.cloud.cache.lock.metrics.LockHotKeysEndpoint", classLoader)) {
+            // 启用缓存锁热点 key endpoint
+            map.put("management.endpoint.lockhotkeys.enabled", "true");
+            include.add("lockhotkeys");
+        }
+
         // 暴露哪些 endpoints: org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointAutoConfiguration#webExposeExcludePropertyEndpointFilter
         map.put("management.endpoints.web.exposure.include", include);
         if (LOGGER.isInfoEnabled()) {
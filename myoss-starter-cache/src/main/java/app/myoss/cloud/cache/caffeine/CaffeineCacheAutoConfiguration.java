@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import app.myoss.cloud.cache.caffeine.metrics.MicrometerCaffeineCacheStatsFactory;
+import app.myoss.cloud.cache.constants.CacheConstants;
+import app.myoss.cloud.core.lang.serializer.Serialization;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caffeine 缓存自动配置，开启之后使用 {@link CaffeineCacheManagerWrap} 代替 Spring Boot 默认的 {@link CacheManager}，
+ * 支持给单个缓存配置数量/内存上限、TTL、TTI、refreshAfterWrite / stale-while-revalidate / stale-if-error
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午7:06:18
+ */
+@AutoConfigureAfter(name = { "org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration" })
+@AutoConfigureBefore(CacheAutoConfiguration.class)
+@EnableConfigurationProperties(CaffeineCacheProperties.class)
+@ConditionalOnProperty(prefix = CacheConstants.CAFFEINE_CONFIG_PREFIX, name = "enabled", havingValue = "true")
+@ConditionalOnClass(Caffeine.class)
+@Configuration
+public class CaffeineCacheAutoConfiguration {
+    /**
+     * 初始化 Caffeine 缓存管理器
+     *
+     * @param properties Caffeine 缓存的配置
+     * @param weigher 自定义的缓存值内存估算方式，默认使用 {@link SerializedSizeWeigher}
+     * @param serialization 自定义的堆外缓存值序列化方式，默认使用 Java 序列化
+     * @param statsFactory 缓存的统计计数器工厂，用于导出缓存的指标
+     * @return Caffeine 缓存管理器
+     */
+    @ConditionalOnMissingBean(CacheManager.class)
+    @Bean
+    public CaffeineCacheManagerWrap cacheManager(CaffeineCacheProperties properties,
+                                                 ObjectProvider<Weigher<Object, Object>> weigher,
+                                                 ObjectProvider<Serialization<Object>> serialization,
+                                                 ObjectProvider<CaffeineCacheStatsFactory> statsFactory) {
+        CaffeineCacheManagerWrap cacheManager = new CaffeineCacheManagerWrap();
+        cacheManager.setAllowNullValues(properties.isAllowNullValues());
+        cacheManager.setRefreshThreads(properties.getRefreshThreads());
+        cacheManager.setRefreshQueueCapacity(properties.getRefreshQueueCapacity());
+        cacheManager.setOffHeapCapacity(properties.getOffHeapCapacity().toBytes());
+        cacheManager.setOffHeapSlabSize((int) properties.getOffHeapSlabSize().toBytes());
+        weigher.ifAvailable(cacheManager::setWeigher);
+        serialization.ifUnique(cacheManager::setOffHeapSerialization);
+        cacheManager.setRecordStats(properties.isRecordStats());
+        statsFactory.ifUnique(cacheManager::setStatsFactory);
+        cacheManager.setCacheConfigs(properties.getCaches());
+        if (StringUtils.hasText(properties.getSpec())) {
+            cacheManager.setCacheSpecification(properties.getSpec());
+        }
+        return cacheManager;
+    }
+
+    /**
+     * 存在 Micrometer MeterRegistry 的时候，导出每一个缓存的指标
+     */
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    @Configuration
+    public static class CaffeineCacheMetricsConfiguration {
+        /**
+         * 使用 Micrometer 导出 Caffeine 缓存的指标
+         *
+         * @param registry Micrometer MeterRegistry
+         * @return 缓存的统计计数器工厂
+         */
+        @ConditionalOnProperty(prefix = CacheConstants.CAFFEINE_CONFIG_PREFIX, name = "record-stats",
+                havingValue = "true", matchIfMissing = true)
+        @ConditionalOnBean(MeterRegistry.class)
+        @ConditionalOnMissingBean(CaffeineCacheStatsFactory.class)
+        @Bean
+        public MicrometerCaffeineCacheStatsFactory micrometerCaffeineCacheStatsFactory(MeterRegistry registry) {
+            return new MicrometerCaffeineCacheStatsFactory(registry);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine;
+
+import java.time.Duration;
+
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+/**
+ * 单个 Caffeine 缓存的配置
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午6:40:21
+ */
+@Data
+public class CaffeineCacheConfig {
+    /**
+     * 缓存的配置，参考 {@link com.github.benmanes.caffeine.cache.CaffeineSpec}；设置了 {@link #refreshAfterWrite}
+     * 的时候，不能再配置 expireAfterWrite，过期时间由下面的几个时间窗口计算
+     */
+    private String   caffeineSpec;
+    /**
+     * 最多保存的缓存数量
+     */
+    private Long     maximumSize;
+    /**
+     * 最多占用的内存（比如 64MB），使用 {@link CaffeineCacheManagerWrap#getWeigher()} 估算每个缓存值占用的内存，不能和
+     * {@link #maximumSize} 同时设置
+     */
+    private DataSize maximumWeight;
+    /**
+     * 写入之后多久过期（TTL），设置了 {@link #refreshAfterWrite} 的时候不生效
+     */
+    private Duration expireAfterWrite;
+    /**
+     * 最后一次访问之后多久过期（TTI）
+     */
+    private Duration expireAfterAccess;
+    /**
+     * 写入之后多久开始刷新：在这之前缓存值是新鲜的，直接返回
+     */
+    private Duration refreshAfterWrite;
+    /**
+     * 超过 {@link #refreshAfterWrite} 之后的这段时间内，先返回旧值，同时在后台线程中异步刷新（stale-while-revalidate）；超过之后同步加载
+     */
+    private Duration staleWhileRevalidate = Duration.ZERO;
+    /**
+     * 同步加载失败的时候，在这段时间内继续返回旧值（stale-if-error）
+     */
+    private Duration staleIfError         = Duration.ZERO;
+    /**
+     * 序列化之后不小于这个大小（比如 16KB）的缓存值保存到堆外内存中，为 null 的时候不使用堆外内存，参考
+     * {@link CaffeineCacheManagerWrap#getOffHeapCapacity()}
+     */
+    private DataSize offHeapThreshold;
+
+    /**
+     * 是否开启了刷新
+     *
+     * @return true：开启了刷新
+     */
+    public boolean isRefreshEnabled() {
+        return refreshAfterWrite != null && !refreshAfterWrite.isZero() && !refreshAfterWrite.isNegative();
+    }
+
+    /**
+     * 缓存值最长保存的时间：refreshAfterWrite + staleWhileRevalidate + staleIfError
+     *
+     * @return 缓存值最长保存的时间
+     */
+    public Duration getMaxStaleTime() {
+        return refreshAfterWrite.plus(nonNull(staleWhileRevalidate)).plus(nonNull(staleIfError));
+    }
+
+    /**
+     * 是否开启了堆外存储
+     *
+     * @return true：开启了堆外存储
+     */
+    public boolean isOffHeapEnabled() {
+        return offHeapThreshold != null;
+    }
+
+    private static Duration nonNull(Duration duration) {
+        return (duration != null ? duration : Duration.ZERO);
+    }
+}
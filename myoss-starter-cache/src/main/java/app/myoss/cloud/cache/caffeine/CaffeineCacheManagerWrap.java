@@ -17,19 +17,318 @@
 
 package app.myoss.cloud.cache.caffeine;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.cache.Cache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import app.myoss.cloud.cache.invalidation.CacheInvalidationPublisher;
+import app.myoss.cloud.cache.lock.LockService;
+import app.myoss.cloud.cache.support.SingleFlightLoader;
+import app.myoss.cloud.cache.twolevel.CacheInvalidationMessage;
+import app.myoss.cloud.core.lang.serializer.Serialization;
+import app.myoss.cloud.core.lang.serializer.impl.JdkSerialization;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
 /**
  * {@link CaffeineCacheManager} 包装类
+ * <p>
+ * 可以通过 {@link #setCacheConfigs(Map)} 给单个缓存设置不同的配置（数量/内存上限、TTL、TTI、刷新），开启了 refreshAfterWrite
+ * 的缓存使用 {@link RefreshableCaffeineCache}，设置了 offHeapThreshold 的缓存将大的缓存值保存到堆外内存中；需要在
+ * {@link #setCacheNames} 之前设置
+ * <p>
+ * 设置了 {@link #setInvalidationPublisher(CacheInvalidationPublisher)} 之后，删除、清空缓存会通知其它实例，
+ * 其它实例收到通知之后调用 {@link #onInvalidation(CacheInvalidationMessage)} 删除本机的缓存
+ * <p>
+ * 默认给每个缓存开启统计，设置了 {@link #setStatsFactory(CaffeineCacheStatsFactory)} 之后，可以把统计数据导出到监控系统
  *
  * @author Jerry.Chen
  * @since 2018年5月23日 上午1:06:51
  */
-public class CaffeineCacheManagerWrap extends CaffeineCacheManager {
+@Getter
+@Setter
+public class CaffeineCacheManagerWrap extends CaffeineCacheManager implements DisposableBean {
+    /**
+     * 刷新线程池默认的线程数量
+     */
+    public static final int                  DEFAULT_REFRESH_THREADS        = 4;
+    /**
+     * 刷新线程池默认的队列长度
+     */
+    public static final int                  DEFAULT_REFRESH_QUEUE_CAPACITY = 1000;
+    /**
+     * 堆外内存默认的总大小：256MB
+     */
+    public static final long                 DEFAULT_OFF_HEAP_CAPACITY      = 256L * 1024 * 1024;
+
+    /**
+     * 分布式 single-flight 使用的缓存锁服务，为 null 的时候只合并本机的并发加载
+     */
+    private LockService                      lockService;
+    /**
+     * 单个缓存的配置，key 为缓存的名字
+     */
+    private Map<String, CaffeineCacheConfig> cacheConfigs                   = new HashMap<>();
+    /**
+     * 设置了 {@link CaffeineCacheConfig#getMaximumWeight()} 的缓存，估算缓存值占用内存的方式，默认为:
+     * {@link SerializedSizeWeigher}
+     */
+    private Weigher<Object, Object>          weigher                        = new SerializedSizeWeigher();
+    /**
+     * 异步刷新的线程池，为 null 的时候使用一个有界的默认线程池，线程池满了之后放弃刷新
+     */
+    private Executor                         refreshExecutor;
+    /**
+     * 默认刷新线程池的线程数量
+     */
+    private int                              refreshThreads                 = DEFAULT_REFRESH_THREADS;
+    /**
+     * 默认刷新线程池的队列长度
+     */
+    private int                              refreshQueueCapacity           = DEFAULT_REFRESH_QUEUE_CAPACITY;
+    /**
+     * 所有缓存共用的堆外内存的总大小（字节），只有设置了 {@link CaffeineCacheConfig#getOffHeapThreshold()} 的缓存才会使用
+     */
+    private long                             offHeapCapacity                = DEFAULT_OFF_HEAP_CAPACITY;
+    /**
+     * 堆外内存每个 slab 的大小（字节），也是能保存到堆外内存的最大的缓存值
+     */
+    private int                              offHeapSlabSize                = OffHeapSlabAllocator.DEFAULT_SLAB_SIZE;
+    /**
+     * 保存到堆外内存的缓存值的序列化方式
+     */
+    private Serialization<Object>            offHeapSerialization           = new JdkSerialization();
+    /**
+     * 是否记录缓存的统计数据（命中、淘汰、加载耗时），默认为: true；通过 {@link #setCaffeine(Caffeine)}
+     * 设置的默认配置不受影响，由调用方自己决定
+     */
+    private boolean                          recordStats                    = true;
+    /**
+     * 创建缓存的统计计数器，比如导出到 Micrometer；为 null 的时候只使用 Caffeine 自己的统计
+     */
+    private CaffeineCacheStatsFactory        statsFactory;
+    /**
+     * 删除、清空缓存之后通知其它实例删除本机的缓存，为 null 的时候不通知
+     */
+    @Setter(AccessLevel.NONE)
+    private CacheInvalidationPublisher       invalidationPublisher;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ThreadPoolExecutor               defaultRefreshExecutor;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String                           defaultCacheSpecification;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean                          customCaffeine;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private CacheLoader<Object, Object>      cacheLoader;
+    /**
+     * 所有缓存共用的堆外内存分配器，第一个开启了堆外存储的缓存创建的时候初始化，可以用来查看堆外内存的使用情况
+     */
+    @Setter(AccessLevel.NONE)
+    private OffHeapSlabAllocator             offHeapAllocator;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<String, OffHeapStore>  offHeapStores                  = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<String, StatsCounter>  statsCounters                  = new ConcurrentHashMap<>();
+
     @Override
     protected Cache createCaffeineCache(String name) {
-        return new app.myoss.cloud.cache.caffeine.CaffeineCacheWrap(name, createNativeCaffeineCache(name),
-                isAllowNullValues());
+        CaffeineCacheConfig config = cacheConfigs.get(name);
+        CaffeineCacheWrap cache;
+        if (config != null && config.isRefreshEnabled()) {
+            cache = new RefreshableCaffeineCache(name, createNativeCaffeineCache(name), isAllowNullValues(), config,
+                    getOrCreateRefreshExecutor());
+        } else {
+            cache = new app.myoss.cloud.cache.caffeine.CaffeineCacheWrap(name, createNativeCaffeineCache(name),
+                    isAllowNullValues());
+        }
+        cache.setSingleFlightLoader(createSingleFlightLoader(name));
+        cache.setOffHeapStore(offHeapStores.get(name));
+        cache.setStatsCounter(statsCounters.get(name));
+        cache.setInvalidationPublisher(invalidationPublisher);
+        return cache;
+    }
+
+    /**
+     * 设置缓存失效通知的发布者，已经创建的缓存也会一起设置
+     *
+     * @param invalidationPublisher 缓存失效通知的发布者
+     */
+    public void setInvalidationPublisher(CacheInvalidationPublisher invalidationPublisher) {
+        this.invalidationPublisher = invalidationPublisher;
+        for (String name : getCacheNames()) {
+            Cache cache = getCache(name);
+            if (cache instanceof CaffeineCacheWrap) {
+                ((CaffeineCacheWrap) cache).setInvalidationPublisher(invalidationPublisher);
+            }
+        }
+    }
+
+    /**
+     * 收到其它实例的失效通知之后，删除本机对应的缓存；还没有创建的缓存不需要处理
+     *
+     * @param message 失效通知
+     */
+    public void onInvalidation(CacheInvalidationMessage message) {
+        if (!getCacheNames().contains(message.getCacheName())) {
+            return;
+        }
+        Cache cache = getCache(message.getCacheName());
+        if (cache instanceof CaffeineCacheWrap) {
+            ((CaffeineCacheWrap) cache).evictLocal(message.getKey());
+        }
+    }
+
+    @Override
+    public void setCacheSpecification(String cacheSpecification) {
+        this.defaultCacheSpecification = cacheSpecification;
+        this.customCaffeine = false;
+        super.setCacheSpecification(cacheSpecification);
+    }
+
+    @Override
+    public void setCaffeineSpec(CaffeineSpec caffeineSpec) {
+        this.defaultCacheSpecification = caffeineSpec.toParsableString();
+        this.customCaffeine = false;
+        super.setCaffeineSpec(caffeineSpec);
+    }
+
+    @Override
+    public void setCaffeine(Caffeine<Object, Object> caffeine) {
+        this.customCaffeine = true;
+        super.setCaffeine(caffeine);
+    }
+
+    @Override
+    public void setCacheLoader(CacheLoader<Object, Object> cacheLoader) {
+        this.cacheLoader = cacheLoader;
+        super.setCacheLoader(cacheLoader);
+    }
+
+    @Override
+    protected com.github.benmanes.caffeine.cache.Cache<Object, Object> createNativeCaffeineCache(String name) {
+        CaffeineCacheConfig config = cacheConfigs.get(name);
+        if (config == null && (!recordStats || customCaffeine)) {
+            return super.createNativeCaffeineCache(name);
+        }
+        String spec = (config != null ? config.getCaffeineSpec() : defaultCacheSpecification);
+        CaffeineSpec caffeineSpec = (spec != null ? CaffeineSpec.parse(spec) : null);
+        Caffeine<Object, Object> builder = (caffeineSpec != null ? Caffeine.from(caffeineSpec) : Caffeine.newBuilder());
+        if (config != null) {
+            applyCacheConfig(name, config, builder);
+        }
+        // 配置中已经开启了 recordStats 的时候，不能再设置一次
+        boolean statsEnabled = recordStats && (caffeineSpec == null || !isRecordStats(caffeineSpec));
+        if (statsEnabled) {
+            StatsCounter statsCounter = (statsFactory != null ? statsFactory.createStatsCounter(name)
+                    : new ConcurrentStatsCounter());
+            statsCounters.put(name, statsCounter);
+            builder.recordStats(() -> statsCounter);
+        }
+        // 和 CaffeineCacheManager 一样，设置了 CacheLoader 的时候创建 LoadingCache
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = (cacheLoader != null
+                ? builder.build(cacheLoader)
+                : builder.build());
+        if (statsEnabled && statsFactory != null) {
+            statsFactory.onCacheCreated(name, cache);
+        }
+        return cache;
+    }
+
+    private static boolean isRecordStats(CaffeineSpec caffeineSpec) {
+        // CaffeineSpec 的配置项使用 "," 分隔，recordStats 没有值
+        for (String option : caffeineSpec.toParsableString().split(",")) {
+            if ("recordStats".equals(option.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void applyCacheConfig(String name, CaffeineCacheConfig config, Caffeine<Object, Object> builder) {
+        if (config.getMaximumSize() != null) {
+            builder.maximumSize(config.getMaximumSize());
+        }
+        if (config.getMaximumWeight() != null) {
+            builder.maximumWeight(config.getMaximumWeight().toBytes()).weigher(weigher);
+        }
+        if (config.isRefreshEnabled()) {
+            builder.expireAfterWrite(config.getMaxStaleTime().toNanos(), TimeUnit.NANOSECONDS);
+        } else if (config.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(config.getExpireAfterWrite().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (config.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(config.getExpireAfterAccess().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (config.isOffHeapEnabled()) {
+            // 缓存被 Caffeine 移除的时候（过期、淘汰、覆盖、删除），同时释放堆外内存
+            OffHeapStore offHeapStore = new OffHeapStore(getOrCreateOffHeapAllocator(), offHeapSerialization,
+                    (int) config.getOffHeapThreshold().toBytes());
+            offHeapStores.put(name, offHeapStore);
+            builder.removalListener((key, value, cause) -> offHeapStore.release(value));
+        }
+    }
+
+    private synchronized Executor getOrCreateRefreshExecutor() {
+        if (refreshExecutor != null) {
+            return refreshExecutor;
+        }
+        if (defaultRefreshExecutor == null) {
+            defaultRefreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(refreshQueueCapacity),
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("MyOSSCloud-Cache-Refresh-%d").build());
+        }
+        return defaultRefreshExecutor;
+    }
+
+    private synchronized OffHeapSlabAllocator getOrCreateOffHeapAllocator() {
+        if (offHeapAllocator == null) {
+            offHeapAllocator = new OffHeapSlabAllocator(offHeapCapacity, offHeapSlabSize);
+        }
+        return offHeapAllocator;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (defaultRefreshExecutor != null) {
+            defaultRefreshExecutor.shutdown();
+        }
+        if (offHeapAllocator != null) {
+            offHeapAllocator.close();
+        }
+    }
+
+    /**
+     * 创建缓存的 single-flight 加载器
+     *
+     * @param name 缓存的名字
+     * @return single-flight 加载器
+     */
+    protected SingleFlightLoader createSingleFlightLoader(String name) {
+        SingleFlightLoader singleFlightLoader = new SingleFlightLoader();
+        singleFlightLoader.setLockService(lockService);
+        return singleFlightLoader;
     }
 }
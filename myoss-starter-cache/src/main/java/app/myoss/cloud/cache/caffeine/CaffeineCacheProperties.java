@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import app.myoss.cloud.cache.constants.CacheConstants;
+import lombok.Data;
+
+/**
+ * Caffeine 缓存的配置
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午7:02:44
+ */
+@Data
+@ConfigurationProperties(prefix = CacheConstants.CAFFEINE_CONFIG_PREFIX)
+public class CaffeineCacheProperties {
+    /**
+     * 是否使用 {@link CaffeineCacheManagerWrap} 作为默认的缓存管理器，默认为: false
+     */
+    private boolean                          enabled;
+    /**
+     * 所有缓存默认的配置，参考 {@link com.github.benmanes.caffeine.cache.CaffeineSpec}
+     */
+    private String                           spec;
+    /**
+     * 是否允许缓存 null 值，默认为: true
+     */
+    private boolean                          allowNullValues      = true;
+    /**
+     * 是否记录缓存的统计数据，存在 Micrometer MeterRegistry 的时候导出为 myoss.cache.* 指标，默认为: true
+     */
+    private boolean                          recordStats          = true;
+    /**
+     * 刷新线程池的线程数量，默认为: 4
+     */
+    private int                              refreshThreads       = 4;
+    /**
+     * 刷新线程池的队列长度，默认为: 1000
+     */
+    private int                              refreshQueueCapacity = 1000;
+    /**
+     * 所有缓存共用的堆外内存的总大小，默认为: 256MB
+     */
+    private DataSize                         offHeapCapacity      = DataSize.ofMegabytes(256);
+    /**
+     * 堆外内存每个 slab 的大小，也是能保存到堆外内存的最大的缓存值，默认为: 4MB
+     */
+    private DataSize                         offHeapSlabSize      = DataSize.ofMegabytes(4);
+    /**
+     * 单个缓存的配置，key 为缓存的名字
+     */
+    private Map<String, CaffeineCacheConfig> caches               = new LinkedHashMap<>();
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+/**
+ * 创建 Caffeine 缓存的统计计数器，用于把 {@link CaffeineCacheManagerWrap} 创建的每一个缓存的统计数据导出到监控系统
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午10:05:14
+ */
+public interface CaffeineCacheStatsFactory {
+    /**
+     * 创建缓存的统计计数器，每个缓存创建的时候调用一次
+     *
+     * @param cacheName 缓存的名字
+     * @return 统计计数器
+     */
+    StatsCounter createStatsCounter(String cacheName);
+
+    /**
+     * 缓存创建完成之后调用，可以用来注册缓存数量、占用内存等指标
+     *
+     * @param cacheName 缓存的名字
+     * @param cache Caffeine 缓存
+     */
+    default void onCacheCreated(String cacheName, Cache<Object, Object> cache) {
+    }
+}
@@ -17,16 +17,66 @@
 
 package app.myoss.cloud.cache.caffeine;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
 import org.springframework.cache.support.NullValue;
 
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+import app.myoss.cloud.cache.invalidation.CacheInvalidationPublisher;
+import app.myoss.cloud.cache.support.BatchCache;
+import app.myoss.cloud.cache.support.SingleFlightLoader;
+import lombok.Getter;
+import lombok.Setter;
+
 /**
  * Caffeine Cache包装类, Caffeine Cache不允许保存null值，会将 {@code null} 值转换为
  * {@link NullValue#INSTANCE} 放进缓存中，这样后续的操作就不会进入到缓存中
+ * <p>
+ * {@link #get(Object, Callable)} 使用 {@link SingleFlightLoader} 合并同一个 key 的并发加载，缓存过期之后只有一个线程去加载
+ * <p>
+ * 设置了 {@link #setOffHeapStore(OffHeapStore)} 之后，大的缓存值保存到堆外内存中，读取的时候再反序列化到堆内
+ * <p>
+ * 设置了 {@link #setInvalidationPublisher(CacheInvalidationPublisher)} 之后，删除、清空缓存会通知其它实例删除本机的缓存
+ * <p>
+ * 实现了 {@link BatchCache}，批量读取的时候一次查询 Caffeine 缓存，未命中的 key 合并为一次批量加载
  *
  * @author Jerry.Chen
  * @since 2018年5月23日 上午1:06:17
  */
-public class CaffeineCacheWrap extends org.springframework.cache.caffeine.CaffeineCache {
+public class CaffeineCacheWrap extends org.springframework.cache.caffeine.CaffeineCache implements BatchCache {
+    /**
+     * 合并同一个 key 的并发加载
+     */
+    @Getter
+    @Setter
+    private SingleFlightLoader         singleFlightLoader = new SingleFlightLoader();
+    /**
+     * 堆外存储，为 null 的时候全部保存在堆内
+     */
+    @Getter
+    @Setter
+    private OffHeapStore               offHeapStore;
+    /**
+     * 缓存的统计计数器，用于记录加载的耗时；为 null 的时候不记录
+     */
+    @Getter
+    @Setter
+    private StatsCounter               statsCounter;
+    /**
+     * 删除、清空缓存之后通知其它实例删除本机的缓存，为 null 的时候不通知
+     */
+    @Getter
+    @Setter
+    private CacheInvalidationPublisher invalidationPublisher;
+
     /**
      * Create a {@link com.github.benmanes.caffeine.cache.Cache} instance with
      * the specified name and the given internal
@@ -64,4 +114,254 @@ public class CaffeineCacheWrap extends org.springframework.cache.caffeine.Caffei
             super.put(key, value);
         }
     }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        publishInvalidation(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = super.evictIfPresent(key);
+        publishInvalidation(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        publishInvalidation(null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = super.invalidate();
+        publishInvalidation(null);
+        return notEmpty;
+    }
+
+    /**
+     * 收到其它实例的失效通知之后，只删除本机的缓存，不再发出通知
+     *
+     * @param key 缓存 key，为 null 的时候清空缓存
+     */
+    public void evictLocal(Object key) {
+        if (key == null) {
+            getNativeCache().invalidateAll();
+        } else {
+            getNativeCache().invalidate(key);
+        }
+    }
+
+    private void publishInvalidation(Object key) {
+        if (invalidationPublisher != null) {
+            invalidationPublisher.publish(getName(), key);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object storeValue = lookup(key);
+        if (storeValue == null) {
+            storeValue = load(key, valueLoader);
+        }
+        return (T) fromStoreValue(storeValue);
+    }
+
+    /**
+     * 缓存未命中的时候，使用 {@link SingleFlightLoader} 加载缓存值并写入缓存
+     *
+     * @param key 缓存的 key
+     * @param valueLoader 加载函数
+     * @return 缓存中保存的值（堆内）
+     */
+    protected Object load(Object key, Callable<?> valueLoader) {
+        return singleFlightLoader.load(getName(), key, () -> peek(key), () -> {
+            Object value = callLoader(key, valueLoader);
+            if (value == null && !isAllowNullValues()) {
+                return null;
+            }
+            Object result = toStoreValue(value);
+            getNativeCache().put(key, result);
+            if (offHeapStore == null) {
+                return result;
+            }
+            // 返回堆内的值，不再从堆外内存中读取一次
+            return (value != null ? value : NullValue.INSTANCE);
+        });
+    }
+
+    /**
+     * 加载之前再次检查缓存，不记录命中/未命中的统计（一次未命中只在 {@link #lookup(Object)} 中记录一次）
+     *
+     * @param key 缓存的 key
+     * @return 缓存中保存的值（堆内），没有缓存的时候返回 null
+     */
+    protected Object peek(Object key) {
+        Object storeValue = getNativeCache().asMap().get(key);
+        return (offHeapStore != null ? offHeapStore.resolve(storeValue) : storeValue);
+    }
+
+    /**
+     * 调用加载函数，并记录加载的耗时
+     *
+     * @param key 缓存的 key
+     * @param valueLoader 加载函数
+     * @param <T> 缓存值的泛型
+     * @return 加载的缓存值
+     */
+    protected <T> T callLoader(Object key, Callable<T> valueLoader) {
+        long begin = System.nanoTime();
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            if (statsCounter != null) {
+                statsCounter.recordLoadFailure(System.nanoTime() - begin);
+            }
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        if (statsCounter != null) {
+            statsCounter.recordLoadSuccess(System.nanoTime() - begin);
+        }
+        return value;
+    }
+
+    @Override
+    public Map<Object, Object> getAllPresent(Collection<?> keys) {
+        Map<Object, Object> present = lookupAll(keys);
+        Map<Object, Object> result = new LinkedHashMap<>(present.size() * 4 / 3 + 1);
+        for (Object key : keys) {
+            Object storeValue = present.get(key);
+            Object value = (storeValue != null ? fromStoreValue(storeValue) : null);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <K, V> Map<K, V> getAll(Collection<? extends K> keys,
+                                   Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> batchLoader) {
+        Map<Object, Object> present = lookupAll(keys);
+        Set<K> missing = new LinkedHashSet<>();
+        for (K key : keys) {
+            if (!present.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        Map<? extends K, ? extends V> loaded = (missing.isEmpty() ? null : loadAll(missing, batchLoader));
+        Map<Object, Object> storeValues = new HashMap<>(missing.size() * 4 / 3 + 1);
+        Map<K, V> result = new LinkedHashMap<>(keys.size() * 4 / 3 + 1);
+        for (K key : keys) {
+            Object value;
+            if (missing.contains(key)) {
+                value = (loaded != null ? loaded.get(key) : null);
+                if (value != null || isAllowNullValues()) {
+                    storeValues.put(key, toStoreValue(value));
+                }
+            } else {
+                value = fromStoreValue(present.get(key));
+            }
+            if (value != null) {
+                result.put(key, (V) value);
+            }
+        }
+        if (!storeValues.isEmpty()) {
+            getNativeCache().putAll(storeValues);
+        }
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> values) {
+        Map<Object, Object> storeValues = new HashMap<>(values.size() * 4 / 3 + 1);
+        values.forEach((key, value) -> {
+            if (value != null || isAllowNullValues()) {
+                storeValues.put(key, toStoreValue(value));
+            }
+        });
+        getNativeCache().putAll(storeValues);
+    }
+
+    /**
+     * 批量从 Caffeine 缓存中获取缓存值，保存在堆外内存中的值会被读取到堆内
+     *
+     * @param keys 缓存 key 集合
+     * @return 缓存中存在的 key 和缓存值
+     */
+    protected Map<Object, Object> lookupAll(Collection<?> keys) {
+        Map<Object, Object> present = getNativeCache().getAllPresent(keys);
+        if (offHeapStore == null || present.isEmpty()) {
+            return present;
+        }
+        Map<Object, Object> result = new HashMap<>(present.size() * 4 / 3 + 1);
+        present.forEach((key, storeValue) -> {
+            Object value = offHeapStore.resolve(storeValue);
+            if (value != null) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 调用批量加载函数，并记录加载的耗时
+     *
+     * @param missing 未命中的 key 集合
+     * @param batchLoader 批量加载函数
+     * @param <K> 缓存 key 的泛型
+     * @param <V> 缓存值的泛型
+     * @return 加载的 key 和缓存值
+     */
+    protected <K, V> Map<? extends K, ? extends V> loadAll(
+            Set<K> missing, Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> batchLoader) {
+        long begin = System.nanoTime();
+        Map<? extends K, ? extends V> loaded;
+        try {
+            loaded = batchLoader.apply(missing);
+        } catch (RuntimeException ex) {
+            if (statsCounter != null) {
+                statsCounter.recordLoadFailure(System.nanoTime() - begin);
+            }
+            throw ex;
+        }
+        if (statsCounter != null) {
+            statsCounter.recordLoadSuccess(System.nanoTime() - begin);
+        }
+        return loaded;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        // LoadingCache 的时候由父类调用 CacheLoader 加载
+        Object storeValue = super.lookup(key);
+        return (offHeapStore != null ? offHeapStore.resolve(storeValue) : storeValue);
+    }
+
+    /**
+     * 从 Caffeine 缓存中获取缓存值，保存在堆外内存中的值会被读取到堆内
+     *
+     * @param key 缓存的 key
+     * @return 缓存值，没有缓存的时候返回 null
+     */
+    protected Object getStoreValue(Object key) {
+        Object storeValue = getNativeCache().getIfPresent(key);
+        return (offHeapStore != null ? offHeapStore.resolve(storeValue) : storeValue);
+    }
+
+    @Override
+    protected Object toStoreValue(Object userValue) {
+        Object storeValue = super.toStoreValue(userValue);
+        return (offHeapStore != null ? offHeapStore.store(storeValue) : storeValue);
+    }
+
+    @Override
+    protected Object fromStoreValue(Object storeValue) {
+        return super.fromStoreValue(offHeapStore != null ? offHeapStore.resolve(storeValue) : storeValue);
+    }
 }
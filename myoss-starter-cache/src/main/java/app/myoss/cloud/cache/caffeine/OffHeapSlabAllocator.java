@@ -0,0 +1,219 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+
+/**
+ * 堆外内存 slab 分配器，用于保存序列化之后的大缓存值，减少老年代的占用和 GC 停顿
+ * <p>
+ * 堆外内存按照 {@link #getSlabSize()} 分成多个 slab（direct {@link ByteBuffer}），每个 slab 只属于一个大小级别（64B、128B、256B
+ * ... slabSize），切分成相同大小的块；释放的块放回所属级别的空闲队列中复用，已经分配的 slab 不会归还，总大小不超过
+ * {@link #getCapacity()}
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午7:52:18
+ */
+public class OffHeapSlabAllocator implements AutoCloseable {
+    /**
+     * 默认的 slab 大小：4MB
+     */
+    public static final int            DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+    /**
+     * 最小的块大小
+     */
+    public static final int            MIN_CHUNK_SIZE    = 64;
+
+    /**
+     * 堆外内存的总大小（字节）
+     */
+    @Getter
+    private final long                 capacity;
+    /**
+     * 每个 slab 的大小（字节），也是能保存的最大的缓存值
+     */
+    @Getter
+    private final int                  slabSize;
+    private final SizeClass[]          sizeClasses;
+    private final List<ByteBuffer>     slabs             = new ArrayList<>();
+    private final AtomicLong           usedBytes         = new AtomicLong();
+    private volatile boolean           closed;
+
+    /**
+     * 创建堆外内存 slab 分配器，使用默认的 slab 大小
+     *
+     * @param capacity 堆外内存的总大小（字节）
+     */
+    public OffHeapSlabAllocator(long capacity) {
+        this(capacity, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * 创建堆外内存 slab 分配器
+     *
+     * @param capacity 堆外内存的总大小（字节）
+     * @param slabSize 每个 slab 的大小（字节），会调整为 2 的幂
+     */
+    public OffHeapSlabAllocator(long capacity, int slabSize) {
+        if (capacity <= 0 || slabSize < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("capacity must be positive and slabSize must be >= " + MIN_CHUNK_SIZE);
+        }
+        this.capacity = capacity;
+        this.slabSize = Integer.highestOneBit(slabSize);
+        int classes = Integer.numberOfTrailingZeros(this.slabSize) - Integer.numberOfTrailingZeros(MIN_CHUNK_SIZE) + 1;
+        this.sizeClasses = new SizeClass[classes];
+        for (int i = 0; i < classes; i++) {
+            sizeClasses[i] = new SizeClass(MIN_CHUNK_SIZE << i);
+        }
+    }
+
+    /**
+     * 分配一块堆外内存并写入数据
+     *
+     * @param bytes 需要保存的数据
+     * @return 堆外内存的句柄；数据超过 slab 大小、或者堆外内存已经用完的时候返回 null，调用方需要继续保存在堆内
+     */
+    public OffHeapValue allocate(byte[] bytes) {
+        if (closed || bytes.length > slabSize) {
+            return null;
+        }
+        SizeClass sizeClass = sizeClasses[sizeClassIndex(bytes.length)];
+        Integer chunkId = sizeClass.freeChunks.poll();
+        if (chunkId == null && (chunkId = sizeClass.carveSlab()) == null) {
+            return null;
+        }
+        ByteBuffer slab = sizeClass.slabOf(chunkId);
+        int offset = sizeClass.offsetInSlab(chunkId);
+        ByteBuffer target = slab.duplicate();
+        target.position(offset);
+        target.put(bytes);
+        usedBytes.addAndGet(sizeClass.chunkSize);
+        return new OffHeapValue(this, slab, offset, bytes.length, sizeClass.chunkSize, chunkId);
+    }
+
+    /**
+     * 释放一块堆外内存，由 {@link OffHeapValue#release()} 在引用计数为 0 的时候调用
+     *
+     * @param value 堆外内存的句柄
+     */
+    void free(OffHeapValue value) {
+        SizeClass sizeClass = sizeClasses[sizeClassIndex(value.getChunkSize())];
+        usedBytes.addAndGet(-sizeClass.chunkSize);
+        if (!closed) {
+            sizeClass.freeChunks.offer(value.getChunkId());
+        }
+    }
+
+    /**
+     * 已经分配出去的堆外内存（字节）
+     *
+     * @return 已经使用的字节数
+     */
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * 已经向操作系统申请的堆外内存（字节）
+     *
+     * @return 已经申请的字节数
+     */
+    public synchronized long getReservedBytes() {
+        return (long) slabs.size() * slabSize;
+    }
+
+    private int sizeClassIndex(int length) {
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, length);
+        int bits = 32 - Integer.numberOfLeadingZeros(chunkSize - 1);
+        return bits - Integer.numberOfTrailingZeros(MIN_CHUNK_SIZE);
+    }
+
+    private synchronized ByteBuffer allocateSlab() {
+        if (closed || (long) (slabs.size() + 1) * slabSize > capacity) {
+            return null;
+        }
+        ByteBuffer slab = ByteBuffer.allocateDirect(slabSize);
+        slabs.add(slab);
+        return slab;
+    }
+
+    @Override
+    public synchronized void close() {
+        // direct buffer 没有被引用之后由 GC 回收
+        closed = true;
+        slabs.clear();
+        for (SizeClass sizeClass : sizeClasses) {
+            sizeClass.freeChunks.clear();
+            sizeClass.slabs.clear();
+        }
+    }
+
+    /**
+     * 大小级别，块的编号为 slab 序号 * 每个 slab 的块数量 + 块在 slab 中的序号
+     */
+    private class SizeClass {
+        private final int              chunkSize;
+        private final int              chunksPerSlab;
+        private final Queue<Integer>   freeChunks = new ConcurrentLinkedQueue<>();
+        private final List<ByteBuffer> slabs      = new CopyOnWriteArrayList<>();
+
+        SizeClass(int chunkSize) {
+            this.chunkSize = chunkSize;
+            this.chunksPerSlab = slabSize / chunkSize;
+        }
+
+        /**
+         * 空闲的块用完之后，申请一个新的 slab 切分成块，返回其中的第一块
+         *
+         * @return 块的编号，堆外内存已经用完的时候返回 null
+         */
+        synchronized Integer carveSlab() {
+            Integer chunkId = freeChunks.poll();
+            if (chunkId != null) {
+                // 其它线程已经切分了新的 slab
+                return chunkId;
+            }
+            ByteBuffer slab = allocateSlab();
+            if (slab == null) {
+                return null;
+            }
+            int base = slabs.size() * chunksPerSlab;
+            slabs.add(slab);
+            for (int i = 1; i < chunksPerSlab; i++) {
+                freeChunks.offer(base + i);
+            }
+            return base;
+        }
+
+        ByteBuffer slabOf(int chunkId) {
+            return slabs.get(chunkId / chunksPerSlab);
+        }
+
+        int offsetInSlab(int chunkId) {
+            return (chunkId % chunksPerSlab) * chunkSize;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine;
+
+import org.springframework.cache.support.NullValue;
+
+import app.myoss.cloud.cache.caffeine.RefreshableCaffeineCache.TimestampedValue;
+import app.myoss.cloud.core.lang.serializer.Serialization;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 单个缓存的堆外存储，序列化之后不小于 {@link #getThreshold()} 的缓存值保存到堆外内存中，缓存中只保存 {@link OffHeapValue}
+ * 句柄；堆外内存用完的时候继续保存在堆内
+ * <p>
+ * 缓存值的生命周期和 Caffeine 缓存一致：Caffeine 移除缓存（过期、淘汰、覆盖、删除）的时候，由 removalListener 调用
+ * {@link #release(Object)} 释放堆外内存
+ * <p>
+ * 留在堆内的缓存值包装成 {@link SizedValue}，带上已经序列化得到的大小，{@link SerializedSizeWeigher} 不需要再序列化一次
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午8:06:41
+ */
+@Slf4j
+public class OffHeapStore {
+    private final OffHeapSlabAllocator  allocator;
+    private final Serialization<Object> serialization;
+    /**
+     * 保存到堆外内存的最小字节数
+     */
+    @Getter
+    private final int                   threshold;
+
+    /**
+     * 创建单个缓存的堆外存储
+     *
+     * @param allocator 堆外内存 slab 分配器，多个缓存共用
+     * @param serialization 缓存值的序列化方式
+     * @param threshold 保存到堆外内存的最小字节数
+     */
+    public OffHeapStore(OffHeapSlabAllocator allocator, Serialization<Object> serialization, int threshold) {
+        this.allocator = allocator;
+        this.serialization = serialization;
+        this.threshold = threshold;
+    }
+
+    /**
+     * 将缓存值保存到堆外内存中
+     *
+     * @param storeValue 缓存值
+     * @return 保存成功返回 {@link OffHeapValue}；留在堆内的时候返回带有序列化大小的 {@link SizedValue}，无法序列化的时候
+     *         返回原来的缓存值
+     */
+    public Object store(Object storeValue) {
+        if (storeValue == null || storeValue == NullValue.INSTANCE || storeValue instanceof Number
+                || storeValue instanceof Boolean) {
+            return storeValue;
+        }
+        byte[] bytes;
+        try {
+            bytes = serialization.serialize(storeValue);
+        } catch (Exception ex) {
+            log.debug("serialize {} failed, keep it on heap", storeValue.getClass(), ex);
+            return storeValue;
+        }
+        if (bytes.length < threshold) {
+            return new SizedValue(storeValue, bytes.length);
+        }
+        OffHeapValue value = allocator.allocate(bytes);
+        return (value != null ? value : new SizedValue(storeValue, bytes.length));
+    }
+
+    /**
+     * 将堆外内存中的缓存值读取到堆内，并去掉 {@link SizedValue} 的包装，{@link TimestampedValue} 中的值也会被读取
+     *
+     * @param storeValue 缓存中保存的值
+     * @return 堆内的缓存值，堆外内存已经被释放的时候（缓存刚好被移除）返回 null
+     */
+    public Object resolve(Object storeValue) {
+        if (storeValue instanceof OffHeapValue) {
+            byte[] bytes = ((OffHeapValue) storeValue).read();
+            return (bytes != null ? serialization.deserialize(bytes) : null);
+        }
+        if (storeValue instanceof SizedValue) {
+            return ((SizedValue) storeValue).getValue();
+        }
+        if (storeValue instanceof TimestampedValue) {
+            TimestampedValue timestamped = (TimestampedValue) storeValue;
+            if (timestamped.getValue() instanceof OffHeapValue || timestamped.getValue() instanceof SizedValue) {
+                Object value = resolve(timestamped.getValue());
+                return (value != null ? new TimestampedValue(value, timestamped.getWriteTime()) : null);
+            }
+        }
+        return storeValue;
+    }
+
+    /**
+     * 缓存被移除之后，释放占用的堆外内存
+     *
+     * @param storeValue 缓存中保存的值
+     */
+    public void release(Object storeValue) {
+        Object value = (storeValue instanceof TimestampedValue ? ((TimestampedValue) storeValue).getValue()
+                : storeValue);
+        if (value instanceof OffHeapValue) {
+            ((OffHeapValue) value).release();
+        }
+    }
+
+    /**
+     * 留在堆内的缓存值，记录了序列化之后的大小
+     */
+    @Value
+    static class SizedValue {
+        /**
+         * 缓存值
+         */
+        Object value;
+        /**
+         * 序列化之后的字节数
+         */
+        int    size;
+    }
+}
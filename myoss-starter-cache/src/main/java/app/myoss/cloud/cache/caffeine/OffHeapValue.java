@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * 保存在堆外内存中的缓存值的句柄，Caffeine 缓存中只保存这个很小的对象
+ * <p>
+ * 使用引用计数管理堆外内存：创建的时候为 1（由缓存持有），读取的时候临时加 1；缓存移除这个值的时候调用 {@link #release()}，
+ * 引用计数减到 0 的时候才真正释放，正在读取的线程不会读到被复用的内存
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午7:58:04
+ */
+@Getter(AccessLevel.PACKAGE)
+public class OffHeapValue {
+    private final OffHeapSlabAllocator allocator;
+    private final ByteBuffer           slab;
+    private final int                  offset;
+    private final int                  length;
+    private final int                  chunkSize;
+    private final int                  chunkId;
+    private final AtomicInteger        refCnt = new AtomicInteger(1);
+
+    OffHeapValue(OffHeapSlabAllocator allocator, ByteBuffer slab, int offset, int length, int chunkSize,
+                 int chunkId) {
+        this.allocator = allocator;
+        this.slab = slab;
+        this.offset = offset;
+        this.length = length;
+        this.chunkSize = chunkSize;
+        this.chunkId = chunkId;
+    }
+
+    /**
+     * 读取保存的数据
+     *
+     * @return 保存的数据，已经被释放的时候返回 null
+     */
+    public byte[] read() {
+        if (!retain()) {
+            return null;
+        }
+        try {
+            byte[] bytes = new byte[length];
+            ByteBuffer source = slab.duplicate();
+            source.position(offset);
+            source.get(bytes);
+            return bytes;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * 引用计数加 1
+     *
+     * @return true：成功，false：已经被释放了
+     */
+    public boolean retain() {
+        for (;;) {
+            int count = refCnt.get();
+            if (count <= 0) {
+                return false;
+            }
+            if (refCnt.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 引用计数减 1，减到 0 的时候释放堆外内存
+     */
+    public void release() {
+        if (refCnt.decrementAndGet() == 0) {
+            allocator.free(this);
+        }
+    }
+
+    /**
+     * 保存的数据的长度（字节）
+     *
+     * @return 数据的长度
+     */
+    public int getLength() {
+        return length;
+    }
+}
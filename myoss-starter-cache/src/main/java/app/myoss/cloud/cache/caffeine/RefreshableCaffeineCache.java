@@ -0,0 +1,183 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 支持提前刷新的 Caffeine 缓存，缓存值保存的时候会记录写入的时间
+ * <ul>
+ * <li>写入之后 refreshAfterWrite 之内：新鲜的，直接返回
+ * <li>refreshAfterWrite + staleWhileRevalidate 之内：{@link #get(Object, Callable)} 先返回旧值，同时在刷新线程池中异步加载新值；
+ * {@link #get(Object)} 当作没有缓存，由调用方重新加载
+ * <li>超过之后：同步加载，加载失败的时候，在 staleIfError 之内继续返回旧值
+ * </ul>
+ * 刷新线程池是有界的，线程池满了之后放弃这次刷新，等下一次访问再刷新，不会阻塞调用方
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午6:45:37
+ */
+@Slf4j
+public class RefreshableCaffeineCache extends CaffeineCacheWrap {
+    private final long        refreshNanos;
+    private final long        staleWhileRevalidateNanos;
+    private final long        staleIfErrorNanos;
+    private final Executor    refreshExecutor;
+    private final Set<Object> refreshingKeys = ConcurrentHashMap.newKeySet();
+    /**
+     * 记录写入时间、计算缓存值存在时间使用的时钟，默认为: {@link Ticker#systemTicker()}；
+     * 需要和 Caffeine 缓存使用同一个时钟
+     */
+    @Getter
+    @Setter
+    private Ticker            ticker         = Ticker.systemTicker();
+
+    /**
+     * 创建支持提前刷新的 Caffeine 缓存
+     *
+     * @param name 缓存的名字
+     * @param cache Caffeine 缓存，过期时间需要设置为 {@link CaffeineCacheConfig#getMaxStaleTime()}
+     * @param allowNullValues 是否允许缓存 null 值
+     * @param config 缓存的配置
+     * @param refreshExecutor 异步刷新的线程池
+     */
+    public RefreshableCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                    boolean allowNullValues, CaffeineCacheConfig config, Executor refreshExecutor) {
+        super(name, cache, allowNullValues);
+        this.refreshNanos = config.getRefreshAfterWrite().toNanos();
+        this.staleWhileRevalidateNanos = config.getStaleWhileRevalidate().toNanos();
+        this.staleIfErrorNanos = config.getStaleIfError().toNanos();
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object storeValue = super.lookup(key);
+        // 没有加载函数，无法在后台刷新，当作没有缓存，由调用方重新加载
+        return (isExpired(storeValue) ? null : storeValue);
+    }
+
+    @Override
+    protected Object peek(Object key) {
+        Object storeValue = super.peek(key);
+        return (isExpired(storeValue) ? null : storeValue);
+    }
+
+    @Override
+    protected Map<Object, Object> lookupAll(Collection<?> keys) {
+        Map<Object, Object> present = new HashMap<>(super.lookupAll(keys));
+        // 需要刷新的缓存值当作没有缓存，批量加载的时候一起重新加载
+        present.values().removeIf(this::isExpired);
+        return present;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object storeValue = getStoreValue(key);
+        TimestampedValue stale = (storeValue instanceof TimestampedValue ? (TimestampedValue) storeValue : null);
+        long age = (stale != null ? getAge(stale) : Long.MAX_VALUE);
+        if (age < refreshNanos) {
+            return (T) fromStoreValue(stale);
+        }
+        if (age < refreshNanos + staleWhileRevalidateNanos) {
+            refreshAsync(key, valueLoader);
+            return (T) fromStoreValue(stale);
+        }
+        try {
+            // 上面已经读取过一次缓存（记录了统计），这里直接加载，不再调用 lookup
+            return (T) fromStoreValue(load(key, valueLoader));
+        } catch (RuntimeException ex) {
+            if (stale != null && age < refreshNanos + staleWhileRevalidateNanos + staleIfErrorNanos) {
+                log.warn("[{}] load key [{}] failed, return stale value", getName(), key, ex);
+                return (T) fromStoreValue(stale);
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    protected Object toStoreValue(Object userValue) {
+        return new TimestampedValue(super.toStoreValue(userValue), ticker.read());
+    }
+
+    @Override
+    protected Object fromStoreValue(Object storeValue) {
+        if (storeValue instanceof TimestampedValue) {
+            return super.fromStoreValue(((TimestampedValue) storeValue).getValue());
+        }
+        return super.fromStoreValue(storeValue);
+    }
+
+    private boolean isExpired(Object storeValue) {
+        return storeValue instanceof TimestampedValue && getAge((TimestampedValue) storeValue) >= refreshNanos;
+    }
+
+    private long getAge(TimestampedValue storeValue) {
+        return ticker.read() - storeValue.getWriteTime();
+    }
+
+    private void refreshAsync(Object key, Callable<?> valueLoader) {
+        if (!refreshingKeys.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    put(key, callLoader(key, valueLoader));
+                } catch (Exception ex) {
+                    log.warn("[{}] refresh key [{}] failed", getName(), key, ex);
+                } finally {
+                    refreshingKeys.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // 刷新线程池满了，放弃这次刷新
+            refreshingKeys.remove(key);
+        }
+    }
+
+    /**
+     * 记录了写入时间的缓存值
+     */
+    @Value
+    static class TimestampedValue {
+        /**
+         * 缓存值
+         */
+        Object value;
+        /**
+         * 写入的时间（{@link RefreshableCaffeineCache#getTicker()}）
+         */
+        long   writeTime;
+    }
+}
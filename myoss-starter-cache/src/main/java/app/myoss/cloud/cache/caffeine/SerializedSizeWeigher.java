@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine;
+
+import org.springframework.cache.support.NullValue;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import app.myoss.cloud.core.lang.serializer.Serialization;
+import app.myoss.cloud.core.lang.serializer.impl.JdkSerialization;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 按照缓存值序列化之后的大小估算占用的内存，用于按照内存限制缓存的大小
+ * <p>
+ * String、byte[] 直接按照长度计算，{@link OffHeapStore} 已经序列化过的值直接使用记录的大小，其它对象需要序列化一次
+ * （只在写入缓存的时候计算一次），序列化失败的时候使用 {@link #DEFAULT_WEIGHT}
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午7:25:43
+ */
+@Slf4j
+public class SerializedSizeWeigher implements Weigher<Object, Object> {
+    /**
+     * 无法估算的时候使用的大小
+     */
+    public static final int             DEFAULT_WEIGHT = 1024;
+    /**
+     * 对象头、引用等固定的开销
+     */
+    private static final int            OVERHEAD       = 16;
+
+    private final Serialization<Object> serialization;
+
+    /**
+     * 使用 {@link JdkSerialization} 估算缓存值占用的内存
+     */
+    public SerializedSizeWeigher() {
+        this(new JdkSerialization());
+    }
+
+    /**
+     * 使用指定的序列化方式估算缓存值占用的内存
+     *
+     * @param serialization 序列化方式
+     */
+    public SerializedSizeWeigher(Serialization<Object> serialization) {
+        this.serialization = serialization;
+    }
+
+    @Override
+    public int weigh(Object key, Object value) {
+        Object target = (value instanceof RefreshableCaffeineCache.TimestampedValue
+                ? ((RefreshableCaffeineCache.TimestampedValue) value).getValue()
+                : value);
+        long size = OVERHEAD + estimate(key) + estimate(target);
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    private long estimate(Object object) {
+        if (object == null || object == NullValue.INSTANCE) {
+            return 0;
+        }
+        if (object instanceof String) {
+            return OVERHEAD + ((String) object).length() * 2L;
+        }
+        if (object instanceof byte[]) {
+            return OVERHEAD + ((byte[]) object).length;
+        }
+        if (object instanceof OffHeapValue) {
+            // 堆外内存不占用堆内的空间，只计算句柄
+            return OVERHEAD * 2;
+        }
+        if (object instanceof OffHeapStore.SizedValue) {
+            return OVERHEAD + ((OffHeapStore.SizedValue) object).getSize();
+        }
+        if (object instanceof Number || object instanceof Boolean || object instanceof Character) {
+            return OVERHEAD;
+        }
+        try {
+            return serialization.serialize(object).length;
+        } catch (Exception ex) {
+            log.debug("estimate size of {} failed", object.getClass(), ex);
+            return DEFAULT_WEIGHT;
+        }
+    }
+}
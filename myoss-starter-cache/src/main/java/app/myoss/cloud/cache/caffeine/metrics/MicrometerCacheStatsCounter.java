@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 使用 Micrometer 记录单个 Caffeine 缓存的统计数据，同时保留 Caffeine 自己的统计，{@code cache.stats()} 依然可以使用
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午10:08:41
+ */
+public class MicrometerCacheStatsCounter implements StatsCounter {
+    private final StatsCounter               delegate = new ConcurrentStatsCounter();
+    private final Counter                    hitCounter;
+    private final Counter                    missCounter;
+    private final Timer                      loadSuccessTimer;
+    private final Timer                      loadFailureTimer;
+    private final Map<RemovalCause, Counter> evictionCounters;
+    private final Counter                    evictionWeightCounter;
+
+    /**
+     * 使用 Micrometer 记录单个 Caffeine 缓存的统计数据
+     *
+     * @param registry Micrometer MeterRegistry
+     * @param cacheName 缓存的名字
+     */
+    public MicrometerCacheStatsCounter(MeterRegistry registry, String cacheName) {
+        String prefix = MicrometerCaffeineCacheStatsFactory.METRIC_PREFIX;
+        this.hitCounter = Counter.builder(prefix + ".gets")
+                .tag("cache", cacheName)
+                .tag("result", "hit")
+                .description("Number of cache lookups that found a value")
+                .register(registry);
+        this.missCounter = Counter.builder(prefix + ".gets")
+                .tag("cache", cacheName)
+                .tag("result", "miss")
+                .description("Number of cache lookups that found no value")
+                .register(registry);
+        this.loadSuccessTimer = Timer.builder(prefix + ".loads")
+                .tag("cache", cacheName)
+                .tag("result", "success")
+                .description("Time spent loading values after a cache miss")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.loadFailureTimer = Timer.builder(prefix + ".loads")
+                .tag("cache", cacheName)
+                .tag("result", "failure")
+                .description("Time spent loading values after a cache miss")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.evictionCounters = new EnumMap<>(RemovalCause.class);
+        for (RemovalCause cause : RemovalCause.values()) {
+            if (cause.wasEvicted()) {
+                evictionCounters.put(cause, Counter.builder(prefix + ".evictions")
+                        .tag("cache", cacheName)
+                        .tag("cause", cause.name().toLowerCase())
+                        .description("Number of entries evicted from the cache")
+                        .register(registry));
+            }
+        }
+        this.evictionWeightCounter = Counter.builder(prefix + ".eviction.weight")
+                .tag("cache", cacheName)
+                .description("Sum of the weights of evicted entries")
+                .register(registry);
+    }
+
+    @Override
+    public void recordHits(int count) {
+        delegate.recordHits(count);
+        hitCounter.increment(count);
+    }
+
+    @Override
+    public void recordMisses(int count) {
+        delegate.recordMisses(count);
+        missCounter.increment(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(long loadTime) {
+        delegate.recordLoadSuccess(loadTime);
+        loadSuccessTimer.record(loadTime, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordLoadFailure(long loadTime) {
+        delegate.recordLoadFailure(loadTime);
+        loadFailureTimer.record(loadTime, TimeUnit.NANOSECONDS);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void recordEviction() {
+        recordEviction(1, RemovalCause.SIZE);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void recordEviction(int weight) {
+        recordEviction(weight, RemovalCause.SIZE);
+    }
+
+    @Override
+    public void recordEviction(int weight, RemovalCause cause) {
+        delegate.recordEviction(weight, cause);
+        Counter counter = evictionCounters.get(cause);
+        if (counter != null) {
+            counter.increment();
+        }
+        evictionWeightCounter.increment(weight);
+    }
+
+    @Override
+    public CacheStats snapshot() {
+        return delegate.snapshot();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+import app.myoss.cloud.cache.caffeine.CaffeineCacheStatsFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 使用 Micrometer 导出每一个 Caffeine 缓存的指标，通过 prometheus endpoint 暴露
+ * <ul>
+ * <li>myoss.cache.gets：查询缓存的次数，result 为 hit / miss
+ * <li>myoss.cache.loads：没有命中缓存之后加载的耗时，result 为 success / failure，带直方图
+ * <li>myoss.cache.evictions：淘汰的次数，cause 为淘汰的原因（size / expired / collected）
+ * <li>myoss.cache.eviction.weight：淘汰的缓存的权重之和
+ * <li>myoss.cache.size：估算的缓存数量
+ * <li>myoss.cache.weight：缓存的权重之和，只有按照权重限制大小的缓存才有
+ * </ul>
+ * 所有的指标都带有 cache 标签，值为缓存的名字
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午10:12:27
+ */
+public class MicrometerCaffeineCacheStatsFactory implements CaffeineCacheStatsFactory {
+    /**
+     * 指标名称前缀
+     */
+    public static final String  METRIC_PREFIX = "myoss.cache";
+
+    private final MeterRegistry registry;
+
+    /**
+     * 使用 Micrometer 导出 Caffeine 缓存的指标
+     *
+     * @param registry Micrometer MeterRegistry
+     */
+    public MicrometerCaffeineCacheStatsFactory(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public StatsCounter createStatsCounter(String cacheName) {
+        return new MicrometerCacheStatsCounter(registry, cacheName);
+    }
+
+    @Override
+    public void onCacheCreated(String cacheName, Cache<Object, Object> cache) {
+        // Gauge 只持有缓存的弱引用，不会影响缓存被回收
+        Gauge.builder(METRIC_PREFIX + ".size", cache, Cache::estimatedSize)
+                .tag("cache", cacheName)
+                .description("Approximate number of entries in the cache")
+                .register(registry);
+        if (cache.policy().eviction().map(Policy.Eviction::isWeighted).orElse(false)) {
+            Gauge.builder(METRIC_PREFIX + ".weight", cache,
+                    c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                    .tag("cache", cacheName)
+                    .description("Sum of the weights of the entries in the cache")
+                    .register(registry);
+        }
+    }
+}
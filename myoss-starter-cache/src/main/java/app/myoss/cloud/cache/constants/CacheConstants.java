@@ -29,9 +29,45 @@ public class CacheConstants {
     /**
      * 缓存配置前缀
      */
-    public static final String CONFIG_PREFIX       = MyossConstants.CONFIG_PREFIX + ".cache";
+    public static final String CONFIG_PREFIX               = MyossConstants.CONFIG_PREFIX + ".cache";
     /**
      * Redis缓存配置前缀
      */
-    public static final String REDIS_CONFIG_PREFIX = CONFIG_PREFIX + ".redis";
+    public static final String REDIS_CONFIG_PREFIX         = CONFIG_PREFIX + ".redis";
+    /**
+     * 本地缓存锁配置前缀
+     */
+    public static final String LOCAL_LOCK_CONFIG_PREFIX    = CONFIG_PREFIX + ".local-lock";
+    /**
+     * 二级缓存配置前缀
+     */
+    public static final String TWO_LEVEL_CONFIG_PREFIX     = CONFIG_PREFIX + ".two-level";
+    /**
+     * Caffeine缓存配置前缀
+     */
+    public static final String CAFFEINE_CONFIG_PREFIX      = CONFIG_PREFIX + ".caffeine";
+    /**
+     * 批量缓存配置前缀
+     */
+    public static final String BATCH_CONFIG_PREFIX         = CONFIG_PREFIX + ".batch";
+    /**
+     * 缓存失效通知（Redis Streams）配置前缀
+     */
+    public static final String INVALIDATION_CONFIG_PREFIX  = CONFIG_PREFIX + ".invalidation";
+    /**
+     * 缓存锁释放通知的频道前缀
+     */
+    public static final String LOCK_RELEASE_CHANNEL_PREFIX = MyossConstants.CONFIG_PREFIX + ":lock:release:";
+    /**
+     * 二级缓存本地缓存失效通知的频道
+     */
+    public static final String CACHE_INVALIDATE_CHANNEL    = MyossConstants.CONFIG_PREFIX + ":cache:invalidate";
+    /**
+     * 本地缓存失效通知的 Redis Stream
+     */
+    public static final String CACHE_INVALIDATE_STREAM     = MyossConstants.CONFIG_PREFIX + ":cache:invalidate:stream";
+    /**
+     * 缓存分布式 single-flight 加载使用的锁的前缀
+     */
+    public static final String CACHE_LOAD_LOCK_PREFIX      = MyossConstants.CONFIG_PREFIX + ":cache:load:";
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.invalidation;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.util.StringUtils;
+
+import app.myoss.cloud.cache.caffeine.CaffeineCacheAutoConfiguration;
+import app.myoss.cloud.cache.caffeine.CaffeineCacheManagerWrap;
+import app.myoss.cloud.cache.constants.CacheConstants;
+import app.myoss.cloud.core.lang.serializer.Serialization;
+import app.myoss.cloud.core.lang.serializer.impl.JdkSerialization;
+import app.myoss.cloud.core.utils.RandomUtils;
+
+/**
+ * 基于 Redis Streams 的 Caffeine 缓存失效通知自动配置，开启之后 {@link CaffeineCacheManagerWrap} 中缓存的删除、清空会同步到所有实例
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午9:36:52
+ */
+@AutoConfigureAfter({ RedisAutoConfiguration.class, CaffeineCacheAutoConfiguration.class })
+@EnableConfigurationProperties(CacheInvalidationProperties.class)
+@ConditionalOnProperty(prefix = CacheConstants.INVALIDATION_CONFIG_PREFIX, name = "enabled", havingValue = "true")
+@ConditionalOnClass({ StringRedisTemplate.class, StreamMessageListenerContainer.class })
+@Configuration
+public class CacheInvalidationAutoConfiguration {
+    /**
+     * 初始化缓存失效通知总线，并设置到 Caffeine 缓存管理器中
+     *
+     * @param redisTemplate Spring StringRedisTemplate
+     * @param cacheManager Caffeine 缓存管理器
+     * @param properties 失效通知的配置
+     * @param serialization 自定义的失效通知序列化方式，默认使用 Java 序列化
+     * @param environment Spring Environment，用于生成默认的消费者组
+     * @return 缓存失效通知总线
+     */
+    @ConditionalOnBean({ StringRedisTemplate.class, CaffeineCacheManagerWrap.class })
+    @ConditionalOnMissingBean
+    @Bean
+    public RedisStreamCacheInvalidationBus cacheInvalidationBus(StringRedisTemplate redisTemplate,
+                                                                CaffeineCacheManagerWrap cacheManager,
+                                                                CacheInvalidationProperties properties,
+                                                                ObjectProvider<Serialization<Object>> serialization,
+                                                                Environment environment) {
+        String consumerGroup = properties.getConsumerGroup();
+        if (!StringUtils.hasText(consumerGroup)) {
+            // 同一台机器上可能有同一个应用的多个进程，加上随机数保证每个进程一个消费者组
+            consumerGroup = environment.getProperty("spring.application.name", "application") + ":"
+                    + RedisStreamCacheInvalidationBus.getLocalHostName() + ":" + RandomUtils.uuid();
+        }
+        RedisStreamCacheInvalidationBus bus = new RedisStreamCacheInvalidationBus(redisTemplate, cacheManager,
+                serialization.getIfUnique(JdkSerialization::new), properties, consumerGroup);
+        cacheManager.setInvalidationPublisher(bus);
+        return bus;
+    }
+}
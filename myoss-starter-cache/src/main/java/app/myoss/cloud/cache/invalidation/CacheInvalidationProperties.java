@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.invalidation;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import app.myoss.cloud.cache.constants.CacheConstants;
+import lombok.Data;
+
+/**
+ * 基于 Redis Streams 的缓存失效通知的配置
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午9:04:40
+ */
+@Data
+@ConfigurationProperties(prefix = CacheConstants.INVALIDATION_CONFIG_PREFIX)
+public class CacheInvalidationProperties {
+    /**
+     * 是否开启 Caffeine 缓存的失效通知，默认为: false
+     */
+    private boolean  enabled;
+    /**
+     * 保存失效通知的 Redis Stream，默认为: myoss-cloud:cache:invalidate:stream
+     */
+    private String   streamKey                  = CacheConstants.CACHE_INVALIDATE_STREAM;
+    /**
+     * 当前实例的消费者组，每个进程必须是唯一的，否则失效通知会被分给同一个消费者组中的多个进程；默认为:
+     * ${spring.application.name}:${hostname}:${随机数}
+     */
+    private String   consumerGroup;
+    /**
+     * 停止的时候是否删除当前实例的消费者组，默认为: true
+     * <p>
+     * 本机缓存在重启之后是空的，不需要处理停止期间的失效通知；默认的消费者组每次启动都不一样，不删除的话 Redis Stream
+     * 上的消费者组会越来越多
+     */
+    private boolean  destroyConsumerGroupOnStop = true;
+    /**
+     * Redis Stream 保留的最大消息数量，默认为: 10000
+     */
+    private long     maxLength                  = 10000L;
+    /**
+     * 一次批量发送的最大通知数量，默认为: 100
+     */
+    private int      batchSize                  = 100;
+    /**
+     * 批量发送的间隔时间，默认为: 5毫秒
+     */
+    private Duration flushInterval              = Duration.ofMillis(5);
+    /**
+     * 等待发送的通知队列的长度，队列满了之后由调用方线程直接发送，默认为: 10000
+     */
+    private int      queueCapacity              = 10000;
+    /**
+     * 读取 Redis Stream 的阻塞时间，默认为: 1秒
+     */
+    private Duration pollTimeout                = Duration.ofSeconds(1);
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.invalidation;
+
+/**
+ * 缓存失效通知的发布者，本机删除、清空缓存之后，通知其它实例删除它们本机的缓存
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午9:02:18
+ */
+@FunctionalInterface
+public interface CacheInvalidationPublisher {
+    /**
+     * 发布缓存失效通知
+     *
+     * @param cacheName 缓存的名字
+     * @param key 失效的缓存 key，为 null 的时候清空整个缓存
+     */
+    void publish(String cacheName, Object key);
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.invalidation;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamReadRequest;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import app.myoss.cloud.cache.caffeine.CaffeineCacheManagerWrap;
+import app.myoss.cloud.cache.twolevel.CacheInvalidationMessage;
+import app.myoss.cloud.core.constants.MyossConstants;
+import app.myoss.cloud.core.lang.serializer.Serialization;
+import app.myoss.cloud.core.utils.RandomUtils;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 基于 Redis Streams 的缓存失效通知总线，用于多个实例之间同步删除本机的 Caffeine 缓存
+ * <ul>
+ * <li>发送：失效通知先放到队列中，每隔 flushInterval 批量发送，一批通知保存为 Stream 中的一条消息，使用 pipeline 执行 XADD，并按
+ * maxLength 裁剪 Stream；发送失败的通知下一次重试
+ * <li>接收：每个进程一个消费者组，使用 XREADGROUP 阻塞读取，处理完之后 XACK；Redis 连接断开重连之后从消费者组上次的位置
+ * 继续读取，不会漏掉失效通知；正常停止的时候删除消费者组（见 {@link CacheInvalidationProperties#isDestroyConsumerGroupOnStop()}）
+ * <li>忽略自己发出的通知
+ * </ul>
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午9:10:35
+ */
+@Slf4j
+public class RedisStreamCacheInvalidationBus implements CacheInvalidationPublisher, SmartLifecycle {
+    private static final byte[]                           FIELD_INSTANCE = "i".getBytes(MyossConstants.DEFAULT_CHARSET);
+    private static final byte[]                           FIELD_MESSAGES = "m".getBytes(MyossConstants.DEFAULT_CHARSET);
+
+    private final RedisTemplate                           redisTemplate;
+    private final CaffeineCacheManagerWrap                cacheManager;
+    private final Serialization<Object>                   serialization;
+    private final CacheInvalidationProperties             properties;
+    private final byte[]                                  streamKey;
+    /**
+     * 当前实例的消费者组，多个进程使用同一个消费者组的时候，失效通知会被分给不同的进程，所以每个进程必须是唯一的
+     */
+    @Getter
+    private final String                                  consumerGroup;
+    /**
+     * 当前实例的唯一标识，用于忽略自己发出的失效通知，也是消费者组中的消费者的名字
+     */
+    @Getter
+    private final String                                  instanceId     = RandomUtils.uuid();
+    private final byte[]                                  rawInstanceId;
+    private final BlockingQueue<CacheInvalidationMessage> queue;
+    private final List<List<CacheInvalidationMessage>>    retryBatches   = new ArrayList<>();
+    private ScheduledExecutorService                      flushExecutor;
+    private SmartLifecycle                                listenerContainer;
+    private volatile boolean                              running;
+
+    /**
+     * 创建基于 Redis Streams 的缓存失效通知总线
+     *
+     * @param redisTemplate Redis data access Template，使用原始的 byte[] 读写 Stream
+     * @param cacheManager 收到通知之后删除本机缓存的缓存管理器
+     * @param serialization 失效通知的序列化方式
+     * @param properties 失效通知的配置
+     * @param consumerGroup 当前实例的消费者组
+     */
+    public RedisStreamCacheInvalidationBus(RedisTemplate redisTemplate, CaffeineCacheManagerWrap cacheManager,
+                                           Serialization<Object> serialization,
+                                           CacheInvalidationProperties properties, String consumerGroup) {
+        this.redisTemplate = redisTemplate;
+        this.cacheManager = cacheManager;
+        this.serialization = serialization;
+        this.properties = properties;
+        this.streamKey = properties.getStreamKey().getBytes(MyossConstants.DEFAULT_CHARSET);
+        this.consumerGroup = consumerGroup;
+        this.rawInstanceId = instanceId.getBytes(MyossConstants.DEFAULT_CHARSET);
+        this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    @Override
+    public void publish(String cacheName, Object key) {
+        CacheInvalidationMessage message = new CacheInvalidationMessage(instanceId, cacheName, key);
+        if (running && queue.offer(message)) {
+            return;
+        }
+        // 没有启动或者队列满了，由调用方线程直接发送
+        try {
+            send(Collections.singletonList(Collections.singletonList(message)));
+        } catch (Exception ex) {
+            log.error("[{}] publish cache invalidation failed, key: {}", cacheName, key, ex);
+        }
+    }
+
+    /**
+     * 批量发送队列中的失效通知，发送失败的通知保留到下一次重试
+     */
+    public synchronized void flush() {
+        List<List<CacheInvalidationMessage>> batches = new ArrayList<>(retryBatches);
+        retryBatches.clear();
+        while (!queue.isEmpty()) {
+            List<CacheInvalidationMessage> batch = new ArrayList<>(properties.getBatchSize());
+            queue.drainTo(batch, properties.getBatchSize());
+            batches.add(batch);
+        }
+        if (batches.isEmpty()) {
+            return;
+        }
+        try {
+            send(batches);
+        } catch (Exception ex) {
+            int retrySize = 0;
+            for (List<CacheInvalidationMessage> batch : batches) {
+                retrySize += batch.size();
+                if (retrySize > properties.getQueueCapacity()) {
+                    // 重试的通知太多了，丢弃剩下的，其它实例的本机缓存等到过期之后会重新加载
+                    log.error("too many cache invalidations to retry, dropped: {}", batch);
+                    continue;
+                }
+                retryBatches.add(batch);
+            }
+            log.error("publish cache invalidations failed, retry next time", ex);
+        }
+    }
+
+    private void send(List<List<CacheInvalidationMessage>> batches) {
+        List<MapRecord<byte[], byte[], byte[]>> records = new ArrayList<>(batches.size());
+        for (List<CacheInvalidationMessage> batch : batches) {
+            Map<byte[], byte[]> body = new HashMap<>(4);
+            body.put(FIELD_INSTANCE, rawInstanceId);
+            body.put(FIELD_MESSAGES, serialization.serialize(new ArrayList<>(batch)));
+            records.add(MapRecord.create(streamKey, body));
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            records.forEach(connection::xAdd);
+            connection.xTrim(streamKey, properties.getMaxLength());
+            return null;
+        });
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        createConsumerGroup();
+        RedisConnectionFactory connectionFactory = redisTemplate.getConnectionFactory();
+        StreamMessageListenerContainerOptions<byte[], MapRecord<byte[], byte[], byte[]>> options;
+        options = StreamMessageListenerContainerOptions.builder()
+                .pollTimeout(properties.getPollTimeout())
+                .batchSize(properties.getBatchSize())
+                .serializer(RedisSerializer.byteArray())
+                .build();
+        StreamMessageListenerContainer<byte[], MapRecord<byte[], byte[], byte[]>> container;
+        container = StreamMessageListenerContainer.create(connectionFactory, options);
+        // 读取失败（比如连接断开）的时候不取消订阅，重连之后从消费者组上次的位置继续读取
+        container.register(StreamReadRequest.builder(StreamOffset.create(streamKey, ReadOffset.lastConsumed()))
+                .consumer(Consumer.from(consumerGroup, instanceId))
+                .autoAcknowledge(false)
+                .cancelOnError(ex -> false)
+                .errorHandler(ex -> log.warn("read cache invalidation stream failed, retry", ex))
+                .build(), this::onRecord);
+        container.start();
+        listenerContainer = container;
+        long interval = properties.getFlushInterval().toNanos();
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("MyOSSCloud-Cache-Invalidation-%d").build());
+        flushExecutor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.NANOSECONDS);
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flushExecutor.shutdown();
+        listenerContainer.stop();
+        flush();
+        if (properties.isDestroyConsumerGroupOnStop()) {
+            destroyConsumerGroup();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void createConsumerGroup() {
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.xGroupCreate(streamKey,
+                    consumerGroup, ReadOffset.latest(), true));
+        } catch (Exception ex) {
+            String message = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            if (message == null || !message.contains("BUSYGROUP")) {
+                throw ex;
+            }
+            // 消费者组已经存在，从上次的位置继续读取
+            log.info("consumer group [{}] already exists, continue from last delivered message", consumerGroup);
+        }
+    }
+
+    private void destroyConsumerGroup() {
+        try {
+            redisTemplate.execute(
+                    (RedisCallback<Boolean>) connection -> connection.xGroupDestroy(streamKey, consumerGroup));
+        } catch (Exception ex) {
+            log.warn("destroy consumer group [{}] failed", consumerGroup, ex);
+        }
+    }
+
+    private void onRecord(MapRecord<byte[], byte[], byte[]> record) {
+        try {
+            if (!Arrays.equals(rawInstanceId, getField(record, FIELD_INSTANCE))) {
+                Object body = serialization.deserialize(getField(record, FIELD_MESSAGES));
+                if (body instanceof Collection) {
+                    for (Object message : (Collection<?>) body) {
+                        cacheManager.onInvalidation((CacheInvalidationMessage) message);
+                    }
+                }
+            }
+        } catch (Exception ex) {
+            log.error("handle cache invalidation failed, id: {}", record.getId(), ex);
+        } finally {
+            try {
+                redisTemplate.execute(
+                        (RedisCallback<Long>) connection -> connection.xAck(streamKey, consumerGroup, record.getId()));
+            } catch (Exception ex) {
+                // 没有 ack 的消息只会留在消费者组的 pending 列表中，不影响后续的读取
+                log.warn("ack cache invalidation failed, id: {}", record.getId(), ex);
+            }
+        }
+    }
+
+    private static byte[] getField(MapRecord<byte[], byte[], byte[]> record, byte[] field) {
+        for (Map.Entry<byte[], byte[]> entry : record.getValue().entrySet()) {
+            if (Arrays.equals(field, entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取本机的 hostname，用于生成默认的消费者组的名字
+     *
+     * @return 本机的 hostname，获取失败的时候返回随机的唯一标识
+     */
+    static String getLocalHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            log.warn("get local host name failed", ex);
+            return RandomUtils.uuid();
+        }
+    }
+}
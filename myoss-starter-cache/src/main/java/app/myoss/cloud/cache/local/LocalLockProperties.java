@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.local;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import app.myoss.cloud.cache.constants.CacheConstants;
+import lombok.Data;
+
+/**
+ * 本地缓存锁的配置
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午4:02:18
+ */
+@Data
+@ConfigurationProperties(prefix = CacheConstants.LOCAL_LOCK_CONFIG_PREFIX)
+public class LocalLockProperties {
+    /**
+     * 是否使用本地缓存锁代替 Redis 缓存锁（单元测试、单节点部署），默认为: false
+     */
+    private boolean  enabled;
+    /**
+     * 缓存锁的时间单位，默认为: 秒
+     */
+    private TimeUnit lockTimeUnit  = TimeUnit.SECONDS;
+    /**
+     * 清理过期锁的时间间隔，默认为: 1秒
+     */
+    private Duration sweepInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.local;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import app.myoss.cloud.cache.constants.CacheConstants;
+import app.myoss.cloud.cache.lock.LockEventListener;
+import app.myoss.cloud.cache.lock.LockService;
+import app.myoss.cloud.cache.redis.RedisLockServiceAutoConfiguration;
+
+/**
+ * 本地缓存锁服务自动配置，开启之后代替 Redis 缓存锁服务
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午4:21:09
+ */
+@AutoConfigureBefore(RedisLockServiceAutoConfiguration.class)
+@EnableConfigurationProperties(LocalLockProperties.class)
+@ConditionalOnProperty(prefix = CacheConstants.LOCAL_LOCK_CONFIG_PREFIX, name = "enabled", havingValue = "true")
+@Configuration
+public class LocalLockServiceAutoConfiguration {
+    /**
+     * 初始化本地缓存锁实现
+     *
+     * @param properties 本地缓存锁的配置
+     * @param lockEventListener 缓存锁事件监听器
+     * @return 本地缓存锁实现
+     */
+    @ConditionalOnMissingBean(LockService.class)
+    @Bean
+    public LocalLockServiceImpl localLockService(LocalLockProperties properties,
+                                                 ObjectProvider<LockEventListener> lockEventListener) {
+        LocalLockServiceImpl lockService = new LocalLockServiceImpl(properties.getLockTimeUnit(),
+                properties.getSweepInterval().toMillis());
+        lockEventListener.ifUnique(lockService::setLockEventListener);
+        return lockService;
+    }
+}
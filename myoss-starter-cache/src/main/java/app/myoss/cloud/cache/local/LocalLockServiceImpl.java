@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.local;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import app.myoss.cloud.cache.lock.AbstractLockService;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * 本地缓存锁实现，锁保存在 JVM 内存中，用于单元测试、单节点部署，以及在没有网络延迟的情况下对使用锁的代码进行压测
+ * <p>
+ * 和 {@link app.myoss.cloud.cache.redis.RedisLockServiceImpl} 的语义一致：锁有过期时间、只能释放当前线程持有的锁、不可重入；
+ * expireTime 小于等于 0 的时候，锁不会过期，直到释放锁（进程退出之后锁自然就不存在了，不需要看门狗续期）
+ * <p>
+ * 过期的锁在访问的时候惰性删除，同时由一个共享的定时任务定期清理；等待锁的线程在按 key 分段的监视器上等待，释放锁的时候会立即唤醒
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午4:05:33
+ */
+public class LocalLockServiceImpl extends AbstractLockService implements AutoCloseable {
+    private static final int                  STRIPES  = 64;
+
+    /**
+     * 缓存锁的时间单位
+     */
+    @Getter
+    private final TimeUnit                    timeUnit;
+    /**
+     * 清理过期锁的时间间隔（毫秒）
+     */
+    private final long                        sweepInterval;
+    private final Map<Serializable, LockHold> locks    = new ConcurrentHashMap<>();
+    private final Object[]                    monitors = new Object[STRIPES];
+    private volatile ScheduledExecutorService sweeper;
+
+    /**
+     * 初始化本地缓存锁实现
+     *
+     * @param timeUnit 缓存锁的时间单位
+     * @param sweepInterval 清理过期锁的时间间隔（毫秒）
+     */
+    public LocalLockServiceImpl(TimeUnit timeUnit, long sweepInterval) {
+        this.timeUnit = timeUnit;
+        this.sweepInterval = sweepInterval;
+        for (int i = 0; i < STRIPES; i++) {
+            monitors[i] = new Object();
+        }
+    }
+
+    /**
+     * 初始化本地缓存锁实现，每秒清理一次过期的锁
+     *
+     * @param timeUnit 缓存锁的时间单位
+     */
+    public LocalLockServiceImpl(TimeUnit timeUnit) {
+        this(timeUnit, TimeUnit.SECONDS.toMillis(1));
+    }
+
+    @Override
+    public boolean getLock(Serializable key, int expireTime, TimeUnit timeUnit) {
+        long now = System.nanoTime();
+        long expireAt = (expireTime > 0 ? now + timeUnit.toNanos(expireTime) : Long.MAX_VALUE);
+        LockHold hold = new LockHold(Thread.currentThread().getId(), expireAt);
+        LockHold result = locks.compute(key, (k, value) -> (value == null || value.isExpired(now) ? hold : value));
+        if (result != hold) {
+            return false;
+        }
+        if (expireTime > 0) {
+            startSweeperIfNecessary();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean getLock(Serializable key, int expireTime) {
+        return getLock(key, expireTime, timeUnit);
+    }
+
+    @Override
+    public boolean releaseLock(Serializable key) {
+        LockHold hold = locks.get(key);
+        if (hold == null || hold.getOwner() != Thread.currentThread().getId() || !locks.remove(key, hold)) {
+            return false;
+        }
+        Object monitor = getMonitor(key);
+        synchronized (monitor) {
+            monitor.notifyAll();
+        }
+        // 锁已经过期了，和 Redis 的语义保持一致，返回释放失败
+        return !hold.isExpired(System.nanoTime());
+    }
+
+    /**
+     * 在 key 所在分段的监视器上等待，释放锁的时候会立即唤醒，最多等待 sleepTime 毫秒
+     *
+     * @param key 锁的名字
+     * @param sleepTime 等待的时间（毫秒）
+     */
+    @Override
+    protected void waitForRetry(Serializable key, long sleepTime) {
+        if (sleepTime <= 0) {
+            return;
+        }
+        Object monitor = getMonitor(key);
+        synchronized (monitor) {
+            try {
+                monitor.wait(sleepTime);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 当前持有中的锁的数量（包括已经过期但是还没有被清理的锁）
+     *
+     * @return 锁的数量
+     */
+    public int getLockSize() {
+        return locks.size();
+    }
+
+    /**
+     * 清理已经过期的锁
+     */
+    public void sweepExpiredLocks() {
+        long now = System.nanoTime();
+        locks.values().removeIf(hold -> hold.isExpired(now));
+    }
+
+    private Object getMonitor(Serializable key) {
+        int hash = key.hashCode();
+        return monitors[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private void startSweeperIfNecessary() {
+        if (sweeper != null) {
+            return;
+        }
+        synchronized (this) {
+            if (sweeper != null) {
+                return;
+            }
+            ScheduledExecutorService executor = Executors
+                    .newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+                            .setNameFormat("MyOSSCloud-Cache-LocalLockSweeper")
+                            .build());
+            long period = Math.max(sweepInterval, 1L);
+            executor.scheduleWithFixedDelay(this::sweepExpiredLocks, period, period, TimeUnit.MILLISECONDS);
+            sweeper = executor;
+        }
+    }
+
+    @Override
+    public void close() {
+        ScheduledExecutorService executor = sweeper;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        locks.clear();
+    }
+
+    /**
+     * 持有中的锁
+     */
+    @Value
+    static class LockHold {
+        /**
+         * 持有锁的线程 id
+         */
+        long owner;
+        /**
+         * 过期的时间点（{@link System#nanoTime()}）
+         */
+        long expireAt;
+
+        boolean isExpired(long now) {
+            return expireAt != Long.MAX_VALUE && now - expireAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+import app.myoss.cloud.cache.lock.functions.BaseLockFunction;
+import app.myoss.cloud.cache.lock.functions.LockFunction;
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+import app.myoss.cloud.cache.lock.functions.LockFunctionGenericWithArgs;
+import app.myoss.cloud.cache.lock.functions.LockFunctionWithArgs;
+import app.myoss.cloud.cache.lock.retry.BackoffPolicy;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 缓存锁服务抽象实现，统一实现 executeByLock 的重试获取锁、执行回调函数、释放锁的流程
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 上午10:25:12
+ */
+public abstract class AbstractLockService implements LockService {
+    /**
+     * 缓存锁事件监听器
+     */
+    @Getter
+    @Setter
+    private LockEventListener lockEventListener = LockEventListener.NONE;
+
+    /**
+     * 缓存锁的时间单位
+     *
+     * @return 缓存锁的时间单位
+     */
+    public abstract TimeUnit getTimeUnit();
+
+    @Override
+    public boolean executeByLock(Serializable key, int expireTime, LockFunction callback) {
+        return doExecuteByLock(key, expireTime, callback, () -> {
+            callback.onLockSuccess();
+            return true;
+        }, () -> {
+            callback.onLockFailed();
+            return false;
+        });
+    }
+
+    @Override
+    public boolean executeByLock(Serializable key, int expireTime, LockFunctionWithArgs callback, Object... args) {
+        return doExecuteByLock(key, expireTime, callback, () -> {
+            callback.onLockSuccess(args);
+            return true;
+        }, () -> {
+            callback.onLockFailed(args);
+            return false;
+        });
+    }
+
+    @Override
+    public <T> T executeByLock(Serializable key, int expireTime, LockFunctionGeneric<T> callback) {
+        return doExecuteByLock(key, expireTime, callback, callback::onLockSuccess, callback::onLockFailed);
+    }
+
+    @Override
+    public <T> T executeByLock(Serializable key, int expireTime, LockFunctionGenericWithArgs<T> callback,
+                               Object... args) {
+        return doExecuteByLock(key, expireTime, callback, () -> callback.onLockSuccess(args),
+                () -> callback.onLockFailed(args));
+    }
+
+    @Override
+    public boolean executeByLocks(Collection<? extends Serializable> keys, int expireTime, LockFunction callback) {
+        return doExecuteByLocks(keys, expireTime, callback, () -> {
+            callback.onLockSuccess();
+            return true;
+        }, () -> {
+            callback.onLockFailed();
+            return false;
+        });
+    }
+
+    @Override
+    public boolean executeByLocks(Collection<? extends Serializable> keys, int expireTime,
+                                  LockFunctionWithArgs callback, Object... args) {
+        return doExecuteByLocks(keys, expireTime, callback, () -> {
+            callback.onLockSuccess(args);
+            return true;
+        }, () -> {
+            callback.onLockFailed(args);
+            return false;
+        });
+    }
+
+    @Override
+    public <T> T executeByLocks(Collection<? extends Serializable> keys, int expireTime,
+                                LockFunctionGeneric<T> callback) {
+        return doExecuteByLocks(keys, expireTime, callback, callback::onLockSuccess, callback::onLockFailed);
+    }
+
+    @Override
+    public <T> T executeByLocks(Collection<? extends Serializable> keys, int expireTime,
+                                LockFunctionGenericWithArgs<T> callback, Object... args) {
+        return doExecuteByLocks(keys, expireTime, callback, () -> callback.onLockSuccess(args),
+                () -> callback.onLockFailed(args));
+    }
+
+    /**
+     * 获取锁，如果获取锁成功，则执行 onLockSuccess，执行完成之后释放锁；如果获取锁失败，则执行 onLockFailed
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数，用于获取重试的配置
+     * @param onLockSuccess 获取锁成功的时候执行
+     * @param onLockFailed 获取锁失败的时候执行
+     * @param <T> 回调函数返回的泛型
+     * @return 回调函数返回的结果
+     */
+    protected <T> T doExecuteByLock(Serializable key, int expireTime, BaseLockFunction callback,
+                                    Supplier<T> onLockSuccess, Supplier<T> onLockFailed) {
+        long begin = System.nanoTime();
+        if (!tryLock(key, expireTime, callback)) {
+            lockEventListener.onFailed(key, System.nanoTime() - begin);
+            return onLockFailed.get();
+        }
+        long acquired = System.nanoTime();
+        lockEventListener.onAcquired(key, acquired - begin);
+        try {
+            return onLockSuccess.get();
+        } finally {
+            // 子类的 releaseLock 只会释放自己持有的锁，即使锁已经过期被其它人获取到了，也可以放心去释放
+            boolean released = releaseLock(key);
+            lockEventListener.onReleased(key, System.nanoTime() - acquired, released);
+        }
+    }
+
+    /**
+     * 同时获取多个锁，如果全部获取成功，则执行 onLockSuccess，执行完成之后释放全部的锁；否则执行 onLockFailed
+     *
+     * @param keys 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数，用于获取重试的配置
+     * @param onLockSuccess 获取锁成功的时候执行
+     * @param onLockFailed 获取锁失败的时候执行
+     * @param <T> 回调函数返回的泛型
+     * @return 回调函数返回的结果
+     */
+    protected <T> T doExecuteByLocks(Collection<? extends Serializable> keys, int expireTime,
+                                     BaseLockFunction callback, Supplier<T> onLockSuccess, Supplier<T> onLockFailed) {
+        List<Serializable> sortedKeys = LockService.sortKeys(keys);
+        // 事件监听器中使用全部的锁的名字作为 key
+        ArrayList<Serializable> eventKey = new ArrayList<>(sortedKeys);
+        long begin = System.nanoTime();
+        if (!tryLock(eventKey, () -> getLocks(sortedKeys, expireTime), callback,
+                sleepTime -> waitForRetry(eventKey, sleepTime))) {
+            lockEventListener.onFailed(eventKey, System.nanoTime() - begin);
+            return onLockFailed.get();
+        }
+        long acquired = System.nanoTime();
+        lockEventListener.onAcquired(eventKey, acquired - begin);
+        try {
+            return onLockSuccess.get();
+        } finally {
+            boolean released = releaseLocks(sortedKeys);
+            lockEventListener.onReleased(eventKey, System.nanoTime() - acquired, released);
+        }
+    }
+
+    /**
+     * 获取锁，如果获取锁失败，根据 {@link BaseLockFunction#tryLockTimes()} 和
+     * {@link BaseLockFunction#backoffPolicy()} 进行多次重试
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数，用于获取重试的配置
+     * @return true：获取到锁，false：没有获取到锁
+     */
+    protected boolean tryLock(Serializable key, int expireTime, BaseLockFunction callback) {
+        return tryLock(key, expireTime, callback, sleepTime -> waitForRetry(key, sleepTime));
+    }
+
+    /**
+     * 获取锁，如果获取锁失败，根据 {@link BaseLockFunction#tryLockTimes()} 和
+     * {@link BaseLockFunction#backoffPolicy()} 进行多次重试，每次重试之前使用 waitStrategy 进行等待
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数，用于获取重试的配置
+     * @param waitStrategy 重试之前的等待方式，入参为等待的时间（毫秒）
+     * @return true：获取到锁，false：没有获取到锁
+     */
+    protected boolean tryLock(Serializable key, int expireTime, BaseLockFunction callback,
+                              LongConsumer waitStrategy) {
+        return tryLock(key, () -> getLock(key, expireTime), callback, waitStrategy);
+    }
+
+    /**
+     * 使用 getLock 获取锁，如果获取锁失败，根据 {@link BaseLockFunction#tryLockTimes()} 和
+     * {@link BaseLockFunction#backoffPolicy()} 进行多次重试，每次重试之前使用 waitStrategy 进行等待
+     *
+     * @param key 锁的名字，用于通知事件监听器
+     * @param getLock 获取一次锁
+     * @param callback 回调函数，用于获取重试的配置
+     * @param waitStrategy 重试之前的等待方式，入参为等待的时间（毫秒）
+     * @return true：获取到锁，false：没有获取到锁
+     */
+    protected boolean tryLock(Serializable key, BooleanSupplier getLock, BaseLockFunction callback,
+                              LongConsumer waitStrategy) {
+        if (getLock.getAsBoolean()) {
+            return true;
+        }
+        int tryLockTimes = callback.tryLockTimes();
+        BackoffPolicy backoffPolicy = callback.backoffPolicy();
+        long baseSleepTime = callback.tryLockSleepTime();
+        long sleepTime = baseSleepTime;
+        // 进行多次重试获取锁
+        for (int i = 1; i < tryLockTimes; i++) {
+            sleepTime = backoffPolicy.nextSleepTime(i, baseSleepTime, sleepTime);
+            long begin = System.nanoTime();
+            waitStrategy.accept(sleepTime);
+            lockEventListener.onRetryWait(key, i, System.nanoTime() - begin);
+            if (Thread.currentThread().isInterrupted()) {
+                // 线程被中断了，不再继续重试
+                return false;
+            }
+            if (getLock.getAsBoolean()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 重试获取锁之前进行等待，默认挂起当前线程 sleepTime 毫秒
+     *
+     * @param key 锁的名字
+     * @param sleepTime 等待的时间（毫秒）
+     */
+    protected void waitForRetry(Serializable key, long sleepTime) {
+        LockService.sleep(sleepTime);
+    }
+}
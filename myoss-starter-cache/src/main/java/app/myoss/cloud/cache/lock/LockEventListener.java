@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock;
+
+import java.io.Serializable;
+
+/**
+ * 缓存锁事件监听器，用于统计锁的获取耗时、持有时间、等待、重试等指标，所有方法默认为空实现
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 上午10:21:40
+ */
+public interface LockEventListener {
+    /**
+     * 空实现
+     */
+    LockEventListener NONE = new LockEventListener() {
+    };
+
+    /**
+     * 获取锁失败之后，重试之前等待完成的时候执行
+     *
+     * @param key 锁的名字
+     * @param attempt 第几次重试，从 1 开始
+     * @param waitNanos 实际等待的时间（纳秒）
+     */
+    default void onRetryWait(Serializable key, int attempt, long waitNanos) {
+    }
+
+    /**
+     * 获取锁成功的时候执行
+     *
+     * @param key 锁的名字
+     * @param acquireNanos 获取锁的耗时，包括重试等待的时间（纳秒）
+     */
+    default void onAcquired(Serializable key, long acquireNanos) {
+    }
+
+    /**
+     * 重试了 {@link app.myoss.cloud.cache.lock.functions.BaseLockFunction#tryLockTimes()} 次之后，获取锁失败的时候执行
+     *
+     * @param key 锁的名字
+     * @param acquireNanos 尝试获取锁的耗时，包括重试等待的时间（纳秒）
+     */
+    default void onFailed(Serializable key, long acquireNanos) {
+    }
+
+    /**
+     * 释放锁之后执行
+     *
+     * @param key 锁的名字
+     * @param holdNanos 持有锁的时间（纳秒）
+     * @param released true：释放成功，false：锁在释放之前已经过期了（可能已经被其它人获取到了）
+     */
+    default void onReleased(Serializable key, long holdNanos, boolean released) {
+    }
+}
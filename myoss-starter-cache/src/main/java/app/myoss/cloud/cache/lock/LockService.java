@@ -18,7 +18,14 @@
 package app.myoss.cloud.cache.lock;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
 
 import app.myoss.cloud.cache.lock.functions.LockFunction;
 import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
@@ -32,6 +39,11 @@ import app.myoss.cloud.cache.lock.functions.LockFunctionWithArgs;
  * @since 2018年5月9日 下午5:01:14
  */
 public interface LockService {
+    /**
+     * 看门狗模式的锁过期时间：获取锁的时候只设置一个较短的租期，持有锁期间自动续期，直到释放锁（需要实现类支持）
+     */
+    int WATCHDOG_EXPIRE_TIME = -1;
+
     /**
      * 模拟{@link Thread#sleep(long)}，规避 SonarQube 会扫描 Thread.sleep 代码。
      * <p>
@@ -39,16 +51,70 @@ public interface LockService {
      * brittle tests that can fail unpredictably depending on environment
      * ("Passes on my machine!") or load.
      * <p>
-     * 也可以使用 {@link TimeUnit#sleep(long)} 去替代 Thread.sleep 代码
+     * 使用 {@link LockSupport#parkNanos(long)} 挂起当前线程，等待的过程中不占用 CPU；如果线程被中断，会立即返回并保留中断标记
      *
      * @param milliseconds 等待的毫秒时间
      */
     static void sleep(long milliseconds) {
-        long begin = System.currentTimeMillis();
-        long cost = 0;
-        while (cost <= milliseconds) {
-            cost = System.currentTimeMillis() - begin;
+        if (milliseconds <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(milliseconds);
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            // parkNanos 可能会被虚假唤醒，需要重新计算剩余的等待时间
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * 多个锁的名字去重，并按照名字的字符串排序，所有的调用方都按照同样的顺序获取锁，避免互相等待对方持有的锁而死锁
+     *
+     * @param keys 锁的名字
+     * @return 去重、排序之后的锁的名字
+     */
+    static List<Serializable> sortKeys(Collection<? extends Serializable> keys) {
+        List<Serializable> sortedKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        sortedKeys.sort(Comparator.comparing(String::valueOf));
+        return sortedKeys;
+    }
+
+    /**
+     * 按照顺序逐个获取锁，其中一个获取失败的时候，按照相反的顺序释放已经获取到的锁
+     *
+     * @param lockService 缓存锁服务
+     * @param sortedKeys 排序之后的锁的名字，参考 {@link #sortKeys(Collection)}
+     * @param getLock 获取一个锁
+     * @return true：获取到全部的锁，false：没有获取到锁
+     */
+    static boolean acquireInOrder(LockService lockService, List<Serializable> sortedKeys,
+                                  Predicate<Serializable> getLock) {
+        for (int i = 0; i < sortedKeys.size(); i++) {
+            if (!getLock.test(sortedKeys.get(i))) {
+                releaseInOrder(lockService, sortedKeys.subList(0, i));
+                return false;
+            }
         }
+        return true;
+    }
+
+    /**
+     * 按照获取锁相反的顺序逐个释放锁
+     *
+     * @param lockService 缓存锁服务
+     * @param sortedKeys 排序之后的锁的名字，参考 {@link #sortKeys(Collection)}
+     * @return true：全部释放成功，false：有锁释放失败
+     */
+    static boolean releaseInOrder(LockService lockService, List<Serializable> sortedKeys) {
+        boolean result = true;
+        for (int i = sortedKeys.size() - 1; i >= 0; i--) {
+            result &= lockService.releaseLock(sortedKeys.get(i));
+        }
+        return result;
     }
 
     /**
@@ -71,13 +137,47 @@ public interface LockService {
     boolean getLock(Serializable key, int expireTime);
 
     /**
-     * 释放锁
+     * 释放锁，只能释放当前线程持有的锁
      *
      * @param key 锁的名字
      * @return true：释放锁成功，false：释放锁失败
      */
     boolean releaseLock(Serializable key);
 
+    /**
+     * 同时获取多个锁，要么全部获取到，要么一个都不持有；默认实现按照 {@link #sortKeys(Collection)} 的顺序逐个获取，实现类可以使用一次网络调用原子的获取
+     *
+     * @param keys 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param timeUnit 缓存锁的时间单位
+     * @return true：获取到全部的锁，false：没有获取到锁
+     */
+    default boolean getLocks(Collection<? extends Serializable> keys, int expireTime, TimeUnit timeUnit) {
+        return acquireInOrder(this, sortKeys(keys), key -> getLock(key, expireTime, timeUnit));
+    }
+
+    /**
+     * 同时获取多个锁，要么全部获取到，要么一个都不持有
+     *
+     * @param keys 锁的名字
+     * @param expireTime 锁的过期时间
+     * @return true：获取到全部的锁，false：没有获取到锁
+     * @see #getLocks(Collection, int, TimeUnit)
+     */
+    default boolean getLocks(Collection<? extends Serializable> keys, int expireTime) {
+        return acquireInOrder(this, sortKeys(keys), key -> getLock(key, expireTime));
+    }
+
+    /**
+     * 释放 {@link #getLocks(Collection, int)} 获取到的多个锁，只能释放当前线程持有的锁
+     *
+     * @param keys 锁的名字
+     * @return true：全部释放成功，false：有锁释放失败
+     */
+    default boolean releaseLocks(Collection<? extends Serializable> keys) {
+        return releaseInOrder(this, sortKeys(keys));
+    }
+
     /**
      * 如果获取锁成功，则执行 {@link LockFunction#onLockSuccess() callback.onLockSuccess()}
      * 如果获取锁失败，则执行 {@link LockFunction#onLockFailed() callback.onLockFailed()}
@@ -130,4 +230,111 @@ public interface LockService {
      * @return 回调函数返回的结果
      */
     <T> T executeByLock(Serializable key, int expireTime, LockFunctionGenericWithArgs<T> callback, Object... args);
+
+    /**
+     * 同时获取多个锁（参考 {@link #getLocks(Collection, int)}），如果全部获取成功，则执行
+     * {@link LockFunction#onLockSuccess() callback.onLockSuccess()}，执行完成之后释放全部的锁；否则执行
+     * {@link LockFunction#onLockFailed() callback.onLockFailed()}
+     * <p>
+     * 默认实现每个锁只尝试获取一次，{@link AbstractLockService} 支持获取锁的重试和锁事件
+     *
+     * @param keys 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @return true：获取到全部的锁，false：没有获取到锁
+     */
+    default boolean executeByLocks(Collection<? extends Serializable> keys, int expireTime, LockFunction callback) {
+        List<Serializable> sortedKeys = sortKeys(keys);
+        if (!acquireInOrder(this, sortedKeys, key -> getLock(key, expireTime))) {
+            callback.onLockFailed();
+            return false;
+        }
+        try {
+            callback.onLockSuccess();
+            return true;
+        } finally {
+            releaseInOrder(this, sortedKeys);
+        }
+    }
+
+    /**
+     * 同时获取多个锁（参考 {@link #getLocks(Collection, int)}），如果全部获取成功，则执行
+     * {@link LockFunctionWithArgs#onLockSuccess(Object...) callback.onLockSuccess()}，执行完成之后释放全部的锁；否则执行
+     * {@link LockFunctionWithArgs#onLockFailed(Object...) callback.onLockFailed()}
+     * <p>
+     * 默认实现每个锁只尝试获取一次，{@link AbstractLockService} 支持获取锁的重试和锁事件
+     *
+     * @param keys 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @param args 回调函数的入参
+     * @return true：获取到全部的锁，false：没有获取到锁
+     */
+    default boolean executeByLocks(Collection<? extends Serializable> keys, int expireTime,
+                                   LockFunctionWithArgs callback, Object... args) {
+        List<Serializable> sortedKeys = sortKeys(keys);
+        if (!acquireInOrder(this, sortedKeys, key -> getLock(key, expireTime))) {
+            callback.onLockFailed(args);
+            return false;
+        }
+        try {
+            callback.onLockSuccess(args);
+            return true;
+        } finally {
+            releaseInOrder(this, sortedKeys);
+        }
+    }
+
+    /**
+     * 同时获取多个锁（参考 {@link #getLocks(Collection, int)}），如果全部获取成功，则执行
+     * {@link LockFunctionGeneric#onLockSuccess() callback.onLockSuccess()}，执行完成之后释放全部的锁；否则执行
+     * {@link LockFunctionGeneric#onLockFailed() callback.onLockFailed()}
+     * <p>
+     * 默认实现每个锁只尝试获取一次，{@link AbstractLockService} 支持获取锁的重试和锁事件
+     *
+     * @param keys 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @param <T> 回调函数返回的泛型
+     * @return 回调函数返回的结果
+     */
+    default <T> T executeByLocks(Collection<? extends Serializable> keys, int expireTime,
+                                 LockFunctionGeneric<T> callback) {
+        List<Serializable> sortedKeys = sortKeys(keys);
+        if (!acquireInOrder(this, sortedKeys, key -> getLock(key, expireTime))) {
+            return callback.onLockFailed();
+        }
+        try {
+            return callback.onLockSuccess();
+        } finally {
+            releaseInOrder(this, sortedKeys);
+        }
+    }
+
+    /**
+     * 同时获取多个锁（参考 {@link #getLocks(Collection, int)}），如果全部获取成功，则执行
+     * {@link LockFunctionGenericWithArgs#onLockSuccess(Object...) callback.onLockSuccess()}，执行完成之后释放全部的锁；否则执行
+     * {@link LockFunctionGenericWithArgs#onLockFailed(Object...) callback.onLockFailed()}
+     * <p>
+     * 默认实现每个锁只尝试获取一次，{@link AbstractLockService} 支持获取锁的重试和锁事件
+     *
+     * @param keys 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @param args 回调函数的入参
+     * @param <T> 回调函数返回的泛型
+     * @return 回调函数返回的结果
+     */
+    default <T> T executeByLocks(Collection<? extends Serializable> keys, int expireTime,
+                                 LockFunctionGenericWithArgs<T> callback, Object... args) {
+        List<Serializable> sortedKeys = sortKeys(keys);
+        if (!acquireInOrder(this, sortedKeys, key -> getLock(key, expireTime))) {
+            return callback.onLockFailed(args);
+        }
+        try {
+            return callback.onLockSuccess(args);
+        } finally {
+            releaseInOrder(this, sortedKeys);
+        }
+    }
 }
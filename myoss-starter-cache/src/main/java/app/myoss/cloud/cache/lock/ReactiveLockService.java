@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock;
+
+import java.io.Serializable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import app.myoss.cloud.cache.lock.functions.ReactiveLockFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * 响应式缓存锁服务接口，所有的方法都不会阻塞调用线程，可以在 WebFlux（Netty event-loop）中使用
+ * <p>
+ * 响应式调用链中没有固定的线程，所以锁持有者的令牌由每次获取锁的时候生成，并通过 {@link #getLock(Serializable, int)}
+ * 返回，释放锁的时候需要传入这个令牌
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午3:12:05
+ */
+public interface ReactiveLockService {
+    /**
+     * 获取锁
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param timeUnit 缓存锁的时间单位
+     * @return 获取到锁的时候返回锁持有者的令牌，没有获取到锁的时候返回 {@link Mono#empty()}
+     */
+    Mono<String> getLock(Serializable key, int expireTime, TimeUnit timeUnit);
+
+    /**
+     * 获取锁
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @return 获取到锁的时候返回锁持有者的令牌，没有获取到锁的时候返回 {@link Mono#empty()}
+     */
+    Mono<String> getLock(Serializable key, int expireTime);
+
+    /**
+     * 释放锁，只会释放 owner 持有的锁
+     *
+     * @param key 锁的名字
+     * @param owner 锁持有者的令牌
+     * @return true：释放锁成功，false：锁不存在或者不是 owner 持有的
+     */
+    Mono<Boolean> releaseLock(Serializable key, String owner);
+
+    /**
+     * 使用锁执行方法，获取锁失败的时候按照 {@link ReactiveLockFunction#backoffPolicy()} 非阻塞的延迟重试，执行完成之后释放锁
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @param <T> 泛型
+     * @return 回调函数的返回值
+     */
+    <T> Mono<T> executeByLock(Serializable key, int expireTime, ReactiveLockFunction<T> callback);
+
+    /**
+     * 使用锁执行方法，给非 Reactor 的异步调用方使用
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数
+     * @param <T> 泛型
+     * @return 回调函数的返回值
+     * @see #executeByLock(Serializable, int, ReactiveLockFunction)
+     */
+    default <T> CompletionStage<T> executeByLockAsync(Serializable key, int expireTime,
+                                                      ReactiveLockFunction<T> callback) {
+        return executeByLock(key, expireTime, callback).toFuture();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock;
+
+/**
+ * 读写缓存锁服务接口，读锁之间可以共享，写锁和其它所有的锁互斥
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午2:45:02
+ */
+public interface ReadWriteLockService {
+    /**
+     * 获取读锁服务，多个读者可以同时持有同一个锁
+     *
+     * @return 读锁服务
+     */
+    LockService readLock();
+
+    /**
+     * 获取写锁服务，同一时间只有一个写者可以持有锁，并且不能有读者
+     *
+     * @return 写锁服务
+     */
+    LockService writeLock();
+}
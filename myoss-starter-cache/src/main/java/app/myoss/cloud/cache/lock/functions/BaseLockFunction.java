@@ -17,6 +17,8 @@
 
 package app.myoss.cloud.cache.lock.functions;
 
+import app.myoss.cloud.cache.lock.retry.BackoffPolicy;
+
 /**
  * 使用锁执行方法的时候，使用的回调函数基类
  *
@@ -41,4 +43,16 @@ public interface BaseLockFunction {
     default long tryLockSleepTime() {
         return 10L;
     }
+
+    /**
+     * 重复尝试获取锁的退避策略，默认每次都休眠 {@link #tryLockSleepTime()}
+     *
+     * @return 重复尝试获取锁的退避策略
+     * @see BackoffPolicy#fixed()
+     * @see BackoffPolicy#exponential(long)
+     * @see BackoffPolicy#decorrelatedJitter(long)
+     */
+    default BackoffPolicy backoffPolicy() {
+        return BackoffPolicy.fixed();
+    }
 }
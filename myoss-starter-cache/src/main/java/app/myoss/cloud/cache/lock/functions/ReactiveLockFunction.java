@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.functions;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 使用响应式缓存锁执行方法的时候，使用的回调函数
+ * <ul>
+ * <li>回调函数返回 {@link Mono}，在获取锁之后才会被订阅，不会阻塞调用线程
+ * </ul>
+ *
+ * @param <T> 泛型
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午3:10:42
+ */
+public interface ReactiveLockFunction<T> extends BaseLockFunction {
+    /**
+     * 获取锁成功的时候执行，返回的 {@link Mono} 结束（完成、异常、取消）之后释放锁
+     *
+     * @return 返回值
+     */
+    Mono<T> onLockSuccess();
+
+    /**
+     * 获取锁失败的时候执行，默认返回 {@link Mono#empty()}
+     *
+     * @return 返回值
+     */
+    default Mono<T> onLockFailed() {
+        return Mono.empty();
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 使用 Space-Saving 算法统计出现次数最多的 key，最多只保存 capacity 个计数器，占用的内存是固定的
+ * <p>
+ * 计数器满了之后，新的 key 会替换掉次数最少的计数器，并继承它的次数（记为误差 error），所以 count 是真实次数的上界，count - error
+ * 是真实次数的下界
+ * <p>
+ * 为了不在获取锁的热点路径上引入全局的竞争，计数器按 key 的 hash 分成多个分段，每个分段单独加锁，保存 capacity / 分段数量
+ * 个计数器，替换计数器的时候只需要在分段内查找次数最少的；出现次数大于 分段总次数 / 分段计数器数量 的 key 一定会被保留下来
+ * <p>
+ * 计数器会衰减：每个分段记录了 分段计数器数量 * sampleFactor 次之后，所有计数器的次数和误差减半，减到 0 的计数器被移除；
+ * 上面的上界、下界是对衰减之后的次数而言的，统计结果偏向最近的访问，以前的热点 key 不会一直占着计数器
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午4:40:26
+ */
+public class HotKeySketch {
+    /**
+     * 默认的分段数量
+     */
+    public static final int  DEFAULT_STRIPES       = 16;
+    /**
+     * 默认的衰减周期：每个分段记录了 分段计数器数量 * 1000 次之后衰减一次
+     */
+    public static final int  DEFAULT_SAMPLE_FACTOR = 1000;
+    private final Stripe[]   stripes;
+    private final LongAdder  total                 = new LongAdder();
+
+    /**
+     * 创建热点 key 统计，分段数量为: {@link #DEFAULT_STRIPES}
+     *
+     * @param capacity 最多保存的计数器数量
+     */
+    public HotKeySketch(int capacity) {
+        this(capacity, DEFAULT_STRIPES);
+    }
+
+    /**
+     * 创建热点 key 统计，衰减周期为: {@link #DEFAULT_SAMPLE_FACTOR}
+     *
+     * @param capacity 最多保存的计数器数量
+     * @param stripes 分段数量，不会超过 capacity
+     */
+    public HotKeySketch(int capacity, int stripes) {
+        this(capacity, stripes, DEFAULT_SAMPLE_FACTOR);
+    }
+
+    /**
+     * 创建热点 key 统计
+     *
+     * @param capacity 最多保存的计数器数量
+     * @param stripes 分段数量，不会超过 capacity
+     * @param sampleFactor 衰减周期，每个分段记录了 分段计数器数量 * sampleFactor 次之后，所有计数器的次数减半
+     */
+    public HotKeySketch(int capacity, int stripes, int sampleFactor) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must be greater than 0");
+        }
+        if (sampleFactor <= 0) {
+            throw new IllegalArgumentException("sampleFactor must be greater than 0");
+        }
+        int size = Math.min(stripes, capacity);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            // 把 capacity 尽量平均地分配到每个分段
+            int stripeCapacity = capacity / size + (i < capacity % size ? 1 : 0);
+            this.stripes[i] = new Stripe(stripeCapacity, (long) stripeCapacity * sampleFactor);
+        }
+    }
+
+    /**
+     * 记录 key 出现了一次
+     *
+     * @param key 缓存 key
+     */
+    public void offer(String key) {
+        total.increment();
+        int hash = key.hashCode();
+        stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)].offer(key);
+    }
+
+    /**
+     * 获取出现次数最多的 key，按照次数倒序排序
+     *
+     * @param top 最多返回的数量
+     * @return 出现次数最多的 key
+     */
+    public List<HotKey> topK(int top) {
+        List<HotKey> result = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.copyTo(result);
+        }
+        result.sort((o1, o2) -> Long.compare(o2.count, o1.count));
+        return (result.size() > top ? new ArrayList<>(result.subList(0, top)) : result);
+    }
+
+    /**
+     * 获取记录的总次数，不会衰减
+     *
+     * @return 总次数
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+        total.reset();
+    }
+
+    /**
+     * 一个分段的计数器
+     */
+    private static class Stripe {
+        private final int                 capacity;
+        private final long                sampleSize;
+        private final Map<String, HotKey> counters;
+        private long                      samples;
+
+        Stripe(int capacity, long sampleSize) {
+            this.capacity = capacity;
+            this.sampleSize = sampleSize;
+            this.counters = new HashMap<>(capacity * 2);
+        }
+
+        synchronized void offer(String key) {
+            increment(key);
+            if (++samples >= sampleSize) {
+                decay();
+            }
+        }
+
+        private void increment(String key) {
+            HotKey counter = counters.get(key);
+            if (counter != null) {
+                counter.count++;
+                return;
+            }
+            if (counters.size() < capacity) {
+                counters.put(key, new HotKey(key, 1, 0));
+                return;
+            }
+            HotKey min = null;
+            for (HotKey value : counters.values()) {
+                if (min == null || value.count < min.count) {
+                    min = value;
+                }
+            }
+            counters.remove(min.key);
+            counters.put(key, new HotKey(key, min.count + 1, min.count));
+        }
+
+        private void decay() {
+            samples = 0;
+            counters.values().removeIf(counter -> {
+                counter.count >>>= 1;
+                counter.error >>>= 1;
+                return counter.count == 0;
+            });
+        }
+
+        synchronized void copyTo(List<HotKey> result) {
+            for (HotKey value : counters.values()) {
+                result.add(new HotKey(value.key, value.count, value.error));
+            }
+        }
+
+        synchronized void clear() {
+            counters.clear();
+            samples = 0;
+        }
+    }
+
+    /**
+     * 热点 key 的计数器
+     */
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Data
+    public static class HotKey {
+        /**
+         * 缓存 key
+         */
+        private String key;
+        /**
+         * 出现的次数（上界）
+         */
+        private long   count;
+        /**
+         * 次数的误差，count - error 为出现次数的下界
+         */
+        private long   error;
+    }
+}
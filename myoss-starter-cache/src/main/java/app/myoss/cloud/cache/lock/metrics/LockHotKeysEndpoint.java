@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+/**
+ * 缓存锁热点 key endpoint，查看竞争最激烈的锁
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午4:52:14
+ */
+@Endpoint(id = LockHotKeysEndpoint.ENDPOINT_ID)
+public class LockHotKeysEndpoint {
+    /**
+     * endpoint id
+     */
+    public static final String ENDPOINT_ID = "lockhotkeys";
+    /**
+     * 默认返回的热点 key 数量
+     */
+    public static final int    DEFAULT_TOP = 20;
+
+    private final HotKeySketch hotKeySketch;
+
+    /**
+     * 创建缓存锁热点 key endpoint
+     *
+     * @param hotKeySketch 缓存锁热点 key 统计
+     */
+    public LockHotKeysEndpoint(HotKeySketch hotKeySketch) {
+        this.hotKeySketch = hotKeySketch;
+    }
+
+    /**
+     * 查看竞争最激烈的 {@link #DEFAULT_TOP} 个锁
+     *
+     * @return 热点 key
+     */
+    @ReadOperation
+    public Map<String, Object> hotKeys() {
+        return hotKeys(DEFAULT_TOP);
+    }
+
+    /**
+     * 查看竞争最激烈的 top 个锁
+     *
+     * @param top 返回的数量
+     * @return 热点 key
+     */
+    @ReadOperation
+    public Map<String, Object> hotKeys(@Selector int top) {
+        List<HotKeySketch.HotKey> hotKeys = hotKeySketch.topK(top);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", hotKeySketch.getTotal());
+        result.put("hotKeys", hotKeys);
+        return result;
+    }
+}
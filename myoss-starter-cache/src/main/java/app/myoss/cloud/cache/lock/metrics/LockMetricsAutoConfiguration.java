@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.metrics;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import app.myoss.cloud.cache.lock.LockEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 缓存锁指标自动配置，存在 {@link MeterRegistry} 的时候，使用 Micrometer 记录缓存锁的指标，并统计竞争激烈的热点 key
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 上午10:42:51
+ */
+@AutoConfigureAfter(name = {
+        "org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration" })
+@ConditionalOnClass(MeterRegistry.class)
+@Configuration
+public class LockMetricsAutoConfiguration {
+    /**
+     * 热点 key 统计默认保存的计数器数量
+     */
+    public static final int HOT_KEY_CAPACITY = 128;
+
+    /**
+     * 缓存锁热点 key 统计
+     *
+     * @return 缓存锁热点 key 统计
+     */
+    @ConditionalOnMissingBean
+    @Bean
+    public HotKeySketch lockHotKeySketch() {
+        return new HotKeySketch(HOT_KEY_CAPACITY);
+    }
+
+    /**
+     * 使用 Micrometer 记录缓存锁的指标
+     *
+     * @param registry Micrometer MeterRegistry
+     * @param hotKeySketch 缓存锁热点 key 统计
+     * @return 缓存锁事件监听器
+     */
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnMissingBean(LockEventListener.class)
+    @Bean
+    public MicrometerLockEventListener micrometerLockEventListener(MeterRegistry registry,
+                                                                   HotKeySketch hotKeySketch) {
+        return new MicrometerLockEventListener(registry, hotKeySketch);
+    }
+
+    /**
+     * classpath 中存在 actuator 的时候，暴露缓存锁热点 key endpoint
+     */
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    @Configuration
+    public static class LockHotKeysEndpointConfiguration {
+        /**
+         * 缓存锁热点 key endpoint
+         *
+         * @param hotKeySketch 缓存锁热点 key 统计
+         * @return 缓存锁热点 key endpoint
+         */
+        @ConditionalOnAvailableEndpoint(endpoint = LockHotKeysEndpoint.class)
+        @ConditionalOnMissingBean
+        @Bean
+        public LockHotKeysEndpoint lockHotKeysEndpoint(HotKeySketch hotKeySketch) {
+            return new LockHotKeysEndpoint(hotKeySketch);
+        }
+    }
+}
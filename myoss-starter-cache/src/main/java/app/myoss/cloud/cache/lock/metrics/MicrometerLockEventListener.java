@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.metrics;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import app.myoss.cloud.cache.lock.LockEventListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 使用 Micrometer 记录缓存锁的指标
+ * <ul>
+ * <li>myoss.cache.lock.acquire：获取锁成功的耗时（包括重试等待的时间），带直方图
+ * <li>myoss.cache.lock.failed：获取锁失败的次数
+ * <li>myoss.cache.lock.hold：持有锁的时间
+ * <li>myoss.cache.lock.retry：重试获取锁的次数
+ * <li>myoss.cache.lock.retry.wait：获取锁失败之后，重试之前白白等待的时间
+ * <li>myoss.cache.lock.expired：锁在释放之前已经过期的次数，说明锁的过期时间设置得太短了
+ * </ul>
+ * 同时把获取锁、重试的 key 记录到 {@link HotKeySketch} 中，用于发现竞争激烈的锁
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 上午10:38:05
+ */
+public class MicrometerLockEventListener implements LockEventListener {
+    /**
+     * 指标名称前缀
+     */
+    public static final String METRIC_PREFIX = "myoss.cache.lock";
+
+    private final Timer        acquireTimer;
+    private final Counter      failedCounter;
+    private final Timer        holdTimer;
+    private final Counter      retryCounter;
+    private final Timer        retryWaitTimer;
+    private final Counter      expiredCounter;
+    private final HotKeySketch hotKeySketch;
+
+    /**
+     * 使用 Micrometer 记录缓存锁的指标
+     *
+     * @param registry Micrometer MeterRegistry
+     * @param hotKeySketch 缓存锁热点 key 统计，为 null 的时候不统计
+     */
+    public MicrometerLockEventListener(MeterRegistry registry, HotKeySketch hotKeySketch) {
+        this.acquireTimer = Timer.builder(METRIC_PREFIX + ".acquire")
+                .description("Time spent acquiring locks, including retry waits")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.failedCounter = Counter.builder(METRIC_PREFIX + ".failed")
+                .description("Number of lock acquisitions that gave up")
+                .register(registry);
+        this.holdTimer = Timer.builder(METRIC_PREFIX + ".hold")
+                .description("Time locks were held before release")
+                .register(registry);
+        this.retryCounter = Counter.builder(METRIC_PREFIX + ".retry")
+                .description("Number of lock acquire retries")
+                .register(registry);
+        this.retryWaitTimer = Timer.builder(METRIC_PREFIX + ".retry.wait")
+                .description("Time spent waiting between lock acquire retries")
+                .register(registry);
+        this.expiredCounter = Counter.builder(METRIC_PREFIX + ".expired")
+                .description("Number of locks whose TTL expired before release")
+                .register(registry);
+        this.hotKeySketch = hotKeySketch;
+    }
+
+    /**
+     * 使用 Micrometer 记录缓存锁的指标，不统计热点 key
+     *
+     * @param registry Micrometer MeterRegistry
+     */
+    public MicrometerLockEventListener(MeterRegistry registry) {
+        this(registry, null);
+    }
+
+    @Override
+    public void onRetryWait(Serializable key, int attempt, long waitNanos) {
+        retryCounter.increment();
+        retryWaitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+        offerHotKey(key);
+    }
+
+    @Override
+    public void onAcquired(Serializable key, long acquireNanos) {
+        acquireTimer.record(acquireNanos, TimeUnit.NANOSECONDS);
+        offerHotKey(key);
+    }
+
+    @Override
+    public void onFailed(Serializable key, long acquireNanos) {
+        failedCounter.increment();
+        offerHotKey(key);
+    }
+
+    @Override
+    public void onReleased(Serializable key, long holdNanos, boolean released) {
+        holdTimer.record(holdNanos, TimeUnit.NANOSECONDS);
+        if (!released) {
+            expiredCounter.increment();
+        }
+    }
+
+    private void offerHotKey(Serializable key) {
+        if (hotKeySketch != null) {
+            hotKeySketch.offer(String.valueOf(key));
+        }
+    }
+}
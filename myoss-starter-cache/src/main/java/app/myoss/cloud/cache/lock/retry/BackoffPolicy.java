@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.retry;
+
+/**
+ * 重试获取锁的退避策略，计算每一次重试之前需要休眠的时间
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 上午10:01:15
+ * @see app.myoss.cloud.cache.lock.functions.BaseLockFunction#backoffPolicy()
+ */
+@FunctionalInterface
+public interface BackoffPolicy {
+    /**
+     * 计算下一次重试之前需要休眠的时间
+     *
+     * @param attempt 第几次重试，从 1 开始
+     * @param baseSleepTime 基础休眠时间，即
+     *            {@link app.myoss.cloud.cache.lock.functions.BaseLockFunction#tryLockSleepTime()}
+     * @param previousSleepTime 上一次的休眠时间，第一次重试的时候等于 baseSleepTime
+     * @return 休眠时间（毫秒）
+     */
+    long nextSleepTime(int attempt, long baseSleepTime, long previousSleepTime);
+
+    /**
+     * 固定间隔的退避策略，每次都休眠 baseSleepTime
+     *
+     * @return 固定间隔的退避策略
+     */
+    static BackoffPolicy fixed() {
+        return FixedBackoffPolicy.INSTANCE;
+    }
+
+    /**
+     * 指数增长的退避策略，每次休眠的时间翻倍，最多不超过 maxSleepTime
+     *
+     * @param maxSleepTime 最大的休眠时间（毫秒）
+     * @return 指数增长的退避策略
+     */
+    static BackoffPolicy exponential(long maxSleepTime) {
+        return new ExponentialBackoffPolicy(maxSleepTime);
+    }
+
+    /**
+     * 去相关抖动（decorrelated jitter）的退避策略，在 [baseSleepTime, previousSleepTime * 3]
+     * 之间随机取值，最多不超过 maxSleepTime，可以把同时竞争锁的线程打散
+     *
+     * @param maxSleepTime 最大的休眠时间（毫秒）
+     * @return 去相关抖动的退避策略
+     */
+    static BackoffPolicy decorrelatedJitter(long maxSleepTime) {
+        return new DecorrelatedJitterBackoffPolicy(maxSleepTime);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 去相关抖动（decorrelated jitter）的退避策略：sleep = min(maxSleepTime, random(baseSleepTime,
+ * previousSleepTime * 3))
+ * <p>
+ * 同时竞争一个热点锁的线程，如果都使用固定的间隔去重试，会在同一时刻一起打到 Redis 上；加入随机抖动之后可以把它们打散
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 上午10:04:15
+ */
+@Getter
+@AllArgsConstructor
+public class DecorrelatedJitterBackoffPolicy implements BackoffPolicy {
+    /**
+     * 最大的休眠时间（毫秒）
+     */
+    private final long maxSleepTime;
+
+    @Override
+    public long nextSleepTime(int attempt, long baseSleepTime, long previousSleepTime) {
+        long lower = Math.max(baseSleepTime, 1L);
+        long upper = Math.max(previousSleepTime, lower) * 3;
+        if (upper <= lower) {
+            return Math.min(lower, maxSleepTime);
+        }
+        long sleepTime = ThreadLocalRandom.current().nextLong(lower, upper);
+        return Math.min(sleepTime, maxSleepTime);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.retry;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 指数增长的退避策略，第 n 次重试休眠 baseSleepTime * 2^(n-1)，最多不超过 maxSleepTime；
+ * baseSleepTime 不大于 0 的时候不休眠
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 上午10:03:15
+ */
+@Getter
+@AllArgsConstructor
+public class ExponentialBackoffPolicy implements BackoffPolicy {
+    /**
+     * 最大的休眠时间（毫秒）
+     */
+    private final long maxSleepTime;
+
+    @Override
+    public long nextSleepTime(int attempt, long baseSleepTime, long previousSleepTime) {
+        if (baseSleepTime <= 0) {
+            return 0L;
+        }
+        int shift = Math.min(Math.max(attempt - 1, 0), 62);
+        // 先和 maxSleepTime 比较再位移，防止溢出
+        if (baseSleepTime > (maxSleepTime >> shift)) {
+            return maxSleepTime;
+        }
+        return baseSleepTime << shift;
+    }
+}
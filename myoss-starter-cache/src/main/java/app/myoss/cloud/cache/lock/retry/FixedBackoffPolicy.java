@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.retry;
+
+/**
+ * 固定间隔的退避策略，每次都休眠
+ * {@link app.myoss.cloud.cache.lock.functions.BaseLockFunction#tryLockSleepTime()}
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 上午10:02:15
+ */
+public class FixedBackoffPolicy implements BackoffPolicy {
+    /**
+     * 单例
+     */
+    public static final FixedBackoffPolicy INSTANCE = new FixedBackoffPolicy();
+
+    @Override
+    public long nextSleepTime(int attempt, long baseSleepTime, long previousSleepTime) {
+        return baseSleepTime;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+/**
+ * 获取锁失败之后，等待重试的方式
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 上午11:18:42
+ */
+public enum LockWaitMode {
+    /**
+     * 休眠 tryLockSleepTime 之后再重试
+     */
+    POLLING,
+    /**
+     * 订阅锁释放的通知，收到通知之后立即重试，最多等待 tryLockSleepTime
+     */
+    SUBSCRIBE
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import app.myoss.cloud.cache.lock.LockEventListener;
+import app.myoss.cloud.cache.lock.ReactiveLockService;
+import app.myoss.cloud.cache.lock.functions.BaseLockFunction;
+import app.myoss.cloud.cache.lock.functions.ReactiveLockFunction;
+import app.myoss.cloud.core.utils.RandomUtils;
+import lombok.Getter;
+import lombok.Setter;
+import reactor.core.publisher.Mono;
+
+/**
+ * Redis 响应式缓存锁实现，使用 {@link ReactiveStringRedisTemplate} 访问 Redis，重试获取锁使用 {@link Mono#delay(Duration)}
+ * 调度，不会阻塞调用线程；和 {@link RedisLockServiceImpl} 使用同样的锁结构，两者获取的锁是互斥的
+ * <p>
+ * 不支持看门狗模式，expireTime 必须大于 0
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午3:20:37
+ */
+@Getter
+@Setter
+public class ReactiveRedisLockServiceImpl implements ReactiveLockService {
+    /**
+     * Redis reactive data access Template
+     */
+    private ReactiveStringRedisTemplate redisTemplate;
+    /**
+     * 缓存锁的时间单位
+     */
+    private TimeUnit                    timeUnit;
+    /**
+     * 缓存锁事件监听器
+     */
+    private LockEventListener           lockEventListener = LockEventListener.NONE;
+    /**
+     * 释放锁的时候是否发布锁释放的通知，用于唤醒使用 {@link LockWaitMode#SUBSCRIBE} 等待锁的阻塞调用方
+     */
+    private boolean                     releaseNotify;
+
+    /**
+     * 初始化 Redis 响应式缓存锁实现
+     *
+     * @param redisTemplate Redis reactive data access Template
+     * @param timeUnit 缓存锁的时间单位
+     */
+    public ReactiveRedisLockServiceImpl(ReactiveStringRedisTemplate redisTemplate, TimeUnit timeUnit) {
+        this.redisTemplate = redisTemplate;
+        this.timeUnit = timeUnit;
+    }
+
+    @Override
+    public Mono<String> getLock(Serializable key, int expireTime, TimeUnit timeUnit) {
+        if (expireTime <= 0) {
+            return Mono.error(new IllegalArgumentException("expireTime must be greater than 0"));
+        }
+        String owner = RandomUtils.uuid();
+        Duration timeout = Duration.ofMillis(timeUnit.toMillis(expireTime));
+        return redisTemplate.opsForValue()
+                .setIfAbsent(String.valueOf(key), owner, timeout)
+                .filter(Boolean.TRUE::equals)
+                .map(result -> owner);
+    }
+
+    @Override
+    public Mono<String> getLock(Serializable key, int expireTime) {
+        return getLock(key, expireTime, timeUnit);
+    }
+
+    @Override
+    public Mono<Boolean> releaseLock(Serializable key, String owner) {
+        String channel = (releaseNotify ? RedisLockReleaseSubscriber.getReleaseChannel(key) : "");
+        return redisTemplate
+                .execute(RedisLockScripts.RELEASE, Collections.singletonList(String.valueOf(key)),
+                        Arrays.asList(owner, channel))
+                .next()
+                .map(result -> result == RedisLockScripts.RELEASED)
+                .defaultIfEmpty(false);
+    }
+
+    @Override
+    public <T> Mono<T> executeByLock(Serializable key, int expireTime, ReactiveLockFunction<T> callback) {
+        return Mono.defer(() -> {
+            long begin = System.nanoTime();
+            return tryLock(key, expireTime, callback).map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(owner -> {
+                        long acquired = System.nanoTime();
+                        if (!owner.isPresent()) {
+                            lockEventListener.onFailed(key, acquired - begin);
+                            return callback.onLockFailed();
+                        }
+                        lockEventListener.onAcquired(key, acquired - begin);
+                        // 回调函数返回的 Mono 完成、异常、取消之后都会释放锁
+                        return Mono.usingWhen(Mono.just(owner.get()), value -> callback.onLockSuccess(),
+                                value -> releaseLock(key, value).doOnNext(released -> lockEventListener
+                                        .onReleased(key, System.nanoTime() - acquired, released)));
+                    });
+        });
+    }
+
+    /**
+     * 获取锁，如果获取锁失败，根据 {@link BaseLockFunction#tryLockTimes()} 和
+     * {@link BaseLockFunction#backoffPolicy()} 非阻塞的延迟重试
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数，用于获取重试的配置
+     * @return 获取到锁的时候返回锁持有者的令牌，没有获取到锁的时候返回 {@link Mono#empty()}
+     */
+    protected Mono<String> tryLock(Serializable key, int expireTime, BaseLockFunction callback) {
+        return tryLock(key, expireTime, callback, 1, callback.tryLockSleepTime());
+    }
+
+    private Mono<String> tryLock(Serializable key, int expireTime, BaseLockFunction callback, int attempt,
+                                 long previousSleepTime) {
+        return getLock(key, expireTime).switchIfEmpty(Mono.defer(() -> {
+            if (attempt >= callback.tryLockTimes()) {
+                return Mono.empty();
+            }
+            long sleepTime = callback.backoffPolicy()
+                    .nextSleepTime(attempt, callback.tryLockSleepTime(), previousSleepTime);
+            long begin = System.nanoTime();
+            return Mono.delay(Duration.ofMillis(sleepTime)).then(Mono.defer(() -> {
+                lockEventListener.onRetryWait(key, attempt, System.nanoTime() - begin);
+                return tryLock(key, expireTime, callback, attempt + 1, sleepTime);
+            }));
+        }));
+    }
+}
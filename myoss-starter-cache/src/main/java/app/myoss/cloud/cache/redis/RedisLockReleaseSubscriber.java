@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import java.io.Serializable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import app.myoss.cloud.cache.constants.CacheConstants;
+import app.myoss.cloud.core.constants.MyossConstants;
+
+/**
+ * Redis 缓存锁释放通知的订阅者
+ * <p>
+ * 释放锁的时候会往 {@link CacheConstants#LOCK_RELEASE_CHANNEL_PREFIX} + key
+ * 频道发布一条消息，所有的锁共用一个模式订阅（一个订阅连接），收到消息之后立即唤醒本机等待这个锁的线程，不用等到重试的休眠时间结束
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 上午11:05:26
+ */
+public class RedisLockReleaseSubscriber implements MessageListener {
+    private final ConcurrentHashMap<String, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * 获取锁释放通知的频道名字
+     *
+     * @param key 锁的名字
+     * @return 锁释放通知的频道名字
+     */
+    public static String getReleaseChannel(Serializable key) {
+        return CacheConstants.LOCK_RELEASE_CHANNEL_PREFIX + key;
+    }
+
+    /**
+     * 注册一个等待者，需要在第一次尝试获取锁之前注册，防止错过通知
+     *
+     * @param key 锁的名字
+     * @return 等待者
+     */
+    public Waiter register(Serializable key) {
+        Waiter waiter = new Waiter(getReleaseChannel(key));
+        waiters.compute(waiter.channel, (k, set) -> {
+            Set<Waiter> result = (set != null ? set : ConcurrentHashMap.newKeySet());
+            result.add(waiter);
+            return result;
+        });
+        return waiter;
+    }
+
+    /**
+     * 注销等待者
+     *
+     * @param waiter 等待者
+     */
+    public void unregister(Waiter waiter) {
+        waiters.computeIfPresent(waiter.channel, (k, set) -> {
+            set.remove(waiter);
+            return (set.isEmpty() ? null : set);
+        });
+    }
+
+    /**
+     * 当前正在等待通知的频道数量
+     *
+     * @return 频道数量
+     */
+    public int getWaitingChannelSize() {
+        return waiters.size();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), MyossConstants.DEFAULT_CHARSET);
+        Set<Waiter> set = waiters.get(channel);
+        if (set == null) {
+            return;
+        }
+        for (Waiter waiter : set) {
+            waiter.signal();
+        }
+    }
+
+    /**
+     * 等待锁释放通知的线程
+     */
+    public static class Waiter {
+        private final String channel;
+        /**
+         * 还没有被消费的通知次数，在 await 之前收到的通知也不会丢失
+         */
+        private int          pending;
+
+        Waiter(String channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * 收到锁释放的通知
+         */
+        synchronized void signal() {
+            pending++;
+            notifyAll();
+        }
+
+        /**
+         * 等待锁释放的通知，最多等待 milliseconds 毫秒；如果在这之前已经收到了通知，则立即返回
+         *
+         * @param milliseconds 最多等待的毫秒时间
+         * @return true：收到了锁释放的通知，false：等待超时
+         */
+        public synchronized boolean await(long milliseconds) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(milliseconds);
+            long remaining = deadline - System.nanoTime();
+            while (pending == 0 && remaining > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                remaining = deadline - System.nanoTime();
+            }
+            boolean signalled = pending > 0;
+            pending = 0;
+            return signalled;
+        }
+    }
+}
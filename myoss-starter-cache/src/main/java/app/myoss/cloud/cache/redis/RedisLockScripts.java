@@ -0,0 +1,219 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Redis 缓存锁使用的 Lua 脚本，保证"比较持有者 + 修改"是一个原子操作
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午1:12:08
+ */
+public final class RedisLockScripts {
+    /**
+     * 脚本返回值：锁不存在或者不是自己持有的
+     */
+    public static final long              NOT_HELD             = 0L;
+    /**
+     * 脚本返回值：释放锁成功 / 获取锁成功
+     */
+    public static final long              RELEASED             = 1L;
+    /**
+     * 脚本返回值：可重入锁的持有次数减 1，还没有完全释放
+     */
+    public static final long              HOLD_COUNT_DECREASED = 2L;
+
+    /**
+     * 释放锁：只有锁的值等于持有者的令牌的时候才删除，删除成功之后按需发布锁释放的通知
+     * <ul>
+     * <li>KEYS[1]：锁的名字
+     * <li>ARGV[1]：持有者的令牌
+     * <li>ARGV[2]：锁释放通知的频道，为空字符串的时候不发布通知
+     * </ul>
+     * 返回值：1 释放成功，0 锁不存在或者不是自己持有的
+     */
+    public static final RedisScript<Long> RELEASE              = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "redis.call('del', KEYS[1]); "
+                    + "if ARGV[2] ~= '' then redis.call('publish', ARGV[2], '1') end; "
+                    + "return 1 "
+                    + "end; "
+                    + "return 0",
+            Long.class);
+    /**
+     * 接管锁：锁的值还是上一个持有者的令牌的时候，替换为新的持有者的令牌并重新设置过期时间
+     * <ul>
+     * <li>KEYS[1]：锁的名字
+     * <li>ARGV[1]：上一个持有者的令牌
+     * <li>ARGV[2]：新的持有者的令牌
+     * <li>ARGV[3]：锁的过期时间（毫秒）
+     * </ul>
+     * 返回值：1 接管成功，0 锁不存在或者已经被其它人持有
+     */
+    public static final RedisScript<Long> TAKE_OVER            = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]); "
+                    + "return 1 "
+                    + "end; "
+                    + "return 0",
+            Long.class);
+
+    /**
+     * 同时获取多个锁：所有的锁都不存在的时候，才全部设置为持有者的令牌
+     * <ul>
+     * <li>KEYS：排序之后的锁的名字
+     * <li>ARGV[1]：持有者的令牌
+     * <li>ARGV[2]：锁的过期时间（毫秒）
+     * </ul>
+     * 返回值：1 获取全部的锁成功，0 有锁被其它人持有
+     */
+    public static final RedisScript<Long> MULTI_ACQUIRE        = new DefaultRedisScript<>(
+            "for i = 1, #KEYS do "
+                    + "if redis.call('exists', KEYS[i]) == 1 then return 0 end "
+                    + "end; "
+                    + "for i = 1, #KEYS do "
+                    + "redis.call('set', KEYS[i], ARGV[1], 'PX', ARGV[2]) "
+                    + "end; "
+                    + "return 1",
+            Long.class);
+    /**
+     * 释放多个锁：只删除值等于持有者的令牌的锁，删除成功之后按需发布锁释放的通知
+     * <ul>
+     * <li>KEYS：锁的名字
+     * <li>ARGV[1]：持有者的令牌
+     * <li>ARGV[2]：锁释放通知的频道前缀，为空字符串的时候不发布通知
+     * </ul>
+     * 返回值：释放成功的锁的数量
+     */
+    public static final RedisScript<Long> MULTI_RELEASE        = new DefaultRedisScript<>(
+            "local count = 0; "
+                    + "for i = 1, #KEYS do "
+                    + "if redis.call('get', KEYS[i]) == ARGV[1] then "
+                    + "redis.call('del', KEYS[i]); "
+                    + "count = count + 1; "
+                    + "if ARGV[2] ~= '' then redis.call('publish', ARGV[2] .. KEYS[i], '1') end "
+                    + "end "
+                    + "end; "
+                    + "return count",
+            Long.class);
+
+    /**
+     * 可重入锁，获取锁：锁不存在或者是自己持有的时候，持有次数加 1，并重新设置过期时间
+     * <ul>
+     * <li>KEYS[1]：锁的名字，Hash 结构，field 为持有者的令牌，value 为持有次数
+     * <li>ARGV[1]：持有者的令牌
+     * <li>ARGV[2]：锁的过期时间（毫秒）
+     * </ul>
+     * 返回值：1 获取锁成功，0 锁被其它人持有
+     */
+    public static final RedisScript<Long> REENTRANT_ACQUIRE    = new DefaultRedisScript<>(
+            "if (redis.call('exists', KEYS[1]) == 0) or (redis.call('hexists', KEYS[1], ARGV[1]) == 1) then "
+                    + "redis.call('hincrby', KEYS[1], ARGV[1], 1); "
+                    + "redis.call('pexpire', KEYS[1], ARGV[2]); "
+                    + "return 1 "
+                    + "end; "
+                    + "return 0",
+            Long.class);
+    /**
+     * 可重入锁 / 读写锁，释放锁：持有次数减 1，减到 0 的时候移除持有者，没有任何持有者的时候删除锁并按需发布锁释放的通知；
+     * 写锁（令牌以 ":write" 结尾）释放之后如果同一个持有者还持有读锁，则降级为读模式；写锁持有者释放嵌套的读锁的时候保持写模式
+     * <ul>
+     * <li>KEYS[1]：锁的名字
+     * <li>ARGV[1]：持有者的令牌
+     * <li>ARGV[2]：锁释放通知的频道，为空字符串的时候不发布通知
+     * </ul>
+     * 返回值：1 当前持有者已经完全释放，2 持有次数减 1，0 不是自己持有的
+     */
+    public static final RedisScript<Long> REENTRANT_RELEASE    = new DefaultRedisScript<>(
+            "if redis.call('hexists', KEYS[1], ARGV[1]) == 0 then return 0 end; "
+                    + "local count = redis.call('hincrby', KEYS[1], ARGV[1], -1); "
+                    + "if count > 0 then return 2 end; "
+                    + "redis.call('hdel', KEYS[1], ARGV[1]); "
+                    + "local rest = redis.call('hlen', KEYS[1]); "
+                    + "local mode = redis.call('hget', KEYS[1], 'mode'); "
+                    + "if (rest > 1) or (rest == 1 and mode == false) then "
+                    + "if (mode == 'write') and (string.sub(ARGV[1], -6) == ':write') then "
+                    + "redis.call('hset', KEYS[1], 'mode', 'read'); "
+                    + "if ARGV[2] ~= '' then redis.call('publish', ARGV[2], '1') end "
+                    + "end; "
+                    + "return 1 "
+                    + "end; "
+                    + "redis.call('del', KEYS[1]); "
+                    + "if ARGV[2] ~= '' then redis.call('publish', ARGV[2], '1') end; "
+                    + "return 1",
+            Long.class);
+    /**
+     * 可重入锁 / 读写锁，续期：只有自己还是持有者的时候才续期，参数和 {@link RedisLockWatchdog#RENEW_SCRIPT} 一致
+     */
+    public static final String            REENTRANT_RENEW      = "if redis.call('hexists', KEYS[1], ARGV[1]) == 1 then "
+            + "return redis.call('pexpire', KEYS[1], ARGV[2]) "
+            + "end; "
+            + "return 0";
+    /**
+     * 读锁，获取锁：没有人持有锁、或者当前是读模式、或者自己持有写锁的时候，持有次数加 1
+     * <ul>
+     * <li>KEYS[1]：锁的名字，Hash 结构，field "mode" 为 read / write，其它 field 为持有者的令牌和持有次数
+     * <li>ARGV[1]：持有者的令牌
+     * <li>ARGV[2]：锁的过期时间（毫秒）
+     * <li>ARGV[3]：同一个持有者的写锁令牌
+     * </ul>
+     * 返回值：1 获取锁成功，0 锁被其它人以写模式持有
+     */
+    public static final RedisScript<Long> READ_ACQUIRE         = new DefaultRedisScript<>(
+            "local mode = redis.call('hget', KEYS[1], 'mode'); "
+                    + "if mode == false then "
+                    + "redis.call('hset', KEYS[1], 'mode', 'read'); "
+                    + "redis.call('hincrby', KEYS[1], ARGV[1], 1); "
+                    + "redis.call('pexpire', KEYS[1], ARGV[2]); "
+                    + "return 1 "
+                    + "end; "
+                    + "if (mode == 'read') or (redis.call('hexists', KEYS[1], ARGV[3]) == 1) then "
+                    + "redis.call('hincrby', KEYS[1], ARGV[1], 1); "
+                    + "if redis.call('pttl', KEYS[1]) < tonumber(ARGV[2]) then "
+                    + "redis.call('pexpire', KEYS[1], ARGV[2]) "
+                    + "end; "
+                    + "return 1 "
+                    + "end; "
+                    + "return 0",
+            Long.class);
+    /**
+     * 写锁，获取锁：没有人持有锁、或者自己持有写锁的时候，持有次数加 1，参数和 {@link #REENTRANT_ACQUIRE} 一致
+     * <p>
+     * 返回值：1 获取锁成功，0 锁被其它人持有
+     */
+    public static final RedisScript<Long> WRITE_ACQUIRE        = new DefaultRedisScript<>(
+            "local mode = redis.call('hget', KEYS[1], 'mode'); "
+                    + "if mode == false then "
+                    + "redis.call('hset', KEYS[1], 'mode', 'write'); "
+                    + "redis.call('hincrby', KEYS[1], ARGV[1], 1); "
+                    + "redis.call('pexpire', KEYS[1], ARGV[2]); "
+                    + "return 1 "
+                    + "end; "
+                    + "if (mode == 'write') and (redis.call('hexists', KEYS[1], ARGV[1]) == 1) then "
+                    + "redis.call('hincrby', KEYS[1], ARGV[1], 1); "
+                    + "redis.call('pexpire', KEYS[1], ARGV[2]); "
+                    + "return 1 "
+                    + "end; "
+                    + "return 0",
+            Long.class);
+
+    private RedisLockScripts() {
+    }
+}
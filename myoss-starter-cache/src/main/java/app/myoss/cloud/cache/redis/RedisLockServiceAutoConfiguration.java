@@ -22,10 +22,13 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -33,10 +36,18 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.util.CollectionUtils;
 
+import app.myoss.cloud.cache.constants.CacheConstants;
+import app.myoss.cloud.cache.lock.LockEventListener;
+import app.myoss.cloud.cache.lock.LockService;
+
 /**
  * Redis 缓存锁服务自动配置
  *
@@ -63,14 +74,64 @@ public class RedisLockServiceAutoConfiguration {
      * 初始化默认的Redis 缓存锁实现
      *
      * @param redisTemplate Spring StringRedisTemplate
+     * @param lockEventListener 缓存锁事件监听器
+     * @param lockReleaseSubscriber 缓存锁释放通知的订阅者
+     * @param lockWatchdog 缓存锁看门狗
      * @return 默认的Redis 缓存锁实现
      */
     @ConditionalOnBean(name = "redisTemplate")
-    @ConditionalOnMissingBean
+    @ConditionalOnMissingBean(LockService.class)
     @Bean
-    public RedisLockServiceImpl redisLockService(StringRedisTemplate redisTemplate) {
+    public RedisLockServiceImpl redisLockService(StringRedisTemplate redisTemplate,
+                                                 ObjectProvider<LockEventListener> lockEventListener,
+                                                 ObjectProvider<RedisLockReleaseSubscriber> lockReleaseSubscriber,
+                                                 ObjectProvider<RedisLockWatchdog> lockWatchdog) {
         TimeUnit timeUnit = redisProperties.getLockTimeUnit();
-        return new RedisLockServiceImpl(redisTemplate, timeUnit);
+        RedisLockServiceImpl lockService = (redisProperties.isLockReentrant()
+                ? new RedisReentrantLockServiceImpl(redisTemplate, timeUnit)
+                : new RedisLockServiceImpl(redisTemplate, timeUnit));
+        lockService.setLocalCoalescing(redisProperties.isLockLocalCoalescing());
+        lockEventListener.ifUnique(lockService::setLockEventListener);
+        lockReleaseSubscriber.ifAvailable(lockService::setLockReleaseSubscriber);
+        lockWatchdog.ifAvailable(lockService::setLockWatchdog);
+        return lockService;
+    }
+
+    /**
+     * 初始化默认的Redis 读写缓存锁实现
+     *
+     * @param redisTemplate Spring StringRedisTemplate
+     * @param lockEventListener 缓存锁事件监听器
+     * @param lockReleaseSubscriber 缓存锁释放通知的订阅者
+     * @param lockWatchdog 缓存锁看门狗
+     * @return 默认的Redis 读写缓存锁实现
+     */
+    @ConditionalOnBean(name = "redisTemplate")
+    @ConditionalOnMissingBean
+    @Bean
+    public RedisReadWriteLockServiceImpl redisReadWriteLockService(
+            StringRedisTemplate redisTemplate, ObjectProvider<LockEventListener> lockEventListener,
+            ObjectProvider<RedisLockReleaseSubscriber> lockReleaseSubscriber,
+            ObjectProvider<RedisLockWatchdog> lockWatchdog) {
+        RedisReadWriteLockServiceImpl lockService = new RedisReadWriteLockServiceImpl(redisTemplate,
+                redisProperties.getLockTimeUnit());
+        lockEventListener.ifUnique(lockService::setLockEventListener);
+        lockReleaseSubscriber.ifAvailable(lockService::setLockReleaseSubscriber);
+        lockWatchdog.ifAvailable(lockService::setLockWatchdog);
+        return lockService;
+    }
+
+    /**
+     * 初始化Redis 缓存锁看门狗，给看门狗模式获取的锁自动续期
+     *
+     * @param redisTemplate Spring StringRedisTemplate
+     * @return Redis 缓存锁看门狗
+     */
+    @ConditionalOnBean(name = "redisTemplate")
+    @ConditionalOnMissingBean
+    @Bean
+    public RedisLockWatchdog redisLockWatchdog(StringRedisTemplate redisTemplate) {
+        return new RedisLockWatchdog(redisTemplate, redisProperties.getLockWatchdogTimeout().toMillis());
     }
 
     @EventListener
@@ -88,4 +149,69 @@ public class RedisLockServiceAutoConfiguration {
             redisTemplate.opsForValue().setIfAbsent(key, "init redis connection", Duration.ofSeconds(10));
         }
     }
+
+    /**
+     * 获取锁失败之后，订阅锁释放的通知进行等待，所有的锁共用一个模式订阅连接
+     */
+    @ConditionalOnProperty(prefix = CacheConstants.REDIS_CONFIG_PREFIX, name = "lock-wait-mode",
+            havingValue = "subscribe")
+    @Configuration
+    public static class LockReleaseSubscribeConfiguration {
+        /**
+         * 缓存锁释放通知的订阅者
+         *
+         * @return 缓存锁释放通知的订阅者
+         */
+        @Bean
+        public RedisLockReleaseSubscriber redisLockReleaseSubscriber() {
+            return new RedisLockReleaseSubscriber();
+        }
+
+        /**
+         * 订阅缓存锁释放通知的监听容器
+         *
+         * @param connectionFactory Redis 连接工厂
+         * @param lockReleaseSubscriber 缓存锁释放通知的订阅者
+         * @return 监听容器
+         */
+        @ConditionalOnBean(RedisConnectionFactory.class)
+        @Bean
+        public RedisMessageListenerContainer redisLockReleaseListenerContainer(
+                RedisConnectionFactory connectionFactory, RedisLockReleaseSubscriber lockReleaseSubscriber) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            container.addMessageListener(lockReleaseSubscriber,
+                    new PatternTopic(CacheConstants.LOCK_RELEASE_CHANNEL_PREFIX + "*"));
+            return container;
+        }
+    }
+
+    /**
+     * classpath 中存在 Reactor 的时候，初始化响应式缓存锁服务，给 WebFlux 调用方使用
+     */
+    @ConditionalOnClass(name = "reactor.core.publisher.Flux")
+    @Import(RedisReactiveAutoConfiguration.class)
+    @Configuration
+    public static class ReactiveLockServiceConfiguration {
+        /**
+         * 初始化默认的Redis 响应式缓存锁实现
+         *
+         * @param redisTemplate Spring ReactiveStringRedisTemplate
+         * @param redisProperties Redis 缓存的配置
+         * @param lockEventListener 缓存锁事件监听器
+         * @return 默认的Redis 响应式缓存锁实现
+         */
+        @ConditionalOnBean(name = "reactiveStringRedisTemplate")
+        @ConditionalOnMissingBean
+        @Bean
+        public ReactiveRedisLockServiceImpl reactiveRedisLockService(
+                ReactiveStringRedisTemplate redisTemplate, RedisProperties redisProperties,
+                ObjectProvider<LockEventListener> lockEventListener) {
+            ReactiveRedisLockServiceImpl lockService = new ReactiveRedisLockServiceImpl(redisTemplate,
+                    redisProperties.getLockTimeUnit());
+            lockService.setReleaseNotify(redisProperties.getLockWaitMode() == LockWaitMode.SUBSCRIBE);
+            lockEventListener.ifUnique(lockService::setLockEventListener);
+            return lockService;
+        }
+    }
 }
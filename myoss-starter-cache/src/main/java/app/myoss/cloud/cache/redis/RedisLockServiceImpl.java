@@ -18,18 +18,28 @@
 package app.myoss.cloud.cache.redis;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 
+import app.myoss.cloud.cache.constants.CacheConstants;
+import app.myoss.cloud.cache.lock.AbstractLockService;
 import app.myoss.cloud.cache.lock.LockService;
-import app.myoss.cloud.cache.lock.functions.LockFunction;
-import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
-import app.myoss.cloud.cache.lock.functions.LockFunctionGenericWithArgs;
-import app.myoss.cloud.cache.lock.functions.LockFunctionWithArgs;
-import lombok.AllArgsConstructor;
+import app.myoss.cloud.cache.lock.functions.BaseLockFunction;
+import app.myoss.cloud.cache.lock.retry.BackoffPolicy;
+import app.myoss.cloud.core.utils.RandomUtils;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 
 /**
  * Redis 缓存锁实现
@@ -37,23 +47,82 @@ import lombok.Data;
  * @author Jerry.Chen
  * @since 2018年5月21日 下午1:13:16
  */
+@EqualsAndHashCode(callSuper = false)
 @Data
-@AllArgsConstructor
-public class RedisLockServiceImpl implements LockService {
+public class RedisLockServiceImpl extends AbstractLockService {
     /**
      * Redis data access Template
      */
-    private RedisTemplate redisTemplate;
+    private RedisTemplate                                    redisTemplate;
     /**
      * 缓存锁的时间单位
      */
-    private TimeUnit      timeUnit;
+    private TimeUnit                                         timeUnit;
+    /**
+     * 缓存锁释放通知的订阅者，不为 null 的时候，释放锁会发布通知，等待锁的线程收到通知之后立即重试，不用等到重试的休眠时间结束
+     */
+    private RedisLockReleaseSubscriber                       lockReleaseSubscriber;
+    /**
+     * 缓存锁看门狗，expireTime 小于等于 0 的时候，使用看门狗自动给锁续期
+     */
+    private RedisLockWatchdog                                lockWatchdog;
+    /**
+     * 当前实例的唯一标识，和线程 id 一起组成锁持有者的令牌
+     */
+    private final String                                     instanceId = RandomUtils.uuid();
+    /**
+     * 是否开启本地合并：同一个 key 在本机只有一个线程去竞争 Redis 中的锁，其它线程在本地排队，并在释放锁的时候直接移交 Redis 中的锁
+     */
+    private boolean                                          localCoalescing;
+    /**
+     * 本机正在使用的锁，key 为锁的名字
+     */
+    @Getter(AccessLevel.NONE)
+    private final ConcurrentHashMap<Serializable, LocalLock> localLocks = new ConcurrentHashMap<>();
 
-    @SuppressWarnings("unchecked")
+    /**
+     * 初始化 Redis 缓存锁实现
+     *
+     * @param redisTemplate Redis data access Template
+     * @param timeUnit 缓存锁的时间单位
+     */
+    public RedisLockServiceImpl(RedisTemplate redisTemplate, TimeUnit timeUnit) {
+        this.redisTemplate = redisTemplate;
+        this.timeUnit = timeUnit;
+    }
+
+    /**
+     * 获取当前线程作为锁持有者的令牌，保存在锁的值里面，释放锁的时候用于校验是否是自己持有的锁
+     *
+     * @return 锁持有者的令牌
+     */
+    public String getLockOwner() {
+        return instanceId + ":" + Thread.currentThread().getId();
+    }
+
+    /**
+     * 获取锁，如果 expireTime 小于等于 0（{@link LockService#WATCHDOG_EXPIRE_TIME}），则使用看门狗模式：锁的过期时间为
+     * {@link RedisLockWatchdog#getLeaseTime()}，持有锁期间由看门狗自动续期，直到释放锁
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param timeUnit 缓存锁的时间单位
+     * @return true：获取到锁，false：没有获取到锁
+     */
     @Override
     public boolean getLock(Serializable key, int expireTime, TimeUnit timeUnit) {
-        Boolean result = redisTemplate.opsForValue().setIfAbsent(key, "1", expireTime, timeUnit);
-        return Objects.equals(result, true);
+        String owner = getLockOwner();
+        if (expireTime > 0) {
+            return acquire(key, owner, timeUnit.toMillis(expireTime));
+        }
+        if (lockWatchdog == null) {
+            throw new IllegalStateException("expireTime must be greater than 0, lockWatchdog is not configured");
+        }
+        boolean isGetLock = acquire(key, owner, lockWatchdog.getLeaseTime());
+        if (isGetLock) {
+            lockWatchdog.register(key, owner, getRenewScript());
+        }
+        return isGetLock;
     }
 
     @Override
@@ -61,172 +130,311 @@ public class RedisLockServiceImpl implements LockService {
         return getLock(key, expireTime, timeUnit);
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * 释放锁，使用 Lua 脚本比较锁的值是否是当前线程的令牌，是才删除，不会误删其它人重新获取到的锁
+     * <p>
+     * 开启了本地合并（{@link #isLocalCoalescing()}）并且本机还有其它线程在排队等待这个锁的时候，不删除 Redis 中的锁，而是把锁移交给下一个线程，
+     * 下一个线程只需要一次 Redis 调用就可以接管锁
+     *
+     * @param key 锁的名字
+     * @return true：释放锁成功，false：锁不存在或者不是当前线程持有的
+     */
     @Override
     public boolean releaseLock(Serializable key) {
-        Boolean delete = redisTemplate.delete(key);
-        return Objects.equals(delete, true);
-    }
-
-    @Override
-    public boolean executeByLock(Serializable key, int expireTime, LockFunction callback) {
-        long begin = System.currentTimeMillis();
-        boolean isGetLock = getLock(key, expireTime);
+        LocalLock localLock = (localCoalescing ? localLocks.get(key) : null);
+        if (localLock == null || !localLock.lock.isHeldByCurrentThread()) {
+            return releaseRemoteLock(key);
+        }
         try {
-            if (isGetLock) {
-                callback.onLockSuccess();
-            } else {
-                int tryLockTimes = callback.tryLockTimes();
-                if (tryLockTimes <= 1) {
-                    callback.onLockFailed();
-                } else {
-                    // 进行多次重试获取锁
-                    for (int i = 1; i < tryLockTimes; i++) {
-                        LockService.sleep(callback.tryLockSleepTime());
-                        begin = System.currentTimeMillis();
-                        isGetLock = getLock(key, expireTime);
-                        if (isGetLock) {
-                            break;
-                        }
-                    }
-                    if (isGetLock) {
-                        callback.onLockSuccess();
-                    } else {
-                        callback.onLockFailed();
-                    }
+            if (localLock.lock.getHoldCount() == 1 && localLock.lock.hasQueuedThreads() && isStringValueLock()) {
+                String owner = getLockOwner();
+                if (lockWatchdog != null) {
+                    lockWatchdog.unregister(key, owner);
                 }
+                localLock.handoffOwner.set(owner);
+                return true;
             }
+            return releaseRemoteLock(key);
         } finally {
-            // 如果已经获取到锁，才释放锁
-            if (isGetLock) {
-                long cost = System.currentTimeMillis() - begin;
-                long expireTimeToMills = timeUnit.toMillis(expireTime);
-                if (cost < expireTimeToMills) {
-                    releaseLock(key);
-                }
+            localLock.lock.unlock();
+            leaveLocalLock(key, localLock);
+        }
+    }
+
+    /**
+     * 同时获取多个锁，使用一个 Lua 脚本原子的获取全部的锁，只需要一次网络调用
+     * <p>
+     * Redis Cluster 模式下，所有的 key 需要在同一个 slot 中（比如使用 hash tag: {order}:1, {order}:2）
+     *
+     * @param keys 锁的名字
+     * @param expireTime 锁的过期时间，小于等于 0 的时候使用看门狗模式
+     * @param timeUnit 缓存锁的时间单位
+     * @return true：获取到全部的锁，false：没有获取到锁
+     */
+    @Override
+    public boolean getLocks(Collection<? extends Serializable> keys, int expireTime, TimeUnit timeUnit) {
+        List<Serializable> sortedKeys = LockService.sortKeys(keys);
+        if (!isStringValueLock()) {
+            return LockService.acquireInOrder(this, sortedKeys, key -> getLock(key, expireTime, timeUnit));
+        }
+        if (expireTime <= 0 && lockWatchdog == null) {
+            throw new IllegalStateException("expireTime must be greater than 0, lockWatchdog is not configured");
+        }
+        String owner = getLockOwner();
+        long leaseTime = (expireTime > 0 ? timeUnit.toMillis(expireTime) : lockWatchdog.getLeaseTime());
+        boolean isGetLock = executeScript(RedisLockScripts.MULTI_ACQUIRE, sortedKeys, owner,
+                String.valueOf(leaseTime)) == RedisLockScripts.RELEASED;
+        if (isGetLock && expireTime <= 0) {
+            for (Serializable key : sortedKeys) {
+                lockWatchdog.register(key, owner, getRenewScript());
             }
         }
         return isGetLock;
     }
 
     @Override
-    public boolean executeByLock(Serializable key, int expireTime, LockFunctionWithArgs callback, Object... args) {
-        long begin = System.currentTimeMillis();
-        boolean isGetLock = getLock(key, expireTime);
-        try {
-            if (isGetLock) {
-                callback.onLockSuccess(args);
-            } else {
-                int tryLockTimes = callback.tryLockTimes();
-                if (tryLockTimes <= 1) {
-                    callback.onLockFailed(args);
-                } else {
-                    // 进行多次重试获取锁
-                    for (int i = 1; i < tryLockTimes; i++) {
-                        LockService.sleep(callback.tryLockSleepTime());
-                        begin = System.currentTimeMillis();
-                        isGetLock = getLock(key, expireTime);
-                        if (isGetLock) {
-                            break;
-                        }
-                    }
-                    if (isGetLock) {
-                        callback.onLockSuccess(args);
-                    } else {
-                        callback.onLockFailed(args);
-                    }
-                }
-            }
-        } finally {
-            // 如果已经获取到锁，才释放锁
-            if (isGetLock) {
-                long cost = System.currentTimeMillis() - begin;
-                long expireTimeToMills = timeUnit.toMillis(expireTime);
-                if (cost < expireTimeToMills) {
-                    releaseLock(key);
-                }
+    public boolean getLocks(Collection<? extends Serializable> keys, int expireTime) {
+        return getLocks(keys, expireTime, timeUnit);
+    }
+
+    /**
+     * 释放多个锁，使用一个 Lua 脚本释放全部当前线程持有的锁
+     *
+     * @param keys 锁的名字
+     * @return true：全部释放成功，false：有锁不存在或者不是当前线程持有的
+     */
+    @Override
+    public boolean releaseLocks(Collection<? extends Serializable> keys) {
+        List<Serializable> sortedKeys = LockService.sortKeys(keys);
+        if (!isStringValueLock()) {
+            return LockService.releaseInOrder(this, sortedKeys);
+        }
+        String owner = getLockOwner();
+        if (lockWatchdog != null) {
+            for (Serializable key : sortedKeys) {
+                lockWatchdog.unregister(key, owner);
             }
         }
-        return isGetLock;
+        String channelPrefix = (lockReleaseSubscriber != null ? CacheConstants.LOCK_RELEASE_CHANNEL_PREFIX : "");
+        return executeScript(RedisLockScripts.MULTI_RELEASE, sortedKeys, owner, channelPrefix) == sortedKeys.size();
+    }
+
+    private boolean releaseRemoteLock(Serializable key) {
+        String owner = getLockOwner();
+        long result = release(key, owner, getReleaseChannel(key));
+        if (lockWatchdog != null && result != RedisLockScripts.HOLD_COUNT_DECREASED) {
+            lockWatchdog.unregister(key, owner);
+        }
+        return result != RedisLockScripts.NOT_HELD;
+    }
+
+    private String getReleaseChannel(Serializable key) {
+        return (lockReleaseSubscriber != null ? RedisLockReleaseSubscriber.getReleaseChannel(key) : "");
     }
 
+    /**
+     * 尝试获取锁
+     *
+     * @param key 锁的名字
+     * @param owner 锁持有者的令牌
+     * @param leaseTime 锁的过期时间（毫秒）
+     * @return true：获取到锁，false：没有获取到锁
+     */
+    @SuppressWarnings("unchecked")
+    protected boolean acquire(Serializable key, String owner, long leaseTime) {
+        Boolean result = redisTemplate.opsForValue().setIfAbsent(key, owner, leaseTime, TimeUnit.MILLISECONDS);
+        return Objects.equals(result, true);
+    }
+
+    /**
+     * 释放锁
+     *
+     * @param key 锁的名字
+     * @param owner 锁持有者的令牌
+     * @param channel 锁释放通知的频道，为空字符串的时候不发布通知
+     * @return {@link RedisLockScripts#RELEASED}, {@link RedisLockScripts#NOT_HELD},
+     *         {@link RedisLockScripts#HOLD_COUNT_DECREASED}
+     */
+    protected long release(Serializable key, String owner, String channel) {
+        return executeScript(RedisLockScripts.RELEASE, key, owner, channel);
+    }
+
+    /**
+     * 看门狗给锁续期使用的 Lua 脚本
+     *
+     * @return 续期的 Lua 脚本
+     */
+    protected String getRenewScript() {
+        return RedisLockWatchdog.RENEW_SCRIPT;
+    }
+
+    /**
+     * 执行只有一个 key 的 Lua 脚本
+     *
+     * @param script Lua 脚本
+     * @param key 锁的名字
+     * @param args 脚本参数
+     * @return 脚本返回的结果，为 null 的时候返回 {@link RedisLockScripts#NOT_HELD}
+     */
+    protected long executeScript(RedisScript<Long> script, Serializable key, Object... args) {
+        return executeScript(script, Collections.singletonList(key), args);
+    }
+
+    /**
+     * 执行有多个 key 的 Lua 脚本
+     *
+     * @param script Lua 脚本
+     * @param keys 锁的名字
+     * @param args 脚本参数
+     * @return 脚本返回的结果，为 null 的时候返回 {@link RedisLockScripts#NOT_HELD}
+     */
+    @SuppressWarnings("unchecked")
+    protected long executeScript(RedisScript<Long> script, List<? extends Serializable> keys, Object... args) {
+        Long result = (Long) redisTemplate.execute(script, keys, args);
+        return (result != null ? result : RedisLockScripts.NOT_HELD);
+    }
+
+    /**
+     * 锁是否使用 String 结构保存，值为持有者的令牌；只有这个时候才可以使用移交锁（本地合并）和批量获取锁的 Lua 脚本，子类使用其它结构保存锁的时候需要返回 false
+     *
+     * @return true：String 结构，false：其它结构
+     */
+    protected boolean isStringValueLock() {
+        return true;
+    }
+
+    /**
+     * 获取锁，开启了本地合并（{@link #isLocalCoalescing()}）的时候，同一个 key 在本机只有一个线程去竞争 Redis 中的锁，其它线程在本地公平锁上排队，
+     * 排队的等待时间为 {@link BaseLockFunction#backoffPolicy()} 所有重试等待时间的总和
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param callback 回调函数，用于获取重试的配置
+     * @return true：获取到锁，false：没有获取到锁
+     */
     @Override
-    public <T> T executeByLock(Serializable key, int expireTime, LockFunctionGeneric<T> callback) {
-        long begin = System.currentTimeMillis();
-        boolean isGetLock = getLock(key, expireTime);
+    protected boolean tryLock(Serializable key, int expireTime, BaseLockFunction callback) {
+        if (!localCoalescing) {
+            return tryRemoteLock(key, expireTime, callback);
+        }
+        LocalLock localLock = joinLocalLock(key);
+        boolean isGetLock = false;
         try {
-            if (isGetLock) {
-                return callback.onLockSuccess();
-            } else {
-                int tryLockTimes = callback.tryLockTimes();
-                if (tryLockTimes <= 1) {
-                    return callback.onLockFailed();
-                } else {
-                    // 进行多次重试获取锁
-                    for (int i = 1; i < tryLockTimes; i++) {
-                        LockService.sleep(callback.tryLockSleepTime());
-                        begin = System.currentTimeMillis();
-                        isGetLock = getLock(key, expireTime);
-                        if (isGetLock) {
-                            break;
-                        }
-                    }
-                    if (isGetLock) {
-                        return callback.onLockSuccess();
-                    } else {
-                        return callback.onLockFailed();
-                    }
+            if (!localLock.tryLock(getLocalWaitTime(callback))) {
+                return false;
+            }
+            try {
+                isGetLock = takeOverLock(key, expireTime, localLock) || tryRemoteLock(key, expireTime, callback);
+            } finally {
+                if (!isGetLock) {
+                    localLock.lock.unlock();
                 }
             }
+            return isGetLock;
         } finally {
-            // 如果已经获取到锁，才释放锁
-            if (isGetLock) {
-                long cost = System.currentTimeMillis() - begin;
-                long expireTimeToMills = timeUnit.toMillis(expireTime);
-                if (cost < expireTimeToMills) {
-                    releaseLock(key);
-                }
+            if (!isGetLock) {
+                leaveLocalLock(key, localLock);
             }
         }
     }
 
-    @Override
-    public <T> T executeByLock(Serializable key, int expireTime, LockFunctionGenericWithArgs<T> callback,
-                               Object... args) {
-        long begin = System.currentTimeMillis();
-        boolean isGetLock = getLock(key, expireTime);
+    private boolean tryRemoteLock(Serializable key, int expireTime, BaseLockFunction callback) {
+        if (lockReleaseSubscriber == null || callback.tryLockTimes() <= 1) {
+            return super.tryLock(key, expireTime, callback);
+        }
+        // 在第一次尝试获取锁之前注册，防止在获取锁失败和开始等待之间，锁被释放了而错过通知
+        RedisLockReleaseSubscriber.Waiter waiter = lockReleaseSubscriber.register(key);
         try {
-            if (isGetLock) {
-                return callback.onLockSuccess(args);
-            } else {
-                int tryLockTimes = callback.tryLockTimes();
-                if (tryLockTimes <= 1) {
-                    return callback.onLockFailed(args);
-                } else {
-                    // 进行多次重试获取锁
-                    for (int i = 1; i < tryLockTimes; i++) {
-                        LockService.sleep(callback.tryLockSleepTime());
-                        begin = System.currentTimeMillis();
-                        isGetLock = getLock(key, expireTime);
-                        if (isGetLock) {
-                            break;
-                        }
-                    }
-                    if (isGetLock) {
-                        return callback.onLockSuccess(args);
-                    } else {
-                        return callback.onLockFailed(args);
-                    }
-                }
-            }
+            return tryLock(key, expireTime, callback, waiter::await);
         } finally {
-            // 如果已经获取到锁，才释放锁
-            if (isGetLock) {
-                long cost = System.currentTimeMillis() - begin;
-                long expireTimeToMills = timeUnit.toMillis(expireTime);
-                if (cost < expireTimeToMills) {
-                    releaseLock(key);
-                }
+            lockReleaseSubscriber.unregister(waiter);
+        }
+    }
+
+    /**
+     * 接管上一个本地线程移交的锁，Redis 中锁的值还是上一个线程的令牌的时候，替换为当前线程的令牌并重新设置过期时间
+     *
+     * @param key 锁的名字
+     * @param expireTime 锁的过期时间
+     * @param localLock 本地锁
+     * @return true：接管成功，false：没有移交的锁，或者锁已经过期
+     */
+    private boolean takeOverLock(Serializable key, int expireTime, LocalLock localLock) {
+        String previousOwner = localLock.handoffOwner.getAndSet(null);
+        if (previousOwner == null) {
+            return false;
+        }
+        boolean watchdogMode = (expireTime <= 0 && lockWatchdog != null);
+        long leaseTime = (watchdogMode ? lockWatchdog.getLeaseTime() : timeUnit.toMillis(expireTime));
+        String owner = getLockOwner();
+        if (executeScript(RedisLockScripts.TAKE_OVER, key, previousOwner, owner,
+                String.valueOf(leaseTime)) != RedisLockScripts.RELEASED) {
+            return false;
+        }
+        if (watchdogMode) {
+            lockWatchdog.register(key, owner, getRenewScript());
+        }
+        return true;
+    }
+
+    private LocalLock joinLocalLock(Serializable key) {
+        return localLocks.compute(key, (k, value) -> {
+            LocalLock localLock = (value != null ? value : new LocalLock());
+            localLock.users++;
+            return localLock;
+        });
+    }
+
+    private void leaveLocalLock(Serializable key, LocalLock localLock) {
+        String[] pendingOwner = new String[1];
+        localLocks.computeIfPresent(key, (k, value) -> {
+            if (value != localLock || --value.users > 0) {
+                return value;
+            }
+            pendingOwner[0] = value.handoffOwner.getAndSet(null);
+            return null;
+        });
+        if (pendingOwner[0] != null) {
+            // 移交的锁没有线程接管（排队的线程都等待超时了），需要删除 Redis 中的锁
+            release(key, pendingOwner[0], getReleaseChannel(key));
+        }
+    }
+
+    private static long getLocalWaitTime(BaseLockFunction callback) {
+        BackoffPolicy backoffPolicy = callback.backoffPolicy();
+        long baseSleepTime = callback.tryLockSleepTime();
+        long sleepTime = baseSleepTime;
+        long waitTime = 0;
+        for (int i = 1; i < callback.tryLockTimes(); i++) {
+            sleepTime = backoffPolicy.nextSleepTime(i, baseSleepTime, sleepTime);
+            waitTime += sleepTime;
+        }
+        return waitTime;
+    }
+
+    /**
+     * 本机同一个 key 的锁
+     */
+    static class LocalLock {
+        /**
+         * 本机排队竞争 Redis 锁的公平锁
+         */
+        final ReentrantLock           lock         = new ReentrantLock(true);
+        /**
+         * 上一个线程移交的 Redis 锁的令牌
+         */
+        final AtomicReference<String> handoffOwner = new AtomicReference<>();
+        /**
+         * 正在使用这个本地锁的线程数量，只在 {@link ConcurrentHashMap#compute} 中修改，为 0 的时候从缓存中删除
+         */
+        int                           users;
+
+        boolean tryLock(long waitTime) {
+            try {
+                return lock.tryLock(waitTime, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
             }
         }
     }
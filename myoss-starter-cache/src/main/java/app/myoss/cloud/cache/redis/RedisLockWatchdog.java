@@ -0,0 +1,232 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import app.myoss.cloud.core.constants.MyossConstants;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis 缓存锁看门狗，自动给持有中的锁续期
+ * <p>
+ * 使用看门狗模式获取的锁只设置一个较短的过期时间 {@link #getLeaseTime()}，持有锁期间由一个共享的定时任务每隔 leaseTime / 3
+ * 给所有持有中的锁续期（每次只使用一个 pipeline 批量续期）；持有锁的节点宕机之后，锁最多 leaseTime 之后就会过期，其它节点可以很快获取到锁
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午2:03:47
+ */
+@Slf4j
+public class RedisLockWatchdog implements AutoCloseable {
+    /**
+     * 续期脚本：只有锁的值等于持有者的令牌的时候才续期
+     * <ul>
+     * <li>KEYS[1]：锁的名字
+     * <li>ARGV[1]：持有者的令牌
+     * <li>ARGV[2]：续期的时间（毫秒）
+     * </ul>
+     */
+    public static final String                       RENEW_SCRIPT = "if redis.call('get', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('pexpire', KEYS[1], ARGV[2]) "
+            + "end; "
+            + "return 0";
+
+    private final RedisTemplate                      redisTemplate;
+    /**
+     * 锁的租期（毫秒）
+     */
+    @Getter
+    private final long                               leaseTime;
+    /**
+     * 持有中的锁，key 为锁的名字和持有者，释放锁的时候 O(1) 移除
+     */
+    private final ConcurrentHashMap<LeaseKey, Lease> leases       = new ConcurrentHashMap<>();
+    private volatile ScheduledExecutorService        scheduler;
+
+    /**
+     * 创建 Redis 缓存锁看门狗
+     *
+     * @param redisTemplate Redis data access Template
+     * @param leaseTime 锁的租期（毫秒）
+     */
+    public RedisLockWatchdog(RedisTemplate redisTemplate, long leaseTime) {
+        this.redisTemplate = redisTemplate;
+        this.leaseTime = leaseTime;
+    }
+
+    /**
+     * 获取锁成功之后，注册到看门狗中自动续期
+     *
+     * @param key 锁的名字
+     * @param owner 锁持有者的令牌
+     * @param renewScript 续期的 Lua 脚本，参数和 {@link #RENEW_SCRIPT} 一致
+     */
+    public void register(Serializable key, String owner, String renewScript) {
+        leases.put(new LeaseKey(key, owner), new Lease(key, owner, renewScript));
+        startIfNecessary();
+    }
+
+    /**
+     * 获取锁成功之后，注册到看门狗中自动续期
+     *
+     * @param key 锁的名字
+     * @param owner 锁持有者的令牌
+     */
+    public void register(Serializable key, String owner) {
+        register(key, owner, RENEW_SCRIPT);
+    }
+
+    /**
+     * 释放锁之前，从看门狗中移除，不再续期
+     *
+     * @param key 锁的名字
+     * @param owner 锁持有者的令牌
+     */
+    public void unregister(Serializable key, String owner) {
+        leases.remove(new LeaseKey(key, owner));
+    }
+
+    /**
+     * 当前正在续期的锁的数量
+     *
+     * @return 锁的数量
+     */
+    public int getLeaseSize() {
+        return leases.size();
+    }
+
+    /**
+     * 使用一个 pipeline 给所有持有中的锁续期，续期失败（锁已经不存在或者不是自己持有的）的锁会被移除
+     */
+    @SuppressWarnings("unchecked")
+    public void renewLeases() {
+        if (leases.isEmpty()) {
+            return;
+        }
+        List<Lease> snapshot = new ArrayList<>(leases.values());
+        RedisSerializer keySerializer = redisTemplate.getKeySerializer();
+        RedisSerializer valueSerializer = redisTemplate.getValueSerializer();
+        byte[] leaseTimeBytes = String.valueOf(leaseTime).getBytes(MyossConstants.DEFAULT_CHARSET);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Lease lease : snapshot) {
+                connection.eval(lease.getRenewScript().getBytes(MyossConstants.DEFAULT_CHARSET), ReturnType.INTEGER,
+                        1, keySerializer.serialize(lease.getKey()), valueSerializer.serialize(lease.getOwner()),
+                        leaseTimeBytes);
+            }
+            return null;
+        });
+        for (int i = 0; i < snapshot.size() && i < results.size(); i++) {
+            Object result = results.get(i);
+            if (result instanceof Number && ((Number) result).longValue() == 1L) {
+                continue;
+            }
+            Lease lease = snapshot.get(i);
+            // 按对象本身移除，续期期间重新注册的同名租约不受影响
+            if (leases.remove(new LeaseKey(lease.getKey(), lease.getOwner()), lease)) {
+                log.warn("lock [{}] lease lost, owner: {}, result: {}", lease.getKey(), lease.getOwner(), result);
+            }
+        }
+    }
+
+    private void startIfNecessary() {
+        if (scheduler != null) {
+            return;
+        }
+        synchronized (this) {
+            if (scheduler != null) {
+                return;
+            }
+            ScheduledExecutorService executor = Executors
+                    .newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+                            .setNameFormat("MyOSSCloud-Cache-RedisLockWatchdog")
+                            .build());
+            long period = Math.max(leaseTime / 3, 1L);
+            executor.scheduleWithFixedDelay(() -> {
+                try {
+                    renewLeases();
+                } catch (Exception ex) {
+                    log.error("renew lock leases failed", ex);
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+            scheduler = executor;
+        }
+    }
+
+    @Override
+    public void close() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        leases.clear();
+    }
+
+    /**
+     * 持有中的锁的名字和持有者
+     */
+    @Value
+    static class LeaseKey {
+        /**
+         * 锁的名字
+         */
+        Serializable key;
+        /**
+         * 锁持有者的令牌
+         */
+        String       owner;
+    }
+
+    /**
+     * 持有中的锁
+     * <p>
+     * 不重写 equals / hashCode，使用对象本身判断是否相同：同一个线程释放锁之后又重新获取到锁的时候，key 和 owner 都相同，
+     * 续期失败的时候只能移除旧的租约，不能误删新注册的租约
+     */
+    @Getter
+    @AllArgsConstructor
+    static class Lease {
+        /**
+         * 锁的名字
+         */
+        private final Serializable key;
+        /**
+         * 锁持有者的令牌
+         */
+        private final String       owner;
+        /**
+         * 续期的 Lua 脚本
+         */
+        private final String       renewScript;
+    }
+}
@@ -17,6 +17,7 @@
 
 package app.myoss.cloud.cache.redis;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -36,5 +37,21 @@ public class RedisProperties {
     /**
      * 缓存锁的时间单位，默认为: 秒
      */
-    private TimeUnit lockTimeUnit = TimeUnit.SECONDS;
+    private TimeUnit     lockTimeUnit        = TimeUnit.SECONDS;
+    /**
+     * 获取锁失败之后，等待重试的方式，默认为: {@link LockWaitMode#POLLING}
+     */
+    private LockWaitMode lockWaitMode        = LockWaitMode.POLLING;
+    /**
+     * 看门狗模式（expireTime 小于等于 0）下锁的租期，持有锁期间每隔租期的 1/3 自动续期一次，默认为: 30秒
+     */
+    private Duration     lockWatchdogTimeout = Duration.ofSeconds(30);
+    /**
+     * 默认的缓存锁是否为可重入锁（持有次数保存在 Redis Hash 中），默认为: false
+     */
+    private boolean      lockReentrant;
+    /**
+     * 是否开启缓存锁的本地合并：同一个 key 在本机只有一个线程去竞争 Redis 中的锁，其它线程在本地排队，默认为: false
+     */
+    private boolean      lockLocalCoalescing;
 }
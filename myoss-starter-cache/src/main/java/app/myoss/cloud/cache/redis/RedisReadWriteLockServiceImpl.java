@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.redis.core.RedisTemplate;
+
+import app.myoss.cloud.cache.lock.LockEventListener;
+import app.myoss.cloud.cache.lock.LockService;
+import app.myoss.cloud.cache.lock.ReadWriteLockService;
+import app.myoss.cloud.core.utils.RandomUtils;
+
+/**
+ * Redis 读写缓存锁实现
+ * <p>
+ * 读锁和写锁使用同一个 Redis Hash 结构保存，field "mode" 为当前的模式（read / write），其它 field 为持有者的令牌和持有次数：
+ * <ul>
+ * <li>读锁：没有人持有锁、或者当前是读模式、或者同一个线程持有写锁（写锁降级）的时候可以获取
+ * <li>写锁：没有人持有锁、或者同一个线程持有写锁（重入）的时候可以获取
+ * </ul>
+ * 读锁和写锁都是可重入的；不支持读锁升级为写锁（会一直获取不到），持续有读者的时候写者可能会饥饿
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午2:48:19
+ */
+public class RedisReadWriteLockServiceImpl implements ReadWriteLockService {
+    /**
+     * 当前实例的唯一标识，读锁和写锁共用，用于判断是否是同一个线程持有的写锁
+     */
+    private final String               instanceId = RandomUtils.uuid();
+    private final ReadLockServiceImpl  readLock;
+    private final WriteLockServiceImpl writeLock;
+
+    /**
+     * 初始化 Redis 读写缓存锁实现
+     *
+     * @param redisTemplate Redis data access Template
+     * @param timeUnit 缓存锁的时间单位
+     */
+    public RedisReadWriteLockServiceImpl(RedisTemplate redisTemplate, TimeUnit timeUnit) {
+        this.readLock = new ReadLockServiceImpl(redisTemplate, timeUnit);
+        this.writeLock = new WriteLockServiceImpl(redisTemplate, timeUnit);
+    }
+
+    @Override
+    public LockService readLock() {
+        return readLock;
+    }
+
+    @Override
+    public LockService writeLock() {
+        return writeLock;
+    }
+
+    /**
+     * 设置缓存锁事件监听器
+     *
+     * @param lockEventListener 缓存锁事件监听器
+     */
+    public void setLockEventListener(LockEventListener lockEventListener) {
+        readLock.setLockEventListener(lockEventListener);
+        writeLock.setLockEventListener(lockEventListener);
+    }
+
+    /**
+     * 设置缓存锁释放通知的订阅者
+     *
+     * @param lockReleaseSubscriber 缓存锁释放通知的订阅者
+     */
+    public void setLockReleaseSubscriber(RedisLockReleaseSubscriber lockReleaseSubscriber) {
+        readLock.setLockReleaseSubscriber(lockReleaseSubscriber);
+        writeLock.setLockReleaseSubscriber(lockReleaseSubscriber);
+    }
+
+    /**
+     * 设置缓存锁看门狗
+     *
+     * @param lockWatchdog 缓存锁看门狗
+     */
+    public void setLockWatchdog(RedisLockWatchdog lockWatchdog) {
+        readLock.setLockWatchdog(lockWatchdog);
+        writeLock.setLockWatchdog(lockWatchdog);
+    }
+
+    private String getWriteLockOwner() {
+        return instanceId + ":" + Thread.currentThread().getId() + ":write";
+    }
+
+    private String getReadLockOwner() {
+        return instanceId + ":" + Thread.currentThread().getId() + ":read";
+    }
+
+    /**
+     * 读锁
+     */
+    class ReadLockServiceImpl extends RedisReentrantLockServiceImpl {
+        ReadLockServiceImpl(RedisTemplate redisTemplate, TimeUnit timeUnit) {
+            super(redisTemplate, timeUnit);
+        }
+
+        @Override
+        public String getLockOwner() {
+            return getReadLockOwner();
+        }
+
+        @Override
+        protected boolean acquire(Serializable key, String owner, long leaseTime) {
+            return executeScript(RedisLockScripts.READ_ACQUIRE, key, owner, String.valueOf(leaseTime),
+                    getWriteLockOwner()) == RedisLockScripts.RELEASED;
+        }
+    }
+
+    /**
+     * 写锁
+     */
+    class WriteLockServiceImpl extends RedisReentrantLockServiceImpl {
+        WriteLockServiceImpl(RedisTemplate redisTemplate, TimeUnit timeUnit) {
+            super(redisTemplate, timeUnit);
+        }
+
+        @Override
+        public String getLockOwner() {
+            return getWriteLockOwner();
+        }
+
+        @Override
+        protected boolean acquire(Serializable key, String owner, long leaseTime) {
+            return executeScript(RedisLockScripts.WRITE_ACQUIRE, key, owner,
+                    String.valueOf(leaseTime)) == RedisLockScripts.RELEASED;
+        }
+    }
+}
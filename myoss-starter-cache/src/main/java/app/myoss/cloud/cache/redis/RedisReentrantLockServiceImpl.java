@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * Redis 可重入缓存锁实现
+ * <p>
+ * 锁使用 Redis Hash 结构保存，field 为持有者的令牌，value 为持有次数；同一个线程在持有锁期间再次获取同一个锁（比如嵌套调用
+ * executeByLock），只会增加持有次数并重新设置过期时间，释放锁的次数和获取锁的次数一致之后才会真正删除锁
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午2:41:36
+ */
+public class RedisReentrantLockServiceImpl extends RedisLockServiceImpl {
+    /**
+     * 初始化 Redis 可重入缓存锁实现
+     *
+     * @param redisTemplate Redis data access Template
+     * @param timeUnit 缓存锁的时间单位
+     */
+    public RedisReentrantLockServiceImpl(RedisTemplate redisTemplate, TimeUnit timeUnit) {
+        super(redisTemplate, timeUnit);
+    }
+
+    @Override
+    protected boolean acquire(Serializable key, String owner, long leaseTime) {
+        return executeScript(RedisLockScripts.REENTRANT_ACQUIRE, key, owner,
+                String.valueOf(leaseTime)) == RedisLockScripts.RELEASED;
+    }
+
+    @Override
+    protected long release(Serializable key, String owner, String channel) {
+        return executeScript(RedisLockScripts.REENTRANT_RELEASE, key, owner, channel);
+    }
+
+    @Override
+    protected String getRenewScript() {
+        return RedisLockScripts.REENTRANT_RENEW;
+    }
+
+    @Override
+    protected boolean isStringValueLock() {
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import app.myoss.cloud.core.lang.serializer.Serialization;
+
+/**
+ * 使用 {@link Serialization} 实现的 {@link RedisSerializer}，可以把
+ * {@link app.myoss.cloud.core.lang.serializer.impl.BinarySerialization} 等序列化方式设置到 RedisTemplate 中
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午9:15:26
+ */
+public class SerializationRedisSerializer implements RedisSerializer<Object> {
+    private final Serialization<Object> serialization;
+
+    /**
+     * 使用 {@link Serialization} 创建 {@link RedisSerializer}
+     *
+     * @param serialization 序列化方式
+     */
+    public SerializationRedisSerializer(Serialization<Object> serialization) {
+        this.serialization = serialization;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return serialization.serialize(value);
+        } catch (Exception ex) {
+            throw new org.springframework.data.redis.serializer.SerializationException("Cannot serialize", ex);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return serialization.deserialize(bytes);
+        } catch (Exception ex) {
+            throw new org.springframework.data.redis.serializer.SerializationException("Cannot deserialize", ex);
+        }
+    }
+}
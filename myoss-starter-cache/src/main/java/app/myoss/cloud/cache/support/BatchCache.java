@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.support;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.cache.Cache;
+
+/**
+ * 支持批量读写的缓存，一次查询多个 key，未命中的 key 合并为一次批量加载
+ * <p>
+ * 批量加载不经过 {@link SingleFlightLoader}，同一个 key 的并发批量加载不会被合并
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午8:05:26
+ * @see BatchCacheable
+ */
+public interface BatchCache {
+    /**
+     * 批量查询缓存中已经存在的值，缓存的 null 值不会放到返回结果中
+     *
+     * @param keys 缓存 key 集合
+     * @return 已经缓存的 key 和值，没有缓存的 key 不在返回结果中
+     */
+    Map<Object, Object> getAllPresent(Collection<?> keys);
+
+    /**
+     * 批量获取缓存值，未命中的 key 调用一次 batchLoader 加载，并写入缓存
+     * <p>
+     * batchLoader 返回结果中没有的 key 当作 null 值，允许缓存 null 值的时候也会写入缓存，避免缓存穿透
+     *
+     * @param keys 缓存 key 集合
+     * @param batchLoader 批量加载函数，参数为未命中的 key 集合
+     * @param <K> 缓存 key 的泛型
+     * @param <V> 缓存值的泛型
+     * @return 按 keys 的顺序返回 key 和值，值为 null 的 key 不在返回结果中
+     */
+    <K, V> Map<K, V> getAll(Collection<? extends K> keys,
+                            Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> batchLoader);
+
+    /**
+     * 批量写入缓存
+     *
+     * @param values 缓存 key 和值
+     */
+    void putAll(Map<?, ?> values);
+
+    /**
+     * 将 Spring {@link Cache} 转换为 {@link BatchCache}，不支持批量读写的缓存会逐个 key 读写
+     *
+     * @param cache Spring Cache
+     * @return 支持批量读写的缓存
+     */
+    static BatchCache of(Cache cache) {
+        return (cache instanceof BatchCache ? (BatchCache) cache : new BatchCacheAdapter(cache));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.support;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * 不支持批量读写的 Spring {@link Cache}，逐个 key 读写，未命中的 key 仍然合并为一次批量加载
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午8:12:47
+ */
+class BatchCacheAdapter implements BatchCache {
+    private final Cache   cache;
+    private final boolean allowNullValues;
+
+    BatchCacheAdapter(Cache cache) {
+        this.cache = cache;
+        this.allowNullValues = (cache instanceof AbstractValueAdaptingCache
+                && ((AbstractValueAdaptingCache) cache).isAllowNullValues());
+    }
+
+    @Override
+    public Map<Object, Object> getAllPresent(Collection<?> keys) {
+        Map<Object, Object> result = new LinkedHashMap<>(keys.size() * 4 / 3 + 1);
+        for (Object key : keys) {
+            ValueWrapper wrapper = cache.get(key);
+            if (wrapper != null && wrapper.get() != null) {
+                result.put(key, wrapper.get());
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <K, V> Map<K, V> getAll(Collection<? extends K> keys,
+                                   Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> batchLoader) {
+        Map<K, V> present = new HashMap<>(keys.size() * 4 / 3 + 1);
+        Set<K> missing = new LinkedHashSet<>();
+        for (K key : keys) {
+            ValueWrapper wrapper = cache.get(key);
+            if (wrapper == null) {
+                missing.add(key);
+            } else if (wrapper.get() != null) {
+                present.put(key, (V) wrapper.get());
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<? extends K, ? extends V> loaded = batchLoader.apply(missing);
+            for (K key : missing) {
+                V value = (loaded != null ? loaded.get(key) : null);
+                if (value != null) {
+                    present.put(key, value);
+                    cache.put(key, value);
+                } else if (allowNullValues) {
+                    cache.put(key, null);
+                }
+            }
+        }
+        Map<K, V> result = new LinkedHashMap<>(present.size() * 4 / 3 + 1);
+        for (K key : keys) {
+            V value = present.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> values) {
+        values.forEach((key, value) -> {
+            if (value != null || allowNullValues) {
+                cache.put(key, value);
+            }
+        });
+    }
+}
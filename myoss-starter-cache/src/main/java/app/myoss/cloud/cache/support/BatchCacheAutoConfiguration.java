@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.support;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+import app.myoss.cloud.cache.constants.CacheConstants;
+
+/**
+ * 批量缓存注解 {@link BatchCacheable} 自动配置
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午8:47:33
+ */
+@ConditionalOnProperty(prefix = CacheConstants.BATCH_CONFIG_PREFIX, name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+@Configuration
+public class BatchCacheAutoConfiguration {
+    /**
+     * 拦截 {@link BatchCacheable} 注解的方法，使用基础设施角色，由 Spring 默认的 auto proxy creator 创建代理
+     *
+     * @param beanFactory 用于查找 {@link org.springframework.cache.CacheManager}
+     * @return 批量缓存的 Advisor
+     */
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnMissingBean
+    @Bean
+    public BatchCacheableAdvisor batchCacheableAdvisor(BeanFactory beanFactory) {
+        return new BatchCacheableAdvisor(new BatchCacheInterceptor(beanFactory));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.support;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link BatchCacheable} 的方法拦截器：一次批量查询缓存，未命中的 key 合并为一次方法调用
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午8:34:52
+ */
+public class BatchCacheInterceptor implements MethodInterceptor {
+    private final BeanFactory beanFactory;
+
+    /**
+     * 创建批量缓存方法拦截器
+     *
+     * @param beanFactory 用于查找 {@link CacheManager}
+     */
+    public BatchCacheInterceptor(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Class<?> targetClass = (invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : null);
+        BatchCacheable annotation = AnnotatedElementUtils
+                .findMergedAnnotation(AopUtils.getMostSpecificMethod(method, targetClass), BatchCacheable.class);
+        Object[] args = invocation.getArguments();
+        if (annotation == null || !(invocation instanceof ProxyMethodInvocation)
+                || !Map.class.isAssignableFrom(method.getReturnType()) || annotation.keysIndex() >= args.length
+                || !(args[annotation.keysIndex()] instanceof Collection)) {
+            return invocation.proceed();
+        }
+        int index = annotation.keysIndex();
+        Class<?> parameterType = method.getParameterTypes()[index];
+        boolean setParameter = parameterType.isAssignableFrom(LinkedHashSet.class);
+        if (!setParameter && !parameterType.isAssignableFrom(ArrayList.class)) {
+            return invocation.proceed();
+        }
+        Collection<Object> keys = (Collection<Object>) args[index];
+        if (keys.isEmpty()) {
+            return invocation.proceed();
+        }
+        BatchCache cache = BatchCache.of(getCache(annotation, method));
+        try {
+            return cache.getAll(keys, missing -> invokeLoader((ProxyMethodInvocation) invocation, index,
+                    (setParameter ? missing : new ArrayList<>(missing))));
+        } catch (ThrowableWrapper ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private Cache getCache(BatchCacheable annotation, Method method) {
+        CacheManager cacheManager = (StringUtils.hasText(annotation.cacheManager())
+                ? beanFactory.getBean(annotation.cacheManager(), CacheManager.class)
+                : beanFactory.getBean(CacheManager.class));
+        Cache cache = cacheManager.getCache(annotation.value());
+        if (cache == null) {
+            throw new IllegalStateException(
+                    "Cannot find cache named '" + annotation.value() + "' for @BatchCacheable method: " + method);
+        }
+        return cache;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> invokeLoader(ProxyMethodInvocation invocation, int index, Object keys) {
+        Object[] args = invocation.getArguments().clone();
+        args[index] = keys;
+        try {
+            return (Map<Object, Object>) invocation.invocableClone(args).proceed();
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new ThrowableWrapper(ex);
+        }
+    }
+
+    /**
+     * 包装方法抛出的受检异常，拦截器中再还原
+     */
+    private static class ThrowableWrapper extends RuntimeException {
+        private static final long serialVersionUID = -4826538469316917025L;
+
+        ThrowableWrapper(Throwable cause) {
+            super(cause.getMessage(), cause, false, false);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.core.annotation.AliasFor;
+
+/**
+ * 批量缓存方法的返回值，方法的参数（{@link #keysIndex()}）为 key 集合，返回值为 key 和值的 {@link java.util.Map}
+ * <p>
+ * 集合中的每一个元素作为一个缓存 key，和 {@code @Cacheable(key = "#id")} 单个 key 的方法可以共用同一个缓存；缓存中没有的 key
+ * 合并为一次方法调用（参数替换为未命中的 key 集合），返回值写入缓存，返回结果中没有的 key 当作 null 值
+ * <p>
+ * 参数类型只支持 {@link java.util.Collection}、{@link java.util.Set}、{@link java.util.List}，其它类型不使用缓存
+ *
+ * <pre>
+ * &#64;BatchCacheable("user")
+ * public Map&lt;Long, User&gt; findByIds(Collection&lt;Long&gt; ids) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午8:26:14
+ * @see BatchCache
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface BatchCacheable {
+    /**
+     * 缓存的名字
+     *
+     * @return 缓存的名字
+     */
+    @AliasFor("cacheName")
+    String value() default "";
+
+    /**
+     * 缓存的名字
+     *
+     * @return 缓存的名字
+     */
+    @AliasFor("value")
+    String cacheName() default "";
+
+    /**
+     * 使用的 {@link org.springframework.cache.CacheManager} bean 的名字，为空的时候使用唯一的 CacheManager
+     *
+     * @return CacheManager bean 的名字
+     */
+    String cacheManager() default "";
+
+    /**
+     * key 集合是方法的第几个参数，从 0 开始
+     *
+     * @return key 集合参数的下标
+     */
+    int keysIndex() default 0;
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.support;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+
+/**
+ * 拦截 {@link BatchCacheable} 注解的方法
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午8:41:08
+ */
+public class BatchCacheableAdvisor extends AbstractPointcutAdvisor {
+    private static final long serialVersionUID = 3519186021594412270L;
+
+    private final Pointcut    pointcut         = new AnnotationMatchingPointcut(null, BatchCacheable.class, true);
+    private final Advice      advice;
+
+    /**
+     * 创建 {@link BatchCacheable} 的 Advisor
+     *
+     * @param interceptor 批量缓存方法拦截器
+     */
+    public BatchCacheableAdvisor(BatchCacheInterceptor interceptor) {
+        this.advice = interceptor;
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return advice;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.support;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import app.myoss.cloud.cache.constants.CacheConstants;
+import app.myoss.cloud.cache.lock.LockService;
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 缓存未命中的时候，合并同一个 key 的并发加载（single-flight）
+ * <ul>
+ * <li>本机：同一个 key 同一时间只有一个线程执行加载，其它线程等待这次加载的结果，不会重复加载
+ * <li>分布式（可选，设置了 {@link #getLockService()}）：加载的线程先获取 {@link LockService} 的锁，获取到锁之后再检查一次缓存，
+ * 其它实例已经加载好的时候直接使用，否则才去加载；适用于缓存值是多个实例共享的场景（比如二级缓存）
+ * </ul>
+ * 和 Caffeine 自带的 {@code cache.get(key, mappingFunction)} 相比，加载的过程不会占用 Caffeine 内部 ConcurrentHashMap 的锁，
+ * 耗时的加载不会阻塞其它 key 的写入
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午6:05:12
+ */
+@Getter
+@Setter
+public class SingleFlightLoader {
+    @Getter(AccessLevel.NONE)
+    private final ConcurrentHashMap<Object, Flight> flights        = new ConcurrentHashMap<>();
+    /**
+     * 分布式 single-flight 使用的缓存锁服务，为 null 的时候只合并本机的加载
+     */
+    private LockService                             lockService;
+    /**
+     * 分布式锁的过期时间，时间单位为缓存锁服务的时间单位，默认为: 10
+     */
+    private int                                     lockExpireTime = 10;
+    /**
+     * 等待其它实例加载完成的最长时间，超过之后自己加载，默认为: 3秒
+     */
+    private Duration                                lockWaitTime   = Duration.ofSeconds(3);
+    /**
+     * 等待分布式锁的重试间隔（毫秒），默认为: 50
+     */
+    private long                                    lockSleepTime  = 50L;
+
+    /**
+     * 加载缓存值，同一个 key 的并发加载会被合并为一次
+     *
+     * @param cacheName 缓存的名字，用于生成分布式锁的名字
+     * @param key 缓存 key
+     * @param lookup 再次检查缓存，返回 null 表示缓存中没有
+     * @param loader 加载缓存值（并写入缓存）
+     * @return 缓存值
+     */
+    public Object load(String cacheName, Object key, Supplier<Object> lookup, Supplier<Object> loader) {
+        Flight flight = new Flight();
+        Flight existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            if (existing.thread == Thread.currentThread()) {
+                throw new IllegalStateException("Recursive load of cache [" + cacheName + "] key: " + key);
+            }
+            return existing.await();
+        }
+        try {
+            Object value = lookup.get();
+            if (value == null) {
+                value = (lockService != null ? loadByLock(cacheName, key, lookup, loader) : loader.get());
+            }
+            flight.future.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * 正在加载中的 key 的数量
+     *
+     * @return key 的数量
+     */
+    public int getInFlightSize() {
+        return flights.size();
+    }
+
+    private Object loadByLock(String cacheName, Object key, Supplier<Object> lookup, Supplier<Object> loader) {
+        String lockKey = CacheConstants.CACHE_LOAD_LOCK_PREFIX + cacheName + ":" + key;
+        int tryLockTimes = (int) Math.max(lockWaitTime.toMillis() / Math.max(lockSleepTime, 1L), 1L);
+        return lockService.executeByLock(lockKey, lockExpireTime, new LockFunctionGeneric<Object>() {
+            @Override
+            public int tryLockTimes() {
+                return tryLockTimes;
+            }
+
+            @Override
+            public long tryLockSleepTime() {
+                return lockSleepTime;
+            }
+
+            @Override
+            public Object onLockSuccess() {
+                // 等待锁的期间，其它实例可能已经加载好了
+                Object value = lookup.get();
+                return (value != null ? value : loader.get());
+            }
+
+            @Override
+            public Object onLockFailed() {
+                // 等待超时，不再等其它实例，自己加载
+                Object value = lookup.get();
+                return (value != null ? value : loader.get());
+            }
+        });
+    }
+
+    /**
+     * 正在进行中的一次加载
+     */
+    static class Flight {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        final Thread                    thread = Thread.currentThread();
+
+        Object await() {
+            try {
+                return future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for cache load", ex);
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+}
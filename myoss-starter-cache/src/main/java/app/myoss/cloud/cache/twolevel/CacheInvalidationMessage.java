@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.twolevel;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 二级缓存本地缓存失效的通知
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午5:10:03
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class CacheInvalidationMessage implements Serializable {
+    private static final long serialVersionUID = -4395107261391318640L;
+
+    /**
+     * 发出通知的实例，收到自己发出的通知的时候忽略
+     */
+    private String            instanceId;
+    /**
+     * 缓存的名字
+     */
+    private String            cacheName;
+    /**
+     * 失效的缓存 key，为 null 的时候清空整个缓存
+     */
+    private Object            key;
+}
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.twolevel;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import app.myoss.cloud.cache.constants.CacheConstants;
+import app.myoss.cloud.cache.support.BatchCache;
+import app.myoss.cloud.cache.support.SingleFlightLoader;
+import app.myoss.cloud.core.constants.MyossConstants;
+import app.myoss.cloud.core.lang.serializer.Serialization;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 二级缓存：一级缓存为本机的 Caffeine，二级缓存为 Redis
+ * <ul>
+ * <li>读：先读一级缓存，一级缓存没有的时候读二级缓存，并回填一级缓存
+ * <li>写：同时写二级缓存和一级缓存，并通过 Redis pub/sub 通知其它实例删除一级缓存中的旧值
+ * <li>删除：同时删除二级缓存和一级缓存，并通知其它实例删除一级缓存
+ * </ul>
+ * 通知可能会丢失（比如订阅连接断开），一级缓存的过期时间需要比二级缓存短，用来兜底；{@link #get(Object, Callable)} 使用
+ * {@link SingleFlightLoader} 合并同一个 key 的并发加载
+ * <p>
+ * 批量读写（{@link BatchCache}）：一级缓存未命中的 key 使用一次 MGET 读二级缓存，写二级缓存和发送失效通知使用 pipeline
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午5:12:41
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache implements BatchCache {
+    private static final int            SCAN_BATCH_SIZE = 1000;
+
+    @Getter
+    private final String                name;
+    private final Cache<Object, Object> localCache;
+    private final RedisTemplate         redisTemplate;
+    private final Serialization<Object> serialization;
+    /**
+     * 二级缓存的过期时间，为 null 或者 0 的时候不过期
+     */
+    private final Duration              timeToLive;
+    /**
+     * 二级缓存 key 的前缀：keyPrefix + name + "::"
+     */
+    private final String                keyPrefix;
+    /**
+     * 当前实例的唯一标识，用于忽略自己发出的失效通知
+     */
+    private final String                instanceId;
+    /**
+     * 合并同一个 key 的并发加载，设置了缓存锁服务的时候，多个实例之间也只有一个去加载
+     */
+    @Getter
+    @Setter
+    private SingleFlightLoader          singleFlightLoader = new SingleFlightLoader();
+
+    /**
+     * 创建二级缓存
+     *
+     * @param name 缓存的名字
+     * @param localCache 一级缓存
+     * @param redisTemplate Redis data access Template，使用原始的 byte[] 读写二级缓存
+     * @param serialization 二级缓存值和失效通知的序列化方式
+     * @param timeToLive 二级缓存的过期时间
+     * @param keyPrefix 二级缓存 key 的前缀
+     * @param instanceId 当前实例的唯一标识
+     * @param allowNullValues 是否允许缓存 null 值
+     */
+    public TwoLevelCache(String name, Cache<Object, Object> localCache, RedisTemplate redisTemplate,
+                         Serialization<Object> serialization, Duration timeToLive, String keyPrefix,
+                         String instanceId, boolean allowNullValues) {
+        super(allowNullValues);
+        this.name = name;
+        this.localCache = localCache;
+        this.redisTemplate = redisTemplate;
+        this.serialization = serialization;
+        this.timeToLive = timeToLive;
+        this.keyPrefix = keyPrefix + name + "::";
+        this.instanceId = instanceId;
+    }
+
+    @Override
+    public Cache<Object, Object> getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = localCache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        value = getRemote(key);
+        if (value != null) {
+            localCache.put(key, value);
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object storeValue = lookup(key);
+        if (storeValue == null) {
+            storeValue = singleFlightLoader.load(name, key, () -> lookup(key), () -> {
+                Object value;
+                try {
+                    value = toStoreValue(valueLoader.call());
+                } catch (Exception ex) {
+                    throw new ValueRetrievalException(key, valueLoader, ex);
+                }
+                putRemote(key, value, false);
+                localCache.put(key, value);
+                return value;
+            });
+        }
+        return (T) fromStoreValue(storeValue);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null && !isAllowNullValues()) {
+            return;
+        }
+        Object storeValue = toStoreValue(value);
+        putRemote(key, storeValue, false);
+        localCache.put(key, storeValue);
+        publish(key);
+    }
+
+    @Override
+    public Map<Object, Object> getAllPresent(Collection<?> keys) {
+        Map<Object, Object> present = lookupAll(keys);
+        Map<Object, Object> result = new LinkedHashMap<>(present.size() * 4 / 3 + 1);
+        for (Object key : keys) {
+            Object storeValue = present.get(key);
+            Object value = (storeValue != null ? fromStoreValue(storeValue) : null);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <K, V> Map<K, V> getAll(Collection<? extends K> keys,
+                                   Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> batchLoader) {
+        Map<Object, Object> present = lookupAll(keys);
+        Set<K> missing = new LinkedHashSet<>();
+        for (K key : keys) {
+            if (!present.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        Map<? extends K, ? extends V> loaded = (missing.isEmpty() ? null : batchLoader.apply(missing));
+        Map<Object, Object> storeValues = new HashMap<>(missing.size() * 4 / 3 + 1);
+        Map<K, V> result = new LinkedHashMap<>(keys.size() * 4 / 3 + 1);
+        for (K key : keys) {
+            Object value;
+            if (missing.contains(key)) {
+                value = (loaded != null ? loaded.get(key) : null);
+                if (value != null || isAllowNullValues()) {
+                    storeValues.put(key, toStoreValue(value));
+                }
+            } else {
+                value = fromStoreValue(present.get(key));
+            }
+            if (value != null) {
+                result.put(key, (V) value);
+            }
+        }
+        if (!storeValues.isEmpty()) {
+            putRemoteAll(storeValues);
+            localCache.putAll(storeValues);
+        }
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> values) {
+        Map<Object, Object> storeValues = new HashMap<>(values.size() * 4 / 3 + 1);
+        values.forEach((key, value) -> {
+            if (value != null || isAllowNullValues()) {
+                storeValues.put(key, toStoreValue(value));
+            }
+        });
+        if (storeValues.isEmpty()) {
+            return;
+        }
+        putRemoteAll(storeValues);
+        localCache.putAll(storeValues);
+        publishAll(storeValues.keySet());
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        if (putRemote(key, storeValue, true)) {
+            localCache.put(key, storeValue);
+            publish(key);
+            return null;
+        }
+        Object existing = lookup(key);
+        return (existing != null ? new SimpleValueWrapper(fromStoreValue(existing)) : null);
+    }
+
+    @Override
+    public void evict(Object key) {
+        byte[] rawKey = getRemoteKey(key);
+        redisTemplate.execute((RedisCallback<Long>) connection -> connection.del(rawKey));
+        localCache.invalidate(key);
+        publish(key);
+    }
+
+    /**
+     * 清空缓存：使用 SCAN 分批删除二级缓存中的 key（Redis Cluster 逐个扫描 master 节点），再清空一级缓存并通知其它实例
+     * <p>
+     * 删除二级缓存失败的时候直接抛出异常，不清空一级缓存也不通知其它实例，调用方可以重试
+     */
+    @Override
+    public void clear() {
+        byte[] pattern = (keyPrefix + "*").getBytes(MyossConstants.DEFAULT_CHARSET);
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_BATCH_SIZE).build();
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            if (connection instanceof RedisClusterConnection) {
+                RedisClusterConnection clusterConnection = (RedisClusterConnection) connection;
+                for (RedisClusterNode node : clusterConnection.clusterGetNodes()) {
+                    if (node.isMaster()) {
+                        deleteKeys(connection, clusterConnection.scan(node, options));
+                    }
+                }
+            } else {
+                deleteKeys(connection, connection.scan(options));
+            }
+            return null;
+        });
+        localCache.invalidateAll();
+        publish(null);
+    }
+
+    private static void deleteKeys(RedisConnection connection, Cursor<byte[]> scanCursor) {
+        List<byte[]> keys = new ArrayList<>(SCAN_BATCH_SIZE);
+        try (Cursor<byte[]> cursor = scanCursor) {
+            while (cursor.hasNext()) {
+                keys.add(cursor.next());
+                if (keys.size() >= SCAN_BATCH_SIZE) {
+                    connection.del(keys.toArray(new byte[0][]));
+                    keys.clear();
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("close scan cursor failed", ex);
+        }
+        if (!keys.isEmpty()) {
+            connection.del(keys.toArray(new byte[0][]));
+        }
+    }
+
+    /**
+     * 收到其它实例的失效通知之后，只删除一级缓存
+     *
+     * @param key 缓存 key，为 null 的时候清空一级缓存
+     */
+    public void evictLocal(Object key) {
+        if (key == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(key);
+        }
+    }
+
+    /**
+     * 二级缓存中的 key
+     *
+     * @param key 缓存 key
+     * @return 二级缓存中的 key
+     */
+    protected byte[] getRemoteKey(Object key) {
+        return (keyPrefix + key).getBytes(MyossConstants.DEFAULT_CHARSET);
+    }
+
+    /**
+     * 批量读缓存：先读一级缓存，一级缓存未命中的 key 使用一次 MGET 读二级缓存，并回填一级缓存
+     *
+     * @param keys 缓存 key 集合
+     * @return 缓存中存在的 key 和缓存值
+     */
+    @SuppressWarnings("unchecked")
+    protected Map<Object, Object> lookupAll(Collection<?> keys) {
+        Map<Object, Object> present = new HashMap<>(localCache.getAllPresent(keys));
+        List<Object> missing = new ArrayList<>(keys.size() - present.size());
+        for (Object key : keys) {
+            if (!present.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return present;
+        }
+        byte[][] rawKeys = new byte[missing.size()][];
+        for (int i = 0; i < rawKeys.length; i++) {
+            rawKeys[i] = getRemoteKey(missing.get(i));
+        }
+        List<byte[]> rawValues = (List<byte[]>) redisTemplate
+                .execute((RedisCallback<List<byte[]>>) connection -> connection.mGet(rawKeys));
+        if (rawValues == null) {
+            return present;
+        }
+        Map<Object, Object> remote = new HashMap<>(rawValues.size() * 4 / 3 + 1);
+        for (int i = 0; i < rawValues.size() && i < rawKeys.length; i++) {
+            byte[] bytes = rawValues.get(i);
+            if (bytes != null && bytes.length > 0) {
+                remote.put(missing.get(i), serialization.deserialize(bytes));
+            }
+        }
+        if (!remote.isEmpty()) {
+            localCache.putAll(remote);
+            present.putAll(remote);
+        }
+        return present;
+    }
+
+    private Object getRemote(Object key) {
+        byte[] rawKey = getRemoteKey(key);
+        byte[] bytes = (byte[]) redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.get(rawKey));
+        return (bytes != null && bytes.length > 0 ? serialization.deserialize(bytes) : null);
+    }
+
+    private boolean putRemote(Object key, Object storeValue, boolean ifAbsent) {
+        byte[] rawKey = getRemoteKey(key);
+        byte[] rawValue = serialization.serialize(storeValue);
+        Expiration expiration = getExpiration();
+        SetOption option = (ifAbsent ? SetOption.SET_IF_ABSENT : SetOption.UPSERT);
+        Boolean result = (Boolean) redisTemplate
+                .execute((RedisCallback<Boolean>) connection -> connection.set(rawKey, rawValue, expiration, option));
+        return Boolean.TRUE.equals(result);
+    }
+
+    private void putRemoteAll(Map<Object, Object> storeValues) {
+        Map<byte[], byte[]> rawValues = new LinkedHashMap<>(storeValues.size() * 4 / 3 + 1);
+        storeValues.forEach((key, storeValue) -> rawValues.put(getRemoteKey(key), serialization.serialize(storeValue)));
+        Expiration expiration = getExpiration();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            rawValues.forEach((rawKey, rawValue) -> connection.set(rawKey, rawValue, expiration, SetOption.UPSERT));
+            return null;
+        });
+    }
+
+    private Expiration getExpiration() {
+        return (timeToLive == null || timeToLive.isZero() || timeToLive.isNegative() ? Expiration.persistent()
+                : Expiration.from(timeToLive.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    private void publishAll(Collection<Object> keys) {
+        byte[] channel = CacheConstants.CACHE_INVALIDATE_CHANNEL.getBytes(MyossConstants.DEFAULT_CHARSET);
+        List<byte[]> messages = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            messages.add(serialization.serialize(new CacheInvalidationMessage(instanceId, name, key)));
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                messages.forEach(message -> connection.publish(channel, message));
+                return null;
+            });
+        } catch (Exception ex) {
+            // 通知失败不影响缓存的读写，其它实例的一级缓存等到过期之后会重新加载
+            log.error("[{}] publish cache invalidation failed, keys: {}", name, keys, ex);
+        }
+    }
+
+    private void publish(Object key) {
+        byte[] channel = CacheConstants.CACHE_INVALIDATE_CHANNEL.getBytes(MyossConstants.DEFAULT_CHARSET);
+        byte[] message = serialization.serialize(new CacheInvalidationMessage(instanceId, name, key));
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, message));
+        } catch (Exception ex) {
+            // 通知失败不影响缓存的读写，其它实例的一级缓存等到过期之后会重新加载
+            log.error("[{}] publish cache invalidation failed, key: {}", name, key, ex);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.twolevel;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import app.myoss.cloud.cache.constants.CacheConstants;
+import app.myoss.cloud.cache.local.LocalLockServiceAutoConfiguration;
+import app.myoss.cloud.cache.lock.LockService;
+import app.myoss.cloud.cache.redis.RedisLockServiceAutoConfiguration;
+import app.myoss.cloud.core.lang.serializer.Serialization;
+
+/**
+ * 二级缓存自动配置，开启之后代替 Spring Boot 默认的 {@link CacheManager}
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午5:48:30
+ */
+@AutoConfigureAfter({ RedisAutoConfiguration.class, LocalLockServiceAutoConfiguration.class,
+        RedisLockServiceAutoConfiguration.class })
+@AutoConfigureBefore(CacheAutoConfiguration.class)
+@EnableConfigurationProperties(TwoLevelCacheProperties.class)
+@ConditionalOnProperty(prefix = CacheConstants.TWO_LEVEL_CONFIG_PREFIX, name = "enabled", havingValue = "true")
+@ConditionalOnClass({ Caffeine.class, StringRedisTemplate.class })
+@Configuration
+public class TwoLevelCacheAutoConfiguration {
+    /**
+     * 初始化二级缓存管理器
+     *
+     * @param redisTemplate Spring StringRedisTemplate
+     * @param properties 二级缓存的配置
+     * @param lockService 缓存锁服务
+     * @param serialization 自定义的缓存值序列化方式，比如
+     *            {@link app.myoss.cloud.core.lang.serializer.impl.BinarySerialization}，默认使用 Java 序列化
+     * @return 二级缓存管理器
+     */
+    @ConditionalOnBean(StringRedisTemplate.class)
+    @ConditionalOnMissingBean(CacheManager.class)
+    @Bean
+    public TwoLevelCacheManager cacheManager(StringRedisTemplate redisTemplate, TwoLevelCacheProperties properties,
+                                             ObjectProvider<LockService> lockService,
+                                             ObjectProvider<Serialization<Object>> serialization) {
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisTemplate);
+        cacheManager.setCaffeineSpec(properties.getCaffeineSpec());
+        cacheManager.setTimeToLive(properties.getTimeToLive());
+        cacheManager.setKeyPrefix(properties.getKeyPrefix());
+        cacheManager.setAllowNullValues(properties.isAllowNullValues());
+        serialization.ifUnique(cacheManager::setSerialization);
+        if (properties.isSingleFlightLock()) {
+            lockService.ifUnique(cacheManager::setLockService);
+        }
+        return cacheManager;
+    }
+
+    /**
+     * 订阅二级缓存失效通知的监听容器
+     *
+     * @param connectionFactory Redis 连接工厂
+     * @param cacheManager 二级缓存管理器
+     * @return 监听容器
+     */
+    @ConditionalOnBean({ RedisConnectionFactory.class, TwoLevelCacheManager.class })
+    @Bean
+    public RedisMessageListenerContainer twoLevelCacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory, TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new TwoLevelCacheInvalidationListener(cacheManager),
+                new ChannelTopic(CacheConstants.CACHE_INVALIDATE_CHANNEL));
+        return container;
+    }
+}
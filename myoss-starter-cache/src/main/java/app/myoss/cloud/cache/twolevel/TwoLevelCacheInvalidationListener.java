@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.twolevel;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import app.myoss.cloud.core.lang.serializer.Serialization;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 订阅二级缓存的失效通知，删除本机的一级缓存
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午5:40:52
+ */
+@Slf4j
+public class TwoLevelCacheInvalidationListener implements MessageListener {
+    private final TwoLevelCacheManager cacheManager;
+
+    /**
+     * 创建二级缓存失效通知的订阅者
+     *
+     * @param cacheManager 二级缓存管理器
+     */
+    public TwoLevelCacheInvalidationListener(TwoLevelCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Serialization<Object> serialization = cacheManager.getSerialization();
+        Object body;
+        try {
+            body = serialization.deserialize(message.getBody());
+        } catch (Exception ex) {
+            log.error("deserialize cache invalidation message failed", ex);
+            return;
+        }
+        if (body instanceof CacheInvalidationMessage) {
+            cacheManager.onInvalidation((CacheInvalidationMessage) body);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.twolevel;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import app.myoss.cloud.cache.lock.LockService;
+import app.myoss.cloud.cache.support.SingleFlightLoader;
+import app.myoss.cloud.core.lang.serializer.Serialization;
+import app.myoss.cloud.core.lang.serializer.impl.JdkSerialization;
+import app.myoss.cloud.core.utils.RandomUtils;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 二级缓存管理器，按需创建 {@link TwoLevelCache}：一级缓存为本机的 Caffeine，二级缓存为 Redis
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午5:31:26
+ */
+@Getter
+@Setter
+public class TwoLevelCacheManager implements CacheManager {
+    private final ConcurrentMap<String, TwoLevelCache> cacheMap        = new ConcurrentHashMap<>(16);
+    /**
+     * 当前实例的唯一标识，用于忽略自己发出的失效通知
+     */
+    private final String                               instanceId      = RandomUtils.uuid();
+    /**
+     * Redis data access Template
+     */
+    private RedisTemplate                              redisTemplate;
+    /**
+     * 一级缓存的配置，参考 {@link com.github.benmanes.caffeine.cache.CaffeineSpec}
+     */
+    private String                                     caffeineSpec;
+    /**
+     * 二级缓存值和失效通知的序列化方式，默认为: {@link JdkSerialization}
+     */
+    private Serialization<Object>                      serialization   = new JdkSerialization();
+    /**
+     * 二级缓存的过期时间，为 null 或者 0 的时候不过期
+     */
+    private Duration                                   timeToLive;
+    /**
+     * 二级缓存 key 的前缀
+     */
+    private String                                     keyPrefix       = "";
+    /**
+     * 是否允许缓存 null 值
+     */
+    private boolean                                    allowNullValues = true;
+    /**
+     * 分布式 single-flight 使用的缓存锁服务，为 null 的时候只合并本机的并发加载
+     */
+    private LockService                                lockService;
+
+    /**
+     * 创建二级缓存管理器
+     *
+     * @param redisTemplate Redis data access Template
+     */
+    public TwoLevelCacheManager(RedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return cacheMap.computeIfAbsent(name, this::createTwoLevelCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(cacheMap.keySet());
+    }
+
+    /**
+     * 收到失效通知之后，删除对应的一级缓存
+     *
+     * @param message 失效通知
+     */
+    public void onInvalidation(CacheInvalidationMessage message) {
+        if (instanceId.equals(message.getInstanceId())) {
+            return;
+        }
+        TwoLevelCache cache = cacheMap.get(message.getCacheName());
+        if (cache != null) {
+            cache.evictLocal(message.getKey());
+        }
+    }
+
+    /**
+     * 创建二级缓存
+     *
+     * @param name 缓存的名字
+     * @return 二级缓存
+     */
+    protected TwoLevelCache createTwoLevelCache(String name) {
+        TwoLevelCache cache = new TwoLevelCache(name, createNativeCaffeineCache(name), redisTemplate, serialization,
+                timeToLive, keyPrefix, instanceId, allowNullValues);
+        SingleFlightLoader singleFlightLoader = new SingleFlightLoader();
+        singleFlightLoader.setLockService(lockService);
+        cache.setSingleFlightLoader(singleFlightLoader);
+        return cache;
+    }
+
+    /**
+     * 创建一级缓存
+     *
+     * @param name 缓存的名字
+     * @return 一级缓存
+     */
+    protected com.github.benmanes.caffeine.cache.Cache<Object, Object> createNativeCaffeineCache(String name) {
+        Caffeine<Object, Object> builder = (caffeineSpec != null ? Caffeine.from(caffeineSpec) : Caffeine.newBuilder());
+        return builder.build();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.twolevel;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import app.myoss.cloud.cache.constants.CacheConstants;
+import lombok.Data;
+
+/**
+ * 二级缓存的配置
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午5:44:17
+ */
+@Data
+@ConfigurationProperties(prefix = CacheConstants.TWO_LEVEL_CONFIG_PREFIX)
+public class TwoLevelCacheProperties {
+    /**
+     * 是否开启二级缓存，默认为: false
+     */
+    private boolean  enabled;
+    /**
+     * 一级缓存的配置，一级缓存的过期时间需要比二级缓存短，默认为: maximumSize=10000,expireAfterWrite=5m
+     */
+    private String   caffeineSpec    = "maximumSize=10000,expireAfterWrite=5m";
+    /**
+     * 二级缓存的过期时间，默认为: 1小时
+     */
+    private Duration timeToLive      = Duration.ofHours(1);
+    /**
+     * 二级缓存 key 的前缀，默认为: myoss-cloud:cache:
+     */
+    private String   keyPrefix       = "myoss-cloud:cache:";
+    /**
+     * 是否允许缓存 null 值，默认为: true
+     */
+    private boolean  allowNullValues = true;
+    /**
+     * 缓存未命中的时候，是否使用缓存锁在多个实例之间合并加载（分布式 single-flight），默认为: false
+     */
+    private boolean  singleFlightLock;
+}
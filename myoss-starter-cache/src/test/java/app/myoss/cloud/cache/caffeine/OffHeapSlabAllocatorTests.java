@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link OffHeapSlabAllocator} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午3:40:12
+ */
+public class OffHeapSlabAllocatorTests {
+    private static final int     SLAB_SIZE = 4096;
+    private OffHeapSlabAllocator allocator;
+
+    @Before
+    public void setUp() {
+        allocator = new OffHeapSlabAllocator(4 * SLAB_SIZE, SLAB_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        allocator.close();
+    }
+
+    private static byte[] bytes(int length, int seed) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (seed + i);
+        }
+        return bytes;
+    }
+
+    @Test
+    public void allocateAcrossSizeClassesTest() {
+        OffHeapValue tiny = allocator.allocate(bytes(10, 1));
+        OffHeapValue small = allocator.allocate(bytes(65, 2));
+        OffHeapValue full = allocator.allocate(bytes(SLAB_SIZE, 3));
+
+        // 按照 2 的幂向上取整到所属的大小级别，每个级别使用自己的 slab
+        assertThat(tiny.getChunkSize()).isEqualTo(OffHeapSlabAllocator.MIN_CHUNK_SIZE);
+        assertThat(small.getChunkSize()).isEqualTo(128);
+        assertThat(full.getChunkSize()).isEqualTo(SLAB_SIZE);
+        assertThat(allocator.getUsedBytes()).isEqualTo(64L + 128L + SLAB_SIZE);
+        assertThat(allocator.getReservedBytes()).isEqualTo(3L * SLAB_SIZE);
+
+        assertThat(Arrays.equals(tiny.read(), bytes(10, 1))).isTrue();
+        assertThat(Arrays.equals(small.read(), bytes(65, 2))).isTrue();
+        assertThat(Arrays.equals(full.read(), bytes(SLAB_SIZE, 3))).isTrue();
+        assertThat(tiny.getLength()).isEqualTo(10);
+
+        // 超过 slab 大小的数据不能保存到堆外内存
+        assertThat(allocator.allocate(bytes(SLAB_SIZE + 1, 4))).isNull();
+    }
+
+    @Test
+    public void freeAndReuseTest() {
+        OffHeapValue first = allocator.allocate(bytes(100, 1));
+        OffHeapValue second = allocator.allocate(bytes(100, 2));
+        assertThat(allocator.getUsedBytes()).isEqualTo(256L);
+
+        // 正在读取的时候（引用计数加 1）移除，读取完成之后才真正释放
+        assertThat(first.retain()).isTrue();
+        first.release();
+        assertThat(allocator.getUsedBytes()).isEqualTo(256L);
+        assertThat(Arrays.equals(first.read(), bytes(100, 1))).isTrue();
+        first.release();
+        assertThat(allocator.getUsedBytes()).isEqualTo(128L);
+        assertThat(first.read()).isNull();
+        assertThat(first.retain()).isFalse();
+
+        // 释放的块放回空闲队列中复用，slab 用满之前不会申请新的 slab
+        OffHeapValue[] others = new OffHeapValue[SLAB_SIZE / 128 - 1];
+        for (int i = 0; i < others.length; i++) {
+            others[i] = allocator.allocate(bytes(100, 3));
+        }
+        assertThat(allocator.getReservedBytes()).isEqualTo((long) SLAB_SIZE);
+        assertThat(Arrays.stream(others).anyMatch(value -> value.getChunkId() == first.getChunkId())).isTrue();
+        assertThat(Arrays.equals(second.read(), bytes(100, 2))).isTrue();
+        others[0].release();
+        OffHeapValue reused = allocator.allocate(bytes(100, 4));
+        assertThat(reused.getChunkId()).isEqualTo(others[0].getChunkId());
+        assertThat(reused.getOffset()).isEqualTo(others[0].getOffset());
+        assertThat(Arrays.equals(reused.read(), bytes(100, 4))).isTrue();
+        assertThat(allocator.getReservedBytes()).isEqualTo((long) SLAB_SIZE);
+    }
+
+    @Test
+    public void capacityExhaustedTest() {
+        OffHeapValue[] values = new OffHeapValue[4];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = allocator.allocate(bytes(SLAB_SIZE, i));
+            assertThat(values[i]).isNotNull();
+        }
+        assertThat(allocator.getReservedBytes()).isEqualTo(allocator.getCapacity());
+
+        // 堆外内存用完之后返回 null，由调用方保存在堆内；已经分配的 slab 不会归还给其它大小级别
+        assertThat(allocator.allocate(bytes(SLAB_SIZE, 5))).isNull();
+        assertThat(allocator.allocate(bytes(10, 5))).isNull();
+
+        values[0].release();
+        assertThat(allocator.allocate(bytes(10, 5))).isNull();
+        OffHeapValue reused = allocator.allocate(bytes(SLAB_SIZE, 6));
+        assertThat(reused).isNotNull();
+        assertThat(Arrays.equals(reused.read(), bytes(SLAB_SIZE, 6))).isTrue();
+        assertThat(allocator.getUsedBytes()).isEqualTo(4L * SLAB_SIZE);
+    }
+
+    @Test
+    public void closeTest() {
+        OffHeapValue value = allocator.allocate(bytes(100, 1));
+        allocator.close();
+
+        assertThat(allocator.allocate(bytes(100, 2))).isNull();
+        assertThat(allocator.getReservedBytes()).isZero();
+        value.release();
+        assertThat(allocator.getUsedBytes()).isZero();
+    }
+}
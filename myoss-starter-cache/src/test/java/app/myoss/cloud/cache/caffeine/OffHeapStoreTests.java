@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.support.NullValue;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import app.myoss.cloud.cache.caffeine.OffHeapStore.SizedValue;
+import app.myoss.cloud.cache.caffeine.RefreshableCaffeineCache.TimestampedValue;
+import app.myoss.cloud.core.lang.serializer.impl.JdkSerialization;
+
+/**
+ * {@link OffHeapStore} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午3:52:30
+ */
+public class OffHeapStoreTests {
+    private static final int     THRESHOLD = 256;
+    private OffHeapSlabAllocator allocator;
+    private OffHeapStore         offHeapStore;
+
+    @Before
+    public void setUp() {
+        allocator = new OffHeapSlabAllocator(64 * 1024, 4096);
+        offHeapStore = new OffHeapStore(allocator, new JdkSerialization(), THRESHOLD);
+    }
+
+    @After
+    public void tearDown() {
+        allocator.close();
+    }
+
+    private static String largeValue(char c) {
+        char[] chars = new char[1000];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @Test
+    public void storeAndResolveTest() {
+        String large = largeValue('a');
+        Object offHeap = offHeapStore.store(large);
+        assertThat(offHeap).isInstanceOf(OffHeapValue.class);
+        assertThat(allocator.getUsedBytes()).isPositive();
+        Object resolved = offHeapStore.resolve(offHeap);
+        assertThat(resolved).isEqualTo(large);
+        assertThat(resolved).isNotSameAs(large);
+
+        // 小于阈值的留在堆内，记录序列化之后的大小
+        Object onHeap = offHeapStore.store("small");
+        assertThat(onHeap).isInstanceOf(SizedValue.class);
+        assertThat(((SizedValue) onHeap).getSize()).isEqualTo(new JdkSerialization().serialize("small").length);
+        assertThat(offHeapStore.resolve(onHeap)).isSameAs("small");
+
+        // 不需要序列化的值保持不变
+        assertThat(offHeapStore.store(NullValue.INSTANCE)).isSameAs(NullValue.INSTANCE);
+        assertThat(offHeapStore.store(1L)).isEqualTo(1L);
+        assertThat(offHeapStore.store(new Object())).isInstanceOf(Object.class);
+        assertThat(offHeapStore.resolve(null)).isNull();
+    }
+
+    @Test
+    public void resolveTimestampedValueTest() {
+        String large = largeValue('b');
+        TimestampedValue stored = new TimestampedValue(offHeapStore.store(large), 42L);
+        Object resolved = offHeapStore.resolve(stored);
+        assertThat(resolved).isEqualTo(new TimestampedValue(large, 42L));
+
+        offHeapStore.release(stored);
+        assertThat(allocator.getUsedBytes()).isZero();
+        // 堆外内存已经被释放（缓存刚好被移除），当作没有缓存
+        assertThat(offHeapStore.resolve(stored)).isNull();
+    }
+
+    @Test
+    public void storeOnHeapWhenExhaustedTest() {
+        OffHeapSlabAllocator tinyAllocator = new OffHeapSlabAllocator(4096, 4096);
+        OffHeapStore store = new OffHeapStore(tinyAllocator, new JdkSerialization(), THRESHOLD);
+        try {
+            // 一个 slab 只能保存 4 个 1KB 级别的值，堆外内存用完之后继续保存在堆内
+            for (char c = 'a'; c < 'e'; c++) {
+                assertThat(store.store(largeValue(c))).isInstanceOf(OffHeapValue.class);
+            }
+            Object onHeap = store.store(largeValue('e'));
+            assertThat(onHeap).isInstanceOf(SizedValue.class);
+            assertThat(store.resolve(onHeap)).isEqualTo(largeValue('e'));
+        } finally {
+            tinyAllocator.close();
+        }
+    }
+
+    @Test
+    public void releaseOnRemovalTest() {
+        // 和 CaffeineCacheManagerWrap 创建的缓存一样，由 removalListener 释放堆外内存
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .maximumSize(2)
+                .removalListener((key, value, cause) -> offHeapStore.release(value))
+                .build();
+        CaffeineCacheWrap cache = new CaffeineCacheWrap("off-heap", nativeCache, true);
+        cache.setOffHeapStore(offHeapStore);
+
+        cache.put("k1", largeValue('a'));
+        cache.put("k2", largeValue('b'));
+        long twoValues = allocator.getUsedBytes();
+        assertThat(cache.get("k1").get()).isEqualTo(largeValue('a'));
+        assertThat(cache.get("k2", () -> "unexpected")).isEqualTo(largeValue('b'));
+
+        // 覆盖：释放旧值
+        cache.put("k1", largeValue('c'));
+        nativeCache.cleanUp();
+        assertThat(allocator.getUsedBytes()).isEqualTo(twoValues);
+        assertThat(cache.get("k1").get()).isEqualTo(largeValue('c'));
+
+        // 删除
+        cache.evict("k2");
+        nativeCache.cleanUp();
+        assertThat(allocator.getUsedBytes()).isEqualTo(twoValues / 2);
+
+        // 超过数量上限淘汰
+        cache.put("k2", largeValue('b'));
+        cache.put("k3", largeValue('d'));
+        nativeCache.cleanUp();
+        assertThat(nativeCache.estimatedSize()).isEqualTo(2L);
+        assertThat(allocator.getUsedBytes()).isEqualTo(twoValues);
+
+        // 清空
+        cache.clear();
+        nativeCache.cleanUp();
+        assertThat(allocator.getUsedBytes()).isZero();
+    }
+}
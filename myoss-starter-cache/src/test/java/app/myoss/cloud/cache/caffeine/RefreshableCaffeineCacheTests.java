@@ -0,0 +1,195 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache.ValueRetrievalException;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * {@link RefreshableCaffeineCache} 测试类，使用手动前进的时钟控制缓存值的存在时间
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午3:05:48
+ */
+public class RefreshableCaffeineCacheTests {
+    private FakeTicker               ticker;
+    private ThreadPoolExecutor       refreshExecutor;
+    private RefreshableCaffeineCache cache;
+    private AtomicInteger            loadCount;
+
+    @Before
+    public void setUp() {
+        // fresh: [0, 60s)，stale-while-revalidate: [60s, 120s)，stale-if-error: [120s, 180s)
+        CaffeineCacheConfig config = new CaffeineCacheConfig();
+        config.setRefreshAfterWrite(Duration.ofSeconds(60));
+        config.setStaleWhileRevalidate(Duration.ofSeconds(60));
+        config.setStaleIfError(Duration.ofSeconds(60));
+        ticker = new FakeTicker();
+        // 和 CaffeineCacheManagerWrap 创建的刷新线程池一样：固定线程数 + 有界队列，队列满了之后拒绝
+        refreshExecutor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(1));
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterWrite(config.getMaxStaleTime())
+                .build();
+        cache = new RefreshableCaffeineCache("refreshable", nativeCache, true, config, refreshExecutor);
+        cache.setTicker(ticker);
+        loadCount = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private String load(String value) {
+        loadCount.incrementAndGet();
+        return value;
+    }
+
+    private void awaitRefreshed(String key, String value) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!value.equals(cache.get(key, () -> "unexpected")) && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        assertThat(cache.get(key, () -> "unexpected")).isEqualTo(value);
+    }
+
+    @Test
+    public void freshValueTest() {
+        assertThat(cache.get("key", () -> load("v1"))).isEqualTo("v1");
+        ticker.advance(Duration.ofSeconds(59));
+
+        assertThat(cache.get("key", () -> load("v2"))).isEqualTo("v1");
+        assertThat(cache.get("key").get()).isEqualTo("v1");
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(refreshExecutor.getTaskCount()).isZero();
+    }
+
+    @Test
+    public void staleWhileRevalidateTest() throws Exception {
+        assertThat(cache.get("key", () -> load("v1"))).isEqualTo("v1");
+        ticker.advance(Duration.ofSeconds(90));
+
+        // 先返回旧值，后台刷新
+        CountDownLatch refreshing = new CountDownLatch(1);
+        assertThat(cache.get("key", () -> {
+            refreshing.await(5, TimeUnit.SECONDS);
+            return load("v2");
+        })).isEqualTo("v1");
+        // 刷新还没有完成的时候，同一个 key 不会重复提交刷新任务
+        assertThat(cache.get("key", () -> load("v3"))).isEqualTo("v1");
+        // 没有加载函数，无法在后台刷新，当作没有缓存
+        assertThat(cache.get("key")).isNull();
+
+        refreshing.countDown();
+        awaitRefreshed("key", "v2");
+        assertThat(loadCount.get()).isEqualTo(2);
+        assertThat(refreshExecutor.getTaskCount()).isEqualTo(1L);
+
+        // 刷新之后重新计算存在时间
+        ticker.advance(Duration.ofSeconds(59));
+        assertThat(cache.get("key").get()).isEqualTo("v2");
+    }
+
+    @Test
+    public void refreshAheadQueueBoundedTest() throws Exception {
+        for (String key : new String[] { "k1", "k2", "k3" }) {
+            cache.put(key, "old");
+        }
+        ticker.advance(Duration.ofSeconds(90));
+
+        // k1 占用唯一的刷新线程，k2 进入队列，k3 被拒绝：不阻塞调用方，直接返回旧值
+        CountDownLatch blocked = new CountDownLatch(1);
+        assertThat(cache.get("k1", () -> {
+            blocked.await(5, TimeUnit.SECONDS);
+            return load("new");
+        })).isEqualTo("old");
+        assertThat(cache.get("k2", () -> load("new"))).isEqualTo("old");
+        assertThat(cache.get("k3", () -> load("new"))).isEqualTo("old");
+        assertThat(refreshExecutor.getQueue().size()).isEqualTo(1);
+
+        blocked.countDown();
+        awaitRefreshed("k1", "new");
+        awaitRefreshed("k2", "new");
+        assertThat(cache.get("k3")).isNull();
+
+        // 被拒绝的刷新不会残留记录，下一次访问重新提交
+        assertThat(cache.get("k3", () -> load("new"))).isEqualTo("old");
+        awaitRefreshed("k3", "new");
+        assertThat(loadCount.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void staleIfErrorTest() {
+        assertThat(cache.get("key", () -> load("v1"))).isEqualTo("v1");
+        ticker.advance(Duration.ofSeconds(150));
+
+        // 超过 stale-while-revalidate 之后同步加载，加载失败的时候在 stale-if-error 之内返回旧值
+        assertThat(cache.get("key", () -> {
+            throw new IllegalStateException("load failed");
+        })).isEqualTo("v1");
+
+        ticker.advance(Duration.ofSeconds(40));
+        assertThatThrownBy(() -> cache.get("key", () -> {
+            throw new IllegalStateException("load failed");
+        })).isInstanceOf(ValueRetrievalException.class).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void syncLoadAfterStaleWhileRevalidateTest() {
+        assertThat(cache.get("key", () -> load("v1"))).isEqualTo("v1");
+        ticker.advance(Duration.ofSeconds(150));
+
+        assertThat(cache.get("key", () -> load("v2"))).isEqualTo("v2");
+        assertThat(loadCount.get()).isEqualTo(2);
+        assertThat(refreshExecutor.getTaskCount()).isZero();
+        assertThat(cache.get("key").get()).isEqualTo("v2");
+    }
+
+    /**
+     * 手动前进的时钟
+     */
+    static class FakeTicker implements Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.caffeine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.cache.support.NullValue;
+
+import app.myoss.cloud.cache.caffeine.OffHeapStore.SizedValue;
+import app.myoss.cloud.cache.caffeine.RefreshableCaffeineCache.TimestampedValue;
+import app.myoss.cloud.core.lang.serializer.impl.JdkSerialization;
+
+/**
+ * {@link SerializedSizeWeigher} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午4:05:17
+ */
+public class SerializedSizeWeigherTests {
+    private final AtomicInteger         serializeCount = new AtomicInteger();
+    private final SerializedSizeWeigher weigher        = new SerializedSizeWeigher(new JdkSerialization() {
+        @Override
+        public byte[] serialize(Object object) {
+            serializeCount.incrementAndGet();
+            return super.serialize(object);
+        }
+    });
+
+    @Test
+    public void weighTest() {
+        // 固定开销 16 + key (16 + 2 * 3) + value (16 + 2 * 5)
+        assertThat(weigher.weigh("key", "value")).isEqualTo(64);
+        assertThat(weigher.weigh("key", new byte[100])).isEqualTo(16 + 22 + 116);
+        assertThat(weigher.weigh("key", 1L)).isEqualTo(16 + 22 + 16);
+        assertThat(weigher.weigh("key", NullValue.INSTANCE)).isEqualTo(16 + 22);
+        assertThat(serializeCount.get()).isZero();
+
+        // 记录了写入时间的缓存值，只计算其中的值
+        assertThat(weigher.weigh("key", new TimestampedValue("value", 1L))).isEqualTo(64);
+    }
+
+    @Test
+    public void weighSerializedTest() {
+        ArrayList<String> list = new ArrayList<>(Arrays.asList("a", "b", "c"));
+        int serialized = new JdkSerialization().serialize(list).length;
+        assertThat(weigher.weigh("key", list)).isEqualTo(16 + 22 + serialized);
+        assertThat(serializeCount.get()).isEqualTo(1);
+
+        // OffHeapStore 已经序列化过的值直接使用记录的大小，不再序列化一次
+        assertThat(weigher.weigh("key", new SizedValue(list, serialized))).isEqualTo(16 + 22 + 16 + serialized);
+        assertThat(serializeCount.get()).isEqualTo(1);
+
+        // 无法序列化的时候使用默认大小
+        assertThat(weigher.weigh("key", new Object())).isEqualTo(16 + 22 + SerializedSizeWeigher.DEFAULT_WEIGHT);
+    }
+
+    @Test
+    public void weighOffHeapValueTest() {
+        try (OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(4096, 4096)) {
+            OffHeapValue value = allocator.allocate(new byte[1000]);
+            // 堆外内存不占用堆内的空间，只计算句柄
+            assertThat(weigher.weigh("key", value)).isEqualTo(16 + 22 + 32);
+            assertThat(weigher.weigh("key", new TimestampedValue(value, 1L))).isEqualTo(16 + 22 + 32);
+        }
+    }
+}
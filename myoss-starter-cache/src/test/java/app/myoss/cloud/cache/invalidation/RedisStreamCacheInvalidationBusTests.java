@@ -0,0 +1,221 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import app.myoss.cloud.cache.caffeine.CaffeineCacheManagerWrap;
+import app.myoss.cloud.cache.twolevel.CacheInvalidationMessage;
+import app.myoss.cloud.core.constants.MyossConstants;
+import app.myoss.cloud.core.lang.serializer.impl.JdkSerialization;
+
+/**
+ * {@link RedisStreamCacheInvalidationBus} 测试类，使用两个总线模拟两个实例；需要本机（或者系统属性 redis.host 指定）的
+ * Redis，连接不上的时候跳过
+ * <p>
+ * 定时发送的间隔设置得很长，由测试自己调用 {@link RedisStreamCacheInvalidationBus#flush()}
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午5:26:44
+ */
+public class RedisStreamCacheInvalidationBusTests {
+    private LettuceConnectionFactory        connectionFactory;
+    private FailingRedisTemplate            redisTemplate;
+    private CacheInvalidationProperties     properties;
+    private byte[]                          streamKey;
+    private CaffeineCacheManagerWrap        cacheManager;
+    private CaffeineCacheManagerWrap        otherCacheManager;
+    private RedisStreamCacheInvalidationBus bus;
+    private RedisStreamCacheInvalidationBus otherBus;
+
+    @Before
+    public void setUp() {
+        connectionFactory = new LettuceConnectionFactory(System.getProperty("redis.host", "localhost"), 6379);
+        connectionFactory.afterPropertiesSet();
+        try {
+            connectionFactory.getConnection().ping();
+        } catch (Exception ex) {
+            connectionFactory.destroy();
+            Assume.assumeNoException("redis is not available", ex);
+        }
+        redisTemplate = new FailingRedisTemplate();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+
+        properties = new CacheInvalidationProperties();
+        properties.setStreamKey("myoss-cloud:test:cache-invalidation:" + System.nanoTime());
+        properties.setBatchSize(2);
+        properties.setQueueCapacity(4);
+        properties.setFlushInterval(Duration.ofHours(1));
+        properties.setPollTimeout(Duration.ofMillis(100));
+        streamKey = properties.getStreamKey().getBytes(MyossConstants.DEFAULT_CHARSET);
+
+        cacheManager = new CaffeineCacheManagerWrap();
+        otherCacheManager = new CaffeineCacheManagerWrap();
+        bus = new RedisStreamCacheInvalidationBus(redisTemplate, cacheManager, new JdkSerialization(), properties,
+                "test-group-1");
+        otherBus = new RedisStreamCacheInvalidationBus(redisTemplate, otherCacheManager, new JdkSerialization(),
+                properties, "test-group-2");
+        bus.start();
+        otherBus.start();
+    }
+
+    @After
+    public void tearDown() {
+        if (bus != null) {
+            redisTemplate.failing = false;
+            bus.stop();
+            otherBus.stop();
+            redisTemplate.delete(properties.getStreamKey());
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static boolean isCached(CaffeineCacheManagerWrap manager, String key) {
+        return manager.getCache("user").get(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<CacheInvalidationMessage>> readStream() {
+        List<ByteRecord> records = redisTemplate
+                .execute((RedisCallback<List<ByteRecord>>) connection -> connection.xRange(streamKey,
+                        Range.unbounded()));
+        JdkSerialization serialization = new JdkSerialization();
+        List<List<CacheInvalidationMessage>> batches = new ArrayList<>();
+        for (ByteRecord record : records) {
+            for (Map.Entry<byte[], byte[]> entry : record.getValue().entrySet()) {
+                if ("m".equals(new String(entry.getKey(), MyossConstants.DEFAULT_CHARSET))) {
+                    batches.add((List<CacheInvalidationMessage>) serialization.deserialize(entry.getValue()));
+                }
+            }
+        }
+        return batches;
+    }
+
+    private static List<Object> keysOf(List<List<CacheInvalidationMessage>> batches) {
+        List<Object> keys = new ArrayList<>();
+        batches.forEach(batch -> batch.forEach(message -> keys.add(message.getKey())));
+        return keys;
+    }
+
+    @Test
+    public void batchFlushTest() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            otherCacheManager.getCache("user").put("key-" + i, "value");
+        }
+        for (int i = 0; i < 3; i++) {
+            bus.publish("user", "key-" + i);
+        }
+        // 还没有发送
+        assertThat(readStream()).isEmpty();
+
+        // 每 batchSize 个通知保存为 Stream 中的一条消息
+        bus.flush();
+        List<List<CacheInvalidationMessage>> batches = readStream();
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).hasSize(2);
+        assertThat(keysOf(batches)).containsExactly("key-0", "key-1", "key-2");
+        assertThat(batches.get(0).get(0).getInstanceId()).isEqualTo(bus.getInstanceId());
+
+        await(() -> !isCached(otherCacheManager, "key-0") && !isCached(otherCacheManager, "key-1")
+                && !isCached(otherCacheManager, "key-2"));
+    }
+
+    @Test
+    public void retryCappedAtQueueCapacityTest() throws Exception {
+        redisTemplate.failing = true;
+        for (int i = 0; i < 4; i++) {
+            bus.publish("user", "key-" + i);
+        }
+        bus.flush();
+        for (int i = 4; i < 8; i++) {
+            bus.publish("user", "key-" + i);
+        }
+        // 上一次失败的 4 个加上新的 4 个，超过 queueCapacity 的部分被丢弃
+        bus.flush();
+        assertThat(readStream()).isEmpty();
+
+        redisTemplate.failing = false;
+        bus.flush();
+        List<List<CacheInvalidationMessage>> batches = readStream();
+        assertThat(keysOf(batches)).containsExactly("key-0", "key-1", "key-2", "key-3");
+
+        // 重试成功之后不再重复发送
+        bus.flush();
+        assertThat(readStream()).hasSize(batches.size());
+    }
+
+    @Test
+    public void ignoreOwnMessageTest() throws Exception {
+        cacheManager.getCache("user").put("own", "value");
+        otherCacheManager.getCache("user").put("own", "value");
+        cacheManager.getCache("user").put("marker", "value");
+
+        bus.publish("user", "own");
+        bus.flush();
+        // 另外一个实例的通知排在后面，处理到它的时候，前面自己发出的通知一定已经处理过了
+        otherBus.publish("user", "marker");
+        otherBus.flush();
+
+        await(() -> !isCached(cacheManager, "marker"));
+        assertThat(isCached(cacheManager, "own")).isTrue();
+        await(() -> !isCached(otherCacheManager, "own"));
+    }
+
+    /**
+     * 可以模拟 Redis 写入失败的 RedisTemplate
+     */
+    static class FailingRedisTemplate extends StringRedisTemplate {
+        volatile boolean failing;
+
+        @Override
+        public List<Object> executePipelined(RedisCallback<?> action) {
+            if (failing) {
+                throw new IllegalStateException("redis is down");
+            }
+            return super.executePipelined(action);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import app.myoss.cloud.cache.lock.LockService;
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+
+/**
+ * {@link LocalLockServiceImpl} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 上午11:20:14
+ */
+public class LocalLockServiceImplTests {
+    private LocalLockServiceImpl lockService;
+    private ExecutorService      executor;
+
+    @Before
+    public void setUp() {
+        // 清理任务的间隔很长，由测试自己调用 sweepExpiredLocks
+        lockService = new LocalLockServiceImpl(TimeUnit.MILLISECONDS, TimeUnit.HOURS.toMillis(1));
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        lockService.close();
+    }
+
+    private static LockFunctionGeneric<Boolean> retryFunction(int tryLockTimes, long sleepTime, Runnable task) {
+        return new LockFunctionGeneric<Boolean>() {
+            @Override
+            public int tryLockTimes() {
+                return tryLockTimes;
+            }
+
+            @Override
+            public long tryLockSleepTime() {
+                return sleepTime;
+            }
+
+            @Override
+            public Boolean onLockSuccess() {
+                task.run();
+                return true;
+            }
+
+            @Override
+            public Boolean onLockFailed() {
+                return false;
+            }
+        };
+    }
+
+    @Test
+    public void mutualExclusionTest() throws Exception {
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        int[] counter = new int[1];
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 100; j++) {
+                    Boolean locked = lockService.executeByLock("mutual-exclusion", 10000,
+                            retryFunction(Integer.MAX_VALUE, 5L, () -> {
+                                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                                counter[0]++;
+                                concurrent.decrementAndGet();
+                            }));
+                    assertThat(locked).isTrue();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        assertThat(maxConcurrent.get()).isEqualTo(1);
+        assertThat(counter[0]).isEqualTo(800);
+        assertThat(lockService.getLockSize()).isZero();
+    }
+
+    @Test
+    public void releaseLockByNonOwnerTest() throws Exception {
+        assertThat(lockService.getLock("non-owner", 10000)).isTrue();
+        assertThat(executor.submit(() -> lockService.releaseLock("non-owner")).get()).isFalse();
+        // 锁仍然被当前线程持有
+        assertThat(executor.submit(() -> lockService.getLock("non-owner", 10000)).get()).isFalse();
+        assertThat(lockService.releaseLock("non-owner")).isTrue();
+        assertThat(lockService.getLockSize()).isZero();
+    }
+
+    @Test
+    public void expiredHoldTakenOverTest() throws Exception {
+        assertThat(lockService.getLock("expired", 50)).isTrue();
+        assertThat(executor.submit(() -> lockService.getLock("expired", 10000)).get()).isFalse();
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        // 锁过期之后，其它线程可以获取到锁，原来的持有者不能释放别人的锁
+        Future<Boolean> takeOver = executor.submit(() -> lockService.getLock("expired", 10000));
+        assertThat(takeOver.get()).isTrue();
+        assertThat(lockService.releaseLock("expired")).isFalse();
+        assertThat(lockService.getLockSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void waitForRetryWokenOnReleaseTest() throws Exception {
+        assertThat(lockService.getLock("wake-up", 10000)).isTrue();
+        // 等待的线程每次最多等待 10 秒，释放锁的时候应该被立即唤醒
+        long begin = System.nanoTime();
+        Future<Boolean> waiter = executor
+                .submit(() -> lockService.executeByLock("wake-up", 10000, retryFunction(2, 10000L, () -> {
+                })));
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(waiter.isDone()).isFalse();
+        assertThat(lockService.releaseLock("wake-up")).isTrue();
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - begin).isLessThan(TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void sweepExpiredLocksTest() throws Exception {
+        assertThat(lockService.getLock("sweep-expired", 20)).isTrue();
+        assertThat(lockService.getLock("sweep-forever", 0)).isTrue();
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertThat(lockService.getLockSize()).isEqualTo(2);
+
+        // 只清理已经过期的锁，不会过期的锁一直保留到释放
+        lockService.sweepExpiredLocks();
+        assertThat(lockService.getLockSize()).isEqualTo(1);
+        assertThat(lockService.releaseLock("sweep-forever")).isTrue();
+        assertThat(lockService.getLockSize()).isZero();
+    }
+
+    @Test
+    public void getLocksAllOrNothingTest() throws Exception {
+        // 持有锁和释放锁需要在同一个线程
+        ExecutorService otherThread = Executors.newSingleThreadExecutor();
+        try {
+            assertThat(otherThread.submit(() -> lockService.getLock("multi-b", 10000)).get()).isTrue();
+            // 有一个锁被其它线程持有，已经获取到的锁全部回滚
+            List<String> keys = Arrays.asList("multi-c", "multi-a", "multi-b", "multi-a");
+            assertThat(lockService.getLocks(keys, 10000)).isFalse();
+            assertThat(lockService.getLockSize()).isEqualTo(1);
+            assertThat(otherThread.submit(() -> lockService.getLock("multi-a", 10000)).get()).isTrue();
+            assertThat(otherThread.submit(() -> lockService.releaseLock("multi-a")).get()).isTrue();
+
+            // 锁释放之后可以获取到全部的锁，重复的 key 只获取一次
+            assertThat(otherThread.submit(() -> lockService.releaseLock("multi-b")).get()).isTrue();
+            assertThat(lockService.getLocks(keys, 10000)).isTrue();
+            assertThat(lockService.getLockSize()).isEqualTo(3);
+            assertThat(otherThread.submit(() -> lockService.getLock("multi-c", 10000)).get()).isFalse();
+            assertThat(lockService.releaseLocks(keys)).isTrue();
+            assertThat(lockService.getLockSize()).isZero();
+            assertThat(lockService.releaseLocks(keys)).isFalse();
+        } finally {
+            otherThread.shutdownNow();
+        }
+    }
+
+    @Test
+    public void acquireInOrderRollbackTest() {
+        List<Serializable> sortedKeys = LockService.sortKeys(Arrays.asList("order-d", "order-b", "order-a", "order-c"));
+        assertThat(sortedKeys).containsExactly("order-a", "order-b", "order-c", "order-d");
+
+        // 按顺序获取，获取 order-c 失败的时候，释放已经获取到的 order-a、order-b，不再获取 order-d
+        List<Serializable> acquired = new ArrayList<>();
+        assertThat(LockService.acquireInOrder(lockService, sortedKeys, key -> {
+            acquired.add(key);
+            return !"order-c".equals(key) && lockService.getLock(key, 10000);
+        })).isFalse();
+        assertThat(acquired).containsExactly("order-a", "order-b", "order-c");
+        assertThat(lockService.getLockSize()).isZero();
+
+        // 释放的时候有锁不是自己持有的，其它的锁仍然会被释放
+        assertThat(LockService.acquireInOrder(lockService, sortedKeys, key -> lockService.getLock(key, 10000)))
+                .isTrue();
+        assertThat(lockService.releaseLock("order-b")).isTrue();
+        assertThat(LockService.releaseInOrder(lockService, sortedKeys)).isFalse();
+        assertThat(lockService.getLockSize()).isZero();
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+import app.myoss.cloud.cache.lock.retry.BackoffPolicy;
+
+/**
+ * {@link AbstractLockService} 重试获取锁、{@link LockService#sleep(long)} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午7:02:55
+ */
+public class AbstractLockServiceTests {
+    private static LockFunctionGeneric<String> retryFunction(int tryLockTimes, long sleepTime,
+                                                             BackoffPolicy backoffPolicy) {
+        return new LockFunctionGeneric<String>() {
+            @Override
+            public int tryLockTimes() {
+                return tryLockTimes;
+            }
+
+            @Override
+            public long tryLockSleepTime() {
+                return sleepTime;
+            }
+
+            @Override
+            public BackoffPolicy backoffPolicy() {
+                return backoffPolicy;
+            }
+
+            @Override
+            public String onLockSuccess() {
+                return "success";
+            }
+
+            @Override
+            public String onLockFailed() {
+                return "failed";
+            }
+        };
+    }
+
+    @Test
+    public void waitStrategyUsedTest() {
+        ScriptedLockService lockService = new ScriptedLockService(5);
+        List<Integer> attempts = new ArrayList<>();
+        lockService.setLockEventListener(new LockEventListener() {
+            @Override
+            public void onRetryWait(Serializable key, int attempt, long waitNanos) {
+                attempts.add(attempt);
+            }
+        });
+
+        // 第 5 次获取到锁，每次重试之前按照退避策略计算的时间调用 waitForRetry
+        String result = lockService.executeByLock("key", 10, retryFunction(5, 10L, BackoffPolicy.exponential(25L)));
+        assertThat(result).isEqualTo("success");
+        assertThat(lockService.getLockCount.get()).isEqualTo(5);
+        assertThat(lockService.waits).containsExactly(10L, 20L, 25L, 25L);
+        assertThat(attempts).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    public void retryExhaustedTest() {
+        ScriptedLockService lockService = new ScriptedLockService(Integer.MAX_VALUE);
+        String result = lockService.executeByLock("key", 10, retryFunction(3, 10L, BackoffPolicy.fixed()));
+        assertThat(result).isEqualTo("failed");
+        assertThat(lockService.getLockCount.get()).isEqualTo(3);
+        assertThat(lockService.waits).containsExactly(10L, 10L);
+
+        // 只获取一次，不重试
+        lockService = new ScriptedLockService(Integer.MAX_VALUE);
+        assertThat(lockService.executeByLock("key", 10, retryFunction(1, 10L, BackoffPolicy.fixed())))
+                .isEqualTo("failed");
+        assertThat(lockService.waits).isEmpty();
+    }
+
+    @Test
+    public void interruptedStopRetryTest() {
+        ScriptedLockService lockService = new ScriptedLockService(Integer.MAX_VALUE) {
+            @Override
+            protected void waitForRetry(Serializable key, long sleepTime) {
+                super.waitForRetry(key, sleepTime);
+                Thread.currentThread().interrupt();
+            }
+        };
+        try {
+            String result = lockService.executeByLock("key", 10, retryFunction(10, 10L, BackoffPolicy.fixed()));
+            assertThat(result).isEqualTo("failed");
+            assertThat(lockService.waits).hasSize(1);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void defaultWaitForRetryTest() {
+        // 默认使用 LockService.sleep 等待
+        ScriptedLockService lockService = new ScriptedLockService(3);
+        lockService.realWait = true;
+        long begin = System.nanoTime();
+        assertThat(lockService.executeByLock("key", 10, retryFunction(3, 30L, BackoffPolicy.fixed())))
+                .isEqualTo("success");
+        assertThat(System.nanoTime() - begin).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(60L));
+        assertThat(lockService.waits).containsExactly(30L, 30L);
+    }
+
+    @Test
+    public void sleepTest() {
+        long begin = System.nanoTime();
+        LockService.sleep(50L);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin)).isGreaterThanOrEqualTo(50L);
+
+        // 不大于 0 的时候直接返回
+        begin = System.nanoTime();
+        LockService.sleep(0L);
+        LockService.sleep(-1L);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin)).isLessThan(50L);
+
+        // 线程被中断的时候立即返回，并保留中断标记
+        Thread.currentThread().interrupt();
+        try {
+            begin = System.nanoTime();
+            LockService.sleep(TimeUnit.SECONDS.toMillis(10));
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin)).isLessThan(5000L);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * 前 n - 1 次获取锁失败、第 n 次成功的缓存锁服务，记录每次重试之前等待的时间，realWait 为 true 的时候才真正等待
+     */
+    static class ScriptedLockService extends AbstractLockService {
+        final AtomicInteger getLockCount = new AtomicInteger();
+        final List<Long>    waits        = new ArrayList<>();
+        final int           successAt;
+        boolean             realWait;
+
+        ScriptedLockService(int successAt) {
+            this.successAt = successAt;
+        }
+
+        @Override
+        public TimeUnit getTimeUnit() {
+            return TimeUnit.SECONDS;
+        }
+
+        @Override
+        public boolean getLock(Serializable key, int expireTime, TimeUnit timeUnit) {
+            return getLockCount.incrementAndGet() >= successAt;
+        }
+
+        @Override
+        public boolean getLock(Serializable key, int expireTime) {
+            return getLock(key, expireTime, getTimeUnit());
+        }
+
+        @Override
+        public boolean releaseLock(Serializable key) {
+            return true;
+        }
+
+        @Override
+        protected void waitForRetry(Serializable key, long sleepTime) {
+            waits.add(sleepTime);
+            if (realWait) {
+                super.waitForRetry(key, sleepTime);
+            }
+        }
+    }
+}
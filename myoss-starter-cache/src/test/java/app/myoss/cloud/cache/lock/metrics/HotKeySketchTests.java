@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import app.myoss.cloud.cache.lock.metrics.HotKeySketch.HotKey;
+
+/**
+ * {@link HotKeySketch} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午6:02:19
+ */
+public class HotKeySketchTests {
+    private static void offer(HotKeySketch sketch, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            sketch.offer(key);
+        }
+    }
+
+    @Test
+    public void topKTest() {
+        HotKeySketch sketch = new HotKeySketch(4, 1);
+        offer(sketch, "a", 10);
+        offer(sketch, "b", 5);
+        offer(sketch, "c", 3);
+        offer(sketch, "d", 1);
+
+        List<HotKey> topK = sketch.topK(3);
+        assertThat(topK).containsExactly(new HotKey("a", 10, 0), new HotKey("b", 5, 0), new HotKey("c", 3, 0));
+        assertThat(sketch.getTotal()).isEqualTo(19L);
+
+        // 计数器满了之后，新的 key 替换次数最少的计数器，并继承它的次数作为误差
+        offer(sketch, "e", 1);
+        topK = sketch.topK(10);
+        assertThat(topK).hasSize(4);
+        assertThat(topK.get(3)).isEqualTo(new HotKey("e", 2, 1));
+
+        sketch.reset();
+        assertThat(sketch.topK(10)).isEmpty();
+        assertThat(sketch.getTotal()).isZero();
+    }
+
+    @Test
+    public void heavyHitterKeptTest() {
+        HotKeySketch sketch = new HotKeySketch(64);
+        // 大量只出现一次的 key 中间夹着一个热点 key
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer("cold-" + i);
+            if (i % 2 == 0) {
+                sketch.offer("hot");
+            }
+        }
+
+        HotKey hot = sketch.topK(1).get(0);
+        assertThat(hot.getKey()).isEqualTo("hot");
+        // count 是真实次数的上界，count - error 是下界
+        assertThat(hot.getCount()).isGreaterThanOrEqualTo(500L);
+        assertThat(hot.getCount() - hot.getError()).isLessThanOrEqualTo(500L);
+        assertThat(sketch.topK(100)).hasSize(64);
+        assertThat(sketch.getTotal()).isEqualTo(1500L);
+    }
+
+    @Test
+    public void decayTest() {
+        // 1 个分段 4 个计数器，每 40 次衰减一次
+        HotKeySketch sketch = new HotKeySketch(4, 1, 10);
+        offer(sketch, "old", 39);
+        assertThat(sketch.topK(1)).containsExactly(new HotKey("old", 39, 0));
+
+        // 第 40 次之后衰减：次数减半，减到 0 的计数器被移除
+        sketch.offer("once");
+        assertThat(sketch.topK(10)).containsExactly(new HotKey("old", 19, 0));
+
+        // 衰减之后，最近的热点 key 排在以前的热点 key 前面
+        offer(sketch, "new", 30);
+        assertThat(sketch.topK(10)).containsExactly(new HotKey("new", 30, 0), new HotKey("old", 19, 0));
+        offer(sketch, "new", 10);
+        assertThat(sketch.topK(10)).containsExactly(new HotKey("new", 20, 0), new HotKey("old", 9, 0));
+        assertThat(sketch.getTotal()).isEqualTo(80L);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import app.myoss.cloud.cache.lock.metrics.HotKeySketch.HotKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link MicrometerLockEventListener} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午6:20:47
+ */
+public class MicrometerLockEventListenerTests {
+    private static final String         PREFIX = MicrometerLockEventListener.METRIC_PREFIX;
+    private SimpleMeterRegistry         registry;
+    private HotKeySketch                hotKeySketch;
+    private MicrometerLockEventListener listener;
+
+    @Before
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        hotKeySketch = new HotKeySketch(16, 1);
+        listener = new MicrometerLockEventListener(registry, hotKeySketch);
+    }
+
+    @Test
+    public void recordMetricsTest() {
+        listener.onRetryWait("order:1", 1, TimeUnit.MILLISECONDS.toNanos(10));
+        listener.onRetryWait("order:1", 2, TimeUnit.MILLISECONDS.toNanos(20));
+        listener.onAcquired("order:1", TimeUnit.MILLISECONDS.toNanos(35));
+        listener.onFailed("order:2", TimeUnit.MILLISECONDS.toNanos(50));
+        listener.onReleased("order:1", TimeUnit.MILLISECONDS.toNanos(100), true);
+        listener.onReleased("order:3", TimeUnit.MILLISECONDS.toNanos(200), false);
+
+        assertThat(registry.get(PREFIX + ".retry").counter().count()).isEqualTo(2D);
+        assertThat(registry.get(PREFIX + ".retry.wait").timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(30D);
+        assertThat(registry.get(PREFIX + ".acquire").timer().count()).isEqualTo(1L);
+        assertThat(registry.get(PREFIX + ".acquire").timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(35D);
+        assertThat(registry.get(PREFIX + ".failed").counter().count()).isEqualTo(1D);
+        assertThat(registry.get(PREFIX + ".hold").timer().count()).isEqualTo(2L);
+        // 释放的时候锁已经过期了
+        assertThat(registry.get(PREFIX + ".expired").counter().count()).isEqualTo(1D);
+    }
+
+    @Test
+    public void offerHotKeyTest() {
+        for (int i = 0; i < 3; i++) {
+            listener.onRetryWait("order:1", i + 1, 0L);
+        }
+        listener.onAcquired("order:1", 0L);
+        listener.onFailed("order:2", 0L);
+        // 释放锁不算竞争
+        listener.onReleased("order:3", 0L, true);
+
+        assertThat(hotKeySketch.topK(10)).containsExactly(new HotKey("order:1", 4, 0), new HotKey("order:2", 1, 0));
+        assertThat(hotKeySketch.getTotal()).isEqualTo(5L);
+
+        // 不统计热点 key
+        MicrometerLockEventListener withoutSketch = new MicrometerLockEventListener(new SimpleMeterRegistry());
+        withoutSketch.onAcquired("order:1", 0L);
+        assertThat(hotKeySketch.getTotal()).isEqualTo(5L);
+    }
+}
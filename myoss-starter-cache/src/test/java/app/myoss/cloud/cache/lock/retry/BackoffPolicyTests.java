@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.lock.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/**
+ * {@link BackoffPolicy} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午6:48:31
+ */
+public class BackoffPolicyTests {
+    @Test
+    public void fixedTest() {
+        BackoffPolicy policy = BackoffPolicy.fixed();
+        long sleepTime = 10L;
+        for (int attempt = 1; attempt <= 100; attempt++) {
+            sleepTime = policy.nextSleepTime(attempt, 10L, sleepTime);
+            assertThat(sleepTime).isEqualTo(10L);
+        }
+    }
+
+    @Test
+    public void exponentialTest() {
+        BackoffPolicy policy = BackoffPolicy.exponential(100L);
+        long[] expected = { 10L, 20L, 40L, 80L, 100L, 100L };
+        long sleepTime = 10L;
+        for (int attempt = 1; attempt <= expected.length; attempt++) {
+            sleepTime = policy.nextSleepTime(attempt, 10L, sleepTime);
+            assertThat(sleepTime).isEqualTo(expected[attempt - 1]);
+        }
+
+        // 重试次数很多、或者基础休眠时间很大的时候，不会因为溢出变成负数或者 0
+        for (int attempt = 1; attempt <= 1000; attempt++) {
+            assertThat(policy.nextSleepTime(attempt, 10L, 0L)).isBetween(10L, 100L);
+            assertThat(policy.nextSleepTime(attempt, Long.MAX_VALUE / 2, 0L)).isEqualTo(100L);
+        }
+        assertThat(BackoffPolicy.exponential(Long.MAX_VALUE).nextSleepTime(1000, 3L, 0L)).isEqualTo(Long.MAX_VALUE);
+        // 基础休眠时间为 0 的时候不休眠
+        assertThat(policy.nextSleepTime(5, 0L, 0L)).isZero();
+    }
+
+    @Test
+    public void decorrelatedJitterTest() {
+        BackoffPolicy policy = BackoffPolicy.decorrelatedJitter(1000L);
+        long sleepTime = 10L;
+        long maxSeen = 0L;
+        for (int attempt = 1; attempt <= 10000; attempt++) {
+            long next = policy.nextSleepTime(attempt, 10L, sleepTime);
+            // 在 [baseSleepTime, previousSleepTime * 3) 之间，最多不超过 maxSleepTime
+            assertThat(next).isGreaterThanOrEqualTo(10L);
+            assertThat(next).isLessThanOrEqualTo(Math.min(1000L, sleepTime * 3));
+            maxSeen = Math.max(maxSeen, next);
+            sleepTime = next;
+        }
+        // 随机取值，会逐渐增长到 maxSleepTime 附近
+        assertThat(maxSeen).isGreaterThan(500L);
+
+        // 边界：基础休眠时间为 0、上一次的休眠时间溢出、maxSleepTime 比基础休眠时间还小
+        assertThat(policy.nextSleepTime(1, 0L, 0L)).isBetween(1L, 3L);
+        assertThat(policy.nextSleepTime(1, 10L, Long.MAX_VALUE)).isBetween(10L, 1000L);
+        assertThat(BackoffPolicy.decorrelatedJitter(5L).nextSleepTime(1, 10L, 10L)).isEqualTo(5L);
+    }
+}
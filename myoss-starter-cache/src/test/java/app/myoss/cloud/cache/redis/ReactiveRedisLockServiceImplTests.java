@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import app.myoss.cloud.cache.lock.LockEventListener;
+import app.myoss.cloud.cache.lock.functions.ReactiveLockFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveRedisLockServiceImpl} 测试类，需要本机（或者系统属性 redis.host 指定）的 Redis，连接不上的时候跳过
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午8:20:46
+ */
+public class ReactiveRedisLockServiceImplTests {
+    private LettuceConnectionFactory     connectionFactory;
+    private StringRedisTemplate          redisTemplate;
+    private ReactiveRedisLockServiceImpl lockService;
+
+    @Before
+    public void setUp() {
+        connectionFactory = new LettuceConnectionFactory(System.getProperty("redis.host", "localhost"), 6379);
+        connectionFactory.afterPropertiesSet();
+        try {
+            connectionFactory.getConnection().ping();
+        } catch (Exception ex) {
+            connectionFactory.destroy();
+            Assume.assumeNoException("redis is not available", ex);
+        }
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        lockService = new ReactiveRedisLockServiceImpl(new ReactiveStringRedisTemplate(connectionFactory),
+                TimeUnit.SECONDS);
+    }
+
+    @After
+    public void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    private static String newKey() {
+        return "myoss-cloud:test:reactive-lock:" + System.nanoTime();
+    }
+
+    private static ReactiveLockFunction<String> lockFunction(int tryLockTimes, long sleepTime,
+                                                             Mono<String> onLockSuccess) {
+        return new ReactiveLockFunction<String>() {
+            @Override
+            public int tryLockTimes() {
+                return tryLockTimes;
+            }
+
+            @Override
+            public long tryLockSleepTime() {
+                return sleepTime;
+            }
+
+            @Override
+            public Mono<String> onLockSuccess() {
+                return onLockSuccess;
+            }
+
+            @Override
+            public Mono<String> onLockFailed() {
+                return Mono.just("failed");
+            }
+        };
+    }
+
+    @Test
+    public void acquireAndReleaseTest() {
+        String key = newKey();
+        String owner = lockService.getLock(key, 10).block();
+        assertThat(owner).isNotEmpty();
+        assertThat(redisTemplate.opsForValue().get(key)).isEqualTo(owner);
+        assertThat(redisTemplate.getExpire(key, TimeUnit.MILLISECONDS)).isGreaterThan(0L);
+        // 锁已经被持有，获取不到锁的时候返回 Mono.empty()
+        assertThat(lockService.getLock(key, 10).block()).isNull();
+
+        // 令牌不对不能释放
+        assertThat(lockService.releaseLock(key, "other-owner").block()).isFalse();
+        assertThat(redisTemplate.opsForValue().get(key)).isEqualTo(owner);
+        assertThat(lockService.releaseLock(key, owner).block()).isTrue();
+        assertThat(redisTemplate.hasKey(key)).isFalse();
+        assertThat(lockService.releaseLock(key, owner).block()).isFalse();
+
+        // 不支持看门狗模式
+        assertThatThrownBy(() -> lockService.getLock(key, 0).block()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void executeByLockTest() throws Exception {
+        String key = newKey();
+        // 回调函数执行的时候持有锁，执行完成之后释放锁
+        Mono<String> onLockSuccess = Mono.fromCallable(() -> redisTemplate.opsForValue().get(key));
+        String value = lockService.executeByLock(key, 10, lockFunction(1, 10L, onLockSuccess)).block();
+        assertThat(value).isNotEmpty();
+        assertThat(redisTemplate.hasKey(key)).isFalse();
+
+        // 回调函数异常的时候也会释放锁
+        Mono<String> error = Mono.error(new IllegalStateException("callback failed"));
+        assertThatThrownBy(() -> lockService.executeByLock(key, 10, lockFunction(1, 10L, error)).block())
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(redisTemplate.hasKey(key)).isFalse();
+
+        // CompletionStage 方式调用
+        assertThat(lockService.executeByLockAsync(key, 10, lockFunction(1, 10L, Mono.just("async")))
+                .toCompletableFuture()
+                .get(5, TimeUnit.SECONDS)).isEqualTo("async");
+        assertThat(redisTemplate.hasKey(key)).isFalse();
+    }
+
+    @Test
+    public void executeByLockRetryTest() {
+        String key = newKey();
+        AtomicInteger retryWaits = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        lockService.setLockEventListener(new LockEventListener() {
+            @Override
+            public void onRetryWait(Serializable key, int attempt, long waitNanos) {
+                retryWaits.incrementAndGet();
+            }
+
+            @Override
+            public void onFailed(Serializable key, long acquireNanos) {
+                failed.incrementAndGet();
+            }
+        });
+
+        // 锁被其它人持有，重试次数用完之后执行 onLockFailed，不会释放别人的锁
+        redisTemplate.opsForValue().set(key, "other-owner", 10, TimeUnit.SECONDS);
+        assertThat(lockService.executeByLock(key, 10, lockFunction(3, 10L, Mono.just("success"))).block())
+                .isEqualTo("failed");
+        assertThat(retryWaits.get()).isEqualTo(2);
+        assertThat(failed.get()).isEqualTo(1);
+        assertThat(redisTemplate.opsForValue().get(key)).isEqualTo("other-owner");
+
+        // 锁过期之后，延迟重试可以获取到锁
+        retryWaits.set(0);
+        redisTemplate.opsForValue().set(key, "other-owner", 200, TimeUnit.MILLISECONDS);
+        assertThat(lockService.executeByLock(key, 10, lockFunction(50, 50L, Mono.just("success"))).block())
+                .isEqualTo("success");
+        assertThat(retryWaits.get()).isGreaterThan(0);
+        assertThat(redisTemplate.hasKey(key)).isFalse();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import app.myoss.cloud.cache.constants.CacheConstants;
+import app.myoss.cloud.core.constants.MyossConstants;
+
+/**
+ * {@link RedisLockReleaseSubscriber} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午8:05:12
+ */
+public class RedisLockReleaseSubscriberTests {
+    private RedisLockReleaseSubscriber subscriber;
+    private ExecutorService            executor;
+
+    @Before
+    public void setUp() {
+        subscriber = new RedisLockReleaseSubscriber();
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private void publishRelease(String key) {
+        byte[] channel = RedisLockReleaseSubscriber.getReleaseChannel(key).getBytes(MyossConstants.DEFAULT_CHARSET);
+        byte[] pattern = (CacheConstants.LOCK_RELEASE_CHANNEL_PREFIX + "*").getBytes(MyossConstants.DEFAULT_CHARSET);
+        subscriber.onMessage(new DefaultMessage(channel, "1".getBytes(MyossConstants.DEFAULT_CHARSET)), pattern);
+    }
+
+    @Test
+    public void wakeOnlyReleasedKeyTest() throws Exception {
+        RedisLockReleaseSubscriber.Waiter waiterA = subscriber.register("key-a");
+        RedisLockReleaseSubscriber.Waiter waiterB = subscriber.register("key-b");
+        assertThat(subscriber.getWaitingChannelSize()).isEqualTo(2);
+        Future<Boolean> awaitA = executor.submit(() -> waiterA.await(TimeUnit.SECONDS.toMillis(10)));
+        Future<Boolean> awaitB = executor.submit(() -> waiterB.await(500L));
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        // 只唤醒等待 key-a 的线程，等待 key-b 的线程一直等到超时
+        long begin = System.nanoTime();
+        publishRelease("key-a");
+        assertThat(awaitA.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - begin).isLessThan(TimeUnit.SECONDS.toNanos(5));
+        assertThat(awaitB.get(5, TimeUnit.SECONDS)).isFalse();
+
+        subscriber.unregister(waiterA);
+        subscriber.unregister(waiterB);
+        assertThat(subscriber.getWaitingChannelSize()).isZero();
+    }
+
+    @Test
+    public void wakeAllWaitersOfKeyTest() throws Exception {
+        RedisLockReleaseSubscriber.Waiter waiter1 = subscriber.register("key-a");
+        RedisLockReleaseSubscriber.Waiter waiter2 = subscriber.register("key-a");
+        assertThat(subscriber.getWaitingChannelSize()).isEqualTo(1);
+
+        // 同一个 key 的等待者都会收到通知
+        publishRelease("key-a");
+        assertThat(waiter1.await(0L)).isTrue();
+        assertThat(waiter2.await(0L)).isTrue();
+
+        // 注销之后不再收到通知，最后一个等待者注销的时候移除频道
+        subscriber.unregister(waiter1);
+        assertThat(subscriber.getWaitingChannelSize()).isEqualTo(1);
+        publishRelease("key-a");
+        assertThat(waiter1.await(0L)).isFalse();
+        assertThat(waiter2.await(0L)).isTrue();
+        subscriber.unregister(waiter2);
+        assertThat(subscriber.getWaitingChannelSize()).isZero();
+    }
+
+    @Test
+    public void signalBeforeAwaitNotLostTest() {
+        RedisLockReleaseSubscriber.Waiter waiter = subscriber.register("key-a");
+        // 在开始等待之前收到的通知不会丢失，消费之后清零
+        publishRelease("key-a");
+        publishRelease("key-a");
+        long begin = System.nanoTime();
+        assertThat(waiter.await(TimeUnit.SECONDS.toMillis(10))).isTrue();
+        assertThat(System.nanoTime() - begin).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        assertThat(waiter.await(50L)).isFalse();
+
+        // 没有人等待的频道的通知直接忽略
+        publishRelease("key-c");
+        assertThat(waiter.await(0L)).isFalse();
+        subscriber.unregister(waiter);
+    }
+}
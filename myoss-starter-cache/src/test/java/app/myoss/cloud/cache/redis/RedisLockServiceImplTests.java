@@ -0,0 +1,247 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import app.myoss.cloud.cache.lock.LockService;
+import app.myoss.cloud.cache.lock.functions.LockFunctionGeneric;
+
+/**
+ * {@link RedisLockServiceImpl} 测试类，需要本机（或者系统属性 redis.host 指定）的 Redis，连接不上的时候跳过
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午7:25:40
+ */
+public class RedisLockServiceImplTests {
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate      redisTemplate;
+    private CountingLockService      lockService;
+    private ExecutorService          executor;
+
+    @Before
+    public void setUp() {
+        connectionFactory = new LettuceConnectionFactory(System.getProperty("redis.host", "localhost"), 6379);
+        connectionFactory.afterPropertiesSet();
+        try {
+            connectionFactory.getConnection().ping();
+        } catch (Exception ex) {
+            connectionFactory.destroy();
+            Assume.assumeNoException("redis is not available", ex);
+        }
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        lockService = new CountingLockService(redisTemplate);
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    private static String newKey() {
+        return "myoss-cloud:test:redis-lock:" + System.nanoTime();
+    }
+
+    private static LockFunctionGeneric<Boolean> retryFunction(int tryLockTimes, long sleepTime, Runnable task) {
+        return new LockFunctionGeneric<Boolean>() {
+            @Override
+            public int tryLockTimes() {
+                return tryLockTimes;
+            }
+
+            @Override
+            public long tryLockSleepTime() {
+                return sleepTime;
+            }
+
+            @Override
+            public Boolean onLockSuccess() {
+                task.run();
+                return true;
+            }
+
+            @Override
+            public Boolean onLockFailed() {
+                return false;
+            }
+        };
+    }
+
+    @Test
+    public void releaseForeignTokenTest() throws Exception {
+        String key = newKey();
+        // 锁被其它实例持有，释放锁的脚本返回 NOT_HELD，不会删除别人的锁
+        redisTemplate.opsForValue().set(key, "other-instance:1", 10, TimeUnit.SECONDS);
+        assertThat(lockService.release(key, lockService.getLockOwner(), "")).isEqualTo(RedisLockScripts.NOT_HELD);
+        assertThat(lockService.releaseLock(key)).isFalse();
+        assertThat(redisTemplate.opsForValue().get(key)).isEqualTo("other-instance:1");
+        assertThat(redisTemplate.getExpire(key, TimeUnit.MILLISECONDS)).isGreaterThan(0L);
+        redisTemplate.delete(key);
+
+        // 锁被同一个实例的其它线程持有，令牌不一样，也不能释放
+        assertThat(lockService.getLock(key, 10)).isTrue();
+        String owner = lockService.getLockOwner();
+        assertThat(executor.submit(() -> lockService.releaseLock(key)).get()).isFalse();
+        assertThat(redisTemplate.opsForValue().get(key)).isEqualTo(owner);
+
+        // 持有者自己可以释放，释放之后再释放返回 false
+        assertThat(lockService.releaseLock(key)).isTrue();
+        assertThat(redisTemplate.hasKey(key)).isFalse();
+        assertThat(lockService.releaseLock(key)).isFalse();
+    }
+
+    @Test
+    public void localCoalescingTest() throws Exception {
+        String key = newKey();
+        lockService.setLocalCoalescing(true);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return lockService.executeByLock(key, 10, retryFunction(100, 100L, () -> {
+                    maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    // 持有锁一段时间，让其它线程都在本地排队
+                    LockService.sleep(50L);
+                    concurrent.decrementAndGet();
+                }));
+            }));
+        }
+        start.countDown();
+        for (Future<Boolean> future : futures) {
+            assertThat(future.get(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        // 本机只有第一个线程去 Redis 中获取锁，其它线程都是接管上一个线程移交的锁
+        assertThat(maxConcurrent.get()).isEqualTo(1);
+        assertThat(lockService.acquireCount.get()).isEqualTo(1);
+        assertThat(lockService.takeOverCount.get()).isEqualTo(threads - 1);
+        // 最后一个线程释放锁的时候没有排队的线程，删除 Redis 中的锁
+        assertThat(redisTemplate.hasKey(key)).isFalse();
+    }
+
+    @Test
+    public void localCoalescingDisabledTest() throws Exception {
+        String key = newKey();
+        int threads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return lockService.executeByLock(key, 10, retryFunction(100, 10L, () -> LockService.sleep(20L)));
+            }));
+        }
+        start.countDown();
+        for (Future<Boolean> future : futures) {
+            assertThat(future.get(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        // 没有开启本地合并，每个线程都要去 Redis 中竞争锁，没有移交
+        assertThat(lockService.acquireCount.get()).isGreaterThanOrEqualTo(threads);
+        assertThat(lockService.takeOverCount.get()).isZero();
+        assertThat(redisTemplate.hasKey(key)).isFalse();
+    }
+
+    @Test
+    public void multiLockTest() {
+        String prefix = newKey();
+        List<String> keys = Arrays.asList(prefix + ":c", prefix + ":a", prefix + ":b");
+        // 有一个锁被其它人持有，MULTI_ACQUIRE 一个锁都不获取
+        redisTemplate.opsForValue().set(prefix + ":b", "other-instance:1", 10, TimeUnit.SECONDS);
+        assertThat(lockService.getLocks(keys, 10)).isFalse();
+        assertThat(redisTemplate.hasKey(prefix + ":a")).isFalse();
+        assertThat(redisTemplate.hasKey(prefix + ":c")).isFalse();
+        assertThat(redisTemplate.opsForValue().get(prefix + ":b")).isEqualTo("other-instance:1");
+
+        // 锁释放之后，一次获取全部的锁
+        redisTemplate.delete(prefix + ":b");
+        assertThat(lockService.getLocks(keys, 10)).isTrue();
+        String owner = lockService.getLockOwner();
+        assertThat(redisTemplate.opsForValue().multiGet(keys)).containsOnly(owner);
+        assertThat(redisTemplate.getExpire(prefix + ":a", TimeUnit.MILLISECONDS)).isGreaterThan(0L);
+
+        // 有一个锁已经被其它人重新获取，MULTI_RELEASE 只删除自己持有的锁，返回 false
+        redisTemplate.opsForValue().set(prefix + ":a", "other-instance:1", 10, TimeUnit.SECONDS);
+        assertThat(lockService.releaseLocks(keys)).isFalse();
+        assertThat(redisTemplate.opsForValue().get(prefix + ":a")).isEqualTo("other-instance:1");
+        assertThat(redisTemplate.hasKey(prefix + ":b")).isFalse();
+        assertThat(redisTemplate.hasKey(prefix + ":c")).isFalse();
+        redisTemplate.delete(prefix + ":a");
+
+        assertThat(lockService.getLocks(keys, 10)).isTrue();
+        assertThat(lockService.releaseLocks(keys)).isTrue();
+        assertThat(redisTemplate.countExistingKeys(keys)).isZero();
+    }
+
+    /**
+     * 记录 Redis 中获取锁、接管锁次数的缓存锁服务
+     */
+    static class CountingLockService extends RedisLockServiceImpl {
+        final AtomicInteger acquireCount  = new AtomicInteger();
+        final AtomicInteger takeOverCount = new AtomicInteger();
+
+        CountingLockService(RedisTemplate redisTemplate) {
+            super(redisTemplate, TimeUnit.SECONDS);
+        }
+
+        @Override
+        protected boolean acquire(Serializable key, String owner, long leaseTime) {
+            acquireCount.incrementAndGet();
+            return super.acquire(key, owner, leaseTime);
+        }
+
+        @Override
+        protected long executeScript(RedisScript<Long> script, List<? extends Serializable> keys, Object... args) {
+            long result = super.executeScript(script, keys, args);
+            if (script == RedisLockScripts.TAKE_OVER && result == RedisLockScripts.RELEASED) {
+                takeOverCount.incrementAndGet();
+            }
+            return result;
+        }
+    }
+}
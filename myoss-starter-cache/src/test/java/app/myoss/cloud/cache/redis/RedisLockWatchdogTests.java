@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * {@link RedisLockWatchdog} 测试类，需要本机（或者系统属性 redis.host 指定）的 Redis，连接不上的时候跳过
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 上午11:02:37
+ */
+public class RedisLockWatchdogTests {
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate      redisTemplate;
+    private RedisLockWatchdog        lockWatchdog;
+
+    @Before
+    public void setUp() {
+        connectionFactory = new LettuceConnectionFactory(System.getProperty("redis.host", "localhost"), 6379);
+        connectionFactory.afterPropertiesSet();
+        try {
+            connectionFactory.getConnection().ping();
+        } catch (Exception ex) {
+            connectionFactory.destroy();
+            Assume.assumeNoException("redis is not available", ex);
+        }
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        lockWatchdog = new RedisLockWatchdog(redisTemplate, 30000L);
+    }
+
+    @After
+    public void tearDown() {
+        if (lockWatchdog != null) {
+            lockWatchdog.close();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    private static String newKey() {
+        return "myoss-cloud:test:lock-watchdog:" + System.nanoTime();
+    }
+
+    @Test
+    public void renewLeasesTest() {
+        String key = newKey();
+        redisTemplate.opsForValue().set(key, "owner-1", 1, TimeUnit.SECONDS);
+        lockWatchdog.register(key, "owner-1");
+
+        lockWatchdog.renewLeases();
+        assertThat(redisTemplate.getExpire(key, TimeUnit.MILLISECONDS)).isGreaterThan(10000L);
+        assertThat(lockWatchdog.getLeaseSize()).isEqualTo(1);
+        redisTemplate.delete(key);
+    }
+
+    @Test
+    public void lostOwnershipTest() {
+        String key = newKey();
+        // 锁已经被其它持有者获取，不能给别人的锁续期
+        redisTemplate.opsForValue().set(key, "owner-2", 1, TimeUnit.SECONDS);
+        lockWatchdog.register(key, "owner-1");
+
+        lockWatchdog.renewLeases();
+        assertThat(lockWatchdog.getLeaseSize()).isZero();
+        assertThat(redisTemplate.getExpire(key, TimeUnit.MILLISECONDS)).isLessThanOrEqualTo(1000L);
+        assertThat(redisTemplate.opsForValue().get(key)).isEqualTo("owner-2");
+
+        // 锁已经不存在
+        String missingKey = newKey();
+        lockWatchdog.register(missingKey, "owner-1");
+        lockWatchdog.renewLeases();
+        assertThat(lockWatchdog.getLeaseSize()).isZero();
+        assertThat(redisTemplate.hasKey(missingKey)).isFalse();
+        redisTemplate.delete(key);
+    }
+
+    @Test
+    public void unregisterTest() {
+        String key = newKey();
+        lockWatchdog.register(key, "owner-1");
+        lockWatchdog.register(key, "owner-2");
+        assertThat(lockWatchdog.getLeaseSize()).isEqualTo(2);
+
+        // 只移除指定持有者的租约
+        lockWatchdog.unregister(key, "owner-3");
+        assertThat(lockWatchdog.getLeaseSize()).isEqualTo(2);
+        lockWatchdog.unregister(key, "owner-1");
+        assertThat(lockWatchdog.getLeaseSize()).isEqualTo(1);
+        lockWatchdog.unregister(key, "owner-2");
+        assertThat(lockWatchdog.getLeaseSize()).isZero();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * {@link RedisReadWriteLockServiceImpl} 测试类，需要本机（或者系统属性 redis.host 指定）的 Redis，连接不上的时候跳过
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 上午10:12:05
+ */
+public class RedisReadWriteLockServiceImplTests {
+    private LettuceConnectionFactory      connectionFactory;
+    private StringRedisTemplate           redisTemplate;
+    private RedisReadWriteLockServiceImpl lockService;
+    private ExecutorService               otherThread;
+
+    @Before
+    public void setUp() {
+        connectionFactory = new LettuceConnectionFactory(System.getProperty("redis.host", "localhost"), 6379);
+        connectionFactory.afterPropertiesSet();
+        try {
+            connectionFactory.getConnection().ping();
+        } catch (Exception ex) {
+            connectionFactory.destroy();
+            Assume.assumeNoException("redis is not available", ex);
+        }
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        lockService = new RedisReadWriteLockServiceImpl(redisTemplate, TimeUnit.SECONDS);
+        otherThread = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        if (otherThread != null) {
+            otherThread.shutdownNow();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    public void releaseNestedReadLockKeepsWriteModeTest() throws Exception {
+        String key = "myoss-cloud:test:read-write-lock:" + System.nanoTime();
+        assertThat(lockService.writeLock().getLock(key, 10)).isTrue();
+        // 写锁的持有者可以获取嵌套的读锁
+        assertThat(lockService.readLock().getLock(key, 10)).isTrue();
+        assertThat(lockService.readLock().releaseLock(key)).isTrue();
+
+        // 释放嵌套的读锁之后仍然是写模式，其它线程获取不到读锁
+        assertThat(otherThread.submit(() -> lockService.readLock().getLock(key, 10)).get()).isFalse();
+        assertThat(redisTemplate.opsForHash().get(key, "mode")).isEqualTo("write");
+
+        // 写锁释放之后，其它线程可以获取读锁
+        assertThat(lockService.writeLock().releaseLock(key)).isTrue();
+        assertThat(otherThread.submit(() -> lockService.readLock().getLock(key, 10)).get()).isTrue();
+        assertThat(otherThread.submit(() -> lockService.readLock().releaseLock(key)).get()).isTrue();
+        assertThat(redisTemplate.hasKey(key)).isFalse();
+    }
+
+    @Test
+    public void releaseWriteLockDowngradesToReadTest() throws Exception {
+        String key = "myoss-cloud:test:read-write-lock:" + System.nanoTime();
+        assertThat(lockService.writeLock().getLock(key, 10)).isTrue();
+        assertThat(lockService.readLock().getLock(key, 10)).isTrue();
+        // 先释放写锁，降级为读锁，其它线程可以获取读锁
+        assertThat(lockService.writeLock().releaseLock(key)).isTrue();
+        assertThat(redisTemplate.opsForHash().get(key, "mode")).isEqualTo("read");
+        assertThat(otherThread.submit(() -> lockService.readLock().getLock(key, 10)).get()).isTrue();
+        assertThat(otherThread.submit(() -> lockService.readLock().releaseLock(key)).get()).isTrue();
+        assertThat(lockService.readLock().releaseLock(key)).isTrue();
+        assertThat(redisTemplate.hasKey(key)).isFalse();
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * {@link BatchCacheInterceptor} 测试类，使用不支持批量读写的 {@link ConcurrentMapCacheManager}（经过
+ * {@link BatchCacheAdapter}）
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午4:58:03
+ */
+public class BatchCacheInterceptorTests {
+    private AnnotationConfigApplicationContext context;
+    private UserService                        userService;
+
+    @Before
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(Config.class);
+        userService = context.getBean(UserService.class);
+    }
+
+    @After
+    public void tearDown() {
+        context.close();
+    }
+
+    @Test
+    public void invokeWithMissingKeysTest() {
+        Map<Long, String> users = userService.findByIds(Arrays.asList(1L, 2L, 3L));
+        assertThat(users).containsExactly(entry(1L), entry(2L), entry(3L));
+        assertThat(userService.getCalls()).containsExactly(Arrays.asList(1L, 2L, 3L));
+
+        // 只使用未命中的 key 调用一次方法，返回结果的顺序和参数一致
+        users = userService.findByIds(Arrays.asList(3L, 4L, 1L, 5L));
+        assertThat(new ArrayList<>(users.keySet())).containsExactly(3L, 4L, 1L, 5L);
+        assertThat(userService.getCalls()).containsExactly(Arrays.asList(1L, 2L, 3L), Arrays.asList(4L, 5L));
+
+        // 全部命中的时候不调用方法
+        users = userService.findByIds(new LinkedHashSet<>(Arrays.asList(5L, 2L)));
+        assertThat(new ArrayList<>(users.keySet())).containsExactly(5L, 2L);
+        assertThat(userService.getCalls()).hasSize(2);
+    }
+
+    @Test
+    public void keysIndexAndParameterTypeTest() {
+        userService.findByIds(Arrays.asList(1L, 2L));
+
+        // key 集合不是第一个参数，参数类型为 List
+        Map<Long, String> users = userService.findByIds("ignored", Arrays.asList(2L, 3L, 1L));
+        assertThat(new ArrayList<>(users.keySet())).containsExactly(2L, 3L, 1L);
+        assertThat(userService.getCalls()).containsExactly(Arrays.asList(1L, 2L), Arrays.asList(3L));
+    }
+
+    @Test
+    public void cacheNullValuesTest() {
+        // 返回结果中没有的 key 当作 null 值：允许缓存 null 值的时候写入缓存，不再调用方法
+        Map<Long, String> users = userService.findByIds(Arrays.asList(1L, UserService.NOT_FOUND));
+        assertThat(users).containsOnlyKeys(1L);
+        users = userService.findByIds(Arrays.asList(UserService.NOT_FOUND, 1L));
+        assertThat(users).containsOnlyKeys(1L);
+        assertThat(userService.getCalls()).hasSize(1);
+
+        // 不允许缓存 null 值的时候，每次都会重新加载
+        Set<Long> ids = new LinkedHashSet<>(Arrays.asList(1L, UserService.NOT_FOUND));
+        assertThat(userService.findByIdsWithoutNull(ids)).containsOnlyKeys(1L);
+        assertThat(userService.findByIdsWithoutNull(ids)).containsOnlyKeys(1L);
+        assertThat(userService.getCalls()).containsExactly(Arrays.asList(1L, UserService.NOT_FOUND),
+                Arrays.asList(1L, UserService.NOT_FOUND), Arrays.asList(UserService.NOT_FOUND));
+    }
+
+    @Test
+    public void checkedExceptionTest() {
+        // 方法抛出的受检异常原样抛出，不会被包装
+        assertThatThrownBy(() -> userService.findByIdsOrThrow(Arrays.asList(1L, 2L))).isInstanceOf(IOException.class)
+                .hasMessage("load users failed");
+        assertThatThrownBy(() -> userService.findByIdsOrThrow(Arrays.asList(UserService.NOT_FOUND)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shareWithCacheableTest() {
+        assertThat(userService.findById(7L)).isEqualTo("user-7");
+        assertThat(userService.getSingleCalls()).isEqualTo(1);
+
+        // 单个 key 缓存的值，批量查询可以直接使用
+        Map<Long, String> users = userService.findByIds(Arrays.asList(7L, 8L));
+        assertThat(users).containsExactly(entry(7L), entry(8L));
+        assertThat(userService.getCalls()).containsExactly(Arrays.asList(8L));
+
+        // 批量查询缓存的值，单个 key 的查询也可以直接使用
+        assertThat(userService.findById(8L)).isEqualTo("user-8");
+        assertThat(userService.getSingleCalls()).isEqualTo(1);
+    }
+
+    private static Map.Entry<Long, String> entry(Long id) {
+        return new SimpleImmutableEntry<>(id, "user-" + id);
+    }
+
+    @EnableCaching
+    @Import(BatchCacheAutoConfiguration.class)
+    @Configuration
+    static class Config {
+        @Primary
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+
+        @Bean
+        public CacheManager cacheManagerWithoutNull() {
+            ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+            cacheManager.setAllowNullValues(false);
+            return cacheManager;
+        }
+
+        @Bean
+        public UserService userService() {
+            return new UserService();
+        }
+    }
+
+    /**
+     * 被代理的 bean，测试通过方法（而不是字段）读取调用记录
+     */
+    static class UserService {
+        /**
+         * 查询不到的 id
+         */
+        static final Long              NOT_FOUND   = -1L;
+        private final List<List<Long>> calls       = new CopyOnWriteArrayList<>();
+        private final AtomicInteger    singleCalls = new AtomicInteger();
+
+        public List<List<Long>> getCalls() {
+            return calls;
+        }
+
+        public int getSingleCalls() {
+            return singleCalls.get();
+        }
+
+        private Map<Long, String> load(Collection<Long> ids) {
+            calls.add(new ArrayList<>(ids));
+            Map<Long, String> users = new LinkedHashMap<>();
+            for (Long id : ids) {
+                if (!NOT_FOUND.equals(id)) {
+                    users.put(id, "user-" + id);
+                }
+            }
+            return users;
+        }
+
+        @BatchCacheable("user")
+        public Map<Long, String> findByIds(Collection<Long> ids) {
+            return load(ids);
+        }
+
+        @BatchCacheable(value = "user", keysIndex = 1)
+        public Map<Long, String> findByIds(String ignored, List<Long> ids) {
+            return load(ids);
+        }
+
+        @BatchCacheable(value = "user-without-null", cacheManager = "cacheManagerWithoutNull")
+        public Map<Long, String> findByIdsWithoutNull(Set<Long> ids) {
+            return load(ids);
+        }
+
+        @BatchCacheable("user-failed")
+        public Map<Long, String> findByIdsOrThrow(Collection<Long> ids) throws IOException {
+            if (ids.contains(NOT_FOUND)) {
+                throw new IllegalArgumentException("illegal id");
+            }
+            throw new IOException("load users failed");
+        }
+
+        @Cacheable(value = "user", key = "#id")
+        public String findById(Long id) {
+            singleCalls.incrementAndGet();
+            return "user-" + id;
+        }
+    }
+}
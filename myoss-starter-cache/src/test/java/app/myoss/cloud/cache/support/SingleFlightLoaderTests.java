@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import app.myoss.cloud.cache.constants.CacheConstants;
+import app.myoss.cloud.cache.local.LocalLockServiceImpl;
+
+/**
+ * {@link SingleFlightLoader} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午2:10:36
+ */
+public class SingleFlightLoaderTests {
+    private static final String CACHE_NAME = "single-flight";
+    private SingleFlightLoader  loader;
+    private Map<Object, Object> store;
+    private AtomicInteger       loadCount;
+    private ExecutorService     executor;
+
+    @Before
+    public void setUp() {
+        loader = new SingleFlightLoader();
+        store = new ConcurrentHashMap<>();
+        loadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 模拟加载缓存值：计数，等待 {@code latch} 之后写入缓存
+     */
+    private Supplier<Object> loadAndPut(Object key, Object value, CountDownLatch latch) {
+        return () -> {
+            loadCount.incrementAndGet();
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            store.put(key, value);
+            return value;
+        };
+    }
+
+    private void awaitInFlight(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loader.getInFlightSize() != size && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        assertThat(loader.getInFlightSize()).isEqualTo(size);
+    }
+
+    @Test
+    public void concurrentMissLoadOnceTest() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(
+                    () -> loader.load(CACHE_NAME, "key", () -> store.get("key"), loadAndPut("key", "value", latch))));
+        }
+        awaitInFlight(1);
+        // 让其它线程都进入等待
+        TimeUnit.MILLISECONDS.sleep(100);
+        latch.countDown();
+
+        for (Future<Object> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(loader.getInFlightSize()).isZero();
+    }
+
+    @Test
+    public void loaderExceptionPropagatedToWaitersTest() throws Exception {
+        IllegalArgumentException failure = new IllegalArgumentException("load failed");
+        CountDownLatch latch = new CountDownLatch(1);
+        Supplier<Object> failing = () -> {
+            loadAndPut("key", "ignored", latch).get();
+            store.remove("key");
+            throw failure;
+        };
+        List<Future<Object>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> loader.load(CACHE_NAME, "key", () -> store.get("key"), failing)));
+        awaitInFlight(1);
+        for (int i = 0; i < 7; i++) {
+            futures.add(executor.submit(() -> loader.load(CACHE_NAME, "key", () -> store.get("key"), failing)));
+        }
+        TimeUnit.MILLISECONDS.sleep(100);
+        latch.countDown();
+
+        // 加载的线程和等待的线程都收到同一个异常
+        for (Future<Object> future : futures) {
+            assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalArgumentException.class).hasMessageContaining("load failed");
+        }
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(loader.getInFlightSize()).isZero();
+
+        // 失败之后不会残留正在加载的记录，下一次可以重新加载
+        Object value = loader.load(CACHE_NAME, "key", () -> store.get("key"),
+                loadAndPut("key", "value", new CountDownLatch(0)));
+        assertThat(value).isEqualTo("value");
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void recursiveLoadFailFastTest() {
+        assertThatThrownBy(() -> loader.load(CACHE_NAME, "key", () -> store.get("key"),
+                () -> loader.load(CACHE_NAME, "key", () -> store.get("key"), () -> "value")))
+                        .isInstanceOf(IllegalStateException.class).hasMessageContaining("Recursive load");
+        assertThat(loader.getInFlightSize()).isZero();
+
+        // 不同的 key 可以嵌套加载
+        Object value = loader.load(CACHE_NAME, "outer", () -> store.get("outer"),
+                () -> loader.load(CACHE_NAME, "inner", () -> store.get("inner"), () -> "inner-value"));
+        assertThat(value).isEqualTo("inner-value");
+    }
+
+    @Test
+    public void lockPathRecheckCacheTest() throws Exception {
+        try (LocalLockServiceImpl lockService = new LocalLockServiceImpl(TimeUnit.MILLISECONDS,
+                TimeUnit.HOURS.toMillis(1))) {
+            loader.setLockService(lockService);
+            loader.setLockExpireTime(10000);
+            loader.setLockSleepTime(20L);
+            String lockKey = CacheConstants.CACHE_LOAD_LOCK_PREFIX + CACHE_NAME + ":key";
+
+            // 其它实例持有锁并正在加载，释放锁之前写入了缓存，获取到锁之后直接使用缓存值
+            CountDownLatch otherLoaded = new CountDownLatch(1);
+            Future<?> other = executor.submit(() -> {
+                assertThat(lockService.getLock(lockKey, 10000)).isTrue();
+                otherLoaded.await(10, TimeUnit.SECONDS);
+                store.put("key", "other-value");
+                return lockService.releaseLock(lockKey);
+            });
+            TimeUnit.MILLISECONDS.sleep(50);
+            Future<Object> result = executor.submit(
+                    () -> loader.load(CACHE_NAME, "key", () -> store.get("key"), () -> {
+                        loadCount.incrementAndGet();
+                        return "value";
+                    }));
+            TimeUnit.MILLISECONDS.sleep(100);
+            assertThat(result.isDone()).isFalse();
+            otherLoaded.countDown();
+
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("other-value");
+            assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo(true);
+            assertThat(loadCount.get()).isZero();
+            assertThat(lockService.getLockSize()).isZero();
+        }
+    }
+
+    @Test
+    public void lockPathFallbackAfterWaitTimeTest() throws Exception {
+        try (LocalLockServiceImpl lockService = new LocalLockServiceImpl(TimeUnit.MILLISECONDS,
+                TimeUnit.HOURS.toMillis(1))) {
+            loader.setLockService(lockService);
+            loader.setLockExpireTime(10000);
+            loader.setLockWaitTime(Duration.ofMillis(200));
+            loader.setLockSleepTime(20L);
+            String lockKey = CacheConstants.CACHE_LOAD_LOCK_PREFIX + CACHE_NAME + ":key";
+
+            // 其它实例一直持有锁，等待 lockWaitTime 之后自己加载
+            assertThat(executor.submit(() -> lockService.getLock(lockKey, 10000)).get()).isEqualTo(true);
+            long begin = System.nanoTime();
+            Object value = loader.load(CACHE_NAME, "key", () -> store.get("key"),
+                    loadAndPut("key", "value", new CountDownLatch(0)));
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+            assertThat(value).isEqualTo("value");
+            assertThat(loadCount.get()).isEqualTo(1);
+            assertThat(elapsed).isGreaterThanOrEqualTo(150L).isLessThan(5000L);
+            assertThat(loader.getInFlightSize()).isZero();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.cache.twolevel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import app.myoss.cloud.cache.constants.CacheConstants;
+import app.myoss.cloud.core.constants.MyossConstants;
+
+/**
+ * {@link TwoLevelCache}、{@link TwoLevelCacheManager} 测试类，使用两个缓存管理器模拟两个实例；需要本机（或者系统属性
+ * redis.host 指定）的 Redis，连接不上的时候跳过
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月18日 下午4:30:26
+ */
+public class TwoLevelCacheTests {
+    private static final String                     CACHE_NAME = "two-level";
+    private LettuceConnectionFactory                connectionFactory;
+    private RedisTemplate<Object, Object>           redisTemplate;
+    private RedisMessageListenerContainer           listenerContainer;
+    private TwoLevelCacheManager                    cacheManager;
+    private TwoLevelCacheManager                    otherCacheManager;
+    private BlockingQueue<CacheInvalidationMessage> messages;
+    private CountDownLatch                          subscribed;
+
+    @Before
+    public void setUp() throws Exception {
+        connectionFactory = new LettuceConnectionFactory(System.getProperty("redis.host", "localhost"), 6379);
+        connectionFactory.afterPropertiesSet();
+        try {
+            connectionFactory.getConnection().ping();
+        } catch (Exception ex) {
+            connectionFactory.destroy();
+            Assume.assumeNoException("redis is not available", ex);
+        }
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+
+        // 两个实例使用相同的二级缓存 key 前缀
+        String keyPrefix = "myoss-cloud:test:two-level:" + System.nanoTime() + ":";
+        cacheManager = new TwoLevelCacheManager(redisTemplate);
+        cacheManager.setKeyPrefix(keyPrefix);
+        cacheManager.setTimeToLive(Duration.ofMinutes(1));
+        otherCacheManager = new TwoLevelCacheManager(redisTemplate);
+        otherCacheManager.setKeyPrefix(keyPrefix);
+        otherCacheManager.setTimeToLive(Duration.ofMinutes(1));
+
+        // 另外一个实例订阅失效通知，同时记录收到的通知
+        messages = new LinkedBlockingQueue<>();
+        subscribed = new CountDownLatch(1);
+        TwoLevelCacheInvalidationListener otherListener = new TwoLevelCacheInvalidationListener(otherCacheManager);
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener((message, pattern) -> {
+            CacheInvalidationMessage body = (CacheInvalidationMessage) otherCacheManager.getSerialization()
+                    .deserialize(message.getBody());
+            if ("probe".equals(body.getInstanceId())) {
+                subscribed.countDown();
+                return;
+            }
+            otherListener.onMessage(message, pattern);
+            messages.add(body);
+        }, new ChannelTopic(CacheConstants.CACHE_INVALIDATE_CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        awaitSubscribed();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    /**
+     * 订阅是异步完成的，发送探测的通知直到收到为止，探测的通知不会交给失效通知的订阅者
+     */
+    private void awaitSubscribed() throws InterruptedException {
+        byte[] channel = CacheConstants.CACHE_INVALIDATE_CHANNEL.getBytes(MyossConstants.DEFAULT_CHARSET);
+        byte[] probe = cacheManager.getSerialization().serialize(new CacheInvalidationMessage("probe", "probe", null));
+        for (int i = 0; i < 100; i++) {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, probe));
+            if (subscribed.await(50, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+        throw new IllegalStateException("subscribe cache invalidation channel timeout");
+    }
+
+    private TwoLevelCache getCache(TwoLevelCacheManager manager) {
+        return (TwoLevelCache) manager.getCache(CACHE_NAME);
+    }
+
+    @Test
+    public void readThroughTest() {
+        TwoLevelCache cache = getCache(cacheManager);
+        TwoLevelCache otherCache = getCache(otherCacheManager);
+        cache.put("key", "value");
+        assertThat(cache.getNativeCache().getIfPresent("key")).isEqualTo("value");
+
+        // 另外一个实例的一级缓存没有，从二级缓存读取并回填一级缓存
+        assertThat(otherCache.getNativeCache().getIfPresent("key")).isNull();
+        assertThat(otherCache.get("key").get()).isEqualTo("value");
+        assertThat(otherCache.getNativeCache().getIfPresent("key")).isEqualTo("value");
+
+        // 两级缓存都没有的时候加载一次，写入二级缓存之后其它实例可以直接读取
+        AtomicInteger loadCount = new AtomicInteger();
+        assertThat(otherCache.get("loaded", () -> {
+            loadCount.incrementAndGet();
+            return "loaded-value";
+        })).isEqualTo("loaded-value");
+        assertThat(cache.get("loaded", () -> {
+            loadCount.incrementAndGet();
+            return "unexpected";
+        })).isEqualTo("loaded-value");
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(cache.getNativeCache().getIfPresent("loaded")).isEqualTo("loaded-value");
+    }
+
+    @Test
+    public void putAndEvictPublishInvalidationTest() throws Exception {
+        TwoLevelCache cache = getCache(cacheManager);
+        TwoLevelCache otherCache = getCache(otherCacheManager);
+        cache.put("key", "v1");
+        assertInvalidation(messages.poll(5, TimeUnit.SECONDS), "key");
+        assertThat(otherCache.get("key").get()).isEqualTo("v1");
+
+        // 写入新值：通知其它实例删除一级缓存中的旧值
+        cache.put("key", "v2");
+        assertInvalidation(messages.poll(5, TimeUnit.SECONDS), "key");
+        assertThat(otherCache.getNativeCache().getIfPresent("key")).isNull();
+        assertThat(otherCache.get("key").get()).isEqualTo("v2");
+
+        // 删除：通知其它实例删除一级缓存
+        cache.evict("key");
+        assertInvalidation(messages.poll(5, TimeUnit.SECONDS), "key");
+        assertThat(otherCache.getNativeCache().getIfPresent("key")).isNull();
+        assertThat(otherCache.get("key")).isNull();
+
+        // 清空：key 为 null
+        otherCache.put("other", "value");
+        assertThat(messages.poll(5, TimeUnit.SECONDS)).isNotNull();
+        cache.clear();
+        assertInvalidation(messages.poll(5, TimeUnit.SECONDS), null);
+        assertThat(otherCache.getNativeCache().getIfPresent("other")).isNull();
+        assertThat(otherCache.get("other")).isNull();
+    }
+
+    private void assertInvalidation(CacheInvalidationMessage message, Object key) {
+        assertThat(message).isNotNull();
+        assertThat(message.getInstanceId()).isEqualTo(cacheManager.getInstanceId());
+        assertThat(message.getCacheName()).isEqualTo(CACHE_NAME);
+        assertThat(message.getKey()).isEqualTo(key);
+    }
+
+    @Test
+    public void listenerIgnoreOwnMessageTest() {
+        TwoLevelCache cache = getCache(cacheManager);
+        cache.getNativeCache().put("key", "value");
+        TwoLevelCacheInvalidationListener listener = new TwoLevelCacheInvalidationListener(cacheManager);
+        byte[] channel = CacheConstants.CACHE_INVALIDATE_CHANNEL.getBytes(MyossConstants.DEFAULT_CHARSET);
+
+        // 自己发出的通知：忽略
+        byte[] own = cacheManager.getSerialization()
+                .serialize(new CacheInvalidationMessage(cacheManager.getInstanceId(), CACHE_NAME, "key"));
+        listener.onMessage(new DefaultMessage(channel, own), null);
+        assertThat(cache.getNativeCache().getIfPresent("key")).isEqualTo("value");
+
+        // 其它实例发出的通知：只删除一级缓存
+        byte[] other = cacheManager.getSerialization()
+                .serialize(new CacheInvalidationMessage(otherCacheManager.getInstanceId(), CACHE_NAME, "key"));
+        listener.onMessage(new DefaultMessage(channel, other), null);
+        assertThat(cache.getNativeCache().getIfPresent("key")).isNull();
+
+        // 无法反序列化的通知：忽略
+        listener.onMessage(new DefaultMessage(channel, new byte[] { 1, 2, 3 }), null);
+    }
+}
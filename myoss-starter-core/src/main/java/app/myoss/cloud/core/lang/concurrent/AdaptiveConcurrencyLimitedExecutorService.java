@@ -0,0 +1,284 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.MDC;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import lombok.Getter;
+
+/**
+ * 自适应限制并发数量的 ExecutorService，用于下游服务变慢的时候快速失败，不在队列中堆积任务
+ * <ul>
+ * <li>正在执行的任务数量达到 {@link ConcurrencyLimit#getLimit()} 的时候，提交任务直接抛出
+ * {@link RejectedExecutionException}，不排队
+ * <li>每个任务执行完之后，把耗时和是否因为超时被取消反馈给 {@link ConcurrencyLimit}，动态调整并发限制；执行失败的任务、其它原因被取消的任务（比如回滚已经提交的任务、
+ * 对冲请求的失败方）不参与调整，超时取消需要使用 {@link #cancelOnTimeout(Future)}
+ * <li>提交任务时的 {@link MDC} 会传递到执行任务的线程中，执行完之后恢复
+ * <li>按名字注册，可以通过 {@link #get(String)}、{@link #getAll()} 获取每个执行框架的并发限制和统计数据，关闭之后自动注销
+ * </ul>
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午11:59:21
+ * @see ExecutorEngine#buildAdaptiveExecutor(String, ConcurrencyLimit)
+ */
+public class AdaptiveConcurrencyLimitedExecutorService extends AbstractExecutorService {
+    private static final Map<String, AdaptiveConcurrencyLimitedExecutorService> REGISTRY = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Boolean>                                   TIMEOUT  = new ThreadLocal<>();
+
+    /**
+     * 名字
+     */
+    @Getter
+    private final String                                                        name;
+    private final ExecutorService                                               delegate;
+    /**
+     * 自适应并发限制算法
+     */
+    @Getter
+    private final ConcurrencyLimit                                              concurrencyLimit;
+    private final AtomicInteger                                                 inFlight = new AtomicInteger();
+    private final LongAdder                                                     accepted = new LongAdder();
+    private final LongAdder                                                     rejected = new LongAdder();
+    private final LongAdder                                                     dropped  = new LongAdder();
+
+    /**
+     * 创建自适应限制并发数量的 ExecutorService
+     *
+     * @param name 名字，用于区分不同的下游服务
+     * @param delegate 执行任务的 ExecutorService，不应该有排队的队列，推荐使用每个任务一个虚拟线程
+     * @param concurrencyLimit 自适应并发限制算法
+     */
+    public AdaptiveConcurrencyLimitedExecutorService(String name, ExecutorService delegate,
+                                                     ConcurrencyLimit concurrencyLimit) {
+        this.name = name;
+        this.delegate = delegate;
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    /**
+     * 获取已经注册的自适应限制并发数量的 ExecutorService
+     *
+     * @param name 名字
+     * @return 没有注册的时候返回 null
+     */
+    public static AdaptiveConcurrencyLimitedExecutorService get(String name) {
+        return REGISTRY.get(name);
+    }
+
+    /**
+     * 获取所有已经注册的自适应限制并发数量的 ExecutorService，用于监控
+     *
+     * @return 所有已经注册的 ExecutorService
+     */
+    public static Collection<AdaptiveConcurrencyLimitedExecutorService> getAll() {
+        return Collections.unmodifiableCollection(REGISTRY.values());
+    }
+
+    /**
+     * 因为超时取消任务，被取消的任务会作为下游过载的信号反馈给 {@link ConcurrencyLimit}；直接调用 {@link Future#cancel(boolean)}
+     * 取消的任务不参与调整并发限制。取消聚合的任务（比如 {@code Futures.allAsList}）的时候，同步传递取消的子任务也算作超时
+     *
+     * @param future 超时的任务
+     * @return 是否取消成功
+     */
+    public static boolean cancelOnTimeout(Future<?> future) {
+        Boolean previous = TIMEOUT.get();
+        TIMEOUT.set(Boolean.TRUE);
+        try {
+            return future.cancel(true);
+        } finally {
+            if (previous == null) {
+                TIMEOUT.remove();
+            }
+        }
+    }
+
+    /**
+     * 按名字注册，名字不能重复
+     *
+     * @return 当前对象
+     */
+    AdaptiveConcurrencyLimitedExecutorService register() {
+        if (REGISTRY.putIfAbsent(name, this) != null) {
+            throw new IllegalStateException("adaptive executor [" + name + "] is already registered");
+        }
+        return this;
+    }
+
+    /**
+     * 当前的并发限制
+     *
+     * @return 并发限制
+     */
+    public int getLimit() {
+        return concurrencyLimit.getLimit();
+    }
+
+    /**
+     * 正在执行的任务数量
+     *
+     * @return 正在执行的任务数量
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 接受执行的任务数量
+     *
+     * @return 接受执行的任务数量
+     */
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    /**
+     * 超过并发限制被拒绝的任务数量
+     *
+     * @return 被拒绝的任务数量
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * 因为超时被取消的任务数量
+     *
+     * @return 因为超时被取消的任务数量
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= concurrencyLimit.getLimit()) {
+                rejected.increment();
+                throw new RejectedExecutionException(
+                        "adaptive executor [" + name + "] exceeds concurrency limit: " + concurrencyLimit.getLimit());
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        int startInFlight = current + 1;
+        AtomicBoolean timedOut = new AtomicBoolean();
+        if (command instanceof ListenableFuture) {
+            // 取消任务的时候同步执行，记录是否是因为超时取消的
+            ListenableFuture<?> future = (ListenableFuture<?>) command;
+            future.addListener(() -> {
+                if (TIMEOUT.get() != null && future.isCancelled()) {
+                    timedOut.set(true);
+                }
+            }, MoreExecutors.directExecutor());
+        }
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        try {
+            delegate.execute(() -> {
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                ConcurrencyLimitedExecutorService.setContextMap(context);
+                long start = System.nanoTime();
+                boolean completed = false;
+                try {
+                    command.run();
+                    completed = true;
+                } finally {
+                    long rttNanos = System.nanoTime() - start;
+                    ConcurrencyLimitedExecutorService.setContextMap(previous);
+                    inFlight.decrementAndGet();
+                    if (completed) {
+                        onComplete(command, rttNanos, startInFlight, timedOut.get());
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            throw ex;
+        }
+        accepted.increment();
+    }
+
+    private void onComplete(Runnable command, long rttNanos, int startInFlight, boolean timedOut) {
+        if (command instanceof Future) {
+            Future<?> future = (Future<?>) command;
+            if (future.isCancelled()) {
+                if (timedOut) {
+                    dropped.increment();
+                    concurrencyLimit.onSample(rttNanos, startInFlight, true);
+                }
+                return;
+            }
+            try {
+                future.get();
+            } catch (ExecutionException ex) {
+                // 执行失败的耗时不能反映下游的负载
+                return;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        concurrencyLimit.onSample(rttNanos, startInFlight, false);
+    }
+
+    @Override
+    public void shutdown() {
+        REGISTRY.remove(name, this);
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        REGISTRY.remove(name, this);
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.time.Duration;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * AIMD（Additive Increase Multiplicative Decrease）并发限制算法，和 TCP 拥塞控制类似
+ * <ul>
+ * <li>执行成功，并且并发数量接近限制的时候，并发限制加 1
+ * <li>执行单元被丢弃（超时、被取消）或者耗时超过 {@link #getTimeout()} 的时候，并发限制乘以 {@link #getBackoffRatio()}
+ * </ul>
+ * 适合有明确超时时间的下游服务
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午11:48:52
+ */
+@Getter
+@Setter
+public class AimdConcurrencyLimit implements ConcurrencyLimit {
+    /**
+     * 最小的并发限制，默认为: 1
+     */
+    private int          minLimit     = 1;
+    /**
+     * 最大的并发限制，默认为: {@link ExecutorEngine#DEFAULT_MAX_CONCURRENCY}
+     */
+    private int          maxLimit     = ExecutorEngine.DEFAULT_MAX_CONCURRENCY;
+    /**
+     * 过载的时候并发限制的缩小比例，默认为: 0.9
+     */
+    private double       backoffRatio = 0.9D;
+    /**
+     * 耗时超过这个时间的时候认为下游已经过载，默认为: 5秒
+     */
+    private Duration     timeout      = Duration.ofSeconds(5);
+    @Setter(AccessLevel.NONE)
+    private volatile int limit;
+
+    /**
+     * 创建 AIMD 并发限制算法
+     *
+     * @param initialLimit 初始的并发限制
+     */
+    public AimdConcurrencyLimit(int initialLimit) {
+        if (initialLimit <= 0) {
+            throw new IllegalArgumentException("initialLimit must be greater than 0");
+        }
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        int current = limit;
+        if (dropped || rttNanos > timeout.toNanos()) {
+            current = (int) (current * backoffRatio);
+        } else if (inFlight * 2 >= current) {
+            // 并发数量不到限制的一半的时候，说明限制不是瓶颈，不增加
+            current = current + 1;
+        }
+        limit = Math.min(maxLimit, Math.max(minLimit, current));
+    }
+}
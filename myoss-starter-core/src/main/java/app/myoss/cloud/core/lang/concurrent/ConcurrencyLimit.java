@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.lang.concurrent;
+
+/**
+ * 自适应并发限制算法：根据执行单元的耗时和是否被丢弃（超时、取消），动态调整允许同时执行的任务数量
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午11:46:18
+ * @see AimdConcurrencyLimit
+ * @see GradientConcurrencyLimit
+ * @see AdaptiveConcurrencyLimitedExecutorService
+ */
+public interface ConcurrencyLimit {
+    /**
+     * 当前允许同时执行的任务数量
+     *
+     * @return 并发限制
+     */
+    int getLimit();
+
+    /**
+     * 记录一次执行单元的结果，调整并发限制
+     *
+     * @param rttNanos 执行耗时（纳秒）
+     * @param inFlight 开始执行的时候正在执行的任务数量
+     * @param dropped 是否被丢弃：超时、被取消，说明下游已经过载
+     */
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.MDC;
+
+import lombok.Getter;
+
+/**
+ * 限制最大并发数量的 ExecutorService，用于保护下游服务
+ * <ul>
+ * <li>任务提交之后不会被拒绝，在执行任务的线程中获取 {@link Semaphore} 的许可，获取到之后才执行；适合配合虚拟线程使用，等待许可的虚拟线程不占用平台线程
+ * <li>提交任务时的 {@link MDC} 会传递到执行任务的线程中，执行完之后恢复
+ * </ul>
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午10:15:26
+ */
+public class ConcurrencyLimitedExecutorService extends AbstractExecutorService {
+    private final ExecutorService delegate;
+    private final Semaphore       semaphore;
+    /**
+     * 最大并发数量
+     */
+    @Getter
+    private final int             maxConcurrency;
+
+    /**
+     * 创建限制最大并发数量的 ExecutorService
+     *
+     * @param delegate 执行任务的 ExecutorService
+     * @param maxConcurrency 最大并发数量
+     */
+    public ConcurrencyLimitedExecutorService(ExecutorService delegate, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be greater than 0");
+        }
+        this.delegate = delegate;
+        this.semaphore = new Semaphore(maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * 正在执行的任务数量
+     *
+     * @return 正在执行的任务数量
+     */
+    public int getActiveCount() {
+        return maxConcurrency - semaphore.availablePermits();
+    }
+
+    /**
+     * 等待许可的任务数量（估算值）
+     *
+     * @return 等待许可的任务数量
+     */
+    public int getWaitingCount() {
+        return semaphore.getQueueLength();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        delegate.execute(() -> {
+            try {
+                semaphore.acquire();
+            } catch (InterruptedException ex) {
+                // 关闭的时候被中断，任务不再执行
+                Thread.currentThread().interrupt();
+                if (command instanceof Future) {
+                    ((Future<?>) command).cancel(false);
+                }
+                return;
+            }
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            setContextMap(context);
+            try {
+                command.run();
+            } finally {
+                setContextMap(previous);
+                semaphore.release();
+            }
+        });
+    }
+
+    static void setContextMap(Map<String, String> context) {
+        if (context != null) {
+            MDC.setContextMap(context);
+        } else {
+            MDC.clear();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
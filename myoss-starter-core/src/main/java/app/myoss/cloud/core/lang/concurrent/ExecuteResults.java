@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * 尽力而为（best effort）模式的多线程执行结果：包含执行成功的结果，以及每个执行失败、超时的入参和异常
+ * <p>
+ * 结果按入参保存，相同的入参只保留一个结果，入参需要是不重复的
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午10:48:19
+ * @param <I> 入参类型
+ * @param <O> 出参类型
+ * @see ExecutorEngine#executeBestEffort(java.util.Collection, ExecuteUnit, Long, Long,
+ *      java.util.concurrent.TimeUnit)
+ */
+@Getter
+public class ExecuteResults<I, O> {
+    /**
+     * 执行成功的入参和结果，按入参的顺序排列
+     */
+    private final Map<I, O>         results;
+    /**
+     * 执行失败的入参和异常，超时的异常为 {@link ExecuteTimeoutException}
+     */
+    private final Map<I, Throwable> failures;
+
+    /**
+     * 创建多线程执行结果
+     *
+     * @param size 入参的数量
+     */
+    public ExecuteResults(int size) {
+        this.results = new LinkedHashMap<>(size * 4 / 3 + 1);
+        this.failures = new LinkedHashMap<>();
+    }
+
+    /**
+     * 添加执行成功的结果
+     *
+     * @param input 入参
+     * @param result 执行结果
+     */
+    public void addResult(I input, O result) {
+        results.put(input, result);
+    }
+
+    /**
+     * 添加执行失败的异常
+     *
+     * @param input 入参
+     * @param cause 异常信息
+     */
+    public void addFailure(I input, Throwable cause) {
+        failures.put(input, cause);
+    }
+
+    /**
+     * 是否全部执行成功
+     *
+     * @return true: 全部执行成功
+     */
+    public boolean isAllSuccess() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * 执行成功的结果，按入参的顺序排列
+     *
+     * @return 执行成功的结果
+     */
+    public List<O> getResultList() {
+        return new ArrayList<>(results.values());
+    }
+
+    /**
+     * 执行超时的入参
+     *
+     * @return 执行超时的入参
+     */
+    public List<I> getTimeoutInputs() {
+        List<I> inputs = new ArrayList<>();
+        failures.forEach((input, cause) -> {
+            if (cause instanceof ExecuteTimeoutException) {
+                inputs.add(input);
+            }
+        });
+        return inputs;
+    }
+}
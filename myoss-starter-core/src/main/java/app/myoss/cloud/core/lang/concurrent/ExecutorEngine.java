@@ -19,22 +19,31 @@ package app.myoss.cloud.core.lang.concurrent;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import lombok.Getter;
@@ -46,20 +55,40 @@ import lombok.extern.slf4j.Slf4j;
  * app.myoss.cloud.apm.spring.cloud.sleuth.concurrent.TraceableExecutorEngine:
  * 创建可以追踪调用链的多线程池
  * </p>
+ * <p>
+ * 阻塞 I/O 为主的并发调用（HTTP、Redis）推荐使用 {@link #buildVirtualThreadExecutor(int)}，JVM 支持虚拟线程的时候每个任务一个虚拟线程，
+ * 不会因为线程池满了而拒绝任务
+ * </p>
+ * <p>
+ * 下游服务可能变慢的时候使用 {@link #buildAdaptiveExecutor(String, ConcurrencyLimit)}，根据耗时自动调整并发限制，超过限制的时候直接抛出
+ * {@link ExecuteRejectedException}，不在队列中堆积任务
+ * </p>
  *
  * @author Jerry.Chen
  * @since 2018年6月4日 下午11:17:29
  */
 @Slf4j
 public class ExecutorEngine implements AutoCloseable {
-    private static final ThreadPoolExecutor SHUTDOWN_EXECUTOR = new ThreadPoolExecutor(0, 1, 0, TimeUnit.MILLISECONDS,
-            new LinkedBlockingQueue<>(10),
+    /**
+     * 虚拟线程执行框架默认的最大并发数量
+     */
+    public static final int                       DEFAULT_MAX_CONCURRENCY = 200;
+    /**
+     * 自适应并发限制默认的初始并发数量
+     */
+    public static final int                       DEFAULT_INITIAL_LIMIT   = 20;
+    private static final ThreadPoolExecutor       SHUTDOWN_EXECUTOR       = new ThreadPoolExecutor(0, 1, 0,
+            TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(10),
             new ThreadFactoryBuilder().setDaemon(true)
                     .setNameFormat("MyOSSCloud-Core-ExecutorEngineCloseTimer")
                     .build());
+    private static final ScheduledExecutorService TIMER_SCHEDULER         = Executors
+            .newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+                    .setNameFormat("MyOSSCloud-Core-ExecutorEngineTimer")
+                    .build());
 
     @Getter
-    private final ExecutorService           executorService;
+    private final ExecutorService                 executorService;
 
     /**
      * 创建多线程执行框架
@@ -86,12 +115,95 @@ public class ExecutorEngine implements AutoCloseable {
      * @return ThreadPoolExecutor 多线程池执行框架
      */
     public static ExecutorEngine buildTreadPoolExecutor() {
-        ThreadFactory threadFactory = new ThreadFactoryBuilder().setDaemon(true)
-                .setNameFormat("ExecutorEngineThreadPool-%d")
-                .build();
-        ThreadPoolExecutor poolExecutor = new ThreadPoolExecutor(5, 200, 0, TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<>(1024), threadFactory);
-        return new ExecutorEngine(poolExecutor);
+        return new ExecutorEngine(newThreadPoolExecutor("ExecutorEngineThreadPool-%d"));
+    }
+
+    /**
+     * 创建使用虚拟线程的多线程执行框架，最大并发数量为: {@link #DEFAULT_MAX_CONCURRENCY}
+     *
+     * @return 虚拟线程多线程执行框架
+     * @see #buildVirtualThreadExecutor(int)
+     */
+    public static ExecutorEngine buildVirtualThreadExecutor() {
+        return buildVirtualThreadExecutor(DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * 创建使用虚拟线程的多线程执行框架，每个任务一个虚拟线程，使用 {@link ConcurrencyLimitedExecutorService} 限制最大并发数量，并传递
+     * MDC；当前 JVM 不支持虚拟线程的时候，使用和 {@link #buildTreadPoolExecutor()} 相同配置的平台线程池
+     *
+     * @param maxConcurrency 最大并发数量，用于保护下游服务
+     * @return 虚拟线程多线程执行框架
+     */
+    public static ExecutorEngine buildVirtualThreadExecutor(int maxConcurrency) {
+        return new ExecutorEngine(buildVirtualThreadExecutorService("ExecutorEngineVirtualThread-", maxConcurrency));
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程、限制最大并发数量的 ExecutorService；当前 JVM 不支持虚拟线程的时候，使用和
+     * {@link #buildTreadPoolExecutor()} 相同配置的平台线程池
+     *
+     * @param namePrefix 线程名字的前缀
+     * @param maxConcurrency 最大并发数量
+     * @return 限制最大并发数量的 ExecutorService
+     */
+    public static ConcurrencyLimitedExecutorService buildVirtualThreadExecutorService(String namePrefix,
+                                                                                      int maxConcurrency) {
+        ExecutorService delegate;
+        if (VirtualThreadUtils.isSupported()) {
+            delegate = VirtualThreadUtils.newThreadPerTaskExecutor(namePrefix);
+        } else {
+            log.info("virtual threads are not supported by current JVM, fallback to platform thread pool");
+            delegate = newThreadPoolExecutor(namePrefix + "%d");
+        }
+        return new ConcurrencyLimitedExecutorService(delegate, maxConcurrency);
+    }
+
+    /**
+     * 创建自适应限制并发数量的多线程执行框架，使用 {@link GradientConcurrencyLimit} 算法，初始并发数量为:
+     * {@link #DEFAULT_INITIAL_LIMIT}，最大并发数量为: {@link #DEFAULT_MAX_CONCURRENCY}
+     *
+     * @param name 名字，每个下游服务一个，不能重复
+     * @return 自适应限制并发数量的多线程执行框架
+     * @see #buildAdaptiveExecutor(String, ConcurrencyLimit)
+     */
+    public static ExecutorEngine buildAdaptiveExecutor(String name) {
+        return buildAdaptiveExecutor(name, new GradientConcurrencyLimit(DEFAULT_INITIAL_LIMIT));
+    }
+
+    /**
+     * 创建自适应限制并发数量的多线程执行框架
+     * <ul>
+     * <li>根据执行单元的耗时和超时，使用 {@link ConcurrencyLimit} 动态调整并发限制
+     * <li>超过并发限制的时候直接抛出 {@link ExecuteRejectedException}，不排队，已经提交的任务会被取消
+     * <li>JVM 支持虚拟线程的时候每个任务一个虚拟线程，否则使用没有队列的平台线程池
+     * <li>通过 {@link AdaptiveConcurrencyLimitedExecutorService#get(String)} 获取并发限制和统计数据，{@link #close()} 之后注销
+     * </ul>
+     *
+     * @param name 名字，每个下游服务一个，不能重复
+     * @param concurrencyLimit 自适应并发限制算法
+     * @return 自适应限制并发数量的多线程执行框架
+     */
+    public static ExecutorEngine buildAdaptiveExecutor(String name, ConcurrencyLimit concurrencyLimit) {
+        String namePrefix = "ExecutorEngineAdaptive-" + name + "-";
+        ExecutorService delegate;
+        if (VirtualThreadUtils.isSupported()) {
+            delegate = VirtualThreadUtils.newThreadPerTaskExecutor(namePrefix);
+        } else {
+            ThreadFactory threadFactory = new ThreadFactoryBuilder().setDaemon(true)
+                    .setNameFormat(namePrefix + "%d")
+                    .build();
+            delegate = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    threadFactory);
+        }
+        return new ExecutorEngine(
+                new AdaptiveConcurrencyLimitedExecutorService(name, delegate, concurrencyLimit).register());
+    }
+
+    private static ThreadPoolExecutor newThreadPoolExecutor(String nameFormat) {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setDaemon(true).setNameFormat(nameFormat).build();
+        return new ThreadPoolExecutor(5, 200, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(1024),
+                threadFactory);
     }
 
     @Override
@@ -264,7 +376,256 @@ public class ExecutorEngine implements AutoCloseable {
     }
 
     /**
-     * 提交多线程任务.
+     * 多线程执行任务，尽力而为（best effort）模式：部分任务执行失败、超时的时候，不会抛出异常，返回执行成功的结果，以及每个执行失败、超时的入参和异常；
+     * 超时的任务会被取消（中断执行的线程）。适合分散-聚合（scatter-gather）的场景，慢的下游不会拖垮整个请求
+     *
+     * <pre>
+     * // Demo示例：每个下游最多 200 毫秒，整体最多 500 毫秒
+     * ExecuteResults&lt;Long, Price&gt; prices = executorEngine.executeBestEffort(skuIds, priceClient::get, 200L, 500L, null);
+     * prices.getResults().forEach(...);
+     * </pre>
+     *
+     * @param inputs 输入参数，需要是不重复的
+     * @param executeUnit 执行单元
+     * @param unitTimeout 单个执行单元的超时时间（可选参数），从提交任务开始计算
+     * @param timeout 所有任务的总超时时间（可选参数）
+     * @param timeUnit 超时时间单位（可选参数，默认使用 {@link TimeUnit#MILLISECONDS}）
+     * @param <I> 入参类型
+     * @param <O> 出参类型
+     * @return 执行结果
+     */
+    public <I, O> ExecuteResults<I, O> executeBestEffort(final Collection<I> inputs,
+                                                         final ExecuteUnit<I, O> executeUnit, Long unitTimeout,
+                                                         Long timeout, TimeUnit timeUnit) {
+        TimeUnit unit = (timeUnit != null ? timeUnit : TimeUnit.MILLISECONDS);
+        List<I> inputList = new ArrayList<>(inputs);
+        List<ListenableFuture<O>> futures = submitEach(inputList, executeUnit);
+        if (unitTimeout != null) {
+            futures.replaceAll(future -> withTimeout(future, unitTimeout, unit));
+        }
+        long deadline = (timeout != null ? System.nanoTime() + unit.toNanos(timeout) : 0L);
+        ExecuteResults<I, O> results = new ExecuteResults<>(inputList.size());
+        for (int i = 0; i < inputList.size(); i++) {
+            I input = inputList.get(i);
+            ListenableFuture<O> future = futures.get(i);
+            try {
+                O result = (timeout != null ? future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+                        : future.get());
+                results.addResult(input, result);
+            } catch (TimeoutException ex) {
+                AdaptiveConcurrencyLimitedExecutorService.cancelOnTimeout(future);
+                results.addFailure(input, new ExecuteTimeoutException("execute task times out, input: " + input, ex));
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                results.addFailure(input, (cause instanceof TimeoutException
+                        ? new ExecuteTimeoutException("execute task times out, input: " + input, cause)
+                        : cause));
+            } catch (CancellationException ex) {
+                results.addFailure(input, ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                futures.forEach(each -> each.cancel(true));
+                throw new ExecuteException("execute task is interrupted", ex);
+            }
+        }
+        return results;
+    }
+
+    private static <O> ListenableFuture<O> withTimeout(ListenableFuture<O> future, long timeout, TimeUnit unit) {
+        ListenableFuture<O> timeoutFuture = Futures.withTimeout(future, timeout, unit, TIMER_SCHEDULER);
+        // 超时的时候 timeoutFuture 先失败再取消原任务，在这里先把原任务标记为超时取消
+        timeoutFuture.addListener(() -> {
+            if (!future.isDone() && !timeoutFuture.isCancelled()) {
+                AdaptiveConcurrencyLimitedExecutorService.cancelOnTimeout(future);
+            }
+        }, MoreExecutors.directExecutor());
+        return timeoutFuture;
+    }
+
+    /**
+     * 多线程执行任务，尽力而为（best effort）模式，所有任务使用同一个超时时间
+     *
+     * @param inputs 输入参数，需要是不重复的
+     * @param executeUnit 执行单元
+     * @param timeout 超时时间（可选参数）
+     * @param timeUnit 超时时间单位（可选参数，默认使用 {@link TimeUnit#MILLISECONDS}）
+     * @param <I> 入参类型
+     * @param <O> 出参类型
+     * @return 执行结果
+     * @see #executeBestEffort(Collection, ExecuteUnit, Long, Long, TimeUnit)
+     */
+    public <I, O> ExecuteResults<I, O> executeBestEffort(final Collection<I> inputs,
+                                                         final ExecuteUnit<I, O> executeUnit, Long timeout,
+                                                         TimeUnit timeUnit) {
+        return executeBestEffort(inputs, executeUnit, null, timeout, timeUnit);
+    }
+
+    /**
+     * 多线程执行任务，使用对冲请求（hedged requests）降低长尾耗时：执行单元超过 {@link HedgePolicy} 观察到的 p95
+     * 耗时还没有完成的时候，在预算之内再执行一次，使用先完成的结果；执行单元需要是幂等的
+     *
+     * @param inputs 输入参数
+     * @param executeUnit 执行单元
+     * @param hedgePolicy 对冲请求策略，多次调用共享同一个策略
+     * @param timeout 执行超时时间（可选参数）
+     * @param timeUnit 执行超时时间单位（可选参数，如果设置了 timeout，没有设置 timeUnit，则默认使用
+     *            {@link TimeUnit#MILLISECONDS}）
+     * @param <I> 入参类型
+     * @param <O> 出参类型
+     * @return 执行结果，顺序和入参的顺序相同
+     */
+    public <I, O> List<O> executeHedged(final Collection<I> inputs, final ExecuteUnit<I, O> executeUnit,
+                                        final HedgePolicy hedgePolicy, Long timeout, TimeUnit timeUnit) {
+        List<ListenableFuture<O>> futures = new ArrayList<>(inputs.size());
+        try {
+            for (I each : inputs) {
+                futures.add(submitHedged(each, executeUnit, hedgePolicy));
+            }
+        } catch (ExecuteRejectedException ex) {
+            futures.forEach(each -> each.cancel(true));
+            throw ex;
+        }
+        ListenableFuture<List<O>> allFutures = Futures.allAsList(futures);
+        addCallback(allFutures);
+        return getFutureResults(allFutures, timeout, timeUnit);
+    }
+
+    /**
+     * 提交一个使用对冲请求的任务
+     * <ul>
+     * <li>超过对冲延迟时间还没有完成，并且有对冲预算的时候，再提交一次相同的任务
+     * <li>使用先执行成功的结果，并取消另一个任务；全部执行失败的时候，使用最后一个异常
+     * <li>取消返回的任务，会同时取消所有的请求
+     * </ul>
+     *
+     * @param input 执行入参
+     * @param executeUnit 执行单元
+     * @param hedgePolicy 对冲请求策略
+     * @param <I> 入参类型
+     * @param <O> 出参类型
+     * @return 执行结果
+     */
+    public <I, O> ListenableFuture<O> submitHedged(final I input, final ExecuteUnit<I, O> executeUnit,
+                                                   final HedgePolicy hedgePolicy) {
+        hedgePolicy.onRequest();
+        long start = System.nanoTime();
+        SettableFuture<O> result = SettableFuture.create();
+        // 还没有结束的请求数量，为 0 的时候说明全部执行失败
+        AtomicInteger pending = new AtomicInteger(1);
+        List<Future<?>> attempts = new CopyOnWriteArrayList<>();
+        ListenableFuture<O> primary = submit(() -> executeUnit.execute(input));
+        attempts.add(primary);
+        addHedgeCallback(primary, false, result, pending, hedgePolicy, start);
+        long delay = hedgePolicy.getHedgeDelayNanos();
+        if (delay >= 0) {
+            attempts.add(TIMER_SCHEDULER.schedule(() -> {
+                if (result.isDone() || !hedgePolicy.tryAcquireHedge()
+                        || pending.getAndUpdate(count -> (count > 0 ? count + 1 : count)) == 0) {
+                    return;
+                }
+                ListenableFuture<O> hedge;
+                try {
+                    hedge = submit(() -> executeUnit.execute(input));
+                } catch (ExecuteRejectedException ex) {
+                    // 超过并发限制的时候放弃对冲，继续等待第一个请求
+                    log.debug("hedged request is rejected", ex);
+                    if (pending.decrementAndGet() == 0) {
+                        result.setException(ex);
+                    }
+                    return;
+                }
+                attempts.add(hedge);
+                addHedgeCallback(hedge, true, result, pending, hedgePolicy, start);
+            }, delay, TimeUnit.NANOSECONDS));
+        }
+        result.addListener(() -> attempts.forEach(attempt -> attempt.cancel(true)), MoreExecutors.directExecutor());
+        return result;
+    }
+
+    private static <O> void addHedgeCallback(ListenableFuture<O> attempt, boolean hedge, SettableFuture<O> result,
+                                             AtomicInteger pending, HedgePolicy hedgePolicy, long start) {
+        Futures.addCallback(attempt, new FutureCallback<O>() {
+            @Override
+            public void onSuccess(O value) {
+                // 只记录第一个请求自己的耗时，对冲请求的耗时会让分位数越来越小
+                if (!hedge) {
+                    hedgePolicy.recordLatency(System.nanoTime() - start);
+                }
+                if (result.set(value) && hedge) {
+                    hedgePolicy.onHedgeWin();
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable thrown) {
+                if (!hedge && thrown instanceof CancellationException) {
+                    // 对冲请求先完成之后第一个请求被取消，已经花费的时间是它真实耗时的下限
+                    hedgePolicy.recordLatency(System.nanoTime() - start);
+                }
+                if (pending.decrementAndGet() == 0) {
+                    result.setException(thrown);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * 多线程执行任务，按完成的先后顺序处理执行结果，先完成的结果先处理，不需要等待最慢的任务
+     *
+     * <pre>
+     * // Demo示例
+     * executorEngine.executeInCompletionOrder(userIds, userService::findById, user -&gt; writer.write(user), 500L, null);
+     * </pre>
+     *
+     * @param inputs 输入参数
+     * @param executeUnit 执行单元
+     * @param consumer 处理单个执行结果，在调用方线程中执行；执行失败、超时的时候取消还没有执行完的任务
+     * @param timeout 执行超时时间（可选参数），所有任务的总超时时间
+     * @param timeUnit 执行超时时间单位（可选参数，如果设置了 timeout，没有设置 timeUnit，则默认使用
+     *            {@link TimeUnit#MILLISECONDS}）
+     * @param <I> 入参类型
+     * @param <O> 出参类型
+     */
+    public <I, O> void executeInCompletionOrder(final Collection<I> inputs, final ExecuteUnit<I, O> executeUnit,
+                                                final Consumer<? super O> consumer, Long timeout, TimeUnit timeUnit) {
+        List<ListenableFuture<O>> futures = submitInCompletionOrder(inputs, executeUnit);
+        long deadline = (timeout != null
+                ? System.nanoTime() + (timeUnit != null ? timeUnit : TimeUnit.MILLISECONDS).toNanos(timeout)
+                : 0L);
+        try {
+            for (ListenableFuture<O> future : futures) {
+                O result = (timeout != null
+                        ? getFutureResults(future, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+                        : getFutureResults(future, null, null));
+                consumer.accept(result);
+            }
+        } catch (RuntimeException ex) {
+            if (ex instanceof ExecuteTimeoutException) {
+                futures.forEach(AdaptiveConcurrencyLimitedExecutorService::cancelOnTimeout);
+            } else {
+                futures.forEach(future -> future.cancel(true));
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * 多线程执行任务，按完成的先后顺序处理执行结果
+     *
+     * @param inputs 输入参数
+     * @param executeUnit 执行单元
+     * @param consumer 处理单个执行结果，在调用方线程中执行
+     * @param <I> 入参类型
+     * @param <O> 出参类型
+     * @see #executeInCompletionOrder(Collection, ExecuteUnit, Consumer, Long, TimeUnit)
+     */
+    public <I, O> void executeInCompletionOrder(final Collection<I> inputs, final ExecuteUnit<I, O> executeUnit,
+                                                final Consumer<? super O> consumer) {
+        executeInCompletionOrder(inputs, executeUnit, consumer, null, null);
+    }
+
+    /**
+     * 提交多线程任务，执行结果的顺序和入参的顺序相同
      *
      * @param inputs 执行入参
      * @param executeUnit 执行单元
@@ -274,15 +635,50 @@ public class ExecutorEngine implements AutoCloseable {
      */
     public <I, O> ListenableFuture<List<O>> submitFutures(final Collection<I> inputs,
                                                           final ExecuteUnit<I, O> executeUnit) {
-        Set<ListenableFuture<O>> result = new HashSet<>(inputs.size());
-        for (final I each : inputs) {
-            result.add((ListenableFuture<O>) executorService.submit(() -> executeUnit.execute(each)));
+        return Futures.allAsList(submitEach(inputs, executeUnit));
+    }
+
+    /**
+     * 提交多线程任务，返回的任务按完成的先后顺序排列，先完成的任务排在前面
+     *
+     * @param inputs 执行入参
+     * @param executeUnit 执行单元
+     * @param <I> 入参类型
+     * @param <O> 最终结果类型
+     * @return 按完成顺序排列的多线程任务
+     * @see Futures#inCompletionOrder(Iterable)
+     */
+    public <I, O> List<ListenableFuture<O>> submitInCompletionOrder(final Collection<I> inputs,
+                                                                    final ExecuteUnit<I, O> executeUnit) {
+        return Futures.inCompletionOrder(submitEach(inputs, executeUnit));
+    }
+
+    /**
+     * 提交多线程任务，每个入参一个任务
+     *
+     * @param inputs 执行入参
+     * @param executeUnit 执行单元
+     * @param <I> 入参类型
+     * @param <O> 最终结果类型
+     * @return 和入参顺序相同的多线程任务
+     * @throws ExecuteRejectedException 超过并发限制，已经提交的任务会被取消
+     */
+    public <I, O> List<ListenableFuture<O>> submitEach(final Collection<I> inputs,
+                                                       final ExecuteUnit<I, O> executeUnit) {
+        List<ListenableFuture<O>> result = new ArrayList<>(inputs.size());
+        try {
+            for (final I each : inputs) {
+                result.add(submit(() -> executeUnit.execute(each)));
+            }
+        } catch (ExecuteRejectedException ex) {
+            result.forEach(future -> future.cancel(true));
+            throw ex;
         }
-        return Futures.allAsList(result);
+        return result;
     }
 
     /**
-     * 提交多线程任务.
+     * 提交多线程任务，执行结果的顺序和执行单元的顺序相同
      *
      * @param input 执行入参
      * @param executeUnits 多个执行单元
@@ -292,13 +688,27 @@ public class ExecutorEngine implements AutoCloseable {
      */
     public <I, O> ListenableFuture<List<O>> submitFutures(final I input,
                                                           final Collection<ExecuteUnit<I, O>> executeUnits) {
-        Set<ListenableFuture<O>> result = new HashSet<>(executeUnits.size());
-        for (ExecuteUnit<I, O> each : executeUnits) {
-            result.add((ListenableFuture<O>) executorService.submit(() -> each.execute(input)));
+        List<ListenableFuture<O>> result = new ArrayList<>(executeUnits.size());
+        try {
+            for (ExecuteUnit<I, O> each : executeUnits) {
+                result.add(submit(() -> each.execute(input)));
+            }
+        } catch (ExecuteRejectedException ex) {
+            result.forEach(future -> future.cancel(true));
+            throw ex;
         }
         return Futures.allAsList(result);
     }
 
+    @SuppressWarnings("unchecked")
+    private <O> ListenableFuture<O> submit(Callable<O> task) {
+        try {
+            return (ListenableFuture<O>) executorService.submit(task);
+        } catch (RejectedExecutionException ex) {
+            throw new ExecuteRejectedException("execute task is rejected", ex);
+        }
+    }
+
     /**
      * 为多线程任务添加回调监控
      *
@@ -316,11 +726,11 @@ public class ExecutorEngine implements AutoCloseable {
             public void onFailure(Throwable thrown) {
                 log.warn("Concurrent execute result failure", thrown);
             }
-        }, executorService);
+        }, MoreExecutors.directExecutor());
     }
 
     /**
-     * 获取多线程任务执行的最终结果
+     * 获取多线程任务执行的最终结果，执行失败、超时的时候取消还没有执行完的任务
      *
      * @param allFutures 多线程任务
      * @param timeout 执行超时时间（可选参数），因为是并发去执行，线程足够多的时候，全部执行下来，只需要花费单个执行的时间（无限接近）
@@ -339,9 +749,16 @@ public class ExecutorEngine implements AutoCloseable {
             }
             return allFutures.get();
         } catch (final InterruptedException | ExecutionException ex) {
+            // 结果已经不需要了，取消还没有执行完的任务
+            allFutures.cancel(true);
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             // 其它异常信息，使用自定义异常进行包装
             throw new ExecuteException("execute task throw exception", ex);
         } catch (TimeoutException ex) {
+            // 超时之后取消还没有执行完的任务，不再占用线程
+            AdaptiveConcurrencyLimitedExecutorService.cancelOnTimeout(allFutures);
             throw new ExecuteTimeoutException("execute task throw times out exception", ex);
         }
     }
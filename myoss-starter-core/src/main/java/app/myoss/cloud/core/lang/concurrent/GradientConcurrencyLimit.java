@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.lang.concurrent;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 梯度（gradient）并发限制算法：比较长期平均耗时和短期平均耗时，短期耗时变长说明下游开始排队，按比例缩小并发限制
+ * <ul>
+ * <li>短期平均耗时是最近 {@link #getShortWindow()} 个样本的移动平均，单个慢（或者快）的样本不会直接改变并发限制；耗时是
+ * 双峰分布（比如缓存命中和未命中）的时候，长期和短期的平均耗时都在两个峰之间，并发限制保持稳定
+ * <li>只有短期平均耗时明显低于长期平均耗时的时候，长期平均耗时才会快速回落
+ * <li>梯度 = {@link #getRttTolerance()} * 长期平均耗时 / 短期平均耗时，取值范围为: [0.5, 1]
+ * <li>新的并发限制 = 当前并发限制 * 梯度 + 排队数量（当前并发限制的平方根），再按 {@link #getSmoothing()} 平滑
+ * <li>执行单元被丢弃（超时、被取消）的时候，梯度为 0.5
+ * <li>并发数量不到限制的一半的时候，不增加并发限制，避免空闲的时候限制无限增长
+ * </ul>
+ * 不需要配置超时时间，适合耗时随负载变化的下游服务
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午11:53:07
+ */
+@Getter
+@Setter
+public class GradientConcurrencyLimit implements ConcurrencyLimit {
+    private static final double MAX_RTT_RATIO = 3D;
+
+    /**
+     * 最小的并发限制，默认为: 1
+     */
+    private int                 minLimit      = 1;
+    /**
+     * 最大的并发限制，默认为: {@link ExecutorEngine#DEFAULT_MAX_CONCURRENCY}
+     */
+    private int                 maxLimit      = ExecutorEngine.DEFAULT_MAX_CONCURRENCY;
+    /**
+     * 并发限制变化的平滑系数，取值范围为: (0, 1]，默认为: 0.2
+     */
+    private double              smoothing     = 0.2D;
+    /**
+     * 可以容忍的耗时变长倍数，当前耗时不超过长期平均耗时的这个倍数的时候不缩小并发限制，默认为: 1.5
+     */
+    private double              rttTolerance  = 1.5D;
+    /**
+     * 短期平均耗时的窗口大小（样本数量），默认为: 10
+     */
+    private int                 shortWindow   = 10;
+    /**
+     * 长期平均耗时的窗口大小（样本数量），默认为: 600
+     */
+    private int                 longWindow    = 600;
+    @Setter(AccessLevel.NONE)
+    private volatile int        limit;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private double              estimatedLimit;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long                samples;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private double              shortRtt;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private double              longRtt;
+
+    /**
+     * 创建梯度并发限制算法
+     *
+     * @param initialLimit 初始的并发限制
+     */
+    public GradientConcurrencyLimit(int initialLimit) {
+        if (initialLimit <= 0) {
+            throw new IllegalArgumentException("initialLimit must be greater than 0");
+        }
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        double gradient;
+        if (dropped) {
+            gradient = 0.5D;
+        } else {
+            double rtt = Math.max(1L, rttNanos);
+            // 样本数量不到窗口大小的时候使用算术平均，避免长期平均耗时被第一个样本带偏
+            samples++;
+            // 单个异常慢的样本最多按长期平均耗时的 MAX_RTT_RATIO 倍计入短期平均耗时，不会单独把梯度拉到最小
+            double sampleRtt = (samples > shortWindow ? Math.min(rtt, longRtt * MAX_RTT_RATIO) : rtt);
+            shortRtt += (sampleRtt - shortRtt) / Math.min(samples, shortWindow);
+            longRtt += (rtt - longRtt) / Math.min(samples, longWindow);
+            if (longRtt / shortRtt > 2D) {
+                // 下游从变慢中恢复之后（短期平均耗时明显变短），长期平均耗时很快地回落，避免并发限制长时间偏大
+                longRtt = longRtt * 0.95D;
+            }
+            if (inFlight * 2 < estimatedLimit) {
+                return;
+            }
+            gradient = Math.max(0.5D, Math.min(1D, rttTolerance * longRtt / shortRtt));
+        }
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1D - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.min(maxLimit, Math.max(minLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 对冲请求（hedged requests）策略：一个执行单元超过观察到的 p95 耗时还没有完成的时候，再执行一次相同的请求，使用先完成的结果
+ * <ul>
+ * <li>对冲的延迟时间：最近 {@link #getSampleSize()} 次执行耗时的 {@link #getPercentile()} 分位数，不小于
+ * {@link #getMinDelay()}；样本数量少于 {@link #getMinSamples()} 的时候不对冲
+ * <li>对冲预算：令牌桶，每个请求增加 {@link #getBudgetPercent()}% 个令牌，每次对冲消耗 1 个令牌，下游整体变慢的时候对冲的请求不会超过预算，
+ * 避免放大下游的压力
+ * <li>统计：请求数量、对冲数量、对冲胜出（对冲的请求先完成）的数量、因为预算不足放弃的对冲数量
+ * </ul>
+ * 对冲会重复执行请求，执行单元需要是幂等的；同一个策略可以在多个 {@link ExecutorEngine} 调用之间共享，用于积累耗时样本
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午11:12:36
+ * @see ExecutorEngine#executeHedged(java.util.Collection, ExecuteUnit, HedgePolicy, Long, TimeUnit)
+ */
+@Getter
+@Setter
+public class HedgePolicy {
+    private static final long TOKEN_SCALE    = 1000L;
+
+    /**
+     * 对冲延迟时间使用的分位数，默认为: 0.95
+     */
+    private double            percentile     = 0.95D;
+    /**
+     * 最小的对冲延迟时间，默认为: 5毫秒
+     */
+    private Duration          minDelay       = Duration.ofMillis(5);
+    /**
+     * 开始对冲之前最少需要的耗时样本数量，默认为: 100
+     */
+    private int               minSamples     = 100;
+    /**
+     * 对冲预算，对冲的请求最多占全部请求的百分比，默认为: 10
+     */
+    private int               budgetPercent  = 10;
+    /**
+     * 对冲预算最多累积的令牌数量，也是短时间内最多可以对冲的请求数量，默认为: 10
+     */
+    private int               maxBurst       = 10;
+    /**
+     * 保留最近多少次的耗时样本，创建之后修改无效
+     */
+    @Setter(AccessLevel.NONE)
+    private final int         sampleSize;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final long[]      samples;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long              sampleCount;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile long     delayNanos     = -1L;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong  tokens         = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder   requests       = new LongAdder();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder   hedges         = new LongAdder();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder   hedgeWins      = new LongAdder();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder   budgetRejected = new LongAdder();
+
+    /**
+     * 创建对冲请求策略，保留最近 1024 次的耗时样本
+     */
+    public HedgePolicy() {
+        this(1024);
+    }
+
+    /**
+     * 创建对冲请求策略
+     *
+     * @param sampleSize 保留最近多少次的耗时样本
+     */
+    public HedgePolicy(int sampleSize) {
+        if (sampleSize <= 0) {
+            throw new IllegalArgumentException("sampleSize must be greater than 0");
+        }
+        this.sampleSize = sampleSize;
+        this.samples = new long[sampleSize];
+    }
+
+    /**
+     * 记录一次请求，增加对冲预算
+     */
+    public void onRequest() {
+        requests.increment();
+        long deposit = TOKEN_SCALE * budgetPercent / 100;
+        long max = TOKEN_SCALE * maxBurst;
+        tokens.getAndUpdate(current -> Math.min(max, current + deposit));
+    }
+
+    /**
+     * 记录一次请求（第一个请求，不包括对冲的请求）的耗时，用于计算对冲的延迟时间；第一个请求被取消的时候记录已经花费的时间
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public synchronized void recordLatency(long nanos) {
+        samples[(int) (sampleCount % sampleSize)] = nanos;
+        sampleCount++;
+        // 不需要每次都重新计算分位数，样本变化 1/16 的时候再计算
+        if (sampleCount >= minSamples && (delayNanos < 0 || sampleCount % Math.max(1, sampleSize / 16) == 0)) {
+            int size = (int) Math.min(sampleCount, sampleSize);
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(size - 1, Math.max(0, Math.ceil(size * percentile) - 1));
+            delayNanos = sorted[index];
+        }
+    }
+
+    /**
+     * 当前的对冲延迟时间
+     *
+     * @return 对冲延迟时间（纳秒），样本数量不够的时候返回 -1，不对冲
+     */
+    public long getHedgeDelayNanos() {
+        long delay = delayNanos;
+        return (delay < 0 ? -1L : Math.max(delay, minDelay.toNanos()));
+    }
+
+    /**
+     * 尝试获取一次对冲的预算
+     *
+     * @return true: 可以对冲；false: 预算不足，放弃对冲
+     */
+    public boolean tryAcquireHedge() {
+        while (true) {
+            long current = tokens.get();
+            if (current < TOKEN_SCALE) {
+                budgetRejected.increment();
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - TOKEN_SCALE)) {
+                hedges.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 记录一次对冲的请求先完成
+     */
+    public void onHedgeWin() {
+        hedgeWins.increment();
+    }
+
+    /**
+     * 请求数量
+     *
+     * @return 请求数量
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * 对冲的请求数量
+     *
+     * @return 对冲的请求数量
+     */
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    /**
+     * 对冲的请求先完成的数量
+     *
+     * @return 对冲胜出的数量
+     */
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * 因为预算不足放弃的对冲数量
+     *
+     * @return 放弃的对冲数量
+     */
+    public long getBudgetRejectedCount() {
+        return budgetRejected.sum();
+    }
+
+    /**
+     * 对冲率：对冲的请求数量 / 请求数量
+     *
+     * @return 对冲率
+     */
+    public double getHedgeRate() {
+        long requestCount = getRequestCount();
+        return (requestCount == 0 ? 0D : (double) getHedgeCount() / requestCount);
+    }
+
+    /**
+     * 对冲胜率：对冲胜出的数量 / 对冲的请求数量
+     *
+     * @return 对冲胜率
+     */
+    public double getHedgeWinRate() {
+        long hedgeCount = getHedgeCount();
+        return (hedgeCount == 0 ? 0D : (double) getHedgeWinCount() / hedgeCount);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.lang.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 虚拟线程工具类，项目使用 Java 8 编译，通过反射调用 JDK 21+ 的虚拟线程 API；运行时的 JVM 不支持虚拟线程的时候
+ * {@link #isSupported()} 返回 false
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午10:02:41
+ */
+@Slf4j
+public class VirtualThreadUtils {
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            // JDK 19/20 中虚拟线程是预览特性，没有开启 --enable-preview 的时候调用会抛出异常
+            ofVirtual.invoke(null);
+        } catch (Throwable ex) {
+            log.debug("virtual threads are not supported by current JVM: {}", ex.toString());
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    /**
+     * 当前运行的 JVM 是否支持虚拟线程
+     *
+     * @return true: 支持虚拟线程
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * 创建虚拟线程的 ThreadFactory
+     *
+     * @param namePrefix 线程名字的前缀，后面跟着从 0 开始的序号
+     * @return 虚拟线程的 ThreadFactory
+     * @throws UnsupportedOperationException 当前 JVM 不支持虚拟线程
+     */
+    public static ThreadFactory newThreadFactory(String namePrefix) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("virtual threads are not supported by current JVM");
+        }
+        try {
+            Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException ex) {
+            throw new UnsupportedOperationException("create virtual thread factory failed", ex);
+        }
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的 ExecutorService，没有线程数量和队列长度的限制
+     *
+     * @param namePrefix 线程名字的前缀，后面跟着从 0 开始的序号
+     * @return 每个任务一个虚拟线程的 ExecutorService
+     * @throws UnsupportedOperationException 当前 JVM 不支持虚拟线程
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        ThreadFactory threadFactory = newThreadFactory(namePrefix);
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException ex) {
+            throw new UnsupportedOperationException("create virtual thread executor failed", ex);
+        }
+    }
+}
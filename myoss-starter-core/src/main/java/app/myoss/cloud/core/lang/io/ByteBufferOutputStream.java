@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.lang.io;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 写入到 {@link ByteBuffer} 中的 OutputStream，不会额外复制一份数据；ByteBuffer 剩余的空间不够的时候抛出
+ * {@link java.nio.BufferOverflowException}
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午9:31:48
+ */
+public class ByteBufferOutputStream extends OutputStream {
+    private final ByteBuffer buffer;
+
+    /**
+     * 创建写入到 {@link ByteBuffer} 中的 OutputStream
+     *
+     * @param buffer 写入的目标，从当前的 position 开始写入
+     */
+    public ByteBufferOutputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int b) {
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        buffer.put(bytes, offset, length);
+    }
+}
@@ -17,9 +17,21 @@
 
 package app.myoss.cloud.core.lang.serializer;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import app.myoss.cloud.core.lang.io.ByteBufferInputStream;
+import app.myoss.cloud.core.lang.io.ByteBufferOutputStream;
+
 /**
  * Basic interface serialization and deserialization of Objects to byte arrays
  * (binary data).
+ * <p>
+ * 流和 {@link ByteBuffer} 的方法默认通过 byte[] 的方法实现，实现类可以覆盖流的方法，直接写入/读取流，不再生成中间的 byte[]；
+ * {@link ByteBuffer} 的方法默认使用流的方法实现
  *
  * @param <T> 泛型
  * @author Jerry.Chen
@@ -43,4 +55,71 @@ public interface Serialization<T> {
      * @throws SerializationException deserialization exception
      */
     T deserialize(byte[] bytes) throws SerializationException;
+
+    /**
+     * Serialize the given object to the given OutputStream, leaves the stream
+     * open when done.
+     *
+     * @param t object to serialize
+     * @param outputStream the stream to write to
+     * @throws SerializationException serialization exception
+     */
+    default void serialize(T t, OutputStream outputStream) throws SerializationException {
+        byte[] bytes = serialize(t);
+        if (bytes == null) {
+            return;
+        }
+        try {
+            outputStream.write(bytes);
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot serialize", ex);
+        }
+    }
+
+    /**
+     * Serialize the given object to the given ByteBuffer, starting at its
+     * current position.
+     *
+     * @param t object to serialize
+     * @param buffer the buffer to write to
+     * @throws SerializationException serialization exception
+     * @throws java.nio.BufferOverflowException if there is insufficient space
+     *             remaining in the buffer
+     */
+    default void serialize(T t, ByteBuffer buffer) throws SerializationException {
+        serialize(t, new ByteBufferOutputStream(buffer));
+    }
+
+    /**
+     * Deserialize an object from the given InputStream, reads the stream to
+     * the end and leaves it open when done.
+     *
+     * @param inputStream the stream to read from
+     * @return the equivalent object instance
+     * @throws SerializationException deserialization exception
+     */
+    default T deserialize(InputStream inputStream) throws SerializationException {
+        try {
+            byte[] buffer = new byte[4096];
+            ByteArrayOutputStream out = new ByteArrayOutputStream(buffer.length);
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return deserialize(out.toByteArray());
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot deserialize", ex);
+        }
+    }
+
+    /**
+     * Deserialize an object from the remaining bytes of the given ByteBuffer.
+     *
+     * @param buffer the buffer to read from
+     * @return the equivalent object instance
+     * @throws SerializationException deserialization exception
+     */
+    default T deserialize(ByteBuffer buffer) throws SerializationException {
+        return deserialize(new ByteBufferInputStream(buffer));
+    }
 }
@@ -0,0 +1,970 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.lang.serializer.impl;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import org.springframework.objenesis.Objenesis;
+import org.springframework.objenesis.SpringObjenesis;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import app.myoss.cloud.core.lang.serializer.Serialization;
+import app.myoss.cloud.core.lang.serializer.SerializationException;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 紧凑的二进制序列化，不需要定义 schema，比 {@link JdkSerialization} 更快、结果更小
+ * <ul>
+ * <li>基础类型、String、日期、集合、Map、数组、枚举使用固定的类型标记，数字使用变长编码
+ * <li>普通对象通过反射按照字段的顺序写入，不写字段名；类名在同一次序列化中只写一次，使用 {@link #register(Class)}
+ * 注册过的类只写一个编号（两端需要按照相同的顺序注册）
+ * <li>有 writeObject / readObject / writeReplace / readResolve 的 {@link Serializable} 类、无法按照字段还原的集合（比如
+ * {@code Collections.unmodifiableList}），使用 Java 序列化写入，保证还原的结果和原来一致
+ * <li>同一个对象在对象图中只写一次，支持循环引用
+ * <li>序列化使用线程本地的可复用缓冲区，结果超过 {@link #getCompressThreshold()} 的时候使用 {@link Deflater} 压缩
+ * <li>序列化到流中的时候直接写出缓冲区，从堆内的 {@link ByteBuffer} 反序列化的时候直接读取底层的数组，都不会复制数据
+ * </ul>
+ * 字段变化之后（增加、删除、修改类型）无法反序列化之前的数据，适合用于缓存，不适合用于长期保存的数据；线程安全
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午8:31:09
+ */
+public class BinarySerialization implements Serialization<Object> {
+    /**
+     * 默认的压缩阈值：4KB
+     */
+    public static final int                      DEFAULT_COMPRESS_THRESHOLD = 4096;
+    private static final int                     MAX_POOLED_BUFFER_SIZE     = 1024 * 1024;
+    private static final byte                    FLAG_NONE                  = 0;
+    private static final byte                    FLAG_COMPRESSED            = 1;
+
+    private static final byte                    NULL                       = 0;
+    private static final byte                    REFERENCE                  = 1;
+    private static final byte                    TRUE                       = 2;
+    private static final byte                    FALSE                      = 3;
+    private static final byte                    BYTE                       = 4;
+    private static final byte                    SHORT                      = 5;
+    private static final byte                    CHAR                       = 6;
+    private static final byte                    INT                        = 7;
+    private static final byte                    LONG                       = 8;
+    private static final byte                    FLOAT                      = 9;
+    private static final byte                    DOUBLE                     = 10;
+    private static final byte                    STRING                     = 11;
+    private static final byte                    BYTE_ARRAY                 = 12;
+    private static final byte                    ENUM                       = 13;
+    private static final byte                    COLLECTION                 = 14;
+    private static final byte                    MAP                        = 15;
+    private static final byte                    ARRAY                      = 16;
+    private static final byte                    DATE                       = 17;
+    private static final byte                    BIG_DECIMAL                = 18;
+    private static final byte                    BIG_INTEGER                = 19;
+    private static final byte                    UUID_TYPE                  = 20;
+    private static final byte                    JAVA                       = 21;
+    private static final byte                    OBJECT                     = 22;
+
+    private static final Objenesis               OBJENESIS                  = new SpringObjenesis();
+    private static final Map<String, Class<?>>   PRIMITIVE_TYPES            = new HashMap<>();
+    private static final Set<String>             SERIALIZATION_HOOKS        = new HashSet<>(
+            Arrays.asList("writeObject", "readObject", "writeReplace", "readResolve"));
+
+    static {
+        for (Class<?> type : Arrays.asList(boolean.class, byte.class, short.class, char.class, int.class,
+                long.class, float.class, double.class, void.class)) {
+            PRIMITIVE_TYPES.put(type.getName(), type);
+        }
+    }
+
+    private final Map<Class<?>, Integer>         registeredIds              = new ConcurrentHashMap<>();
+    private final Map<Integer, Class<?>>         registeredClasses          = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ClassInfo>       classInfos                 = new ConcurrentHashMap<>();
+    private final JdkSerialization               jdkSerialization           = new JdkSerialization();
+    private final ThreadLocal<Buffer>            bufferPool                 = ThreadLocal.withInitial(Buffer::new);
+    /**
+     * 序列化之后超过这个大小（字节）的时候进行压缩，小于等于 0 的时候不压缩
+     */
+    @Getter
+    @Setter
+    private int                                  compressThreshold          = DEFAULT_COMPRESS_THRESHOLD;
+    /**
+     * 反序列化的时候加载类使用的 ClassLoader
+     */
+    @Getter
+    @Setter
+    private ClassLoader                          classLoader                = ClassUtils.getDefaultClassLoader();
+
+    /**
+     * 注册类，使用下一个可用的编号；序列化和反序列化的两端需要按照相同的顺序注册
+     *
+     * @param type 类
+     * @return 当前对象
+     */
+    public synchronized BinarySerialization register(Class<?> type) {
+        int id = 0;
+        while (registeredClasses.containsKey(id)) {
+            id++;
+        }
+        return register(type, id);
+    }
+
+    /**
+     * 使用指定的编号注册类
+     *
+     * @param type 类
+     * @param id 编号，大于等于 0
+     * @return 当前对象
+     */
+    public synchronized BinarySerialization register(Class<?> type, int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("id must be >= 0");
+        }
+        Class<?> existing = registeredClasses.get(id);
+        if (existing != null && existing != type) {
+            throw new IllegalArgumentException("id " + id + " is already registered by " + existing.getName());
+        }
+        registeredIds.put(type, id);
+        registeredClasses.put(id, type);
+        return this;
+    }
+
+    @Override
+    public byte[] serialize(Object object) {
+        if (object == null) {
+            return JdkSerialization.EMPTY_ARRAY;
+        }
+        return writeWithBuffer(object, buffer -> (isCompressible(buffer) ? compress(buffer)
+                : Arrays.copyOf(buffer.bytes, buffer.position)));
+    }
+
+    /**
+     * 序列化到流中，直接写出线程本地的缓冲区，需要压缩的时候边压缩边写出，不生成中间的 byte[]
+     */
+    @Override
+    public void serialize(Object object, OutputStream outputStream) {
+        if (object == null) {
+            return;
+        }
+        writeWithBuffer(object, buffer -> {
+            if (isCompressible(buffer)) {
+                compress(buffer, outputStream);
+            } else {
+                outputStream.write(buffer.bytes, 0, buffer.position);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (JdkSerialization.isEmpty(bytes)) {
+            return null;
+        }
+        return deserialize(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 从 ByteBuffer 中反序列化，堆内的 ByteBuffer 直接读取底层的数组，不复制数据；读取之后 position 移动到 limit
+     */
+    @Override
+    public Object deserialize(ByteBuffer buffer) {
+        if (!buffer.hasArray()) {
+            return Serialization.super.deserialize(buffer);
+        }
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+        int offset = buffer.arrayOffset() + buffer.position();
+        Object result = deserialize(buffer.array(), offset, buffer.arrayOffset() + buffer.limit());
+        buffer.position(buffer.limit());
+        return result;
+    }
+
+    private Object deserialize(byte[] bytes, int offset, int limit) {
+        try {
+            Buffer buffer;
+            if (bytes[offset] == FLAG_COMPRESSED) {
+                buffer = decompress(bytes, offset + 1, limit);
+            } else if (bytes[offset] == FLAG_NONE) {
+                buffer = new Buffer(bytes, offset + 1, limit);
+            } else {
+                throw new SerializationException("Unknown format flag: " + bytes[offset]);
+            }
+            return new Reader(buffer).readObject();
+        } catch (SerializationException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new SerializationException("Cannot deserialize", ex);
+        }
+    }
+
+    private <R> R writeWithBuffer(Object object, BufferHandler<R> handler) {
+        Buffer buffer = bufferPool.get();
+        if (buffer.inUse) {
+            // 在序列化的过程中又调用了序列化（比如 writeObject 中），使用新的缓冲区
+            buffer = new Buffer();
+        }
+        buffer.inUse = true;
+        try {
+            buffer.position = 0;
+            buffer.writeByte(FLAG_NONE);
+            new Writer(buffer).writeObject(object);
+            return handler.handle(buffer);
+        } catch (SerializationException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new SerializationException("Cannot serialize", ex);
+        } finally {
+            buffer.inUse = false;
+            if (buffer.bytes.length > MAX_POOLED_BUFFER_SIZE) {
+                bufferPool.remove();
+            }
+        }
+    }
+
+    private boolean isCompressible(Buffer buffer) {
+        return compressThreshold > 0 && buffer.position > compressThreshold;
+    }
+
+    private void compress(Buffer buffer, OutputStream outputStream) throws IOException {
+        Buffer header = new Buffer(new byte[6], 0, 6);
+        header.writeByte(FLAG_COMPRESSED);
+        header.writeVarInt(buffer.position - 1);
+        outputStream.write(header.bytes, 0, header.position);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            DeflaterOutputStream deflaterStream = new DeflaterOutputStream(outputStream, deflater);
+            deflaterStream.write(buffer.bytes, 1, buffer.position - 1);
+            // 不能关闭调用方的流，只结束压缩
+            deflaterStream.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] compress(Buffer buffer) {
+        int length = buffer.position - 1;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(buffer.bytes, 1, length);
+            deflater.finish();
+            Buffer output = new Buffer();
+            output.writeByte(FLAG_COMPRESSED);
+            output.writeVarInt(length);
+            while (!deflater.finished()) {
+                output.ensureCapacity(Math.max(length / 4, 64));
+                output.position += deflater.deflate(output.bytes, output.position,
+                        output.bytes.length - output.position);
+            }
+            return Arrays.copyOf(output.bytes, output.position);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private Buffer decompress(byte[] bytes, int offset, int limit) throws DataFormatException {
+        Buffer input = new Buffer(bytes, offset, limit);
+        int length = input.readVarInt();
+        if (length < 0) {
+            throw new SerializationException("Malformed compressed length: " + length);
+        }
+        byte[] result = new byte[length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, input.position, limit - input.position);
+            int inflated = 0;
+            while (inflated < length && !inflater.finished()) {
+                int count = inflater.inflate(result, inflated, length - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("Truncated compressed data");
+                }
+                inflated += count;
+            }
+        } finally {
+            inflater.end();
+        }
+        return new Buffer(result, 0, length);
+    }
+
+    private ClassInfo getClassInfo(Class<?> type) {
+        return classInfos.computeIfAbsent(type, ClassInfo::new);
+    }
+
+    private Class<?> loadClass(String name) throws ClassNotFoundException {
+        Class<?> type = PRIMITIVE_TYPES.get(name);
+        return (type != null ? type : ClassUtils.forName(name, classLoader));
+    }
+
+    /**
+     * 使用序列化之后的缓冲区
+     *
+     * @param <R> 返回值的泛型
+     */
+    @FunctionalInterface
+    private interface BufferHandler<R> {
+        R handle(Buffer buffer) throws Exception;
+    }
+
+    /**
+     * 类的反射信息
+     */
+    private static class ClassInfo {
+        private final Class<?>       type;
+        private final Constructor<?> constructor;
+        /**
+         * 是否需要使用 Java 序列化才能正确还原
+         */
+        private final boolean        javaSerialization;
+        /**
+         * 按照字段写入的时候才需要，延迟初始化，避免对 JDK 内部的类进行反射
+         */
+        private volatile Field[]     fields;
+
+        ClassInfo(Class<?> type) {
+            this.type = type;
+            this.constructor = getAccessibleConstructor(type);
+            this.javaSerialization = Serializable.class.isAssignableFrom(type)
+                    && (Externalizable.class.isAssignableFrom(type) || hasSerializationHook(type));
+        }
+
+        Field[] getFields() {
+            Field[] result = fields;
+            if (result == null) {
+                List<Field> list = new ArrayList<>();
+                for (Class<?> current : getHierarchy(type)) {
+                    Field[] declaredFields = current.getDeclaredFields();
+                    Arrays.sort(declaredFields, Comparator.comparing(Field::getName));
+                    for (Field field : declaredFields) {
+                        int modifiers = field.getModifiers();
+                        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                            continue;
+                        }
+                        ReflectionUtils.makeAccessible(field);
+                        list.add(field);
+                    }
+                }
+                result = list.toArray(new Field[0]);
+                fields = result;
+            }
+            return result;
+        }
+
+        private static List<Class<?>> getHierarchy(Class<?> type) {
+            List<Class<?>> hierarchy = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current
+                    .getSuperclass()) {
+                hierarchy.add(0, current);
+            }
+            return hierarchy;
+        }
+
+        private static Constructor<?> getAccessibleConstructor(Class<?> type) {
+            Constructor<?> constructor = ClassUtils.getConstructorIfAvailable(type);
+            if (constructor == null) {
+                return null;
+            }
+            try {
+                ReflectionUtils.makeAccessible(constructor);
+                return constructor;
+            } catch (RuntimeException ex) {
+                return null;
+            }
+        }
+
+        private static boolean hasSerializationHook(Class<?> type) {
+            for (Class<?> current : getHierarchy(type)) {
+                for (Method method : current.getDeclaredMethods()) {
+                    if (!Modifier.isStatic(method.getModifiers()) && SERIALIZATION_HOOKS.contains(method.getName())
+                            && method.getParameterCount() <= 1) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 可以复用的字节缓冲区
+     */
+    private static class Buffer {
+        private byte[]  bytes;
+        private int     position;
+        /**
+         * 读取的时候数据的结束位置
+         */
+        private int     limit;
+        private boolean inUse;
+
+        Buffer() {
+            this(new byte[1024], 0, 0);
+        }
+
+        Buffer(byte[] bytes, int position, int limit) {
+            this.bytes = bytes;
+            this.position = position;
+            this.limit = limit;
+        }
+
+        void ensureCapacity(int count) {
+            if (position + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + count));
+            }
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[position++] = (byte) value;
+        }
+
+        void writeBytes(byte[] value) {
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, bytes, position, value.length);
+            position += value.length;
+        }
+
+        void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[position++] = (byte) value;
+        }
+
+        void writeZigZagInt(int value) {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        void writeZigZagLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeFixedLong(long value) {
+            ensureCapacity(8);
+            for (int i = 56; i >= 0; i -= 8) {
+                bytes[position++] = (byte) (value >>> i);
+            }
+        }
+
+        void writeString(String value) {
+            int length = value.length();
+            boolean ascii = true;
+            for (int i = 0; i < length && ascii; i++) {
+                ascii = value.charAt(i) < 0x80;
+            }
+            if (ascii) {
+                writeVarInt(length << 1);
+                ensureCapacity(length);
+                for (int i = 0; i < length; i++) {
+                    bytes[position++] = (byte) value.charAt(i);
+                }
+            } else {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt((utf8.length << 1) | 1);
+                writeBytes(utf8);
+            }
+        }
+
+        byte readByte() {
+            if (position >= limit) {
+                throw new SerializationException("Unexpected end of data");
+            }
+            return bytes[position++];
+        }
+
+        byte[] readBytes(int length) {
+            if (length < 0 || position + length > limit) {
+                throw new SerializationException("Unexpected end of data");
+            }
+            byte[] result = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return result;
+        }
+
+        int readVarInt() {
+            int result = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = readByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new SerializationException("Malformed varint");
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new SerializationException("Malformed varlong");
+        }
+
+        int readZigZagInt() {
+            int value = readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readZigZagLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readFixedLong() {
+            long result = 0;
+            for (int i = 0; i < 8; i++) {
+                result = (result << 8) | (readByte() & 0xFF);
+            }
+            return result;
+        }
+
+        String readString() {
+            int header = readVarInt();
+            int length = header >>> 1;
+            if (length > limit - position) {
+                throw new SerializationException("Unexpected end of data");
+            }
+            String result = new String(bytes, position, length,
+                    (header & 1) == 0 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+            position += length;
+            return result;
+        }
+    }
+
+    /**
+     * 一次序列化的状态：已经写过的对象和类
+     */
+    private class Writer {
+        private final Buffer                        buffer;
+        private final IdentityHashMap<Object, Integer> references = new IdentityHashMap<>();
+        private final Map<Class<?>, Integer>        classes    = new HashMap<>();
+
+        Writer(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void writeObject(Object value) throws Exception {
+            if (value == null) {
+                buffer.writeByte(NULL);
+                return;
+            }
+            Class<?> type = value.getClass();
+            if (type == String.class) {
+                buffer.writeByte(STRING);
+                buffer.writeString((String) value);
+            } else if (type == Integer.class) {
+                buffer.writeByte(INT);
+                buffer.writeZigZagInt((Integer) value);
+            } else if (type == Long.class) {
+                buffer.writeByte(LONG);
+                buffer.writeZigZagLong((Long) value);
+            } else if (type == Boolean.class) {
+                buffer.writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (type == Double.class) {
+                buffer.writeByte(DOUBLE);
+                buffer.writeFixedLong(Double.doubleToLongBits((Double) value));
+            } else if (type == Float.class) {
+                buffer.writeByte(FLOAT);
+                buffer.writeVarInt(Float.floatToIntBits((Float) value));
+            } else if (type == Short.class) {
+                buffer.writeByte(SHORT);
+                buffer.writeZigZagInt((Short) value);
+            } else if (type == Byte.class) {
+                buffer.writeByte(BYTE);
+                buffer.writeByte((Byte) value);
+            } else if (type == Character.class) {
+                buffer.writeByte(CHAR);
+                buffer.writeVarInt((Character) value);
+            } else if (type == byte[].class) {
+                buffer.writeByte(BYTE_ARRAY);
+                buffer.writeVarInt(((byte[]) value).length);
+                buffer.writeBytes((byte[]) value);
+            } else if (type == Date.class) {
+                buffer.writeByte(DATE);
+                buffer.writeZigZagLong(((Date) value).getTime());
+            } else if (type == BigDecimal.class) {
+                buffer.writeByte(BIG_DECIMAL);
+                buffer.writeString(value.toString());
+            } else if (type == BigInteger.class) {
+                buffer.writeByte(BIG_INTEGER);
+                buffer.writeString(value.toString());
+            } else if (type == UUID.class) {
+                buffer.writeByte(UUID_TYPE);
+                buffer.writeFixedLong(((UUID) value).getMostSignificantBits());
+                buffer.writeFixedLong(((UUID) value).getLeastSignificantBits());
+            } else if (value instanceof Enum) {
+                buffer.writeByte(ENUM);
+                writeClass(((Enum<?>) value).getDeclaringClass());
+                buffer.writeString(((Enum<?>) value).name());
+            } else if (!writeReference(value)) {
+                writeTrackedObject(value, type);
+            }
+        }
+
+        private boolean writeReference(Object value) {
+            Integer index = references.get(value);
+            if (index == null) {
+                references.put(value, references.size());
+                return false;
+            }
+            buffer.writeByte(REFERENCE);
+            buffer.writeVarInt(index);
+            return true;
+        }
+
+        private void writeTrackedObject(Object value, Class<?> type) throws Exception {
+            if (type.isArray()) {
+                buffer.writeByte(ARRAY);
+                writeClass(type.getComponentType());
+                int length = Array.getLength(value);
+                buffer.writeVarInt(length);
+                for (int i = 0; i < length; i++) {
+                    writeObject(Array.get(value, i));
+                }
+                return;
+            }
+            ClassInfo classInfo = getClassInfo(type);
+            if (value instanceof Collection && isRebuildable(value, classInfo)) {
+                buffer.writeByte(COLLECTION);
+                writeClass(type);
+                Collection<?> collection = (Collection<?>) value;
+                buffer.writeVarInt(collection.size());
+                for (Object element : collection) {
+                    writeObject(element);
+                }
+            } else if (value instanceof Map && isRebuildable(value, classInfo)) {
+                buffer.writeByte(MAP);
+                writeClass(type);
+                Map<?, ?> map = (Map<?, ?>) value;
+                buffer.writeVarInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeObject(entry.getKey());
+                    writeObject(entry.getValue());
+                }
+            } else if (value instanceof Serializable && (classInfo.javaSerialization || value instanceof Collection
+                    || value instanceof Map || type.getName().startsWith("java."))) {
+                buffer.writeByte(JAVA);
+                byte[] bytes = jdkSerialization.serialize(value);
+                buffer.writeVarInt(bytes.length);
+                buffer.writeBytes(bytes);
+            } else {
+                buffer.writeByte(OBJECT);
+                writeClass(type);
+                for (Field field : classInfo.getFields()) {
+                    writeField(value, field);
+                }
+            }
+        }
+
+        private boolean isRebuildable(Object value, ClassInfo classInfo) {
+            if (classInfo.constructor == null) {
+                return false;
+            }
+            // 使用了自定义比较器的有序集合，无法通过无参构造函数还原
+            if (value instanceof SortedSet) {
+                return ((SortedSet<?>) value).comparator() == null;
+            }
+            if (value instanceof SortedMap) {
+                return ((SortedMap<?, ?>) value).comparator() == null;
+            }
+            return true;
+        }
+
+        private void writeField(Object target, Field field) throws Exception {
+            Class<?> type = field.getType();
+            if (!type.isPrimitive()) {
+                writeObject(field.get(target));
+            } else if (type == int.class) {
+                buffer.writeZigZagInt(field.getInt(target));
+            } else if (type == long.class) {
+                buffer.writeZigZagLong(field.getLong(target));
+            } else if (type == boolean.class) {
+                buffer.writeByte(field.getBoolean(target) ? 1 : 0);
+            } else if (type == double.class) {
+                buffer.writeFixedLong(Double.doubleToLongBits(field.getDouble(target)));
+            } else if (type == float.class) {
+                buffer.writeVarInt(Float.floatToIntBits(field.getFloat(target)));
+            } else if (type == short.class) {
+                buffer.writeZigZagInt(field.getShort(target));
+            } else if (type == byte.class) {
+                buffer.writeByte(field.getByte(target));
+            } else {
+                buffer.writeVarInt(field.getChar(target));
+            }
+        }
+
+        /**
+         * 写入类：0 + 类名（第一次出现），奇数为注册的编号，大于 0 的偶数为本次序列化中已经出现过的类的序号
+         */
+        private void writeClass(Class<?> type) {
+            Integer id = registeredIds.get(type);
+            if (id != null) {
+                buffer.writeVarInt((id << 1) | 1);
+                return;
+            }
+            Integer index = classes.get(type);
+            if (index != null) {
+                buffer.writeVarInt((index + 1) << 1);
+                return;
+            }
+            classes.put(type, classes.size());
+            buffer.writeVarInt(0);
+            buffer.writeString(type.getName());
+        }
+    }
+
+    /**
+     * 一次反序列化的状态：已经读过的对象和类
+     */
+    private class Reader {
+        private final Buffer         buffer;
+        private final List<Object>   references = new ArrayList<>();
+        private final List<Class<?>> classes    = new ArrayList<>();
+
+        Reader(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        Object readObject() throws Exception {
+            byte tag = buffer.readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case REFERENCE:
+                    return references.get(buffer.readVarInt());
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case BYTE:
+                    return buffer.readByte();
+                case SHORT:
+                    return (short) buffer.readZigZagInt();
+                case CHAR:
+                    return (char) buffer.readVarInt();
+                case INT:
+                    return buffer.readZigZagInt();
+                case LONG:
+                    return buffer.readZigZagLong();
+                case FLOAT:
+                    return Float.intBitsToFloat(buffer.readVarInt());
+                case DOUBLE:
+                    return Double.longBitsToDouble(buffer.readFixedLong());
+                case STRING:
+                    return buffer.readString();
+                case BYTE_ARRAY:
+                    return buffer.readBytes(buffer.readVarInt());
+                case DATE:
+                    return new Date(buffer.readZigZagLong());
+                case BIG_DECIMAL:
+                    return new BigDecimal(buffer.readString());
+                case BIG_INTEGER:
+                    return new BigInteger(buffer.readString());
+                case UUID_TYPE:
+                    return new UUID(buffer.readFixedLong(), buffer.readFixedLong());
+                case ENUM:
+                    return readEnum();
+                case ARRAY:
+                    return readArray();
+                case COLLECTION:
+                    return readCollection();
+                case MAP:
+                    return readMap();
+                case JAVA:
+                    return readJavaObject();
+                case OBJECT:
+                    return readPlainObject();
+                default:
+                    throw new SerializationException("Unknown type tag: " + tag);
+            }
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private Object readEnum() throws ClassNotFoundException {
+            Class type = readClass();
+            return Enum.valueOf(type, buffer.readString());
+        }
+
+        private Object readArray() throws Exception {
+            Class<?> componentType = readClass();
+            int length = buffer.readVarInt();
+            Object array = Array.newInstance(componentType, length);
+            references.add(array);
+            for (int i = 0; i < length; i++) {
+                Array.set(array, i, readObject());
+            }
+            return array;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object readCollection() throws Exception {
+            Class<?> type = readClass();
+            int size = buffer.readVarInt();
+            Collection<Object> collection = (Collection<Object>) newContainer(type);
+            if (collection == null) {
+                collection = (SortedSet.class.isAssignableFrom(type) ? new TreeSet<>()
+                        : Set.class.isAssignableFrom(type) ? new LinkedHashSet<>()
+                                : Queue.class.isAssignableFrom(type) ? new ArrayDeque<>() : new ArrayList<>(size));
+            }
+            references.add(collection);
+            for (int i = 0; i < size; i++) {
+                collection.add(readObject());
+            }
+            return collection;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object readMap() throws Exception {
+            Class<?> type = readClass();
+            int size = buffer.readVarInt();
+            Map<Object, Object> map = (Map<Object, Object>) newContainer(type);
+            if (map == null) {
+                map = (SortedMap.class.isAssignableFrom(type) ? new TreeMap<>() : new LinkedHashMap<>());
+            }
+            references.add(map);
+            for (int i = 0; i < size; i++) {
+                Object key = readObject();
+                map.put(key, readObject());
+            }
+            return map;
+        }
+
+        private Object newContainer(Class<?> type) {
+            Constructor<?> constructor = getClassInfo(type).constructor;
+            if (constructor == null) {
+                return null;
+            }
+            try {
+                return constructor.newInstance();
+            } catch (Exception ex) {
+                return null;
+            }
+        }
+
+        private Object readPlainObject() throws Exception {
+            Class<?> type = readClass();
+            Object value = OBJENESIS.newInstance(type);
+            references.add(value);
+            for (Field field : getClassInfo(type).getFields()) {
+                readField(value, field);
+            }
+            return value;
+        }
+
+        private void readField(Object target, Field field) throws Exception {
+            Class<?> type = field.getType();
+            if (!type.isPrimitive()) {
+                field.set(target, readObject());
+            } else if (type == int.class) {
+                field.setInt(target, buffer.readZigZagInt());
+            } else if (type == long.class) {
+                field.setLong(target, buffer.readZigZagLong());
+            } else if (type == boolean.class) {
+                field.setBoolean(target, buffer.readByte() != 0);
+            } else if (type == double.class) {
+                field.setDouble(target, Double.longBitsToDouble(buffer.readFixedLong()));
+            } else if (type == float.class) {
+                field.setFloat(target, Float.intBitsToFloat(buffer.readVarInt()));
+            } else if (type == short.class) {
+                field.setShort(target, (short) buffer.readZigZagInt());
+            } else if (type == byte.class) {
+                field.setByte(target, buffer.readByte());
+            } else {
+                field.setChar(target, (char) buffer.readVarInt());
+            }
+        }
+
+        private Object readJavaObject() {
+            // 先占用引用的序号，和写入的时候保持一致
+            int index = references.size();
+            references.add(null);
+            Object value = jdkSerialization.deserialize(buffer.readBytes(buffer.readVarInt()));
+            references.set(index, value);
+            return value;
+        }
+
+        private Class<?> readClass() throws ClassNotFoundException {
+            int code = buffer.readVarInt();
+            if ((code & 1) == 1) {
+                Class<?> type = registeredClasses.get(code >>> 1);
+                if (type == null) {
+                    throw new SerializationException("Unregistered class id: " + (code >>> 1));
+                }
+                return type;
+            }
+            if (code != 0) {
+                return classes.get((code >>> 1) - 1);
+            }
+            Class<?> type = loadClass(buffer.readString());
+            classes.add(type);
+            return type;
+        }
+    }
+}
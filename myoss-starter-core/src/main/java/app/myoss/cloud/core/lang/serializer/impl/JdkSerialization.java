@@ -17,7 +17,14 @@
 
 package app.myoss.cloud.core.lang.serializer.impl;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
 import org.springframework.core.serializer.support.DeserializingConverter;
 import org.springframework.core.serializer.support.SerializingConverter;
 
@@ -26,14 +33,18 @@ import app.myoss.cloud.core.lang.serializer.SerializationException;
 
 /**
  * Java Serialization, Generic Object to byte[] (and back) serializer
+ * <p>
+ * 流的方法直接使用 {@link java.io.ObjectOutputStream} / {@link java.io.ObjectInputStream} 读写调用方的流，不生成中间的 byte[]
  *
  * @author Jerry.Chen
  * @since 2018年5月25日 下午4:52:33
  */
 public class JdkSerialization implements Serialization<Object> {
-    private Converter<Object, byte[]> serializer   = new SerializingConverter();
-    private Converter<byte[], Object> deserializer = new DeserializingConverter();
-    static final byte[]               EMPTY_ARRAY  = new byte[0];
+    private Converter<Object, byte[]> serializer         = new SerializingConverter();
+    private Converter<byte[], Object> deserializer       = new DeserializingConverter();
+    private DefaultSerializer         streamSerializer   = new DefaultSerializer();
+    private DefaultDeserializer       streamDeserializer = new DefaultDeserializer();
+    static final byte[]               EMPTY_ARRAY        = new byte[0];
 
     static boolean isEmpty(byte[] data) {
         return data == null || data.length == 0;
@@ -62,4 +73,32 @@ public class JdkSerialization implements Serialization<Object> {
             throw new SerializationException("Cannot deserialize", ex);
         }
     }
+
+    @Override
+    public void serialize(Object object, OutputStream outputStream) {
+        if (object == null) {
+            return;
+        }
+        try {
+            streamSerializer.serialize(object, outputStream);
+        } catch (Exception ex) {
+            throw new SerializationException("Cannot serialize", ex);
+        }
+    }
+
+    @Override
+    public Object deserialize(InputStream inputStream) {
+        try {
+            // 空的流和空的 byte[] 一样，返回 null
+            PushbackInputStream pushbackStream = new PushbackInputStream(inputStream, 1);
+            int first = pushbackStream.read();
+            if (first == -1) {
+                return null;
+            }
+            pushbackStream.unread(first);
+            return streamDeserializer.deserialize(pushbackStream);
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot deserialize", ex);
+        }
+    }
 }
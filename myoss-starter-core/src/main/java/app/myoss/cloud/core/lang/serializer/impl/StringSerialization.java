@@ -17,11 +17,28 @@
 
 package app.myoss.cloud.core.lang.serializer.impl;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
 import app.myoss.cloud.core.constants.MyossConstants;
 import app.myoss.cloud.core.lang.serializer.Serialization;
+import app.myoss.cloud.core.lang.serializer.SerializationException;
 
 /**
  * String Serialization, Generic String to byte[] (and back) serializer
+ * <p>
+ * 流和 {@link ByteBuffer} 的方法直接编码/解码，不生成中间的 byte[]
  *
  * @author Jerry.Chen
  * @since 2018年5月25日 下午4:52:33
@@ -36,4 +53,58 @@ public class StringSerialization implements Serialization<String> {
     public String deserialize(byte[] bytes) {
         return (bytes != null ? new String(bytes, MyossConstants.DEFAULT_CHARSET) : null);
     }
+
+    @Override
+    public void serialize(String s, OutputStream outputStream) {
+        if (s == null) {
+            return;
+        }
+        try {
+            Writer writer = new OutputStreamWriter(outputStream, MyossConstants.DEFAULT_CHARSET);
+            writer.write(s);
+            // 不能关闭调用方的流，只把编码器中的数据写出
+            writer.flush();
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot serialize", ex);
+        }
+    }
+
+    @Override
+    public void serialize(String s, ByteBuffer buffer) {
+        if (s == null) {
+            return;
+        }
+        // 和 String.getBytes 一样替换无法编码的字符（比如单独的代理字符），不能截断
+        CharsetEncoder encoder = MyossConstants.DEFAULT_CHARSET.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CoderResult result = encoder.encode(CharBuffer.wrap(s), buffer, true);
+        if (!result.isOverflow()) {
+            result = encoder.flush(buffer);
+        }
+        if (result.isOverflow()) {
+            throw new BufferOverflowException();
+        }
+    }
+
+    @Override
+    public String deserialize(InputStream inputStream) {
+        StringBuilder builder = new StringBuilder();
+        char[] chars = new char[4096];
+        try {
+            Reader reader = new InputStreamReader(inputStream, MyossConstants.DEFAULT_CHARSET);
+            int count;
+            while ((count = reader.read(chars)) != -1) {
+                builder.append(chars, 0, count);
+            }
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot deserialize", ex);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String deserialize(ByteBuffer buffer) {
+        return MyossConstants.DEFAULT_CHARSET.decode(buffer).toString();
+    }
 }
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
@@ -32,6 +33,7 @@ import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.slf4j.MDC;
 import org.springframework.boot.test.system.OutputCaptureRule;
 import org.springframework.util.ClassUtils;
 
@@ -226,4 +228,225 @@ public class ExecutorEngineTest {
         log.info("总耗时: {}, 总共运行: {}次, 平均耗时: {}", totalCostTime, runCount, avgCostTime);
         assertThat(avgCostTime).isLessThan(sleepTime.intValue() + 100);
     }
+
+    @Test
+    public void executeVirtualThreadTest() {
+        ExecutorEngine executorEngine = ExecutorEngine.buildVirtualThreadExecutor(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> inputs = Lists.newArrayList(1, 2, 3, 4, 5, 6);
+        MDC.put("traceId", "virtual-thread-test");
+        try {
+            List<String> execute = executorEngine.execute(inputs, input -> {
+                int current = running.incrementAndGet();
+                maxRunning.accumulateAndGet(current, Math::max);
+                Thread.sleep(50L);
+                running.decrementAndGet();
+                return MDC.get("traceId") + "-" + input;
+            });
+            assertThat(execute).hasSize(6).allMatch(value -> value.startsWith("virtual-thread-test-"));
+        } finally {
+            MDC.remove("traceId");
+        }
+        log.info("virtual threads supported: {}, max running: {}", VirtualThreadUtils.isSupported(), maxRunning.get());
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executeResultOrderTest() {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(5));
+        List<Integer> inputs = Lists.newArrayList(5, 4, 3, 2, 1);
+        List<Integer> execute = executorEngine.execute(inputs, input -> {
+            // 入参越大，执行越慢，执行结果仍然按入参的顺序返回
+            Thread.sleep(input * 20L);
+            return input * 10;
+        });
+        assertThat(execute).containsExactly(50, 40, 30, 20, 10);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executeInCompletionOrderTest() {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(5));
+        List<Integer> inputs = Lists.newArrayList(5, 4, 3, 2, 1);
+        List<Integer> results = new ArrayList<>();
+        executorEngine.executeInCompletionOrder(inputs, input -> {
+            Thread.sleep(input * 100L);
+            return input;
+        }, results::add, 2000L, TimeUnit.MILLISECONDS);
+        assertThat(results).containsExactly(1, 2, 3, 4, 5);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executeBestEffortTest() {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(5));
+        List<Integer> inputs = Lists.newArrayList(1, 2, 3, 4);
+        ExecuteResults<Integer, Integer> results = executorEngine.executeBestEffort(inputs, input -> {
+            if (input == 2) {
+                throw new BizRuntimeException("ba la ba la");
+            }
+            if (input == 4) {
+                // 超过单个任务的超时时间
+                Thread.sleep(2000L);
+            }
+            return input * 10;
+        }, 200L, 1000L, TimeUnit.MILLISECONDS);
+        assertThat(results.isAllSuccess()).isFalse();
+        assertThat(results.getResultList()).containsExactly(10, 30);
+        assertThat(results.getFailures().get(2)).isInstanceOf(BizRuntimeException.class);
+        assertThat(results.getTimeoutInputs()).containsExactly(4);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executeTimeoutCancelTest() throws InterruptedException {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(3));
+        List<Integer> inputs = Lists.newArrayList(1, 2, 3);
+        AtomicInteger interrupted = new AtomicInteger();
+        try {
+            executorEngine.execute(inputs, input -> {
+                try {
+                    Thread.sleep(input == 1 ? 0L : 2000L);
+                } catch (InterruptedException ex) {
+                    interrupted.incrementAndGet();
+                    throw ex;
+                }
+                return input;
+            }, 200L, TimeUnit.MILLISECONDS);
+        } catch (ExecuteTimeoutException ex) {
+            log.info("execute times out", ex);
+        }
+        // 超时之后，还没有执行完的任务会被取消（中断）
+        int retry = 0;
+        while (interrupted.get() < 2 && retry++ < 20) {
+            Thread.sleep(50L);
+        }
+        assertThat(interrupted.get()).isEqualTo(2);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executeHedgedTest() {
+        ExecutorEngine executorEngine = new ExecutorEngine(Executors.newFixedThreadPool(10));
+        HedgePolicy hedgePolicy = new HedgePolicy(64);
+        hedgePolicy.setMinSamples(20);
+        // 积累耗时样本，p95 大约为 10 毫秒
+        List<Integer> warmUp = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            warmUp.add(i);
+        }
+        executorEngine.executeHedged(warmUp, input -> {
+            Thread.sleep(10L);
+            return input;
+        }, hedgePolicy, null, null);
+        assertThat(hedgePolicy.getHedgeDelayNanos()).isGreaterThan(0L);
+
+        // 第一次执行很慢，对冲的请求先完成
+        AtomicInteger attempts = new AtomicInteger();
+        long start = System.currentTimeMillis();
+        List<Integer> execute = executorEngine.executeHedged(Lists.newArrayList(100), input -> {
+            if (attempts.incrementAndGet() == 1) {
+                Thread.sleep(2000L);
+            }
+            return input;
+        }, hedgePolicy, 1000L, TimeUnit.MILLISECONDS);
+        long costTime = System.currentTimeMillis() - start;
+        log.info("hedge rate: {}, hedge win rate: {}, cost time: {}", hedgePolicy.getHedgeRate(),
+                hedgePolicy.getHedgeWinRate(), costTime);
+        assertThat(execute).containsExactly(100);
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(hedgePolicy.getHedgeWinCount()).isGreaterThanOrEqualTo(1L);
+        assertThat(costTime).isLessThan(1000L);
+        executorEngine.close();
+    }
+
+    @Test
+    public void executeAdaptiveRejectTest() throws InterruptedException {
+        AimdConcurrencyLimit concurrencyLimit = new AimdConcurrencyLimit(2);
+        concurrencyLimit.setMaxLimit(2);
+        ExecutorEngine executorEngine = ExecutorEngine.buildAdaptiveExecutor("test-reject", concurrencyLimit);
+        AdaptiveConcurrencyLimitedExecutorService executorService = AdaptiveConcurrencyLimitedExecutorService
+                .get("test-reject");
+        assertThat(executorService).isNotNull();
+
+        // 超过并发限制的时候直接拒绝，不排队，已经提交的任务被取消
+        long start = System.currentTimeMillis();
+        try {
+            executorEngine.execute(Lists.newArrayList(1, 2, 3), input -> {
+                Thread.sleep(2000L);
+                return input;
+            });
+            throw new AssertionError("should be rejected");
+        } catch (ExecuteRejectedException ex) {
+            log.info("execute is rejected", ex);
+        }
+        assertThat(System.currentTimeMillis() - start).isLessThan(1000L);
+        assertThat(executorService.getRejectedCount()).isEqualTo(1L);
+        int retry = 0;
+        while (executorService.getInFlight() > 0 && retry++ < 20) {
+            Thread.sleep(50L);
+        }
+        // 回滚取消的任务不是下游过载的信号，不调整并发限制
+        assertThat(executorService.getInFlight()).isEqualTo(0);
+        assertThat(executorService.getDroppedCount()).isEqualTo(0L);
+        assertThat(executorService.getLimit()).isEqualTo(2);
+
+        // 超时取消的任务说明下游已经过载，缩小并发限制
+        try {
+            executorEngine.execute(Lists.newArrayList(1, 2), input -> {
+                Thread.sleep(2000L);
+                return input;
+            }, 200L, TimeUnit.MILLISECONDS);
+            throw new AssertionError("should be timeout");
+        } catch (ExecuteTimeoutException ex) {
+            log.info("execute times out", ex);
+        }
+        retry = 0;
+        while (executorService.getInFlight() > 0 && retry++ < 20) {
+            Thread.sleep(50L);
+        }
+        assertThat(executorService.getInFlight()).isEqualTo(0);
+        assertThat(executorService.getDroppedCount()).isEqualTo(2L);
+        assertThat(executorService.getLimit()).isEqualTo(1);
+
+        List<Integer> execute = executorEngine
+                .getFutureResults(executorEngine.submitFutures(Lists.newArrayList(1), input -> input + 1), null, null);
+        assertThat(execute).containsExactly(2);
+        assertThat(executorService.getAcceptedCount()).isEqualTo(5L);
+        executorEngine.close();
+        retry = 0;
+        while (AdaptiveConcurrencyLimitedExecutorService.get("test-reject") != null && retry++ < 20) {
+            Thread.sleep(50L);
+        }
+        assertThat(AdaptiveConcurrencyLimitedExecutorService.get("test-reject")).isNull();
+    }
+
+    @Test
+    public void adaptiveConcurrencyLimitTest() {
+        AimdConcurrencyLimit aimdLimit = new AimdConcurrencyLimit(10);
+        long fast = TimeUnit.MILLISECONDS.toNanos(10);
+        aimdLimit.onSample(fast, 10, false);
+        assertThat(aimdLimit.getLimit()).isEqualTo(11);
+        // 并发数量不到限制的一半，不增加
+        aimdLimit.onSample(fast, 1, false);
+        assertThat(aimdLimit.getLimit()).isEqualTo(11);
+        aimdLimit.onSample(fast, 11, true);
+        assertThat(aimdLimit.getLimit()).isEqualTo(9);
+
+        GradientConcurrencyLimit gradientLimit = new GradientConcurrencyLimit(20);
+        for (int i = 0; i < 100; i++) {
+            gradientLimit.onSample(fast, gradientLimit.getLimit(), false);
+        }
+        int maxLimit = gradientLimit.getLimit();
+        assertThat(maxLimit).isGreaterThan(20);
+        // 下游变慢，耗时变为 10 倍，缩小并发限制
+        long slow = TimeUnit.MILLISECONDS.toNanos(100);
+        for (int i = 0; i < 50; i++) {
+            gradientLimit.onSample(slow, gradientLimit.getLimit(), false);
+        }
+        log.info("gradient limit: {} -> {}", maxLimit, gradientLimit.getLimit());
+        assertThat(gradientLimit.getLimit()).isLessThan(maxLimit / 4).isGreaterThanOrEqualTo(1);
+    }
 }
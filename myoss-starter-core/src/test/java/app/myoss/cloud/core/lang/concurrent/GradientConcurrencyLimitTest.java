@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.lang.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * {@link GradientConcurrencyLimit} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午11:58:26
+ */
+public class GradientConcurrencyLimitTest {
+    private static final long FAST_RTT = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW_RTT = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static GradientConcurrencyLimit warmUp(long rttNanos) {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20);
+        for (int i = 0; i < 1000; i++) {
+            limit.onSample(rttNanos, limit.getLimit(), false);
+        }
+        return limit;
+    }
+
+    @Test
+    public void bimodalLatencyKeepsLimitStableTest() {
+        // 一半缓存命中（1毫秒），一半缓存未命中（100毫秒），下游没有过载
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20);
+        Random random = new Random(42);
+        int minLimit = Integer.MAX_VALUE;
+        for (int i = 0; i < 10000; i++) {
+            limit.onSample(random.nextBoolean() ? FAST_RTT : SLOW_RTT, limit.getLimit(), false);
+            minLimit = Math.min(minLimit, limit.getLimit());
+        }
+        assertThat(minLimit).isGreaterThanOrEqualTo(20);
+        assertThat(limit.getLimit()).isEqualTo(limit.getMaxLimit());
+    }
+
+    @Test
+    public void singleOutlierKeepsLimitTest() {
+        GradientConcurrencyLimit limit = warmUp(TimeUnit.MILLISECONDS.toNanos(10));
+        int before = limit.getLimit();
+        limit.onSample(TimeUnit.SECONDS.toNanos(1), limit.getLimit(), false);
+        assertThat(limit.getLimit()).isEqualTo(before);
+    }
+
+    @Test
+    public void overloadShrinksLimitTest() {
+        GradientConcurrencyLimit limit = warmUp(TimeUnit.MILLISECONDS.toNanos(10));
+        int before = limit.getLimit();
+        for (int i = 0; i < 30; i++) {
+            limit.onSample(TimeUnit.MILLISECONDS.toNanos(40), limit.getLimit(), false);
+        }
+        assertThat(limit.getLimit()).isLessThan(before / 2);
+    }
+
+    @Test
+    public void droppedShrinksLimitTest() {
+        GradientConcurrencyLimit limit = warmUp(TimeUnit.MILLISECONDS.toNanos(10));
+        int before = limit.getLimit();
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), limit.getLimit(), true);
+        assertThat(limit.getLimit()).isLessThan(before);
+    }
+}
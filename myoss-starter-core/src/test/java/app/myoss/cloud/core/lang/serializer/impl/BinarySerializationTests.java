@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.lang.serializer.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link BinarySerialization} 测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午9:02:37
+ */
+@Slf4j
+public class BinarySerializationTests {
+    private final BinarySerialization serialization = new BinarySerialization();
+
+    private static User buildUser() {
+        User user = new User();
+        user.setId(10086L);
+        user.setName("中文name");
+        user.setAge(18);
+        user.setEnabled(true);
+        user.setScore(99.5D);
+        user.setStatus(Status.ENABLED);
+        user.setCreateTime(new Date());
+        user.setBalance(new BigDecimal("123.456"));
+        user.setTags(new ArrayList<>(Arrays.asList("a", null, "c")));
+        user.setAttributes(new HashMap<>());
+        user.getAttributes().put("uuid", UUID.randomUUID());
+        user.getAttributes().put("codes", new TreeSet<>(Arrays.asList(3, 1, 2)));
+        user.setScores(new int[] { 1, -2, 3 });
+        return user;
+    }
+
+    @Test
+    public void serializeNullTest() {
+        assertEquals(0, serialization.serialize(null).length);
+        assertNull(serialization.deserialize(new byte[0]));
+        assertNull(serialization.deserialize((byte[]) null));
+    }
+
+    @Test
+    public void serializeObjectTest() {
+        User user = buildUser();
+        User actual = (User) serialization.deserialize(serialization.serialize(user));
+        assertEquals(user, actual);
+        assertArrayEquals(user.getScores(), actual.getScores());
+        assertNull(actual.getPassword());
+    }
+
+    @Test
+    public void serializeBuiltinTypesTest() {
+        List<Object> values = Arrays.asList("abc", "中文", 1, -1L, Long.MAX_VALUE, 1.5D, 2.5F, true, 'c', (short) 3,
+                (byte) 4, new BigDecimal("-1.23"), UUID.randomUUID(), Status.DISABLED, new Date());
+        for (Object value : values) {
+            assertEquals(value, serialization.deserialize(serialization.serialize(value)));
+        }
+        assertArrayEquals(new byte[] { 1, 2, 3 },
+                (byte[]) serialization.deserialize(serialization.serialize(new byte[] { 1, 2, 3 })));
+    }
+
+    @Test
+    public void serializeCircularReferenceTest() {
+        User user = buildUser();
+        user.setParent(user);
+        user.getAttributes().put("self", user);
+        User actual = (User) serialization.deserialize(serialization.serialize(user));
+        assertSame(actual, actual.getParent());
+        assertSame(actual, actual.getAttributes().get("self"));
+    }
+
+    @Test
+    public void serializeJavaSerializableTest() {
+        // 有 readResolve 的类使用 Java 序列化，保证还原之后还是单例
+        List<Object> emptyList = Collections.emptyList();
+        assertSame(emptyList, serialization.deserialize(serialization.serialize(emptyList)));
+        List<Integer> list = Collections.unmodifiableList(Arrays.asList(1, 2));
+        Object actual = serialization.deserialize(serialization.serialize(list));
+        assertEquals(list, actual);
+        assertSame(list.getClass(), actual.getClass());
+    }
+
+    @Test
+    public void serializeCompressTest() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("compress-中文-");
+        }
+        String value = builder.toString();
+        byte[] bytes = serialization.serialize(value);
+        log.info("before compress length: {}, after compress length: {}", value.length(), bytes.length);
+        assertTrue(bytes.length < value.length());
+        assertEquals(value, serialization.deserialize(bytes));
+    }
+
+    @Test
+    public void serializeRegisteredClassTest() {
+        BinarySerialization registered = new BinarySerialization().register(User.class).register(Status.class);
+        User user = buildUser();
+        byte[] bytes = registered.serialize(user);
+        assertTrue(bytes.length < serialization.serialize(user).length);
+        assertEquals(user, registered.deserialize(bytes));
+    }
+
+    @Test
+    public void compareWithJdkSerializationTest() {
+        JdkSerialization jdkSerialization = new JdkSerialization();
+        User user = buildUser();
+        byte[] binaryBytes = serialization.serialize(user);
+        byte[] jdkBytes = jdkSerialization.serialize(user);
+        assertTrue(binaryBytes.length < jdkBytes.length);
+        log.info("binary length: {}, jdk length: {}", binaryBytes.length, jdkBytes.length);
+    }
+
+    public enum Status {
+        ENABLED,
+        DISABLED
+    }
+
+    @Data
+    public static class User implements Serializable {
+        private static final long   serialVersionUID = 1L;
+        private Long                id;
+        private String              name;
+        private int                 age;
+        private boolean             enabled;
+        private double              score;
+        private Status              status;
+        private Date                createTime;
+        private BigDecimal          balance;
+        private List<String>        tags;
+        private Map<String, Object> attributes;
+        private int[]               scores;
+        private transient String    password         = "secret";
+        @EqualsAndHashCode.Exclude
+        @ToString.Exclude
+        private User                parent;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018-2018 https://github.com/myoss
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package app.myoss.cloud.core.lang.serializer.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import app.myoss.cloud.core.lang.serializer.Serialization;
+
+/**
+ * {@link Serialization} 流和 {@link ByteBuffer} 方法的测试类
+ *
+ * @author Jerry.Chen
+ * @since 2026年10月17日 下午9:48:12
+ */
+public class SerializationStreamTests {
+    private static List<String> buildValue() {
+        List<String> value = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            value.add("stream-中文-" + i);
+        }
+        return value;
+    }
+
+    private static <T> void assertStreamSerialization(Serialization<T> serialization, T value) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        serialization.serialize(value, outputStream);
+        assertEquals(value, serialization.deserialize(new ByteArrayInputStream(outputStream.toByteArray())));
+        assertEquals(value, serialization.deserialize(serialization.serialize(value)));
+
+        for (ByteBuffer buffer : Arrays.asList(ByteBuffer.allocate(65536), ByteBuffer.allocateDirect(65536))) {
+            serialization.serialize(value, buffer);
+            buffer.flip();
+            assertEquals(value, serialization.deserialize(buffer));
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void jdkSerializationTest() {
+        JdkSerialization serialization = new JdkSerialization();
+        assertStreamSerialization(serialization, buildValue());
+        assertNull(serialization.deserialize(new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    public void stringSerializationTest() {
+        StringSerialization serialization = new StringSerialization();
+        assertStreamSerialization(serialization, String.join(",", buildValue()));
+
+        // 单独的代理字符和 byte[] 的结果一样被替换，不能截断
+        String value = "a\uD800b";
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        serialization.serialize(value, buffer);
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertArrayEquals(serialization.serialize(value), bytes);
+    }
+
+    @Test
+    public void binarySerializationTest() {
+        BinarySerialization serialization = new BinarySerialization();
+        assertStreamSerialization(serialization, buildValue());
+        assertNull(serialization.deserialize(ByteBuffer.allocate(0)));
+
+        // 超过压缩阈值的时候，流和 byte[] 的结果一致
+        serialization.setCompressThreshold(64);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        serialization.serialize(buildValue(), outputStream);
+        assertArrayEquals(serialization.serialize(buildValue()), outputStream.toByteArray());
+        assertStreamSerialization(serialization, buildValue());
+    }
+}